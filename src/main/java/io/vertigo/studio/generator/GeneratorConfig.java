@@ -121,4 +121,8 @@ public final class GeneratorConfig {
 		return properties.containsKey(key) ? Boolean.parseBoolean(properties.getProperty(key)) : defaultValue;
 	}
 
+	public int getOrDefaultAsInt(final String key, final int defaultValue) {
+		return properties.containsKey(key) ? Integer.parseInt(properties.getProperty(key).trim()) : defaultValue;
+	}
+
 }
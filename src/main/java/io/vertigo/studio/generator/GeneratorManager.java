@@ -17,8 +17,13 @@
  */
 package io.vertigo.studio.generator;
 
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
 import io.vertigo.core.node.component.Manager;
 import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.SketchKey;
 
 /**
  * This class generates files in any text format.
@@ -27,10 +32,48 @@ import io.vertigo.studio.notebook.Notebook;
 public interface GeneratorManager extends Manager {
 	/**
 	 * Generates the files.
+	 * The produced files are listed in the manifest of the targetGenDir, read by a next sync to find the orphans.
 	 * @return the result
 	 */
 	GeneratorResult generate(Notebook notebook, GeneratorConfig generatorConfig);
 
+	/**
+	 * Generates the files until the generation is cancelled.
+	 * The cancellation is checked before each file : the files already written are complete and the manifest is not written.
+	 * @param cancelled tells if the generation has been cancelled
+	 * @return the result
+	 * @throws CancellationException if the generation has been cancelled
+	 */
+	GeneratorResult generate(Notebook notebook, GeneratorConfig generatorConfig, BooleanSupplier cancelled);
+
+	/**
+	 * Generates the files in place, without cleaning the gen directory first.
+	 * Unchanged files are left untouched and only the files produced by the previous generation
+	 * that are no longer produced (orphans) are deleted.
+	 * The produced files are listed with their content digest in a manifest stored in the targetGenDir.
+	 * @return the result (deleted files are the orphans)
+	 */
+	GeneratorResult sync(Notebook notebook, GeneratorConfig generatorConfig);
+
+	/**
+	 * Generates the files in place after a change of some sketches of the notebook.
+	 * The generation is incremental : only the files whose inputs reach a changed sketch are rendered again.
+	 * If no sketch has changed, nothing is generated.
+	 * @param changedSketchKeys the keys of the sketches created, replaced or removed since the previous generation
+	 * @return the result (deleted files are the orphans)
+	 */
+	GeneratorResult sync(Notebook notebook, GeneratorConfig generatorConfig, Set<SketchKey> changedSketchKeys);
+
+	/**
+	 * Generates the files in place after a change of some sketches of the notebook, until the generation is cancelled.
+	 * The cancellation is checked before each file : the files already written are complete, no orphan is deleted and the manifest is not written.
+	 * @param changedSketchKeys the keys of the sketches created, replaced or removed since the previous generation
+	 * @param cancelled tells if the generation has been cancelled
+	 * @return the result (deleted files are the orphans)
+	 * @throws CancellationException if the generation has been cancelled
+	 */
+	GeneratorResult sync(Notebook notebook, GeneratorConfig generatorConfig, Set<SketchKey> changedSketchKeys, BooleanSupplier cancelled);
+
 	/**
 	 * Clean the gen directory
 	 * @return the result
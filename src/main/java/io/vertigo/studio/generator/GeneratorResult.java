@@ -32,7 +32,22 @@ public record GeneratorResult(
 		int errorFiles,
 		int identicalFiles,
 		int deletedFiles,
-		long durationMillis) {
+		long durationMillis,
+		int templateCacheHits,
+		int templateCacheMisses) {
+
+	/**
+	 * Constructor of a result without template cache statistics.
+	 */
+	public GeneratorResult(
+			final int createdFiles,
+			final int updatedFiles,
+			final int errorFiles,
+			final int identicalFiles,
+			final int deletedFiles,
+			final long durationMillis) {
+		this(createdFiles, updatedFiles, errorFiles, identicalFiles, deletedFiles, durationMillis, 0, 0);
+	}
 
 	/**
 	 * Static method factory for GeneratorResultBuilder
@@ -53,7 +68,7 @@ public record GeneratorResult(
 	 * Affichage du résultat de la génération dans la console.
 	 */
 	public String getResultMessage() {
-		return StringUtil.format("\nCréation de {0} fichiers, Mise à jour de {1} fichiers, {2} fichiers identiques et {3} problemes en {4} ms",
-				createdFiles, updatedFiles, identicalFiles, errorFiles, durationMillis);
+		return StringUtil.format("\nCréation de {0} fichiers, Mise à jour de {1} fichiers, {2} fichiers identiques, Suppression de {3} fichiers et {4} problemes en {5} ms",
+				createdFiles, updatedFiles, identicalFiles, deletedFiles, errorFiles, durationMillis);
 	}
 }
@@ -18,6 +18,12 @@
 package io.vertigo.studio.generator;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,6 +32,7 @@ import io.vertigo.core.lang.Builder;
 
 /**
  * Résultat de la génération.
+ * This builder is thread safe : it may be shared by plugins generating concurrently.
  *
  * @author pchretien, mlaroche
  */
@@ -33,13 +40,24 @@ public final class GeneratorResultBuilder implements Builder<GeneratorResult> {
 	private static final Logger LOGGER = LogManager.getLogger(GeneratorResultBuilder.class);
 
 	/** Nombre de fichiers écrits . */
-	private int updatedFiles;
-	private int createdFiles;
-	private int deletedFiles;
+	private final AtomicInteger updatedFiles = new AtomicInteger();
+	private final AtomicInteger createdFiles = new AtomicInteger();
+	private final AtomicInteger deletedFiles = new AtomicInteger();
 	/** Nombre de fichiers en erreurs. */
-	private int errorFiles;
+	private final AtomicInteger errorFiles = new AtomicInteger();
 	/** Nombre de fichiers identiques. */
-	private int identicalFiles;
+	private final AtomicInteger identicalFiles = new AtomicInteger();
+	/** Nombre de templates trouvés dans le cache (compilés par une génération précédente). */
+	private final AtomicInteger templateCacheHits = new AtomicInteger();
+	/** Nombre de templates compilés. */
+	private final AtomicInteger templateCacheMisses = new AtomicInteger();
+
+	/** Empreintes des fichiers produits par la génération. */
+	private final Map<Path, String> digestsByFile = new ConcurrentHashMap<>();
+	/** Empreintes des entrées (sketches, template, config) des fichiers produits par la génération. */
+	private final Map<Path, String> inputFingerprintsByFile = new ConcurrentHashMap<>();
+	/** Fichiers existants conservés tels quels par la génération. */
+	private final Set<Path> preservedFiles = ConcurrentHashMap.newKeySet();
 
 	private final long start = System.currentTimeMillis();
 
@@ -54,14 +72,36 @@ public final class GeneratorResultBuilder implements Builder<GeneratorResult> {
 	@Override
 	public GeneratorResult build() {
 		final long duration = System.currentTimeMillis() - start;
-		return new GeneratorResult(createdFiles, updatedFiles, errorFiles, identicalFiles, deletedFiles, duration);
+		return new GeneratorResult(
+				createdFiles.get(),
+				updatedFiles.get(),
+				errorFiles.get(),
+				identicalFiles.get(),
+				deletedFiles.get(),
+				duration,
+				templateCacheHits.get(),
+				templateCacheMisses.get());
 	}
 
 	/**
 	 * Increments the number of deleted files
 	 */
 	public void incFileDeleted() {
-		deletedFiles++;
+		deletedFiles.incrementAndGet();
+	}
+
+	/**
+	 * Increments the number of templates found already compiled
+	 */
+	public void incTemplateCacheHit() {
+		templateCacheHits.incrementAndGet();
+	}
+
+	/**
+	 * Increments the number of templates compiled
+	 */
+	public void incTemplateCacheMiss() {
+		templateCacheMisses.incrementAndGet();
 	}
 
 	/**
@@ -69,7 +109,7 @@ public final class GeneratorResultBuilder implements Builder<GeneratorResult> {
 	 * @param file Fichier généré
 	 */
 	public void addCreatedFile(final File file) {
-		createdFiles++;
+		createdFiles.incrementAndGet();
 		LOGGER.trace("file created : {}", file.getAbsolutePath());
 	}
 
@@ -78,7 +118,7 @@ public final class GeneratorResultBuilder implements Builder<GeneratorResult> {
 	 * @param file Java file of the error
 	 */
 	public void addErrorFile(final File file) {
-		errorFiles++;
+		errorFiles.incrementAndGet();
 		//Ajout d'un fichier en erreur.
 		LOGGER.trace("file error : {}", file.getAbsolutePath());
 	}
@@ -88,7 +128,7 @@ public final class GeneratorResultBuilder implements Builder<GeneratorResult> {
 	 * @param file Java file of the error
 	 */
 	public void addUpdatedFile(final File file) {
-		updatedFiles++;
+		updatedFiles.incrementAndGet();
 		LOGGER.trace("file updated : {}", file.getAbsolutePath());
 	}
 
@@ -97,7 +137,55 @@ public final class GeneratorResultBuilder implements Builder<GeneratorResult> {
 	 * @param file Fichier généré
 	 */
 	public void addIdenticalFile(final File file) {
-		identicalFiles++;
+		identicalFiles.incrementAndGet();
 		LOGGER.trace("Fichier identique : {}", file.getAbsolutePath());
 	}
+
+	/**
+	 * Records a file produced by the generation (created, updated or identical).
+	 * @param file Fichier généré
+	 * @param contentDigest digest of the content of the file
+	 */
+	public void addFileDigest(final File file, final String contentDigest) {
+		digestsByFile.put(file.toPath().toAbsolutePath().normalize(), contentDigest);
+	}
+
+	/**
+	 * Records the fingerprint of everything a file was built from.
+	 * @param file Fichier généré
+	 * @param inputFingerprint fingerprint of the sketches, template and config used to build the file
+	 */
+	public void addInputFingerprint(final File file, final String inputFingerprint) {
+		inputFingerprintsByFile.put(file.toPath().toAbsolutePath().normalize(), inputFingerprint);
+	}
+
+	/**
+	 * Records an existing file that the generation keeps without rewriting it.
+	 * @param file Fichier conservé
+	 */
+	public void addPreservedFile(final File file) {
+		preservedFiles.add(file.toPath().toAbsolutePath().normalize());
+		LOGGER.trace("file preserved : {}", file.getAbsolutePath());
+	}
+
+	/**
+	 * @return the digests of the files produced by the generation, by absolute path
+	 */
+	public Map<Path, String> getFileDigests() {
+		return Collections.unmodifiableMap(digestsByFile);
+	}
+
+	/**
+	 * @return the fingerprints of the inputs of the files produced by the generation, by absolute path
+	 */
+	public Map<Path, String> getInputFingerprints() {
+		return Collections.unmodifiableMap(inputFingerprintsByFile);
+	}
+
+	/**
+	 * @return the existing files kept by the generation, by absolute path
+	 */
+	public Set<Path> getPreservedFiles() {
+		return Collections.unmodifiableSet(preservedFiles);
+	}
 }
@@ -17,7 +17,12 @@
  */
 package io.vertigo.studio.impl.generator;
 
-import io.vertigo.studio.generator.GeneratorConfig;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import io.vertigo.core.lang.WrappedException;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 
 /**
@@ -31,15 +36,44 @@ public interface FileGenerator {
 	 * Si le fichier existe déjà, il est regénéré
 	 *
 	 * @param generatorResultBuilder Builder
+	 * @throws CancellationException if the generation has been cancelled
 	 */
 	void generateFile(final GeneratorResultBuilder generatorResultBuilder);
 
+	/**
+	 * Génèration asynchrone d'un fichier.
+	 * Le rendu est confié au pool de rendu partagé (ou exécuté immédiatement si la génération n'est pas parallèle).
+	 * Les générations soumises doivent être attendues avec {@link #joinAll(List)}.
+	 * Once the generation is cancelled, the submitted files are no longer rendered and their generations fail with a CancellationException.
+	 *
+	 * @param generatorResultBuilder Builder
+	 * @return the pending generation
+	 */
+	CompletableFuture<Void> submitFile(final GeneratorResultBuilder generatorResultBuilder);
+
+	/**
+	 * Waits for the submitted generations.
+	 * The wait is not interruptible : a generation stops through its cancellation, checked before each file.
+	 * @param pendingFiles the pending generations
+	 * @throws CancellationException if the generation has been cancelled
+	 */
+	static void joinAll(final List<CompletableFuture<Void>> pendingFiles) {
+		try {
+			CompletableFuture.allOf(pendingFiles.toArray(CompletableFuture[]::new)).join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof final CancellationException cancellationException) {
+				throw cancellationException;
+			}
+			throw WrappedException.wrap(e.getCause());
+		}
+	}
+
 	/**
 	 * Static method factory for FileGeneratorBuilder
-	 * @param generatorConfig the config of the file generator
+	 * @param generationContext the generation of the file
 	 * @return FileGeneratorBuilder
 	 */
-	static FileGeneratorBuilder builder(final GeneratorConfig generatorConfig) {
-		return new FileGeneratorBuilder(generatorConfig);
+	static FileGeneratorBuilder builder(final GenerationContext generationContext) {
+		return new FileGeneratorBuilder(generationContext);
 	}
 }
@@ -18,18 +18,25 @@
 package io.vertigo.studio.impl.generator;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.Builder;
 import io.vertigo.studio.generator.GeneratorConfig;
+import io.vertigo.studio.impl.generator.FileGeneratorFreeMarker.FileInputs;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
 
 /**
  * This class provides a way to create a FileFenerator.
  * @author pchretien, mlaroche
  */
 public final class FileGeneratorBuilder implements Builder<FileGenerator> {
-	private Map<String, Object> myModel;
+	private Supplier<Map<String, Object>> myModel;
 	private String myFileName;
 	private String myPackageName;
 
@@ -38,15 +45,21 @@ public final class FileGeneratorBuilder implements Builder<FileGenerator> {
 	private String myTargetGenDir;
 	private String myGenSubDir;
 	private String myEncoding;
+	private final GenerationContext myGenerationContext;
+	private final GeneratorConfig myGeneratorConfig;
+	private Notebook myNotebook;
+	private List<Sketch> mySketches;
 
 	/**
-	 * @param generatorConfig the config of the file generator
+	 * @param generationContext the generation of the file
 	*/
-	FileGeneratorBuilder(final GeneratorConfig generatorConfig) {
-		Assertion.check().isNotNull(generatorConfig);
+	FileGeneratorBuilder(final GenerationContext generationContext) {
+		Assertion.check().isNotNull(generationContext);
 		//---
-		myEncoding = generatorConfig.getEncoding();
-		myTargetGenDir = generatorConfig.getTargetGenDir();
+		myGenerationContext = generationContext;
+		myGeneratorConfig = generationContext.getGeneratorConfig();
+		myEncoding = myGeneratorConfig.getEncoding();
+		myTargetGenDir = myGeneratorConfig.getTargetGenDir();
 	}
 
 	/**
@@ -54,12 +67,40 @@ public final class FileGeneratorBuilder implements Builder<FileGenerator> {
 	 * @return this builder
 	 */
 	public FileGeneratorBuilder withModel(final Map<String, Object> model) {
+		Assertion.check().isNotNull(model);
+		//---
+		return withModel(() -> model);
+	}
+
+	/**
+	 * The model is built only if the file has to be rendered.
+	 * @param model the supplier of the model
+	 * @return this builder
+	 */
+	public FileGeneratorBuilder withModel(final Supplier<Map<String, Object>> model) {
 		Assertion.check().isNotNull(model);
 		//---
 		myModel = model;
 		return this;
 	}
 
+	/**
+	 * Declares the sketches the model is built from.
+	 * In an incremental generation, the file is not rendered again while these sketches (and the sketches they reference) are unchanged.
+	 * @param notebook the notebook holding the sketches
+	 * @param sketches the sketches read by the model
+	 * @return this builder
+	 */
+	public FileGeneratorBuilder withSketches(final Notebook notebook, final Collection<? extends Sketch> sketches) {
+		Assertion.check()
+				.isNotNull(notebook)
+				.isNotNull(sketches);
+		//---
+		myNotebook = notebook;
+		mySketches = List.copyOf(sketches);
+		return this;
+	}
+
 	/**
 	 * @param fileName the name of the file including extension
 	 * @return this builder
@@ -142,7 +183,26 @@ public final class FileGeneratorBuilder implements Builder<FileGenerator> {
 				.isNotNull(myGenSubDir, "a sub directory is required");
 		//---
 		final String filePath = buildFilePath();
-		return new FileGeneratorFreeMarker(myModel, filePath, myTemplateName, myEncoding, myRelativeClass);
+		//without declared sketches, the inputs of the file are unknown : it is always rendered
+		final Optional<FileInputs> inputs = mySketches == null
+				? Optional.empty()
+				: myGenerationContext.getPreviousManifest()
+						.map(previousManifest -> new FileInputs(previousManifest, myNotebook, mySketches, buildConfigFingerprint()));
+		return new FileGeneratorFreeMarker(myModel, filePath, myTemplateName, myEncoding, myRelativeClass, myGenerationContext.getTemplateEngine(), myGenerationContext.getRenderExecutor(), myGenerationContext::isCancelled, inputs);
+	}
+
+	private String buildConfigFingerprint() {
+		final StringBuilder configFingerprint = new StringBuilder()
+				.append(myGeneratorConfig.getProjectPackageName()).append('|')
+				.append(myEncoding).append('|')
+				.append(GeneratorManagerImpl.class.getPackage().getImplementationVersion());
+		//the properties of the run (parallelism...) don't change the files
+		myGeneratorConfig.getProperties().stringPropertyNames()
+				.stream()
+				.filter(GeneratorManagerImpl::isOutputProperty)
+				.sorted()
+				.forEach(key -> configFingerprint.append('|').append(key).append('=').append(myGeneratorConfig.getAsString(key)));
+		return configFingerprint.toString();
 	}
 
 	private String buildFilePath() {
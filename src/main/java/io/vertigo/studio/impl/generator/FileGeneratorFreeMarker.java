@@ -17,29 +17,41 @@
  */
 package io.vertigo.studio.impl.generator;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.StringWriter;
-import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import freemarker.template.Configuration;
-import freemarker.template.ObjectWrapper;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.WrappedException;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
+import io.vertigo.studio.impl.generator.GeneratorManifest.ManifestEntry;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
 
 /**
  * Génération des fichiers avec FreeMarker.
@@ -48,17 +60,38 @@ import io.vertigo.studio.generator.GeneratorResultBuilder;
  */
 final class FileGeneratorFreeMarker implements FileGenerator {
 	private static final Logger LOG = LogManager.getLogger(FileGeneratorFreeMarker.class);
-	private static final String EOL = System.getProperty("line.separator");
+	private static final int CHUNK_SIZE = 64 * 1024;
 
 	/**
 	 * Répertoire des fichiers TOUJOURS générés
 	 * Doit être renseigné dans le fichier properties [targetDir]
 	 */
-	private final Map<String, Object> model;
+	private final Supplier<Map<String, Object>> model;
 	private final String filePath;
 	private final String templateName;
 	private final String encoding;
-	private final Configuration configuration;
+	private final Class<?> referenceClass;
+	private final FreeMarkerTemplateEngine templateEngine;
+	private final Executor renderExecutor;
+	private final BooleanSupplier cancelled;
+	private final Optional<FileInputs> inputs;
+
+	/**
+	 * The inputs of an incremental generation.
+	 * @param previousManifest the manifest of the previous generation
+	 * @param notebook the notebook
+	 * @param sketches the sketches the model is built from
+	 * @param configFingerprint the canonical form of the config
+	 */
+	record FileInputs(GeneratorManifest previousManifest, Notebook notebook, List<Sketch> sketches, String configFingerprint) {
+		FileInputs {
+			Assertion.check()
+					.isNotNull(previousManifest)
+					.isNotNull(notebook)
+					.isNotNull(sketches)
+					.isNotNull(configFingerprint);
+		}
+	}
 
 	/**
 	 * Constructeur.
@@ -68,45 +101,47 @@ final class FileGeneratorFreeMarker implements FileGenerator {
 	 * @param templateName the name of the template
 	 * @param encoding Encoding use
 	 * @param referenceClass ReferenceClass for ftl loading
+	 * @param templateEngine the engine of the generator manager, providing compiled templates
+	 * @param renderExecutor the executor of the asynchronous generations
+	 * @param cancelled tells if the generation has been cancelled
+	 * @param inputs the inputs of the file, if the generation is incremental
 	 */
 	FileGeneratorFreeMarker(
-			final Map<String, Object> model,
+			final Supplier<Map<String, Object>> model,
 			final String filePath,
 			final String templateName,
 			final String encoding,
-			final Class<?> referenceClass) {
+			final Class<?> referenceClass,
+			final FreeMarkerTemplateEngine templateEngine,
+			final Executor renderExecutor,
+			final BooleanSupplier cancelled,
+			final Optional<FileInputs> inputs) {
 		Assertion.check()
 				.isNotNull(model)
 				.isNotNull(filePath)
 				.isNotNull(templateName)
 				.isNotBlank(encoding)
-				.isNotNull(referenceClass);
+				.isNotNull(referenceClass)
+				.isNotNull(templateEngine)
+				.isNotNull(renderExecutor)
+				.isNotNull(cancelled)
+				.isNotNull(inputs);
 		//-----
 		this.model = model;
 		this.filePath = filePath;
 		this.templateName = templateName;
 		this.encoding = encoding;
-		configuration = initConfiguration(referenceClass);
-	}
-
-	/**
-	 * @param referenceClass Class de référence du template
-	 * @return Configuration de FreeMarker
-	 */
-	private static Configuration initConfiguration(final Class<?> referenceClass) {
-		final Configuration config = new Configuration();
-		setTemplateLoading(config, referenceClass);
-		config.setObjectWrapper(ObjectWrapper.BEANS_WRAPPER);
-		return config;
-	}
-
-	private static void setTemplateLoading(final Configuration config, final Class<?> referenceClass) {
-		config.setClassForTemplateLoading(referenceClass, "");
+		this.referenceClass = referenceClass;
+		this.templateEngine = templateEngine;
+		this.renderExecutor = renderExecutor;
+		this.cancelled = cancelled;
+		this.inputs = inputs;
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void generateFile(final GeneratorResultBuilder generatorResultBuilder) {
+		checkNotCancelled();
 		final File file = new File(filePath);
 		try {
 			generateFile(generatorResultBuilder, file);
@@ -115,34 +150,116 @@ final class FileGeneratorFreeMarker implements FileGenerator {
 		}
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public CompletableFuture<Void> submitFile(final GeneratorResultBuilder generatorResultBuilder) {
+		if (cancelled.getAsBoolean()) {
+			//the files already submitted are still awaited by the plugin
+			return CompletableFuture.failedFuture(new CancellationException("generation cancelled"));
+		}
+		//the cancellation is checked again when the file is rendered
+		return CompletableFuture.runAsync(() -> generateFile(generatorResultBuilder), renderExecutor);
+	}
+
+	private void checkNotCancelled() {
+		if (cancelled.getAsBoolean()) {
+			throw new CancellationException("generation cancelled");
+		}
+	}
+
 	private void generateFile(final GeneratorResultBuilder generatorResultBuilder, final File file2create) throws IOException, TemplateException {
 		// On crée le répertoire
 		final File directory2create = file2create.getParentFile();
 		directory2create.mkdirs();
+		final Optional<String> inputFingerprint = buildInputFingerprint(generatorResultBuilder);
+		if (inputFingerprint.isPresent()) {
+			final Optional<ManifestEntry> previousEntry = inputs.get().previousManifest().getEntry(file2create.toPath());
+			if (file2create.exists() && previousEntry.isPresent() && inputFingerprint.get().equals(previousEntry.get().inputFingerprint())
+					&& previousEntry.get().contentDigest().equals(digest(file2create.toPath()))) {
+				// Les entrées n'ont pas changé depuis la génération précédente et le fichier n'a pas été modifié : le fichier n'est pas recalculé
+				generatorResultBuilder.addIdenticalFile(file2create);
+				generatorResultBuilder.addInputFingerprint(file2create, inputFingerprint.get());
+				generatorResultBuilder.addFileDigest(file2create, previousEntry.get().contentDigest());
+				return;
+			}
+		}
 		// Cette ligne doit se trouver avant le writer car si le fichier est
 		// deja ouvert en ecriture il y a pb, on ne peut pas lire le code
 		// deja existant
-		final String content = buildContentFile();
+		final byte[] content = buildContentFile(generatorResultBuilder).getBytes(Charset.forName(encoding));
 		// pour optimisation de l'écriture et de la compilation,
 		// on vérifie qu'on ne réécrit pas exactement la même chose que ce
 		// qu'il y a déjà
-		final String currentContent = readContentFile(file2create, encoding);
-		if (content.equals(currentContent)) {
+		final boolean exists = file2create.exists();
+		if (exists && hasSameContent(file2create.toPath(), content)) {
 			// Les deux fichiers sont identiques
 			generatorResultBuilder.addIdenticalFile(file2create);
 		} else {
 			// Si le contenu est différent on réécrit le fichier.
-			final boolean success = writeFile(file2create, content, encoding);
+			final boolean success = writeFile(file2create, content);
 
 			if (success) {
-				if (currentContent == null) {
-					generatorResultBuilder.addCreatedFile(file2create);
-				} else {
+				if (exists) {
 					generatorResultBuilder.addUpdatedFile(file2create);
+				} else {
+					generatorResultBuilder.addCreatedFile(file2create);
 				}
 			} else {
 				generatorResultBuilder.addErrorFile(file2create);
+				// Le fichier reste dans le manifest (ce n'est pas un orphelin) mais son contenu est inconnu : il sera recalculé
+				generatorResultBuilder.addFileDigest(file2create, GeneratorManifest.UNKNOWN);
+				return;
+			}
+		}
+		// the inputs are only recorded once the file holds the content built from them
+		inputFingerprint.ifPresent(fingerprint -> generatorResultBuilder.addInputFingerprint(file2create, fingerprint));
+		generatorResultBuilder.addFileDigest(file2create, digest(content));
+	}
+
+	/**
+	 * The fingerprint of everything the content is built from : the sketches, the config and the template.
+	 * @return the fingerprint, if the generation is incremental
+	 */
+	private Optional<String> buildInputFingerprint(final GeneratorResultBuilder generatorResultBuilder) throws IOException {
+		if (inputs.isEmpty()) {
+			return Optional.empty();
+		}
+		final String canonicalInputs = inputs.get().notebook().getDeepFingerprint(inputs.get().sketches())
+				+ '|' + inputs.get().configFingerprint()
+				+ '|' + referenceClass.getName() + '/' + templateName
+				+ '|' + templateEngine.getTemplateFingerprint(referenceClass, templateName);
+		return Optional.of(digest(canonicalInputs.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * @param content the content of a file
+	 * @return the SHA-256 digest of the content as an hex string
+	 */
+	static String digest(final byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (final NoSuchAlgorithmException e) {
+			throw WrappedException.wrap(e);
+		}
+	}
+
+	/**
+	 * The digest of an existing file, read chunk by chunk : a file edited (or truncated) since the previous generation is rendered again.
+	 * @param path Fichier existant
+	 * @return the SHA-256 digest of the content of the file as an hex string
+	 */
+	private static String digest(final Path path) throws IOException {
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+			while (channel.read(buffer) >= 0) {
+				buffer.flip();
+				messageDigest.update(buffer);
+				buffer.clear();
 			}
+			return HexFormat.of().formatHex(messageDigest.digest());
+		} catch (final NoSuchAlgorithmException e) {
+			throw WrappedException.wrap(e);
 		}
 	}
 
@@ -151,60 +268,80 @@ final class FileGeneratorFreeMarker implements FileGenerator {
 	 *
 	 * @return Contenu du fichier
 	 */
-	private String buildContentFile() throws IOException, TemplateException {
+	private String buildContentFile(final GeneratorResultBuilder generatorResultBuilder) throws IOException, TemplateException {
 		// Si le fichier existe on le remplace par le fichier créé.
 		// Si le fichier n'existe pas on en crée un.
 		final StringWriter writer = new StringWriter(); // Il est inutile de fermer une StringWriter.
 		// Génération du contenu du fichier.
-		// Vertigo étant en UTF-8, les fichiers ftl doivent être lu en UTF-8
-		final Template template = configuration.getTemplate(templateName, "UTF-8");
-		template.process(model, writer);
+		final Template template = templateEngine.getTemplate(referenceClass, templateName, generatorResultBuilder);
+		template.process(model.get(), writer);
 		return writer.toString();
 	}
 
 	/**
 	 * Writes a file.
+	 * The content is written in a temporary file of the same directory, then moved onto the file :
+	 * a failed write never leaves a truncated file.
 	 *
 	 * @param file Fichier.
-	 * @param content Contenu à écrire
-	 * @param encoding encoding du fichier à écrire
+	 * @param content Contenu à écrire, déjà encodé
 	 * @return Si l'écriture s'est bien passée
 	 */
-	private static boolean writeFile(final File file, final String content, final String encoding) {
-		try (final OutputStream fos = Files.newOutputStream(file.toPath());
-				final OutputStreamWriter osw = new OutputStreamWriter(fos, encoding);
-				final Writer writer = new BufferedWriter(osw)) {
-			writer.write(content);
+	private static boolean writeFile(final File file, final byte[] content) {
+		final Path path = file.toPath();
+		final Path tempPath = path.resolveSibling('.' + file.getName() + ".tmp");
+		try {
+			Files.write(tempPath, content);
+			try {
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+			}
 			return true;
 		} catch (final IOException e) {
 			LOG.error("Can't writeFile", e);
+			deleteTempFile(tempPath);
 			return false;
 		}
 	}
 
+	private static void deleteTempFile(final Path tempPath) {
+		try {
+			Files.deleteIfExists(tempPath);
+		} catch (final IOException e) {
+			LOG.warn("Can't delete the temporary file {}", tempPath, e);
+		}
+	}
+
 	/**
-	 * Reads a file.
+	 * Compares an existing file with the content to write.
+	 * The size is checked first, then the bytes are compared chunk by chunk : the current content is never decoded.
 	 *
-	 * @param file Fichier
-	 * @param encoding encoding du fichier à lire
-	 * @return Contenu
+	 * @param path Fichier existant
+	 * @param content Contenu à écrire, déjà encodé
+	 * @return if the file contains exactly these bytes
 	 * @throws IOException Erreur d'entrée/sortie
 	 */
-	private static String readContentFile(final File file, final String encoding) throws IOException {
-		if (!file.exists()) {
-			return null;
-		}
-		final StringBuilder currentContent = new StringBuilder();
-		try (final InputStream fis = Files.newInputStream(file.toPath());
-				final InputStreamReader isr = new InputStreamReader(fis, encoding);
-				final BufferedReader myReader = new BufferedReader(isr)) {
-			String line = myReader.readLine();
-			while (line != null) {
-				currentContent.append(line);
-				currentContent.append(EOL);
-				line = myReader.readLine();
+	private static boolean hasSameContent(final Path path, final byte[] content) throws IOException {
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() != content.length) {
+				return false;
 			}
+			final ByteBuffer buffer = ByteBuffer.allocate(Math.min(content.length, CHUNK_SIZE));
+			int offset = 0;
+			while (offset < content.length) {
+				buffer.clear();
+				final int read = channel.read(buffer);
+				if (read < 0) {
+					return false;
+				}
+				buffer.flip();
+				if (!buffer.equals(ByteBuffer.wrap(content, offset, read))) {
+					return false;
+				}
+				offset += read;
+			}
+			return true;
 		}
-		return currentContent.toString();
 	}
 }
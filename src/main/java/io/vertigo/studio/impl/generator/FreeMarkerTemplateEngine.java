@@ -0,0 +1,249 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.generator;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import freemarker.cache.CacheStorage;
+import freemarker.cache.MruCacheStorage;
+import freemarker.cache.TemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.Template;
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.generator.GeneratorResultBuilder;
+
+/**
+ * FreeMarker engine of a generator manager.
+ * Holds one configuration per reference class : the template cache of each configuration keeps the compiled templates,
+ * so that a template (dto.ftl, dao.ftl...) is parsed once and reused for every generated file.
+ *
+ * @author mlaroche
+ */
+final class FreeMarkerTemplateEngine {
+	/**
+	 * Vertigo étant en UTF-8, les fichiers ftl doivent être lu en UTF-8
+	 */
+	private static final String TEMPLATE_ENCODING = "UTF-8";
+	/** the #import and #include directives of a literal template name (in both syntaxes) */
+	private static final Pattern TEMPLATE_LOADING_PATTERN = Pattern.compile("[<\\[]#(?:import|include)\\s+[\"']([^\"']+)[\"']");
+
+	private final int maxTemplates;
+	private final Map<Class<?>, Configuration> configurations = new ConcurrentHashMap<>();
+	private final Map<TemplateKey, String> templateFingerprints = new ConcurrentHashMap<>();
+
+	private record TemplateKey(Class<?> referenceClass, String templateName) {
+		//only a key
+	}
+
+	/**
+	 * Constructor.
+	 * @param maxTemplates max number of compiled templates strongly kept in memory by reference class (as many are softly kept)
+	 */
+	FreeMarkerTemplateEngine(final int maxTemplates) {
+		Assertion.check().isTrue(maxTemplates > 0, "the template cache needs a positive size");
+		//-----
+		this.maxTemplates = maxTemplates;
+	}
+
+	/**
+	 * Returns the compiled template, parsing it only if it is not in the cache of FreeMarker.
+	 * A Template is thread safe once built and may be processed concurrently.
+	 *
+	 * @param referenceClass Class de référence du template
+	 * @param templateName the name of the template
+	 * @param generatorResultBuilder the builder notified of cache hits and misses
+	 * @return the compiled template
+	 */
+	Template getTemplate(final Class<?> referenceClass, final String templateName, final GeneratorResultBuilder generatorResultBuilder) throws IOException {
+		Assertion.check()
+				.isNotNull(referenceClass)
+				.isNotNull(templateName)
+				.isNotNull(generatorResultBuilder);
+		//-----
+		final Configuration configuration = getConfiguration(referenceClass);
+		final CountingCacheStorage cacheStorage = (CountingCacheStorage) configuration.getCacheStorage();
+		final Template template;
+		final boolean hit;
+		cacheStorage.startLookup();
+		try {
+			template = configuration.getTemplate(templateName, TEMPLATE_ENCODING);
+		} finally {
+			hit = cacheStorage.endLookup();
+		}
+		if (hit) {
+			generatorResultBuilder.incTemplateCacheHit();
+		} else {
+			generatorResultBuilder.incTemplateCacheMiss();
+		}
+		return template;
+	}
+
+	/**
+	 * Returns the digest of the sources of a template and of the templates it imports or includes (transitively) :
+	 * a generated file must be rendered again when one of its templates changes.
+	 * Only the imports and includes of a literal template name are followed.
+	 * The sources are read from the template loader : they are not compiled, so the template cache (and its counters) only sees the renderings.
+	 *
+	 * @param referenceClass Class de référence du template
+	 * @param templateName the name of the template
+	 * @return the fingerprint of the template
+	 */
+	String getTemplateFingerprint(final Class<?> referenceClass, final String templateName) throws IOException {
+		final TemplateKey templateKey = new TemplateKey(referenceClass, templateName);
+		final String templateFingerprint = templateFingerprints.get(templateKey);
+		if (templateFingerprint != null) {
+			return templateFingerprint;
+		}
+		//the canonical form of a template is its source, followed by the sources of the templates it reaches
+		final Configuration configuration = getConfiguration(referenceClass);
+		final StringBuilder canonicalForm = new StringBuilder();
+		final Set<String> reachedTemplateNames = new HashSet<>();
+		final Deque<String> templateNamesToVisit = new ArrayDeque<>();
+		templateNamesToVisit.push(templateName);
+		while (!templateNamesToVisit.isEmpty()) {
+			final String reachedTemplateName = templateNamesToVisit.pop();
+			if (reachedTemplateNames.add(reachedTemplateName)) {
+				final String source = readTemplateSource(configuration.getTemplateLoader(), reachedTemplateName);
+				canonicalForm.append(reachedTemplateName).append('\n').append(source).append('\n');
+				final Matcher matcher = TEMPLATE_LOADING_PATTERN.matcher(source);
+				while (matcher.find()) {
+					templateNamesToVisit.add(resolveTemplateName(reachedTemplateName, matcher.group(1)));
+				}
+			}
+		}
+		final String computedFingerprint = FileGeneratorFreeMarker.digest(canonicalForm.toString().getBytes(StandardCharsets.UTF_8));
+		templateFingerprints.put(templateKey, computedFingerprint);
+		return computedFingerprint;
+	}
+
+	private static String readTemplateSource(final TemplateLoader templateLoader, final String templateName) throws IOException {
+		final Object templateSource = templateLoader.findTemplateSource(templateName);
+		if (templateSource == null) {
+			throw new FileNotFoundException("Template not found : " + templateName);
+		}
+		try (final Reader reader = templateLoader.getReader(templateSource, TEMPLATE_ENCODING)) {
+			final StringBuilder source = new StringBuilder();
+			final char[] buffer = new char[8192];
+			int read;
+			while ((read = reader.read(buffer)) >= 0) {
+				source.append(buffer, 0, read);
+			}
+			return source.toString();
+		} finally {
+			templateLoader.closeTemplateSource(templateSource);
+		}
+	}
+
+	/**
+	 * Resolves the name of an imported or included template, as FreeMarker does : relative to the importing template, or absolute.
+	 */
+	static String resolveTemplateName(final String templateName, final String loadedTemplateName) {
+		return URI.create("/" + templateName)
+				.resolve(loadedTemplateName)
+				.normalize()
+				.getPath()
+				.substring(1);
+	}
+
+	/**
+	 * Drops all the compiled templates and configurations.
+	 */
+	void clear() {
+		templateFingerprints.clear();
+		configurations.clear();
+	}
+
+	private Configuration getConfiguration(final Class<?> referenceClass) {
+		return configurations.computeIfAbsent(referenceClass, this::initConfiguration);
+	}
+
+	/**
+	 * @param referenceClass Class de référence du template
+	 * @return Configuration de FreeMarker
+	 */
+	private Configuration initConfiguration(final Class<?> referenceClass) {
+		final Configuration config = new Configuration();
+		config.setClassForTemplateLoading(referenceClass, "");
+		config.setObjectWrapper(ObjectWrapper.BEANS_WRAPPER);
+		//templates are packaged with the studio : no need to check for updates, and included templates stay bounded
+		config.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+		config.setCacheStorage(new CountingCacheStorage(new MruCacheStorage(maxTemplates, maxTemplates)));
+		return config;
+	}
+
+	/**
+	 * The template cache of a configuration, telling the calling thread if its lookup has found the template.
+	 * It is not a concurrent storage : FreeMarker synchronizes its accesses.
+	 */
+	private static final class CountingCacheStorage implements CacheStorage {
+		private final CacheStorage cacheStorage;
+		/** if the template looked up by the thread was in the cache ; null out of a lookup */
+		private final ThreadLocal<Boolean> lookupHit = new ThreadLocal<>();
+
+		CountingCacheStorage(final CacheStorage cacheStorage) {
+			this.cacheStorage = cacheStorage;
+		}
+
+		void startLookup() {
+			lookupHit.set(Boolean.FALSE);
+		}
+
+		boolean endLookup() {
+			final boolean hit = Boolean.TRUE.equals(lookupHit.get());
+			lookupHit.remove();
+			return hit;
+		}
+
+		@Override
+		public Object get(final Object key) {
+			final Object value = cacheStorage.get(key);
+			if (value != null && lookupHit.get() != null) {
+				lookupHit.set(Boolean.TRUE);
+			}
+			return value;
+		}
+
+		@Override
+		public void put(final Object key, final Object value) {
+			cacheStorage.put(key, value);
+		}
+
+		@Override
+		public void remove(final Object key) {
+			cacheStorage.remove(key);
+		}
+
+		@Override
+		public void clear() {
+			cacheStorage.clear();
+		}
+	}
+}
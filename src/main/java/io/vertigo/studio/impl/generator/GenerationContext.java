@@ -0,0 +1,94 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.generator;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.generator.GeneratorConfig;
+
+/**
+ * A generation run by the generator manager.
+ * It is given to the plugins, which build their FileGenerators from it : two generations never share their state.
+ *
+ * @author mlaroche
+ */
+public final class GenerationContext {
+	private final GeneratorConfig generatorConfig;
+	private final FreeMarkerTemplateEngine templateEngine;
+	private final Executor renderExecutor;
+	private final Optional<GeneratorManifest> previousManifest;
+	private final BooleanSupplier cancelled;
+
+	/**
+	 * Constructor.
+	 * @param generatorConfig the config of the generation
+	 * @param templateEngine the template engine of the manager
+	 * @param renderExecutor the executor rendering the submitted files
+	 * @param previousManifest the manifest of the previous generation, if the generation is incremental
+	 * @param cancelled tells if the generation has been cancelled
+	 */
+	GenerationContext(
+			final GeneratorConfig generatorConfig,
+			final FreeMarkerTemplateEngine templateEngine,
+			final Executor renderExecutor,
+			final Optional<GeneratorManifest> previousManifest,
+			final BooleanSupplier cancelled) {
+		Assertion.check()
+				.isNotNull(generatorConfig)
+				.isNotNull(templateEngine)
+				.isNotNull(renderExecutor)
+				.isNotNull(previousManifest)
+				.isNotNull(cancelled);
+		//-----
+		this.generatorConfig = generatorConfig;
+		this.templateEngine = templateEngine;
+		this.renderExecutor = renderExecutor;
+		this.previousManifest = previousManifest;
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * @return the config of the generation
+	 */
+	public GeneratorConfig getGeneratorConfig() {
+		return generatorConfig;
+	}
+
+	/**
+	 * A cancelled generation renders no more files : the FileGenerators throw a CancellationException.
+	 * @return if the generation has been cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled.getAsBoolean();
+	}
+
+	FreeMarkerTemplateEngine getTemplateEngine() {
+		return templateEngine;
+	}
+
+	Executor getRenderExecutor() {
+		return renderExecutor;
+	}
+
+	Optional<GeneratorManifest> getPreviousManifest() {
+		return previousManifest;
+	}
+}
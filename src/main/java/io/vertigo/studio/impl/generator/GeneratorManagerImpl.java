@@ -18,24 +18,75 @@
 package io.vertigo.studio.impl.generator;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 
 import javax.inject.Inject;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.core.node.component.Activeable;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorManager;
 import io.vertigo.studio.generator.GeneratorResult;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
+import io.vertigo.studio.impl.generator.GeneratorManifest.ManifestEntry;
 import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.SketchKey;
 
 /**
  * Implements MDA.
  *
  * @author pchretien, mlaroche, dchallas
  */
-public final class GeneratorManagerImpl implements GeneratorManager {
+public final class GeneratorManagerImpl implements GeneratorManager, Activeable {
+	/**
+	 * Number of plugins running concurrently during a generation.
+	 */
+	private static final String PARALLELISM_PROPERTY = "generator.parallelism";
+	/**
+	 * Skips the rendering of the files whose inputs are unchanged since the previous generation.
+	 */
+	private static final String INCREMENTAL_PROPERTY = "generator.incremental";
+	/**
+	 * Properties of the generation which don't change the content of the generated files.
+	 */
+	private static final Set<String> RUN_PROPERTIES = Set.of(PARALLELISM_PROPERTY, INCREMENTAL_PROPERTY);
+	private static final Logger LOGGER = LogManager.getLogger(GeneratorManagerImpl.class);
+	/**
+	 * Compiled templates strongly kept by reference class.
+	 */
+	private static final int MAX_TEMPLATES = 20;
+
 	private final List<GeneratorPlugin> generatorPlugins;
+	/**
+	 * FreeMarker engine of the manager : compiled templates are shared by every generated file.
+	 */
+	private final FreeMarkerTemplateEngine templateEngine = new FreeMarkerTemplateEngine(MAX_TEMPLATES);
+	/**
+	 * Pools running the plugins, by parallelism of the generation.
+	 */
+	private final Map<Integer, ExecutorService> pluginPools = new ConcurrentHashMap<>();
+	/**
+	 * Pools rendering the files submitted by the plugins, by parallelism of the generation.
+	 */
+	private final Map<Integer, ExecutorService> renderPools = new ConcurrentHashMap<>();
 
 	/**
 	 * Constructor.
@@ -49,20 +100,216 @@ public final class GeneratorManagerImpl implements GeneratorManager {
 		this.generatorPlugins = java.util.Collections.unmodifiableList(generatorPlugins);
 	}
 
+	/**
+	 * @param key the name of a property of the config
+	 * @return if the property may change the content of the generated files
+	 */
+	static boolean isOutputProperty(final String key) {
+		return !RUN_PROPERTIES.contains(key);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void start() {
+		//nothing : templates are compiled lazily
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void stop() {
+		pluginPools.values().forEach(ExecutorService::shutdownNow);
+		pluginPools.clear();
+		renderPools.values().forEach(ExecutorService::shutdownNow);
+		renderPools.clear();
+		templateEngine.clear();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public GeneratorResult generate(final Notebook notebook, final GeneratorConfig generatorConfig) {
+		return generate(notebook, generatorConfig, () -> false);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public GeneratorResult generate(final Notebook notebook, final GeneratorConfig generatorConfig, final BooleanSupplier cancelled) {
+		Assertion.check().isNotNull(cancelled);
+		//-----
 		//Création d'un objet listant les résultats
 		final GeneratorResultBuilder generatorResultBuilder = GeneratorResult.builder();
-		//Génèration des objets issus de la modélisation
-		for (final GeneratorPlugin generatorPlugin : generatorPlugins) {
-			if (generatorConfig.getOrDefaultAsBoolean(generatorPlugin.getOutputType(), false)) {
-				generatorPlugin.generate(notebook, generatorConfig, generatorResultBuilder);
+		final GeneratorManifest previousManifest = GeneratorManifest.read(getTargetGenDir(generatorConfig));
+		doGenerate(notebook, generatorConfig, generatorResultBuilder, previousManifest, isIncremental(generatorConfig), cancelled);
+		//the manifest allows a next sync to find the orphans
+		buildManifest(generatorConfig, generatorResultBuilder, previousManifest).write();
+		return generatorResultBuilder.build();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public GeneratorResult sync(final Notebook notebook, final GeneratorConfig generatorConfig) {
+		return doSync(notebook, generatorConfig, isIncremental(generatorConfig), () -> false);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public GeneratorResult sync(final Notebook notebook, final GeneratorConfig generatorConfig, final Set<SketchKey> changedSketchKeys) {
+		return sync(notebook, generatorConfig, changedSketchKeys, () -> false);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public GeneratorResult sync(final Notebook notebook, final GeneratorConfig generatorConfig, final Set<SketchKey> changedSketchKeys, final BooleanSupplier cancelled) {
+		Assertion.check()
+				.isNotNull(changedSketchKeys)
+				.isNotNull(cancelled);
+		//-----
+		if (changedSketchKeys.isEmpty()) {
+			//nothing has changed : the files of the previous generation are up to date
+			return GeneratorResult.builder().build();
+		}
+		//the files whose inputs are unchanged are skipped
+		return doSync(notebook, generatorConfig, true, cancelled);
+	}
+
+	private GeneratorResult doSync(final Notebook notebook, final GeneratorConfig generatorConfig, final boolean incremental, final BooleanSupplier cancelled) {
+		final GeneratorResultBuilder generatorResultBuilder = GeneratorResult.builder();
+		final GeneratorManifest previousManifest = GeneratorManifest.read(getTargetGenDir(generatorConfig));
+		//a cancelled generation throws before the orphans are deleted : the manifest of the previous generation is kept
+		doGenerate(notebook, generatorConfig, generatorResultBuilder, previousManifest, incremental, cancelled);
+		final GeneratorManifest manifest = buildManifest(generatorConfig, generatorResultBuilder, previousManifest);
+		//only the files of the previous generation which are no longer produced are deleted
+		for (final String orphanPath : previousManifest.getEntriesByPath().keySet()) {
+			if (!manifest.getEntriesByPath().containsKey(orphanPath)) {
+				final Optional<Path> orphan = previousManifest.resolve(orphanPath);
+				if (orphan.isPresent()) {
+					deleteOrphan(orphan.get(), generatorResultBuilder);
+				} else {
+					LOGGER.warn("orphan {} is not in the targetGenDir : it is not deleted", orphanPath);
+				}
 			}
 		}
+		manifest.write();
 		return generatorResultBuilder.build();
 	}
 
+	private static boolean isIncremental(final GeneratorConfig generatorConfig) {
+		return generatorConfig.getOrDefaultAsBoolean(INCREMENTAL_PROPERTY, false);
+	}
+
+	private static void deleteOrphan(final Path orphan, final GeneratorResultBuilder generatorResultBuilder) {
+		try {
+			if (Files.deleteIfExists(orphan)) {
+				generatorResultBuilder.incFileDeleted();
+				LOGGER.trace("orphan deleted : {}", orphan);
+			}
+		} catch (final IOException e) {
+			generatorResultBuilder.addErrorFile(orphan.toFile());
+			LOGGER.error("Can't delete orphan {}", orphan, e);
+		}
+	}
+
+	private static GeneratorManifest buildManifest(
+			final GeneratorConfig generatorConfig,
+			final GeneratorResultBuilder generatorResultBuilder,
+			final GeneratorManifest previousManifest) {
+		final Path targetGenDir = getTargetGenDir(generatorConfig);
+		final Map<Path, String> inputFingerprints = generatorResultBuilder.getInputFingerprints();
+		final Map<Path, ManifestEntry> entriesByFile = new HashMap<>();
+		generatorResultBuilder.getFileDigests()
+				.forEach((file, digest) -> entriesByFile.put(file, new ManifestEntry(digest, inputFingerprints.getOrDefault(file, GeneratorManifest.UNKNOWN))));
+		//preserved files are not rewritten : they keep their previous entry
+		for (final Path preservedFile : generatorResultBuilder.getPreservedFiles()) {
+			entriesByFile.putIfAbsent(preservedFile, previousManifest.getEntry(preservedFile)
+					.orElseGet(() -> new ManifestEntry(GeneratorManifest.UNKNOWN, GeneratorManifest.UNKNOWN)));
+		}
+		return GeneratorManifest.of(targetGenDir, entriesByFile);
+	}
+
+	private static Path getTargetGenDir(final GeneratorConfig generatorConfig) {
+		return Path.of(generatorConfig.getTargetGenDir());
+	}
+
+	private void doGenerate(
+			final Notebook notebook,
+			final GeneratorConfig generatorConfig,
+			final GeneratorResultBuilder generatorResultBuilder,
+			final GeneratorManifest previousManifest,
+			final boolean incremental,
+			final BooleanSupplier cancelled) {
+		final List<GeneratorPlugin> enabledGeneratorPlugins = generatorPlugins
+				.stream()
+				.filter(generatorPlugin -> generatorConfig.getOrDefaultAsBoolean(generatorPlugin.getOutputType(), false))
+				.toList();
+		final int parallelism = getParallelism(generatorConfig);
+		//the FileGenerators of the plugins render with the engine and the pool of the manager, and compare their inputs with the previous generation
+		final GenerationContext generationContext = new GenerationContext(
+				generatorConfig,
+				templateEngine,
+				parallelism > 1 ? getPool(renderPools, parallelism) : Runnable::run,
+				incremental ? Optional.of(previousManifest) : Optional.empty(),
+				cancelled);
+		//Génèration des objets issus de la modélisation
+		if (parallelism > 1 && enabledGeneratorPlugins.size() > 1) {
+			generateConcurrently(enabledGeneratorPlugins, getPool(pluginPools, parallelism), notebook, generationContext, generatorResultBuilder);
+		} else {
+			for (final GeneratorPlugin generatorPlugin : enabledGeneratorPlugins) {
+				generatorPlugin.generate(notebook, generationContext, generatorResultBuilder);
+			}
+		}
+	}
+
+	/**
+	 * The pools of the manager are kept between the generations : one pool by parallelism, shut down when the manager stops.
+	 */
+	private static ExecutorService getPool(final Map<Integer, ExecutorService> pools, final int parallelism) {
+		return pools.computeIfAbsent(parallelism, Executors::newWorkStealingPool);
+	}
+
+	/**
+	 * Plugins only read the notebook and write in their own files, so they can run side by side.
+	 * The GeneratorResultBuilder is thread safe.
+	 */
+	private static void generateConcurrently(
+			final List<GeneratorPlugin> enabledGeneratorPlugins,
+			final ExecutorService pluginPool,
+			final Notebook notebook,
+			final GenerationContext generationContext,
+			final GeneratorResultBuilder generatorResultBuilder) {
+		final List<Future<?>> futures = enabledGeneratorPlugins
+				.stream()
+				.<Future<?>> map(generatorPlugin -> pluginPool.submit(() -> generatorPlugin.generate(notebook, generationContext, generatorResultBuilder)))
+				.toList();
+		//every plugin is awaited : no file is written once the generation has returned
+		RuntimeException failure = null;
+		for (final Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (final InterruptedException e) {
+				futures.forEach(pendingFuture -> pendingFuture.cancel(false));
+				Thread.currentThread().interrupt();
+				throw WrappedException.wrap(e);
+			} catch (final ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause() instanceof final CancellationException cancellationException
+							? cancellationException
+							: WrappedException.wrap(e.getCause());
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * The number of plugins running at the same time : 1 (default) means sequential, 0 means one per available processor.
+	 */
+	static int getParallelism(final GeneratorConfig generatorConfig) {
+		final int parallelism = generatorConfig.getOrDefaultAsInt(PARALLELISM_PROPERTY, 1);
+		Assertion.check().isTrue(parallelism >= 0, "{0} must be positive or 0 (auto)", PARALLELISM_PROPERTY);
+		return parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+	}
+
 	@Override
 	public GeneratorResult clean(final GeneratorConfig generatorConfig) {
 		final File directory = new File(generatorConfig.getTargetGenDir());
@@ -77,6 +324,7 @@ public final class GeneratorManagerImpl implements GeneratorManager {
 				generatorPlugin.clean(generatorConfig, generatorResultBuilder);
 			}
 		}
+		GeneratorManifest.delete(directory.toPath());
 		return generatorResultBuilder.build();
 	}
 
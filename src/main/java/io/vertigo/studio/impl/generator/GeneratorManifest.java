@@ -0,0 +1,181 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+
+/**
+ * Manifest of the files produced by a generation in a targetGenDir.
+ * Each line contains the content digest, the fingerprint of the inputs ('-' if unknown) and the path (relative to the targetGenDir) of a generated file.
+ * The manifest of the previous generation tells which files became orphans and which files are up to date.
+ *
+ * @author mlaroche
+ */
+final class GeneratorManifest {
+	static final String MANIFEST_FILE_NAME = ".vertigo-studio-manifest";
+	static final String UNKNOWN = "-";
+	private static final char SEPARATOR = ' ';
+
+	private final Path targetGenDir;
+	/** entries by relative path, sorted by path */
+	private final Map<String, ManifestEntry> entriesByPath;
+
+	/**
+	 * A generated file.
+	 * @param contentDigest the digest of the content
+	 * @param inputFingerprint the fingerprint of everything the content was built from ('-' if unknown)
+	 */
+	record ManifestEntry(String contentDigest, String inputFingerprint) {
+		ManifestEntry {
+			Assertion.check()
+					.isNotBlank(contentDigest)
+					.isNotBlank(inputFingerprint);
+		}
+	}
+
+	private GeneratorManifest(final Path targetGenDir, final Map<String, ManifestEntry> entriesByPath) {
+		Assertion.check()
+				.isNotNull(targetGenDir)
+				.isNotNull(entriesByPath);
+		//-----
+		this.targetGenDir = targetGenDir;
+		this.entriesByPath = Collections.unmodifiableMap(new TreeMap<>(entriesByPath));
+	}
+
+	/**
+	 * Reads the manifest of the previous generation.
+	 * @param targetGenDir the directory of the generation
+	 * @return the manifest (empty if there was no previous generation)
+	 */
+	static GeneratorManifest read(final Path targetGenDir) {
+		final Path manifestPath = targetGenDir.resolve(MANIFEST_FILE_NAME);
+		final Map<String, ManifestEntry> entriesByPath = new TreeMap<>();
+		if (Files.exists(manifestPath)) {
+			try {
+				for (final String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+					final int index = line.indexOf(SEPARATOR);
+					final int secondIndex = line.indexOf(SEPARATOR, index + 1);
+					if (index > 0 && secondIndex > index + 1) {
+						entriesByPath.put(line.substring(secondIndex + 1), new ManifestEntry(line.substring(0, index), line.substring(index + 1, secondIndex)));
+					}
+				}
+			} catch (final IOException e) {
+				throw WrappedException.wrap(e, "Can't read the manifest {0}", manifestPath);
+			}
+		}
+		return new GeneratorManifest(targetGenDir, entriesByPath);
+	}
+
+	/**
+	 * Builds the manifest of the files produced by the current generation.
+	 * @param targetGenDir the directory of the generation
+	 * @param entriesByFile the generated files by absolute path
+	 * @return the manifest
+	 */
+	static GeneratorManifest of(final Path targetGenDir, final Map<Path, ManifestEntry> entriesByFile) {
+		final Map<String, ManifestEntry> entriesByPath = new TreeMap<>();
+		entriesByFile.forEach((file, entry) -> entriesByPath.put(toRelativePath(targetGenDir, file), entry));
+		return new GeneratorManifest(targetGenDir, entriesByPath);
+	}
+
+	/**
+	 * Deletes the manifest.
+	 * @param targetGenDir the directory of the generation
+	 */
+	static void delete(final Path targetGenDir) {
+		try {
+			Files.deleteIfExists(targetGenDir.resolve(MANIFEST_FILE_NAME));
+		} catch (final IOException e) {
+			throw WrappedException.wrap(e);
+		}
+	}
+
+	/**
+	 * @return the generated files by path relative to the targetGenDir
+	 */
+	Map<String, ManifestEntry> getEntriesByPath() {
+		return entriesByPath;
+	}
+
+	/**
+	 * @param file a file of the generation
+	 * @return the entry of the file, if it was generated
+	 */
+	Optional<ManifestEntry> getEntry(final Path file) {
+		return Optional.ofNullable(entriesByPath.get(toRelativePath(targetGenDir, file)));
+	}
+
+	/**
+	 * The manifest is a file of the targetGenDir : an edited path ("../..", an absolute path) can't reach a file outside of it.
+	 * @param relativePath the path relative to the targetGenDir
+	 * @return the file, if it is inside the targetGenDir
+	 */
+	Optional<Path> resolve(final String relativePath) {
+		final Path directory = targetGenDir.toAbsolutePath().normalize();
+		final Path file;
+		try {
+			file = directory.resolve(relativePath).normalize();
+		} catch (final InvalidPathException e) {
+			return Optional.empty();
+		}
+		if (!file.startsWith(directory) || file.equals(directory)) {
+			return Optional.empty();
+		}
+		return Optional.of(file);
+	}
+
+	/**
+	 * Writes the manifest in the targetGenDir.
+	 */
+	void write() {
+		final StringBuilder content = new StringBuilder();
+		entriesByPath.forEach((path, entry) -> content
+				.append(entry.contentDigest()).append(SEPARATOR)
+				.append(entry.inputFingerprint()).append(SEPARATOR)
+				.append(path).append('\n'));
+		try {
+			Files.createDirectories(targetGenDir);
+			Files.writeString(targetGenDir.resolve(MANIFEST_FILE_NAME), content, StandardCharsets.UTF_8);
+		} catch (final IOException e) {
+			throw WrappedException.wrap(e, "Can't write the manifest in {0}", targetGenDir);
+		}
+	}
+
+	/**
+	 * @param targetGenDir the directory of the generation
+	 * @param file a file of the generation
+	 * @return the path of the file relative to the targetGenDir, with '/' separators
+	 */
+	static String toRelativePath(final Path targetGenDir, final Path file) {
+		return targetGenDir.toAbsolutePath().normalize()
+				.relativize(file.toAbsolutePath().normalize())
+				.toString()
+				.replace('\\', '/');
+	}
+}
@@ -30,10 +30,10 @@ import io.vertigo.studio.notebook.Notebook;
 public interface GeneratorPlugin extends Plugin {
 	/**
 	 * Génération d'un fichier à partir d'une source et de paramètres.
-	 * @param generatorConfig general configuration of the generator
+	 * @param generationContext the generation, holding the general configuration of the generator
 	 * @param generatorResultBuilder Builder
 	 */
-	void generate(final Notebook notebook, final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder);
+	void generate(final Notebook notebook, final GenerationContext generationContext, final GeneratorResultBuilder generatorResultBuilder);
 
 	void clean(final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder);
 
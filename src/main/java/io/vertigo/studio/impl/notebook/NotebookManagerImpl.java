@@ -17,6 +17,8 @@
  */
 package io.vertigo.studio.impl.notebook;
 
+import java.nio.file.Path;
+
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -38,4 +40,14 @@ public final class NotebookManagerImpl implements NotebookManager {
 		return GSON.fromJson(json, Notebook.class);
 	}
 
+	@Override
+	public void writeSnapshot(final Notebook notebook, final Path snapshotPath) {
+		new NotebookSnapshotWriter(notebook).write(snapshotPath);
+	}
+
+	@Override
+	public Notebook readSnapshot(final Path snapshotPath) {
+		return NotebookSnapshotReader.read(snapshotPath);
+	}
+
 }
@@ -0,0 +1,87 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.notebook;
+
+import java.util.Map;
+
+/**
+ * Binary snapshot of a notebook.
+ * A snapshot contains :
+ * - a header (magic number and version of the format),
+ * - the table of the strings (each string is written once and then referenced by its id),
+ * - the sketches, each one with its kind and its values, a sketch being written after the sketches it holds,
+ * - the ids of the sketches registered in the notebook.
+ * A sketch held by another one (the DtSketch of an AssociationSketchNode, the DomainSketch of a field...) is written as its id.
+ *
+ * Each kind of sketch has its codec (see NotebookSnapshotCodecs) : a sketch is written from its getters,
+ * and read through its public constructor, factory or builder, so that it is checked as if it were read from the sources.
+ * A change of a codec (or of the list of the codecs) needs a new version of the format.
+ *
+ * @author mlaroche
+ */
+final class NotebookSnapshot {
+	/** "VSNB" */
+	static final int MAGIC = 0x56534E42;
+	static final int VERSION = 3;
+
+	//tags of the values of the properties
+	static final byte NULL = 0;
+	static final byte STRING = 1;
+	static final byte TRUE = 2;
+	static final byte FALSE = 3;
+	static final byte INT = 4;
+	static final byte LONG = 5;
+	static final byte DOUBLE = 6;
+	static final byte BIG_DECIMAL = 7;
+
+	//tags of the types
+	static final byte CLASS = 0;
+	static final byte PARAMETERIZED_TYPE = 1;
+
+	private static final Map<String, Class<?>> PRIMITIVE_CLASSES = Map.of(
+			"boolean", boolean.class,
+			"byte", byte.class,
+			"char", char.class,
+			"short", short.class,
+			"int", int.class,
+			"long", long.class,
+			"float", float.class,
+			"double", double.class,
+			"void", void.class);
+
+	private NotebookSnapshot() {
+		//private
+	}
+
+	/**
+	 * Loads a class held as a type by a sketch : the class is not initialized.
+	 * @param className the name of a class (or of a primitive type)
+	 * @return the class
+	 */
+	static Class<?> forName(final String className) {
+		final Class<?> primitiveClass = PRIMITIVE_CLASSES.get(className);
+		if (primitiveClass != null) {
+			return primitiveClass;
+		}
+		try {
+			return Class.forName(className, false, NotebookSnapshot.class.getClassLoader());
+		} catch (final ClassNotFoundException e) {
+			throw new IllegalStateException("The class " + className + " of the notebook snapshot is unknown, the sources must be read again", e);
+		}
+	}
+}
@@ -0,0 +1,542 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.notebook;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import io.vertigo.core.lang.BasicType;
+import io.vertigo.core.lang.Cardinality;
+import io.vertigo.core.locale.LocaleMessageText;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.notebook.authorization.SecuredFeatureSketch;
+import io.vertigo.studio.notebook.domain.ComputedExpression;
+import io.vertigo.studio.notebook.domain.DomainSketch;
+import io.vertigo.studio.notebook.domain.DtSketch;
+import io.vertigo.studio.notebook.domain.DtSketchBuilder;
+import io.vertigo.studio.notebook.domain.DtSketchField;
+import io.vertigo.studio.notebook.domain.DtSketchField.FieldType;
+import io.vertigo.studio.notebook.domain.StudioStereotype;
+import io.vertigo.studio.notebook.domain.association.AssociationNNSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationSimpleSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationSketchNode;
+import io.vertigo.studio.notebook.domain.masterdata.MasterDataValue;
+import io.vertigo.studio.notebook.domain.masterdata.StaticMasterDataSketch;
+import io.vertigo.studio.notebook.file.FileInfoSketch;
+import io.vertigo.studio.notebook.search.FacetSketch;
+import io.vertigo.studio.notebook.search.FacetSketch.FacetOrder;
+import io.vertigo.studio.notebook.search.FacetSketchValue;
+import io.vertigo.studio.notebook.search.FacetedQuerySketch;
+import io.vertigo.studio.notebook.search.SearchIndexSketch;
+import io.vertigo.studio.notebook.task.TaskSketch;
+import io.vertigo.studio.notebook.task.TaskSketchAttribute;
+import io.vertigo.studio.notebook.task.TaskSketchBuilder;
+import io.vertigo.studio.notebook.webservices.WebServiceSketch;
+import io.vertigo.studio.notebook.webservices.WebServiceSketch.Verb;
+import io.vertigo.studio.notebook.webservices.WebServiceSketchParam;
+import io.vertigo.studio.notebook.webservices.WebServiceSketchParam.WebServiceParamLocation;
+import io.vertigo.studio.notebook.webservices.WebServiceSketchResponseContent;
+
+/**
+ * The codecs of the sketches in a notebook snapshot.
+ * The kind of a sketch is the index of its codec : a codec is only appended, and the version of the format changes with the codecs.
+ * The labels are written as they are displayed, and created again as the source factories create them.
+ *
+ * @author mlaroche
+ */
+final class NotebookSnapshotCodecs {
+	private static final List<SketchCodec<?>> CODECS = List.of(
+			new SketchCodec<>(DomainSketch.class, NotebookSnapshotCodecs::writeDomain, NotebookSnapshotCodecs::readDomain),
+			new SketchCodec<>(DtSketch.class, NotebookSnapshotCodecs::writeDt, NotebookSnapshotCodecs::readDt),
+			new SketchCodec<>(AssociationSimpleSketch.class, NotebookSnapshotCodecs::writeAssociationSimple, NotebookSnapshotCodecs::readAssociationSimple),
+			new SketchCodec<>(AssociationNNSketch.class, NotebookSnapshotCodecs::writeAssociationNN, NotebookSnapshotCodecs::readAssociationNN),
+			new SketchCodec<>(StaticMasterDataSketch.class, NotebookSnapshotCodecs::writeStaticMasterData, NotebookSnapshotCodecs::readStaticMasterData),
+			new SketchCodec<>(TaskSketch.class, NotebookSnapshotCodecs::writeTask, NotebookSnapshotCodecs::readTask),
+			new SketchCodec<>(FileInfoSketch.class, NotebookSnapshotCodecs::writeFileInfo, NotebookSnapshotCodecs::readFileInfo),
+			new SketchCodec<>(SearchIndexSketch.class, NotebookSnapshotCodecs::writeSearchIndex, NotebookSnapshotCodecs::readSearchIndex),
+			new SketchCodec<>(FacetSketch.class, NotebookSnapshotCodecs::writeFacet, NotebookSnapshotCodecs::readFacet),
+			new SketchCodec<>(FacetedQuerySketch.class, NotebookSnapshotCodecs::writeFacetedQuery, NotebookSnapshotCodecs::readFacetedQuery),
+			new SketchCodec<>(SecuredFeatureSketch.class, NotebookSnapshotCodecs::writeSecuredFeature, NotebookSnapshotCodecs::readSecuredFeature),
+			new SketchCodec<>(WebServiceSketch.class, NotebookSnapshotCodecs::writeWebService, NotebookSnapshotCodecs::readWebService));
+
+	//kinds of facets
+	private static final byte TERM_FACET = 0;
+	private static final byte RANGE_FACET = 1;
+	private static final byte CUSTOM_FACET = 2;
+
+	private NotebookSnapshotCodecs() {
+		//private
+	}
+
+	/**
+	 * @param sketchClass the class of a sketch
+	 * @return the codec of the sketch
+	 */
+	static SketchCodec<?> getCodec(final Class<? extends Sketch> sketchClass) {
+		return CODECS.stream()
+				.filter(sketchCodec -> sketchCodec.sketchClass() == sketchClass)
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("sketch not supported in a notebook snapshot : " + sketchClass.getName()));
+	}
+
+	/**
+	 * @param kind the kind of a sketch read from a snapshot
+	 * @return the codec of the sketch
+	 */
+	static SketchCodec<?> getCodec(final byte kind) {
+		if (kind < 0 || kind >= CODECS.size()) {
+			throw new IllegalStateException("the notebook snapshot is corrupted (unknown kind of sketch " + kind + ")");
+		}
+		return CODECS.get(kind);
+	}
+
+	/**
+	 * @param sketchCodec a codec
+	 * @return the kind of the sketches written by this codec
+	 */
+	static byte getKind(final SketchCodec<?> sketchCodec) {
+		return (byte) CODECS.indexOf(sketchCodec);
+	}
+
+	//==========================================================================
+	//domain
+	//==========================================================================
+
+	private static void writeDomain(final DomainSketch domainSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(domainSketch.getKey().name());
+		writer.writeEnum(domainSketch.getScope());
+		switch (domainSketch.getScope()) {
+			case PRIMITIVE -> writer.writeEnum(domainSketch.getDataType());
+			case DATA_OBJECT -> writer.writeString(domainSketch.getDtSketchKey().name());
+			case VALUE_OBJECT -> writer.writeString(domainSketch.getValueObjectClassName());
+		}
+		final Properties properties = domainSketch.getProperties();
+		writer.writeCount(properties.size());
+		properties.forEach((name, value) -> {
+			writer.writeString((String) name);
+			writer.writeValue(value);
+		});
+	}
+
+	private static DomainSketch readDomain(final NotebookSnapshotReader reader) {
+		final String name = reader.readString();
+		final DomainSketch.Scope scope = reader.readEnum(DomainSketch.Scope.class);
+		final BasicType dataType = scope == DomainSketch.Scope.PRIMITIVE ? reader.readEnum(BasicType.class) : null;
+		final String dtSketchName = scope == DomainSketch.Scope.DATA_OBJECT ? reader.readString() : null;
+		final String valueObjectClassName = scope == DomainSketch.Scope.VALUE_OBJECT ? reader.readString() : null;
+		final Properties properties = new Properties();
+		for (int i = reader.readCount(); i > 0; i--) {
+			properties.put(reader.readString(), reader.readValue());
+		}
+		return switch (scope) {
+			case PRIMITIVE -> DomainSketch.of(name, properties, dataType);
+			case DATA_OBJECT -> DomainSketch.of(name, properties, SketchKey.of(dtSketchName));
+			case VALUE_OBJECT -> DomainSketch.of(name, properties, valueObjectClassName);
+		};
+	}
+
+	private static void writeDt(final DtSketch dtSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(dtSketch.getKey().name());
+		writer.writeSketch(dtSketch.getFragment().orElse(null));
+		writer.writeString(dtSketch.getPackageName());
+		writer.writeEnum(dtSketch.getStereotype());
+		writer.writeString(dtSketch.getDataSpace());
+		writer.writeCount(dtSketch.getFields().size());
+		for (final DtSketchField dtField : dtSketch.getFields()) {
+			writer.writeString(dtField.getName());
+			writer.writeEnum(dtField.getType());
+			writer.writeString(dtField.getLabel().getDisplay());
+			writer.writeSketch(dtField.getDomain());
+			writer.writeEnum(dtField.getCardinality());
+			writer.writeBoolean(dtField.isPersistent());
+			writer.writeString(dtField.getType().isForeignKey() ? dtField.getFkDtSketchName() : null);
+			writer.writeString(dtField.getType().isComputed() ? dtField.getComputedExpression().getJavaCode() : null);
+		}
+		//the fields of a fragment taken from its persistent DtSketch are taken again by the builder
+		writer.writeString(getOwnFieldName(dtSketch, dtSketch.getSortField()));
+		writer.writeString(getOwnFieldName(dtSketch, dtSketch.getDisplayField()));
+		writer.writeString(getOwnFieldName(dtSketch, dtSketch.getHandleField()));
+		writer.writeString(getOwnFieldName(dtSketch, dtSketch.getKeyField()));
+	}
+
+	private static String getOwnFieldName(final DtSketch dtSketch, final Optional<DtSketchField> dtFieldOpt) {
+		return dtFieldOpt
+				.filter(dtField -> dtSketch.getFields().contains(dtField))
+				.map(DtSketchField::getName)
+				.orElse(null);
+	}
+
+	private static DtSketch readDt(final NotebookSnapshotReader reader) {
+		final DtSketchBuilder dtSketchBuilder = DtSketch.builder(reader.readString());
+		final DtSketch fragment = reader.readSketch(DtSketch.class);
+		if (fragment != null) {
+			dtSketchBuilder.withFragment(fragment);
+		}
+		dtSketchBuilder
+				.withPackageName(reader.readString())
+				.withStereoType(reader.readEnum(StudioStereotype.class))
+				.withDataSpace(reader.readString());
+		//the foreign keys are added once the DtSketch is built, as the source factory does
+		final List<Runnable> foreignKeys = new ArrayList<>();
+		for (int i = reader.readCount(); i > 0; i--) {
+			final String fieldName = reader.readString();
+			final FieldType type = reader.readEnum(FieldType.class);
+			final String label = reader.readString();
+			final DomainSketch domainSketch = reader.readSketch(DomainSketch.class);
+			final Cardinality cardinality = reader.readEnum(Cardinality.class);
+			final boolean persistent = reader.readBoolean();
+			final String fkDtSketchName = reader.readString();
+			final String computedExpression = reader.readString();
+			switch (type) {
+				case ID -> dtSketchBuilder.addIdField(fieldName, label, domainSketch);
+				case DATA -> dtSketchBuilder.addDataField(fieldName, label, domainSketch, cardinality, persistent);
+				case COMPUTED -> dtSketchBuilder.addComputedField(fieldName, label, domainSketch, cardinality, new ComputedExpression(computedExpression));
+				case FOREIGN_KEY -> foreignKeys.add(() -> dtSketchBuilder.addForeignKey(fieldName, label, domainSketch, cardinality, fkDtSketchName));
+			}
+		}
+		dtSketchBuilder
+				.withSortField(reader.readString())
+				.withDisplayField(reader.readString())
+				.withHandleField(reader.readString())
+				.withKeyField(reader.readString());
+		final DtSketch dtSketch = dtSketchBuilder.build();
+		foreignKeys.forEach(Runnable::run);
+		return dtSketch;
+	}
+
+	private static void writeAssociationSimple(final AssociationSimpleSketch associationSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(associationSketch.getKey().name());
+		writer.writeString(associationSketch.getFKField().getName());
+		writeAssociationNode(associationSketch.getAssociationNodeA(), writer);
+		writeAssociationNode(associationSketch.getAssociationNodeB(), writer);
+	}
+
+	private static AssociationSimpleSketch readAssociationSimple(final NotebookSnapshotReader reader) {
+		return new AssociationSimpleSketch(
+				reader.readString(),
+				reader.readString(),
+				readAssociationNode(reader),
+				readAssociationNode(reader));
+	}
+
+	private static void writeAssociationNN(final AssociationNNSketch associationSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(associationSketch.getKey().name());
+		writer.writeString(associationSketch.getTableName());
+		writeAssociationNode(associationSketch.getAssociationNodeA(), writer);
+		writeAssociationNode(associationSketch.getAssociationNodeB(), writer);
+	}
+
+	private static AssociationNNSketch readAssociationNN(final NotebookSnapshotReader reader) {
+		return new AssociationNNSketch(
+				reader.readString(),
+				reader.readString(),
+				readAssociationNode(reader),
+				readAssociationNode(reader));
+	}
+
+	private static void writeAssociationNode(final AssociationSketchNode associationNode, final NotebookSnapshotWriter writer) {
+		writer.writeSketch(associationNode.getDtSketch());
+		writer.writeBoolean(associationNode.isNavigable());
+		writer.writeString(associationNode.getRole());
+		writer.writeString(associationNode.getLabel());
+		writer.writeBoolean(associationNode.isMultiple());
+		writer.writeBoolean(associationNode.isNotNull());
+	}
+
+	private static AssociationSketchNode readAssociationNode(final NotebookSnapshotReader reader) {
+		return new AssociationSketchNode(
+				reader.readSketch(DtSketch.class),
+				reader.readBoolean(),
+				reader.readString(),
+				reader.readString(),
+				reader.readBoolean(),
+				reader.readBoolean());
+	}
+
+	private static void writeStaticMasterData(final StaticMasterDataSketch masterDataSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(masterDataSketch.getEntityClassName());
+		writer.writeCount(masterDataSketch.getValues().size());
+		masterDataSketch.getValues().forEach((name, masterDataValue) -> {
+			writer.writeString(name);
+			writer.writeCount(masterDataValue.size());
+			masterDataValue.forEach((fieldName, value) -> {
+				writer.writeString(fieldName);
+				writer.writeString(value);
+			});
+		});
+	}
+
+	private static StaticMasterDataSketch readStaticMasterData(final NotebookSnapshotReader reader) {
+		final String entityClassName = reader.readString();
+		//the values keep the order of the sources
+		final Map<String, MasterDataValue> values = new LinkedHashMap<>();
+		for (int i = reader.readCount(); i > 0; i--) {
+			final String name = reader.readString();
+			final MasterDataValue masterDataValue = new MasterDataValue();
+			for (int j = reader.readCount(); j > 0; j--) {
+				masterDataValue.put(reader.readString(), reader.readString());
+			}
+			values.put(name, masterDataValue);
+		}
+		return new StaticMasterDataSketch(entityClassName, values);
+	}
+
+	//==========================================================================
+	//task
+	//==========================================================================
+
+	private static void writeTask(final TaskSketch taskSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(taskSketch.getKey().name());
+		writer.writeString(taskSketch.getPackageName());
+		writer.writeString(taskSketch.getDataSpace());
+		writer.writeString(taskSketch.getTaskEngineClassName());
+		writer.writeString(taskSketch.getRequest());
+		writer.writeCount(taskSketch.getInAttributes().size());
+		taskSketch.getInAttributes().forEach(taskAttribute -> writeTaskAttribute(taskAttribute, writer));
+		writer.writeBoolean(taskSketch.getOutAttributeOpt().isPresent());
+		taskSketch.getOutAttributeOpt().ifPresent(taskAttribute -> writeTaskAttribute(taskAttribute, writer));
+	}
+
+	private static void writeTaskAttribute(final TaskSketchAttribute taskAttribute, final NotebookSnapshotWriter writer) {
+		writer.writeString(taskAttribute.getName());
+		writer.writeSketch(taskAttribute.getDomain());
+		writer.writeEnum(taskAttribute.getCardinality());
+	}
+
+	private static TaskSketch readTask(final NotebookSnapshotReader reader) {
+		final TaskSketchBuilder taskSketchBuilder = TaskSketch.builder(reader.readString())
+				.withPackageName(reader.readString())
+				.withDataSpace(reader.readString())
+				.withEngine(reader.readString())
+				.withRequest(reader.readString());
+		for (int i = reader.readCount(); i > 0; i--) {
+			taskSketchBuilder.addInAttribute(reader.readString(), reader.readSketch(DomainSketch.class), reader.readEnum(Cardinality.class));
+		}
+		if (reader.readBoolean()) {
+			taskSketchBuilder.withOutAttribute(reader.readString(), reader.readSketch(DomainSketch.class), reader.readEnum(Cardinality.class));
+		}
+		return taskSketchBuilder.build();
+	}
+
+	//==========================================================================
+	//file
+	//==========================================================================
+
+	private static void writeFileInfo(final FileInfoSketch fileInfoSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(fileInfoSketch.getKey().name());
+		writer.writeString(fileInfoSketch.getStoreName());
+	}
+
+	private static FileInfoSketch readFileInfo(final NotebookSnapshotReader reader) {
+		return new FileInfoSketch(reader.readString(), reader.readString());
+	}
+
+	//==========================================================================
+	//search
+	//==========================================================================
+
+	private static void writeSearchIndex(final SearchIndexSketch searchIndexSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(searchIndexSketch.getKey().name());
+		writer.writeSketch(searchIndexSketch.getKeyConceptDtSketch());
+		writer.writeSketch(searchIndexSketch.getIndexDtSketch());
+		//the copied fields are fields of the index
+		writer.writeCount(searchIndexSketch.getIndexCopyToFields().size());
+		for (final DtSketchField toField : searchIndexSketch.getIndexCopyToFields()) {
+			writer.writeString(toField.getName());
+			final List<DtSketchField> fromFields = searchIndexSketch.getIndexCopyToFromFields(toField);
+			writer.writeCount(fromFields.size());
+			fromFields.forEach(fromField -> writer.writeString(fromField.getName()));
+		}
+		writer.writeString(searchIndexSketch.getSearchLoaderId());
+	}
+
+	private static SearchIndexSketch readSearchIndex(final NotebookSnapshotReader reader) {
+		final String name = reader.readString();
+		final DtSketch keyConceptDtSketch = reader.readSketch(DtSketch.class);
+		final DtSketch indexDtSketch = reader.readSketch(DtSketch.class);
+		final Map<DtSketchField, List<DtSketchField>> copyToFields = new LinkedHashMap<>();
+		for (int i = reader.readCount(); i > 0; i--) {
+			final DtSketchField toField = indexDtSketch.getField(reader.readString());
+			final List<DtSketchField> fromFields = new ArrayList<>();
+			for (int j = reader.readCount(); j > 0; j--) {
+				fromFields.add(indexDtSketch.getField(reader.readString()));
+			}
+			copyToFields.put(toField, fromFields);
+		}
+		return new SearchIndexSketch(name, keyConceptDtSketch, indexDtSketch, copyToFields, reader.readString());
+	}
+
+	private static void writeFacet(final FacetSketch facetSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(facetSketch.getKey().name());
+		writer.writeSketch(facetSketch.getIndexDtSketch());
+		//the field is a field of the index
+		writer.writeString(facetSketch.getDtField().getName());
+		writer.writeString(facetSketch.getLabel().getDisplay());
+		writer.writeBoolean(facetSketch.isMultiSelectable());
+		writer.writeEnum(facetSketch.getOrder());
+		if (facetSketch.isRangeFacet()) {
+			writer.writeBoolean(true);
+			writer.writeCount(facetSketch.getFacetRanges().size());
+			for (final FacetSketchValue facetValue : facetSketch.getFacetRanges()) {
+				writer.writeString(facetValue.code());
+				writer.writeString(facetValue.listFilter());
+				writer.writeString(facetValue.label());
+			}
+		} else if (facetSketch.isCustomFacet()) {
+			writer.writeBoolean(false);
+			writer.writeCount(facetSketch.getFacetParams().size());
+			facetSketch.getFacetParams().forEach((name, value) -> {
+				writer.writeString(name);
+				writer.writeString(value);
+			});
+		} else {
+			writer.writeBoolean(false);
+			writer.writeCount(0);
+		}
+	}
+
+	private static FacetSketch readFacet(final NotebookSnapshotReader reader) {
+		final String name = reader.readString();
+		final DtSketch indexDtSketch = reader.readSketch(DtSketch.class);
+		final DtSketchField dtField = indexDtSketch.getField(reader.readString());
+		final LocaleMessageText label = LocaleMessageText.of(reader.readString());
+		final boolean multiSelectable = reader.readBoolean();
+		final FacetOrder order = reader.readEnum(FacetOrder.class);
+		if (reader.readBoolean()) {
+			final List<FacetSketchValue> facetValues = new ArrayList<>();
+			for (int i = reader.readCount(); i > 0; i--) {
+				facetValues.add(new FacetSketchValue(reader.readString(), reader.readString(), reader.readString()));
+			}
+			return FacetSketch.createFacetSketchByRange(name, indexDtSketch, dtField, label, facetValues, multiSelectable, order);
+		}
+		//the params keep their order
+		final Map<String, String> facetParams = new LinkedHashMap<>();
+		for (int i = reader.readCount(); i > 0; i--) {
+			facetParams.put(reader.readString(), reader.readString());
+		}
+		return facetParams.isEmpty()
+				? FacetSketch.createFacetSketchByTerm(name, indexDtSketch, dtField, label, multiSelectable, order)
+				: FacetSketch.createCustomFacetSketch(name, indexDtSketch, dtField, label, facetParams, multiSelectable, order);
+	}
+
+	private static void writeFacetedQuery(final FacetedQuerySketch facetedQuerySketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(facetedQuerySketch.getKey().name());
+		writer.writeSketch(facetedQuerySketch.getIndexDtSketch());
+		writer.writeCount(facetedQuerySketch.getFacetSketchs().size());
+		facetedQuerySketch.getFacetSketchs().forEach(writer::writeSketch);
+		writer.writeSketch(facetedQuerySketch.getCriteriaDomain());
+		writer.writeString(facetedQuerySketch.getListFilterBuilderClassName());
+		writer.writeString(facetedQuerySketch.getListFilterBuilderQuery());
+		writer.writeString(facetedQuerySketch.hasGeoSearch() ? facetedQuerySketch.getGeoSearchQuery() : null);
+	}
+
+	private static FacetedQuerySketch readFacetedQuery(final NotebookSnapshotReader reader) {
+		final String name = reader.readString();
+		final DtSketch indexDtSketch = reader.readSketch(DtSketch.class);
+		final List<FacetSketch> facetSketchs = new ArrayList<>();
+		for (int i = reader.readCount(); i > 0; i--) {
+			facetSketchs.add(reader.readSketch(FacetSketch.class));
+		}
+		return new FacetedQuerySketch(
+				name,
+				indexDtSketch,
+				facetSketchs,
+				reader.readSketch(DomainSketch.class),
+				reader.readString(),
+				reader.readString(),
+				Optional.ofNullable(reader.readString()));
+	}
+
+	//==========================================================================
+	//authorization
+	//==========================================================================
+
+	private static void writeSecuredFeature(final SecuredFeatureSketch securedFeatureSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(securedFeatureSketch.getCode());
+		writer.writeString(securedFeatureSketch.getLabel());
+		writer.writeString(securedFeatureSketch.getComment().orElse(null));
+		writer.writeString(securedFeatureSketch.getLinkedResourceOpt().orElse(null));
+	}
+
+	private static SecuredFeatureSketch readSecuredFeature(final NotebookSnapshotReader reader) {
+		return new SecuredFeatureSketch(
+				reader.readString(),
+				reader.readString(),
+				Optional.ofNullable(reader.readString()),
+				Optional.ofNullable(reader.readString()));
+	}
+
+	//==========================================================================
+	//webservices
+	//==========================================================================
+
+	private static void writeWebService(final WebServiceSketch webServiceSketch, final NotebookSnapshotWriter writer) {
+		writer.writeString(webServiceSketch.getKey().name());
+		writer.writeEnum(webServiceSketch.getVerb());
+		writer.writeString(webServiceSketch.getPath());
+		writer.writeCount(webServiceSketch.getWebServiceParams().size());
+		for (final WebServiceSketchParam webServiceParam : webServiceSketch.getWebServiceParams()) {
+			writer.writeString(webServiceParam.getName());
+			writer.writeEnum(webServiceParam.getParamLocation());
+			writer.writeType(webServiceParam.getGenericType());
+			writer.writeEnum(webServiceParam.getCardinality());
+		}
+		final Optional<WebServiceSketchResponseContent> responseContentOpt = webServiceSketch.getWebServiceResponseContentOpt();
+		writer.writeBoolean(responseContentOpt.isPresent());
+		responseContentOpt.ifPresent(responseContent -> {
+			writer.writeType(responseContent.getGenericType());
+			writer.writeEnum(responseContent.getCardinality());
+		});
+		writer.writeString(webServiceSketch.getModuleName());
+		writer.writeString(webServiceSketch.getGroupNameOpt().orElse(null));
+		writer.writeString(webServiceSketch.getHumanReadableAction());
+		writer.writeString(webServiceSketch.getDoc());
+	}
+
+	private static WebServiceSketch readWebService(final NotebookSnapshotReader reader) {
+		final String name = reader.readString();
+		final Verb verb = reader.readEnum(Verb.class);
+		final String path = reader.readString();
+		final List<WebServiceSketchParam> webServiceParams = new ArrayList<>();
+		for (int i = reader.readCount(); i > 0; i--) {
+			webServiceParams.add(new WebServiceSketchParam(
+					reader.readString(),
+					reader.readEnum(WebServiceParamLocation.class),
+					reader.readType(),
+					reader.readEnum(Cardinality.class)));
+		}
+		final Optional<WebServiceSketchResponseContent> responseContentOpt = reader.readBoolean()
+				? Optional.of(new WebServiceSketchResponseContent(reader.readType(), reader.readEnum(Cardinality.class)))
+				: Optional.empty();
+		return new WebServiceSketch(
+				name,
+				verb,
+				path,
+				webServiceParams,
+				responseContentOpt,
+				reader.readString(),
+				Optional.ofNullable(reader.readString()),
+				reader.readString(),
+				reader.readString());
+	}
+}
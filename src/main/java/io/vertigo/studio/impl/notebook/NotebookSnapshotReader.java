@@ -0,0 +1,271 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.notebook;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+
+/**
+ * Reads a notebook from a binary snapshot (see NotebookSnapshot).
+ * A sketch is read after the sketches it holds : they are resolved by their id.
+ * Every count is checked against the remaining bytes before anything is allocated.
+ *
+ * @author mlaroche
+ */
+final class NotebookSnapshotReader {
+	private final ByteBuffer buffer;
+	private String[] strings;
+	private Sketch[] sketches;
+	/** the number of the sketches already read */
+	private int sketchCount;
+
+	private NotebookSnapshotReader(final ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Reads a snapshot.
+	 * @param snapshotPath the file of the snapshot
+	 * @return the notebook
+	 */
+	static Notebook read(final Path snapshotPath) {
+		Assertion.check().isNotNull(snapshotPath);
+		//-----
+		final ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+			buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				//the whole snapshot is read in memory
+			}
+		} catch (final IOException e) {
+			throw WrappedException.wrap(e, "Can't read the snapshot {0}", snapshotPath);
+		}
+		try {
+			return new NotebookSnapshotReader(buffer.flip()).read();
+		} catch (final BufferUnderflowException | IndexOutOfBoundsException | ClassCastException | IllegalArgumentException
+				| NullPointerException | NegativeArraySizeException | OutOfMemoryError e) {
+			throw new IllegalStateException("The notebook snapshot " + snapshotPath + " is truncated or corrupted", e);
+		}
+	}
+
+	private Notebook read() {
+		Assertion.check()
+				.isTrue(buffer.getInt() == NotebookSnapshot.MAGIC, "not a notebook snapshot")
+				.isTrue(buffer.getInt() == NotebookSnapshot.VERSION, "the version of the notebook snapshot is not supported (expected {0}), the sources must be read again", NotebookSnapshot.VERSION);
+		//-----
+		strings = new String[readCount()];
+		for (int i = 0; i < strings.length; i++) {
+			final int length = readCount();
+			strings[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		}
+		sketches = new Sketch[readCount()];
+		while (sketchCount < sketches.length) {
+			final SketchCodec<?> sketchCodec = NotebookSnapshotCodecs.getCodec(buffer.get());
+			sketches[sketchCount] = sketchCodec.read(this);
+			sketchCount++;
+		}
+		final Notebook notebook = new Notebook();
+		for (int i = readCount(); i > 0; i--) {
+			notebook.register(getSketch(getVarInt()));
+		}
+		Assertion.check().isFalse(buffer.hasRemaining(), "the notebook snapshot is corrupted");
+		return notebook;
+	}
+
+	/**
+	 * @return a string (nullable)
+	 */
+	String readString() {
+		final int stringId = getVarInt();
+		return stringId == 0 ? null : strings[stringId - 1];
+	}
+
+	boolean readBoolean() {
+		final byte value = buffer.get();
+		Assertion.check().isTrue(value == 0 || value == 1, "the notebook snapshot is corrupted (boolean {0})", value);
+		return value == 1;
+	}
+
+	/**
+	 * Reads the number of the elements which follow : each element takes at least a byte.
+	 * @return the number of the elements
+	 */
+	int readCount() {
+		final int count = getVarInt();
+		Assertion.check().isTrue(count <= buffer.remaining(), "the notebook snapshot is corrupted (count {0})", count);
+		return count;
+	}
+
+	/**
+	 * @return a constant (nullable)
+	 */
+	<E extends Enum<E>> E readEnum(final Class<E> enumClass) {
+		final String name = readString();
+		return name == null ? null : Enum.valueOf(enumClass, name);
+	}
+
+	/**
+	 * @return a sketch held by the sketch being read (nullable)
+	 */
+	<S extends Sketch> S readSketch(final Class<S> sketchClass) {
+		final int sketchId = getVarInt();
+		if (sketchId == 0) {
+			return null;
+		}
+		final Sketch sketch = getSketch(sketchId - 1);
+		Assertion.check().isTrue(sketchClass.isInstance(sketch), "the notebook snapshot is corrupted ({0} is not a {1})", sketch.getKey(), sketchClass.getSimpleName());
+		return sketchClass.cast(sketch);
+	}
+
+	private Sketch getSketch(final int sketchId) {
+		//a sketch is held only by the sketches read after it
+		Assertion.check().isTrue(sketchId < sketchCount, "the notebook snapshot is corrupted (sketch {0})", sketchId);
+		return sketches[sketchId];
+	}
+
+	/**
+	 * @return the value of a property
+	 */
+	Object readValue() {
+		final byte tag = buffer.get();
+		return switch (tag) {
+			case NotebookSnapshot.NULL -> null;
+			case NotebookSnapshot.STRING -> readString();
+			case NotebookSnapshot.TRUE -> Boolean.TRUE;
+			case NotebookSnapshot.FALSE -> Boolean.FALSE;
+			case NotebookSnapshot.INT -> (int) getVarLong();
+			case NotebookSnapshot.LONG -> getVarLong();
+			case NotebookSnapshot.DOUBLE -> Double.longBitsToDouble(buffer.getLong());
+			case NotebookSnapshot.BIG_DECIMAL -> new BigDecimal(readString());
+			default -> throw new IllegalStateException("the notebook snapshot is corrupted (unknown tag " + tag + ")");
+		};
+	}
+
+	/**
+	 * @return a type held by a sketch : its class is loaded but never initialized
+	 */
+	Type readType() {
+		final byte tag = buffer.get();
+		return switch (tag) {
+			case NotebookSnapshot.CLASS -> NotebookSnapshot.forName(readString());
+			case NotebookSnapshot.PARAMETERIZED_TYPE -> {
+				final Type rawType = readType();
+				final Type ownerType = readBoolean() ? readType() : null;
+				final Type[] actualTypeArguments = new Type[readCount()];
+				for (int i = 0; i < actualTypeArguments.length; i++) {
+					actualTypeArguments[i] = readType();
+				}
+				yield new SnapshotParameterizedType(rawType, ownerType, actualTypeArguments);
+			}
+			default -> throw new IllegalStateException("the notebook snapshot is corrupted (unknown type tag " + tag + ")");
+		};
+	}
+
+	private int getVarInt() {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			final byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				Assertion.check().isTrue(value >= 0, "the notebook snapshot is corrupted (varint)");
+				return value;
+			}
+		}
+		throw new IllegalStateException("the notebook snapshot is corrupted (varint)");
+	}
+
+	private long getVarLong() {
+		long value = 0;
+		for (int shift = 0; shift < Long.SIZE; shift += 7) {
+			final byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return (value >>> 1) ^ -(value & 1);
+			}
+		}
+		throw new IllegalStateException("the notebook snapshot is corrupted (varlong)");
+	}
+
+	/**
+	 * A parameterized type read from a snapshot (equal to the parameterized type of the JDK it was written from).
+	 */
+	private static final class SnapshotParameterizedType implements ParameterizedType {
+		private final Type rawType;
+		private final Type ownerType;
+		private final Type[] actualTypeArguments;
+
+		SnapshotParameterizedType(final Type rawType, final Type ownerType, final Type[] actualTypeArguments) {
+			this.rawType = rawType;
+			this.ownerType = ownerType;
+			this.actualTypeArguments = actualTypeArguments;
+		}
+
+		@Override
+		public Type getRawType() {
+			return rawType;
+		}
+
+		@Override
+		public Type getOwnerType() {
+			return ownerType;
+		}
+
+		@Override
+		public Type[] getActualTypeArguments() {
+			return actualTypeArguments.clone();
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			return other instanceof final ParameterizedType parameterizedType
+					&& Objects.equals(rawType, parameterizedType.getRawType())
+					&& Objects.equals(ownerType, parameterizedType.getOwnerType())
+					&& Arrays.equals(actualTypeArguments, parameterizedType.getActualTypeArguments());
+		}
+
+		@Override
+		public int hashCode() {
+			//same hash as the JDK
+			return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+		}
+
+		@Override
+		public String toString() {
+			return rawType.getTypeName() + Arrays.stream(actualTypeArguments)
+					.map(Type::getTypeName)
+					.collect(Collectors.joining(", ", "<", ">"));
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.notebook;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+
+/**
+ * Writes a notebook as a binary snapshot (see NotebookSnapshot).
+ * Each sketch is encoded in its own buffer, after the sketches it holds ;
+ * the table of the strings is complete once all the sketches are encoded.
+ *
+ * @author mlaroche
+ */
+final class NotebookSnapshotWriter {
+	private final Notebook notebook;
+	private final Map<String, Integer> stringIds = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+	/** the ids of the sketches already encoded */
+	private final Map<Sketch, Integer> sketchIds = new IdentityHashMap<>();
+	private final List<ByteBuffer> sketchBuffers = new ArrayList<>();
+	/** the sketches being encoded (a sketch holding itself can't be written) */
+	private final Set<Sketch> encodingSketches = Collections.newSetFromMap(new IdentityHashMap<>());
+	/** the buffer of the sketch being encoded */
+	private SnapshotBuffer buffer;
+
+	/**
+	 * Constructor.
+	 * @param notebook the notebook
+	 */
+	NotebookSnapshotWriter(final Notebook notebook) {
+		Assertion.check().isNotNull(notebook);
+		//-----
+		this.notebook = notebook;
+	}
+
+	/**
+	 * Writes the snapshot.
+	 * @param snapshotPath the file of the snapshot
+	 */
+	void write(final Path snapshotPath) {
+		Assertion.check().isNotNull(snapshotPath);
+		//-----
+		final List<Integer> registeredSketchIds = notebook.getAll(Sketch.class)
+				.stream()
+				.map(this::getSketchId)
+				.toList();
+		//-----
+		final SnapshotBuffer tables = new SnapshotBuffer(64 * 1024);
+		tables.putInt(NotebookSnapshot.MAGIC);
+		tables.putInt(NotebookSnapshot.VERSION);
+		tables.putVarInt(strings.size());
+		for (final String string : strings) {
+			final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			tables.putVarInt(bytes.length);
+			tables.put(bytes);
+		}
+		tables.putVarInt(sketchBuffers.size());
+		final SnapshotBuffer registeredSketches = new SnapshotBuffer(5 * (registeredSketchIds.size() + 1));
+		registeredSketches.putVarInt(registeredSketchIds.size());
+		registeredSketchIds.forEach(registeredSketches::putVarInt);
+		//-----
+		final List<ByteBuffer> buffers = new ArrayList<>();
+		buffers.add(tables.flip());
+		buffers.addAll(sketchBuffers);
+		buffers.add(registeredSketches.flip());
+		try {
+			if (snapshotPath.getParent() != null) {
+				Files.createDirectories(snapshotPath.getParent());
+			}
+			try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				final ByteBuffer[] bufferArray = buffers.toArray(ByteBuffer[]::new);
+				while (bufferArray[bufferArray.length - 1].hasRemaining()) {
+					channel.write(bufferArray);
+				}
+			}
+		} catch (final IOException e) {
+			throw WrappedException.wrap(e, "Can't write the snapshot {0}", snapshotPath);
+		}
+	}
+
+	/**
+	 * @return the id of the sketch, once it is encoded (with the sketches it holds)
+	 */
+	private int getSketchId(final Sketch sketch) {
+		final Integer sketchId = sketchIds.get(sketch);
+		if (sketchId != null) {
+			return sketchId;
+		}
+		Assertion.check().isTrue(encodingSketches.add(sketch), "the sketch {0} holds itself, it can't be written in a notebook snapshot", sketch.getKey());
+		final SnapshotBuffer holderBuffer = buffer;
+		buffer = new SnapshotBuffer(256);
+		final SketchCodec<?> sketchCodec = NotebookSnapshotCodecs.getCodec(sketch.getClass());
+		buffer.putByte(NotebookSnapshotCodecs.getKind(sketchCodec));
+		sketchCodec.write(sketch, this);
+		final int newSketchId = sketchBuffers.size();
+		sketchBuffers.add(buffer.flip());
+		sketchIds.put(sketch, newSketchId);
+		encodingSketches.remove(sketch);
+		buffer = holderBuffer;
+		return newSketchId;
+	}
+
+	/**
+	 * @param string a string (nullable)
+	 */
+	void writeString(final String string) {
+		buffer.putVarInt(string == null ? 0 : intern(string) + 1);
+	}
+
+	void writeBoolean(final boolean value) {
+		buffer.putByte((byte) (value ? 1 : 0));
+	}
+
+	/**
+	 * @param count the number of the elements which follow
+	 */
+	void writeCount(final int count) {
+		buffer.putVarInt(count);
+	}
+
+	/**
+	 * @param value a constant (nullable)
+	 */
+	void writeEnum(final Enum<?> value) {
+		writeString(value == null ? null : value.name());
+	}
+
+	/**
+	 * @param sketch a sketch held by the sketch being written (nullable)
+	 */
+	void writeSketch(final Sketch sketch) {
+		final int sketchId = sketch == null ? -1 : getSketchId(sketch);
+		buffer.putVarInt(sketchId + 1);
+	}
+
+	/**
+	 * @param value the value of a property (a string, a boolean, a number or null)
+	 */
+	void writeValue(final Object value) {
+		if (value == null) {
+			buffer.putByte(NotebookSnapshot.NULL);
+		} else if (value instanceof final String string) {
+			buffer.putByte(NotebookSnapshot.STRING);
+			writeString(string);
+		} else if (value instanceof final Boolean bool) {
+			buffer.putByte(bool ? NotebookSnapshot.TRUE : NotebookSnapshot.FALSE);
+		} else if (value instanceof final Integer integer) {
+			buffer.putByte(NotebookSnapshot.INT);
+			buffer.putVarLong(integer);
+		} else if (value instanceof final Long longValue) {
+			buffer.putByte(NotebookSnapshot.LONG);
+			buffer.putVarLong(longValue);
+		} else if (value instanceof final Double doubleValue) {
+			buffer.putByte(NotebookSnapshot.DOUBLE);
+			buffer.putLong(Double.doubleToRawLongBits(doubleValue));
+		} else if (value instanceof final BigDecimal bigDecimal) {
+			buffer.putByte(NotebookSnapshot.BIG_DECIMAL);
+			writeString(bigDecimal.toString());
+		} else {
+			throw new IllegalArgumentException("value not supported in a notebook snapshot : " + value.getClass().getName());
+		}
+	}
+
+	/**
+	 * @param type a type held by a sketch : a class or a parameterized type
+	 */
+	void writeType(final Type type) {
+		if (type instanceof final Class<?> clazz) {
+			buffer.putByte(NotebookSnapshot.CLASS);
+			writeString(clazz.getName());
+		} else if (type instanceof final ParameterizedType parameterizedType) {
+			buffer.putByte(NotebookSnapshot.PARAMETERIZED_TYPE);
+			writeType(parameterizedType.getRawType());
+			final Type ownerType = parameterizedType.getOwnerType();
+			writeBoolean(ownerType != null);
+			if (ownerType != null) {
+				writeType(ownerType);
+			}
+			writeCount(parameterizedType.getActualTypeArguments().length);
+			for (final Type actualTypeArgument : parameterizedType.getActualTypeArguments()) {
+				writeType(actualTypeArgument);
+			}
+		} else {
+			throw new IllegalArgumentException("type not supported in a notebook snapshot : " + type.getTypeName());
+		}
+	}
+
+	private int intern(final String string) {
+		return stringIds.computeIfAbsent(string, s -> {
+			strings.add(s);
+			return strings.size() - 1;
+		});
+	}
+
+	/**
+	 * A growing buffer.
+	 * The ints are written as varints (zigzag encoded when they may be negative).
+	 */
+	private static final class SnapshotBuffer {
+		private ByteBuffer buffer;
+
+		SnapshotBuffer(final int capacity) {
+			buffer = ByteBuffer.allocate(capacity);
+		}
+
+		private void ensureCapacity(final int size) {
+			if (buffer.remaining() < size) {
+				final ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+				buffer.flip();
+				newBuffer.put(buffer);
+				buffer = newBuffer;
+			}
+		}
+
+		void putByte(final byte value) {
+			ensureCapacity(1);
+			buffer.put(value);
+		}
+
+		void put(final byte[] bytes) {
+			ensureCapacity(bytes.length);
+			buffer.put(bytes);
+		}
+
+		void putInt(final int value) {
+			ensureCapacity(Integer.BYTES);
+			buffer.putInt(value);
+		}
+
+		void putLong(final long value) {
+			ensureCapacity(Long.BYTES);
+			buffer.putLong(value);
+		}
+
+		void putVarInt(final int value) {
+			Assertion.check().isTrue(value >= 0, "a varint must be positive");
+			//---
+			ensureCapacity(5);
+			int remaining = value;
+			while ((remaining & ~0x7F) != 0) {
+				buffer.put((byte) ((remaining & 0x7F) | 0x80));
+				remaining >>>= 7;
+			}
+			buffer.put((byte) remaining);
+		}
+
+		void putVarLong(final long value) {
+			ensureCapacity(10);
+			long remaining = (value << 1) ^ (value >> 63);
+			while ((remaining & ~0x7FL) != 0) {
+				buffer.put((byte) ((remaining & 0x7F) | 0x80));
+				remaining >>>= 7;
+			}
+			buffer.put((byte) remaining);
+		}
+
+		ByteBuffer flip() {
+			return buffer.flip();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.notebook;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.notebook.Sketch;
+
+/**
+ * Codec of a kind of sketch in a notebook snapshot.
+ * The sketch is written from its getters and read through its public constructor, factory or builder.
+ *
+ * @author mlaroche
+ * @param <S> the type of the sketch
+ * @param sketchClass the class of the sketch
+ * @param encoder writes the values of a sketch
+ * @param decoder creates a sketch from its values
+ */
+record SketchCodec<S extends Sketch>(
+		Class<S> sketchClass,
+		BiConsumer<S, NotebookSnapshotWriter> encoder,
+		Function<NotebookSnapshotReader, S> decoder) {
+
+	SketchCodec {
+		Assertion.check()
+				.isNotNull(sketchClass)
+				.isNotNull(encoder)
+				.isNotNull(decoder);
+	}
+
+	void write(final Sketch sketch, final NotebookSnapshotWriter writer) {
+		encoder.accept(sketchClass.cast(sketch), writer);
+	}
+
+	Sketch read(final NotebookSnapshotReader reader) {
+		return decoder.apply(reader);
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.source;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.resource.ResourceManager;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.source.LiveNotebook;
+import io.vertigo.studio.source.Source;
+
+/**
+ * Live notebook of the SourceManager.
+ * The plugins with a live reading apply the changes of their files ;
+ * the other plugins read all their sources again when one of their files changes.
+ *
+ * @author mlaroche
+ */
+final class LiveNotebookImpl implements LiveNotebook {
+	private final Map<SourceReaderPlugin, List<Source>> sourcesByPlugin;
+	private final ResourceManager resourceManager;
+
+	private Notebook notebook;
+	private final Map<SourceReaderPlugin, LiveSourceReading> liveReadingsByPlugin = new LinkedHashMap<>();
+	/** the keys of the sketches read by the plugins without a live reading */
+	private final Map<SourceReaderPlugin, List<SketchKey>> sketchKeysByPlugin = new LinkedHashMap<>();
+	/** false after a failed update : the notebook may be partially updated */
+	private boolean consistent;
+
+	LiveNotebookImpl(final Map<SourceReaderPlugin, List<Source>> sourcesByPlugin, final ResourceManager resourceManager) {
+		Assertion.check()
+				.isNotNull(sourcesByPlugin)
+				.isNotNull(resourceManager);
+		//-----
+		this.sourcesByPlugin = sourcesByPlugin;
+		this.resourceManager = resourceManager;
+		read();
+	}
+
+	private void read() {
+		notebook = new Notebook();
+		liveReadingsByPlugin.clear();
+		sketchKeysByPlugin.clear();
+		for (final Map.Entry<SourceReaderPlugin, List<Source>> entry : sourcesByPlugin.entrySet()) {
+			final Optional<LiveSourceReading> liveReadingOpt = entry.getKey().readLive(entry.getValue(), notebook);
+			if (liveReadingOpt.isPresent()) {
+				liveReadingsByPlugin.put(entry.getKey(), liveReadingOpt.get());
+			} else {
+				sketchKeysByPlugin.put(entry.getKey(), register(entry.getKey(), entry.getValue()));
+			}
+		}
+		consistent = true;
+	}
+
+	private List<SketchKey> register(final SourceReaderPlugin sourceReaderPlugin, final List<Source> sources) {
+		final List<SketchKey> sketchKeys = new ArrayList<>();
+		sourceReaderPlugin.parseResources(sources, notebook)
+				.forEach(sketch -> {
+					notebook.register(sketch);
+					sketchKeys.add(sketch.getKey());
+				});
+		return sketchKeys;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public synchronized Notebook getNotebook() {
+		return notebook;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public synchronized Set<Path> getFiles() {
+		final Set<Path> files = new HashSet<>();
+		liveReadingsByPlugin.values().forEach(liveReading -> files.addAll(liveReading.getFiles()));
+		sketchKeysByPlugin.keySet().forEach(sourceReaderPlugin -> files.addAll(getFiles(sourcesByPlugin.get(sourceReaderPlugin))));
+		return Collections.unmodifiableSet(files);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public synchronized Set<SketchKey> update(final Set<Path> changedFiles) {
+		Assertion.check().isNotNull(changedFiles);
+		//-----
+		if (!consistent) {
+			return readAgain();
+		}
+		consistent = false;
+		final Set<SketchKey> changedSketchKeys = new LinkedHashSet<>();
+		for (final LiveSourceReading liveReading : liveReadingsByPlugin.values()) {
+			changedSketchKeys.addAll(liveReading.update(changedFiles, notebook));
+		}
+		for (final Map.Entry<SourceReaderPlugin, List<SketchKey>> entry : sketchKeysByPlugin.entrySet()) {
+			final List<Source> sources = sourcesByPlugin.get(entry.getKey());
+			if (getFiles(sources).stream().anyMatch(changedFiles::contains)) {
+				entry.getValue().forEach(notebook::unregister);
+				changedSketchKeys.addAll(entry.getValue());
+				entry.setValue(register(entry.getKey(), sources));
+				changedSketchKeys.addAll(entry.getValue());
+			}
+		}
+		consistent = true;
+		return Collections.unmodifiableSet(changedSketchKeys);
+	}
+
+	private Set<SketchKey> readAgain() {
+		final Set<SketchKey> changedSketchKeys = new LinkedHashSet<>(getSketchKeys(notebook));
+		read();
+		changedSketchKeys.addAll(getSketchKeys(notebook));
+		return Collections.unmodifiableSet(changedSketchKeys);
+	}
+
+	private static List<SketchKey> getSketchKeys(final Notebook notebook) {
+		return notebook.getAll(Sketch.class)
+				.stream()
+				.map(Sketch::getKey)
+				.toList();
+	}
+
+	private Set<Path> getFiles(final List<Source> sources) {
+		final Set<Path> files = new HashSet<>();
+		for (final Source source : sources) {
+			try {
+				final URL url = resourceManager.resolve(source.path());
+				if ("file".equals(url.getProtocol())) {
+					files.add(Path.of(url.toURI()));
+				}
+			} catch (final RuntimeException | URISyntaxException e) {
+				//some sources are not resources (packages of classes...) : they are not watched
+			}
+		}
+		return files;
+	}
+}
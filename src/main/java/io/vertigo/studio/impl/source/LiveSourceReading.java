@@ -0,0 +1,47 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.source;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.SketchKey;
+
+/**
+ * Reading of sources kept alive to apply the changes of their files to a notebook.
+ *
+ * @author mlaroche
+ */
+public interface LiveSourceReading {
+
+	/**
+	 * @return the local files the sketches are read from
+	 */
+	Set<Path> getFiles();
+
+	/**
+	 * Reads the changed files again and updates the sketches read from them in the notebook.
+	 * After a failure, the reading must not be used anymore.
+	 *
+	 * @param changedFiles the changed files (created, modified or deleted), some of them may not be files of this reading
+	 * @param notebook the notebook the sketches were registered in
+	 * @return the keys of the sketches created, replaced or removed
+	 */
+	Set<SketchKey> update(Set<Path> changedFiles, Notebook notebook);
+}
@@ -17,27 +17,41 @@
  */
 package io.vertigo.studio.impl.source;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.inject.Inject;
 
 import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.core.resource.ResourceManager;
 import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.source.LiveNotebook;
 import io.vertigo.studio.source.Source;
 import io.vertigo.studio.source.SourceManager;
 
 public class SourceManagerImpl implements SourceManager {
 
 	private final Map<String, SourceReaderPlugin> metamodelResourceParserPluginsByType = new HashMap<>();
+	private final ResourceManager resourceManager;
 
 	@Inject
 	public SourceManagerImpl(
-			final List<SourceReaderPlugin> sourceReaderPlugins) {
-		Assertion.check().isNotNull(sourceReaderPlugins);
+			final List<SourceReaderPlugin> sourceReaderPlugins,
+			final ResourceManager resourceManager) {
+		Assertion.check()
+				.isNotNull(sourceReaderPlugins)
+				.isNotNull(resourceManager);
 		//---
+		this.resourceManager = resourceManager;
 		for (final SourceReaderPlugin sourceReaderPlugin : sourceReaderPlugins) {
 			for (final String resourceType : sourceReaderPlugin.getHandledSourceTypes()) {
 				Assertion.check().isFalse(metamodelResourceParserPluginsByType.containsKey(resourceType),
@@ -47,18 +61,96 @@ public class SourceManagerImpl implements SourceManager {
 		}
 	}
 
+	/**
+	 * The plugins are run by stages (see SourceReadingPlan) : the independent plugins of a stage run concurrently,
+	 * each one in its own copy of the notebook, then their sketches are registered in the order of the plan.
+	 */
 	@Override
 	public Notebook read(final List<Source> resources) {
-		final Map<SourceReaderPlugin, List<Source>> resourcesByPlugin = resources
-				.stream()
-				.collect(Collectors.groupingBy(resource -> metamodelResourceParserPluginsByType.get(resource.type())));
+		final SourceReadingPlan sourceReadingPlan = SourceReadingPlan.of(groupByPlugin(resources));
 
 		final Notebook notebook = new Notebook();
-		resourcesByPlugin.entrySet()
-				.stream()
-				.flatMap(entry -> entry.getKey().parseResources(entry.getValue(), notebook))
-				.forEach(notebook::register);
+		for (final List<SourceReaderPlugin> stage : sourceReadingPlan.getStages()) {
+			if (stage.size() == 1) {
+				final SourceReaderPlugin sourceReaderPlugin = stage.get(0);
+				sourceReaderPlugin.parseResources(sourceReadingPlan.getSourcesByPlugin().get(sourceReaderPlugin), notebook)
+						.forEach(notebook::register);
+			} else {
+				for (final List<Sketch> sketches : readConcurrently(stage, sourceReadingPlan, notebook)) {
+					sketches.forEach(notebook::register);
+				}
+			}
+		}
 		return notebook;
 	}
 
+	private static List<List<Sketch>> readConcurrently(final List<SourceReaderPlugin> stage, final SourceReadingPlan sourceReadingPlan, final Notebook notebook) {
+		final ExecutorService executorService = Executors.newWorkStealingPool(Math.min(stage.size(), Runtime.getRuntime().availableProcessors()));
+		try {
+			final List<Future<List<Sketch>>> futures = stage
+					.stream()
+					.map(sourceReaderPlugin -> {
+						//the sketches of the previous stages are copied before the reading starts
+						final Notebook pluginNotebook = copy(notebook);
+						return executorService.submit(() -> read(sourceReaderPlugin, sourceReadingPlan.getSourcesByPlugin().get(sourceReaderPlugin), pluginNotebook));
+					})
+					.toList();
+			//results are read in the order of the plan : the first failing plugin of the plan is reported
+			final List<List<Sketch>> sketchesByPlugin = new ArrayList<>(futures.size());
+			for (final Future<List<Sketch>> future : futures) {
+				sketchesByPlugin.add(future.get());
+			}
+			return sketchesByPlugin;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw WrappedException.wrap(e);
+		} catch (final ExecutionException e) {
+			throw WrappedException.wrap(e.getCause());
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Reads the sources of a plugin in its own notebook : a plugin may resolve the sketches it has already produced.
+	 */
+	private static List<Sketch> read(final SourceReaderPlugin sourceReaderPlugin, final List<Source> sources, final Notebook pluginNotebook) {
+		final List<Sketch> sketches = new ArrayList<>();
+		sourceReaderPlugin.parseResources(sources, pluginNotebook)
+				.forEach(sketch -> {
+					pluginNotebook.register(sketch);
+					sketches.add(sketch);
+				});
+		return sketches;
+	}
+
+	private static Notebook copy(final Notebook notebook) {
+		final Notebook copy = new Notebook();
+		notebook.getAll(Sketch.class).forEach(copy::register);
+		return copy;
+	}
+
+	@Override
+	public LiveNotebook readLive(final List<Source> resources) {
+		Assertion.check().isNotNull(resources);
+		//---
+		//the live readings register their sketches directly : the plugins are run one after the other, in the order of the plan
+		return new LiveNotebookImpl(SourceReadingPlan.of(groupByPlugin(resources)).getSourcesByPlugin(), resourceManager);
+	}
+
+	/**
+	 * @return the sources of each plugin, in the order of their first source
+	 */
+	private Map<SourceReaderPlugin, List<Source>> groupByPlugin(final List<Source> resources) {
+		Assertion.check().isNotNull(resources);
+		//---
+		final Map<SourceReaderPlugin, List<Source>> resourcesByPlugin = new LinkedHashMap<>();
+		for (final Source resource : resources) {
+			final SourceReaderPlugin sourceReaderPlugin = metamodelResourceParserPluginsByType.get(resource.type());
+			Assertion.check().isNotNull(sourceReaderPlugin, "No plugin can read the resource {0} (handled types : {1})", resource, metamodelResourceParserPluginsByType.keySet());
+			resourcesByPlugin.computeIfAbsent(sourceReaderPlugin, k -> new ArrayList<>()).add(resource);
+		}
+		return resourcesByPlugin;
+	}
+
 }
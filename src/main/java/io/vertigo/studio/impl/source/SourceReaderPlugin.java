@@ -18,6 +18,7 @@
 package io.vertigo.studio.impl.source;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -32,4 +33,36 @@ public interface SourceReaderPlugin extends Plugin {
 
 	Stream<? extends Sketch> parseResources(List<Source> resources, Notebook notebook);
 
+	/**
+	 * Types of the sketches the plugin resolves in the notebook while parsing : the plugins producing them are run before.
+	 * By default, a plugin may resolve any sketch.
+	 *
+	 * @return the consumed types of sketches
+	 */
+	default Set<Class<? extends Sketch>> getConsumedSketchTypes() {
+		return Set.of(Sketch.class);
+	}
+
+	/**
+	 * Types of the sketches the plugin produces.
+	 * By default, a plugin may produce any sketch.
+	 *
+	 * @return the produced types of sketches
+	 */
+	default Set<Class<? extends Sketch>> getProducedSketchTypes() {
+		return Set.of(Sketch.class);
+	}
+
+	/**
+	 * Reads the sources and registers their sketches in the notebook, keeping the reading alive to apply the changes of the files.
+	 * By default, a plugin can't apply the changes : its sources are read again entirely.
+	 *
+	 * @param resources the sources
+	 * @param notebook the notebook
+	 * @return the live reading, if the plugin can apply the changes of the files
+	 */
+	default Optional<LiveSourceReading> readLive(final List<Source> resources, final Notebook notebook) {
+		return Optional.empty();
+	}
+
 }
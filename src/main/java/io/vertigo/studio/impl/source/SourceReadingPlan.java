@@ -0,0 +1,112 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.source.Source;
+
+/**
+ * Plan of the reading of the sources by stages.
+ * A plugin waits for the plugins producing a type of sketches it consumes : the plugins of a stage are independent and may run concurrently.
+ * The plugins are ordered by their first source, so that the plan (and the order of registration of the sketches) is deterministic.
+ * In a cycle, the first remaining plugin is run alone before the others.
+ *
+ * @author mlaroche
+ */
+final class SourceReadingPlan {
+	private final Map<SourceReaderPlugin, List<Source>> sourcesByPlugin;
+	private final List<List<SourceReaderPlugin>> stages;
+
+	private SourceReadingPlan(final Map<SourceReaderPlugin, List<Source>> sourcesByPlugin, final List<List<SourceReaderPlugin>> stages) {
+		this.sourcesByPlugin = sourcesByPlugin;
+		this.stages = stages;
+	}
+
+	/**
+	 * Builds the plan.
+	 * @param sourcesByPlugin the sources of each plugin, in the order of their first source
+	 * @return the plan
+	 */
+	static SourceReadingPlan of(final Map<SourceReaderPlugin, List<Source>> sourcesByPlugin) {
+		Assertion.check().isNotNull(sourcesByPlugin);
+		//-----
+		final List<SourceReaderPlugin> plugins = new ArrayList<>(sourcesByPlugin.keySet());
+		final Map<SourceReaderPlugin, Set<SourceReaderPlugin>> dependenciesByPlugin = new LinkedHashMap<>();
+		for (final SourceReaderPlugin plugin : plugins) {
+			final Set<SourceReaderPlugin> dependencies = new HashSet<>();
+			for (final SourceReaderPlugin otherPlugin : plugins) {
+				if (otherPlugin != plugin && overlaps(plugin.getConsumedSketchTypes(), otherPlugin.getProducedSketchTypes())) {
+					dependencies.add(otherPlugin);
+				}
+			}
+			dependenciesByPlugin.put(plugin, dependencies);
+		}
+		//-----
+		final List<List<SourceReaderPlugin>> stages = new ArrayList<>();
+		final Map<SourceReaderPlugin, List<Source>> plannedSourcesByPlugin = new LinkedHashMap<>();
+		final List<SourceReaderPlugin> remainingPlugins = new ArrayList<>(plugins);
+		while (!remainingPlugins.isEmpty()) {
+			List<SourceReaderPlugin> stage = remainingPlugins
+					.stream()
+					.filter(plugin -> plannedSourcesByPlugin.keySet().containsAll(dependenciesByPlugin.get(plugin)))
+					.toList();
+			if (stage.isEmpty()) {
+				//a cycle
+				stage = List.of(remainingPlugins.get(0));
+			}
+			stage.forEach(plugin -> plannedSourcesByPlugin.put(plugin, sourcesByPlugin.get(plugin)));
+			remainingPlugins.removeAll(stage);
+			stages.add(stage);
+		}
+		return new SourceReadingPlan(Collections.unmodifiableMap(plannedSourcesByPlugin), Collections.unmodifiableList(stages));
+	}
+
+	private static boolean overlaps(final Set<Class<? extends Sketch>> consumedTypes, final Set<Class<? extends Sketch>> producedTypes) {
+		for (final Class<? extends Sketch> consumedType : consumedTypes) {
+			for (final Class<? extends Sketch> producedType : producedTypes) {
+				if (consumedType.isAssignableFrom(producedType) || producedType.isAssignableFrom(consumedType)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the stages : the plugins of a stage only depend on the plugins of the previous stages
+	 */
+	List<List<SourceReaderPlugin>> getStages() {
+		return stages;
+	}
+
+	/**
+	 * @return the sources of each plugin, in the order of the stages
+	 */
+	Map<SourceReaderPlugin, List<Source>> getSourcesByPlugin() {
+		return sourcesByPlugin;
+	}
+}
@@ -17,8 +17,10 @@
  */
 package io.vertigo.studio.impl.source.dsl.entity;
 
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -43,9 +45,17 @@ public final class DslEntity implements DslEntityFieldType {
 	private final String name;
 
 	/**
-	 * Map : Field by names
+	 * Fields indexed by their ordinal.
 	 */
-	private final Map<String, DslEntityField> entityFields;
+	private final List<DslEntityField> entityFields;
+
+	/**
+	 * Map : Field ordinal by names
+	 */
+	private final Map<String, Integer> ordinalsByFieldName;
+
+	private final Set<String> propertyNames;
+	private final Set<DslEntityField> linkFields;
 
 	private final boolean provided;
 
@@ -62,13 +72,28 @@ public final class DslEntity implements DslEntityFieldType {
 		//-----
 		this.name = name;
 		this.provided = provided;
-		this.entityFields = new HashMap<>();
+		final Map<String, DslEntityField> entityFieldsByName = new HashMap<>();
 		for (final DslEntityField entityField : entityFields) {
-			Assertion.check().isFalse(this.entityFields.containsKey(entityField.getName()), "field {0} is already registered for {1}", entityField, this);
+			Assertion.check().isFalse(entityFieldsByName.containsKey(entityField.getName()), "field {0} is already registered for {1}", entityField, this);
 			//Une propriété est unique pour une définition donnée.
 			//Il n'y a jamais de multiplicité
-			this.entityFields.put(entityField.getName(), entityField);
+			entityFieldsByName.put(entityField.getName(), entityField);
+		}
+		//the ordinals follow the iteration order of the fields by name, so that the fields keep their historical order
+		this.entityFields = List.copyOf(entityFieldsByName.values());
+		ordinalsByFieldName = new HashMap<>();
+		for (int ordinal = 0; ordinal < this.entityFields.size(); ordinal++) {
+			ordinalsByFieldName.put(this.entityFields.get(ordinal).getName(), ordinal);
 		}
+		propertyNames = Collections.unmodifiableSet(this.entityFields
+				.stream()
+				.filter(field -> field.getType().isProperty())
+				.map(DslEntityField::getName)
+				.collect(Collectors.toSet()));
+		linkFields = Collections.unmodifiableSet(this.entityFields
+				.stream()
+				.filter(field -> field.getType().isEntityLink())
+				.collect(Collectors.toCollection(LinkedHashSet::new)));
 	}
 
 	/**
@@ -91,11 +116,14 @@ public final class DslEntity implements DslEntityFieldType {
 	 * @return Ensemble de toutes les propriétés gérées (obligatoires ou non).
 	 */
 	public Set<String> getPropertyNames() {
-		return entityFields.values()
-				.stream()
-				.filter(field -> field.getType().isProperty())
-				.map(DslEntityField::getName)
-				.collect(Collectors.toSet());
+		return propertyNames;
+	}
+
+	/**
+	 * @return Ensemble des champs qui référencent d'autres définitions, dans l'ordre des ordinaux.
+	 */
+	public Set<DslEntityField> getLinkFields() {
+		return linkFields;
 	}
 
 	/**
@@ -115,18 +143,27 @@ public final class DslEntity implements DslEntityFieldType {
 	 * @return Field
 	 */
 	public DslEntityField getField(final String fieldName) {
-		Assertion.check()
-				.isNotNull(fieldName)
-				.isTrue(entityFields.containsKey(fieldName), "Field  '{0}' is not declared on entity '{1}'", fieldName, this);
+		return entityFields.get(getFieldOrdinal(fieldName));
+	}
+
+	/**
+	 * Returns the ordinal of a field : its index in the list of the entity's fields.
+	 * @param fieldName Name of the field
+	 * @return the ordinal of the field
+	 */
+	public int getFieldOrdinal(final String fieldName) {
+		Assertion.check().isNotNull(fieldName);
+		final Integer ordinal = ordinalsByFieldName.get(fieldName);
+		Assertion.check().isNotNull(ordinal, "Field  '{0}' is not declared on entity '{1}'", fieldName, this);
 		//-----
-		return entityFields.get(fieldName);
+		return ordinal;
 	}
 
 	/**
-	 * @return List of the entity's fields
+	 * @return List of the entity's fields, indexed by ordinal
 	 */
-	public Collection<DslEntityField> getFields() {
-		return entityFields.values();
+	public List<DslEntityField> getFields() {
+		return entityFields;
 	}
 
 	public DslEntityLink getLink() {
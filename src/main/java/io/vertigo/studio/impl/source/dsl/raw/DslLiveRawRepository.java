@@ -0,0 +1,274 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.source.dsl.raw;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.impl.source.dsl.entity.DslEntityField;
+import io.vertigo.studio.impl.source.dsl.entity.DslGrammar;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.SketchKey;
+
+/**
+ * Repository of raws kept alive between two readings of the sources.
+ * The raws are read by units (a ksp file, an oom file...) : when a unit is loaded again, only the sketches of the raws
+ * of the unit, of the raws linked to them and of the raws they alter are created again in the notebook.
+ *
+ * The units are solved in the order they were first loaded, as a DslRawRepository would do.
+ * After a failure of solve, the notebook is left partially updated : the repository must not be used anymore.
+ *
+ * @author mlaroche
+ */
+public final class DslLiveRawRepository {
+	private final Supplier<DslSketchFactory> sketchFactorySupplier;
+	/** the factory used to read the units : only its grammar and its derivation of raws are used */
+	private final DslSketchFactory loadingSketchFactory;
+	private final DslRawValidator rawValidator = new DslRawValidator();
+
+	/** the raws read from each unit, in the order the units were first loaded */
+	private final Map<String, DslRawRepository> repositoriesByUnit = new LinkedHashMap<>();
+	/** the units changed since the last solve, with their raws at the last solve (null for a new unit) */
+	private final Map<String, DslRawRepository> previousRepositoriesByUnit = new HashMap<>();
+
+	//state of the last solve
+	private final Map<DslRawKey, List<SketchKey>> sketchKeysByRawKey = new HashMap<>();
+	private final Map<DslRawKey, Set<DslRawKey>> dependenciesByRawKey = new HashMap<>();
+	private final Map<DslRawKey, Set<DslRawKey>> dependentsByRawKey = new HashMap<>();
+	private final Map<DslRawKey, List<DslRawKey>> alteredRawsByRawKey = new HashMap<>();
+	private boolean solved;
+
+	/**
+	 * Constructor.
+	 * @param sketchFactorySupplier the supplier of the factories : the creation of the sketches uses a new factory for each solve
+	 */
+	public DslLiveRawRepository(final Supplier<DslSketchFactory> sketchFactorySupplier) {
+		Assertion.check().isNotNull(sketchFactorySupplier);
+		//-----
+		this.sketchFactorySupplier = sketchFactorySupplier;
+		loadingSketchFactory = sketchFactorySupplier.get();
+	}
+
+	/**
+	 * @return Grammar
+	 */
+	public DslGrammar getGrammar() {
+		return loadingSketchFactory.getGrammar();
+	}
+
+	/**
+	 * Loads (or loads again) the raws of a unit.
+	 * @param unit the name of the unit
+	 * @param loading the loading of the raws of the unit
+	 */
+	public void load(final String unit, final Consumer<DslRawRepository> loading) {
+		Assertion.check()
+				.isNotBlank(unit)
+				.isNotNull(loading);
+		//-----
+		final DslRawRepository unitRepository = new DslRawRepository(loadingSketchFactory);
+		loading.accept(unitRepository);
+		keepPrevious(unit);
+		//a unit loaded again keeps its position
+		repositoriesByUnit.put(unit, unitRepository);
+	}
+
+	/**
+	 * Removes the raws of a unit.
+	 * @param unit the name of the unit
+	 */
+	public void remove(final String unit) {
+		Assertion.check().isTrue(repositoriesByUnit.containsKey(unit), "the unit '{0}' has not been loaded", unit);
+		//-----
+		keepPrevious(unit);
+		repositoriesByUnit.remove(unit);
+	}
+
+	/**
+	 * @return the names of the loaded units
+	 */
+	public Set<String> getUnits() {
+		return Collections.unmodifiableSet(repositoriesByUnit.keySet());
+	}
+
+	private void keepPrevious(final String unit) {
+		if (!previousRepositoriesByUnit.containsKey(unit)) {
+			previousRepositoriesByUnit.put(unit, repositoriesByUnit.get(unit));
+		}
+	}
+
+	/**
+	 * Creates the sketches of the raws changed since the last solve in the notebook.
+	 * The first solve creates all the sketches.
+	 * The sketches of the changed raws, of the raws linked to them and of the raws they alter are unregistered then registered again.
+	 *
+	 * @param notebook the notebook
+	 * @return the keys of the sketches created, replaced or removed
+	 */
+	public Set<SketchKey> solve(final Notebook notebook) {
+		Assertion.check().isNotNull(notebook);
+		//-----
+		final Set<DslRawKey> affectedRawKeys = solved ? getAffectedRawKeys() : getAllRawKeys();
+		previousRepositoriesByUnit.clear();
+		solved = true;
+		final Set<SketchKey> changedSketchKeys = new LinkedHashSet<>();
+		//the previous versions are removed
+		for (final DslRawKey rawKey : affectedRawKeys) {
+			for (final SketchKey sketchKey : sketchKeysByRawKey.getOrDefault(rawKey, Collections.emptyList())) {
+				notebook.unregister(sketchKey);
+				changedSketchKeys.add(sketchKey);
+			}
+			forget(rawKey);
+		}
+		//the new versions are created in the order of the units
+		final DslSketchFactory sketchFactory = sketchFactorySupplier.get();
+		final DslRawRepository rawRepository = new DslRawRepository(sketchFactory);
+		for (final DslRawRepository unitRepository : repositoriesByUnit.values()) {
+			unitRepository.getRaws()
+					.stream()
+					.filter(raw -> raw.getEntity().isProvided() || affectedRawKeys.contains(raw.getKey()))
+					.forEach(rawRepository::register);
+		}
+		for (final DslRawRepository unitRepository : repositoriesByUnit.values()) {
+			unitRepository.getPartialRaws()
+					.stream()
+					.filter(partial -> affectedRawKeys.contains(partial.getKey()))
+					.forEach(rawRepository::addPartialSketch);
+		}
+		rawRepository.mergePartials();
+		final List<DslRaw> rawsToCreate = DslRawSolver.solve(notebook, rawRepository)
+				.stream()
+				.filter(raw -> !raw.getEntity().isProvided())
+				.toList();
+		rawValidator.check(rawsToCreate);
+		for (final DslRaw raw : rawsToCreate) {
+			final List<SketchKey> sketchKeys = new ArrayList<>();
+			//a sketch is registered as soon as it is created : the next raws may resolve it
+			for (final Sketch sketch : sketchFactory.createSketches(notebook, raw)) {
+				notebook.register(sketch);
+				sketchKeys.add(sketch.getKey());
+			}
+			changedSketchKeys.addAll(sketchKeys);
+			record(sketchFactory, raw, sketchKeys);
+		}
+		return Collections.unmodifiableSet(changedSketchKeys);
+	}
+
+	private Set<DslRawKey> getAllRawKeys() {
+		final Set<DslRawKey> rawKeys = new HashSet<>();
+		repositoriesByUnit.values()
+				.forEach(unitRepository -> collectRawKeys(unitRepository, rawKeys));
+		return rawKeys;
+	}
+
+	/**
+	 * @return the keys of the raws of the changed units (before and after the change), of the raws they alter, and of all the raws depending on them
+	 */
+	private Set<DslRawKey> getAffectedRawKeys() {
+		final Set<DslRawKey> changedRawKeys = new HashSet<>();
+		previousRepositoriesByUnit.forEach((unit, previousRepository) -> {
+			if (previousRepository != null) {
+				collectRawKeys(previousRepository, changedRawKeys);
+			}
+			final DslRawRepository unitRepository = repositoriesByUnit.get(unit);
+			if (unitRepository != null) {
+				collectRawKeys(unitRepository, changedRawKeys);
+				//a new raw (or a raw whose properties changed) may alter raws it did not alter at the last solve
+				unitRepository.getRaws()
+						.stream()
+						.filter(raw -> !raw.getEntity().isProvided())
+						.forEach(raw -> changedRawKeys.addAll(loadingSketchFactory.getAlteredRaws(raw)));
+			}
+		});
+		//closure over the raws linked to a changed raw and over the raws altered by a changed raw
+		final Set<DslRawKey> affectedRawKeys = new HashSet<>(changedRawKeys);
+		final Deque<DslRawKey> rawKeysToVisit = new ArrayDeque<>(changedRawKeys);
+		while (!rawKeysToVisit.isEmpty()) {
+			final DslRawKey rawKey = rawKeysToVisit.poll();
+			for (final DslRawKey dependent : dependentsByRawKey.getOrDefault(rawKey, Collections.emptySet())) {
+				if (affectedRawKeys.add(dependent)) {
+					rawKeysToVisit.add(dependent);
+				}
+			}
+			for (final DslRawKey alteredRawKey : alteredRawsByRawKey.getOrDefault(rawKey, Collections.emptyList())) {
+				if (affectedRawKeys.add(alteredRawKey)) {
+					rawKeysToVisit.add(alteredRawKey);
+				}
+			}
+		}
+		return affectedRawKeys;
+	}
+
+	private static void collectRawKeys(final DslRawRepository unitRepository, final Set<DslRawKey> rawKeys) {
+		unitRepository.getRaws()
+				.stream()
+				.filter(raw -> !raw.getEntity().isProvided())
+				.forEach(raw -> rawKeys.add(raw.getKey()));
+		unitRepository.getPartialRaws()
+				.forEach(partial -> rawKeys.add(partial.getKey()));
+	}
+
+	private void forget(final DslRawKey rawKey) {
+		sketchKeysByRawKey.remove(rawKey);
+		alteredRawsByRawKey.remove(rawKey);
+		for (final DslRawKey dependency : dependenciesByRawKey.getOrDefault(rawKey, Collections.emptySet())) {
+			final Set<DslRawKey> dependents = dependentsByRawKey.get(dependency);
+			if (dependents != null) {
+				dependents.remove(rawKey);
+			}
+		}
+		dependenciesByRawKey.remove(rawKey);
+	}
+
+	private void record(final DslSketchFactory sketchFactory, final DslRaw raw, final List<SketchKey> sketchKeys) {
+		sketchKeysByRawKey.put(raw.getKey(), sketchKeys);
+		final Set<DslRawKey> dependencies = new HashSet<>(sketchFactory.getImplicitDependencies(raw));
+		collectLinks(raw, dependencies);
+		dependencies.remove(raw.getKey());
+		dependenciesByRawKey.put(raw.getKey(), dependencies);
+		for (final DslRawKey dependency : dependencies) {
+			dependentsByRawKey.computeIfAbsent(dependency, k -> new HashSet<>()).add(raw.getKey());
+		}
+		final List<DslRawKey> alteredRawKeys = sketchFactory.getAlteredRaws(raw);
+		if (!alteredRawKeys.isEmpty()) {
+			alteredRawsByRawKey.put(raw.getKey(), alteredRawKeys);
+		}
+	}
+
+	private static void collectLinks(final DslRaw raw, final Set<DslRawKey> links) {
+		for (final DslEntityField entityField : raw.getAllRawLinkFields()) {
+			links.addAll(raw.getRawKeysByFieldName(entityField.getName()));
+		}
+		for (final DslRaw subRaw : raw.getAllSubRaws()) {
+			collectLinks(subRaw, links);
+		}
+	}
+}
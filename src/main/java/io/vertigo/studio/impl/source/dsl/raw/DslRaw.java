@@ -17,10 +17,13 @@
  */
 package io.vertigo.studio.impl.source.dsl.raw;
 
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.studio.impl.source.dsl.entity.DslEntity;
@@ -31,6 +34,9 @@ import io.vertigo.studio.impl.source.dsl.entity.DslEntityField;
  * Cette Classe est utilisée pour parcourir dynamiquement les modèles.
  * Rappelons qu'une structure est elle-même composée de sous structure grammaticales.
  *
+ * Les valeurs sont rangées dans un tableau indexé par l'ordinal des champs de l'entité :
+ * la valeur d'une propriété, la liste (immuable) des clés d'un lien ou la liste (immuable) des sous-définitions.
+ *
  * @author  pchretien
  */
 public final class DslRaw {
@@ -43,42 +49,70 @@ public final class DslRaw {
 	/**key of this sketch.*/
 	private final DslRawKey rawKey;
 
-	/** Map  (fieldName, propertyValue)  */
-	private final Map<DslEntityField, Object> propertyValueByEntityField;
+	/** Values by field ordinal : property value, List<DslRawKey> for a link, List<DslRaw> for children. */
+	private final Object[] values;
 
-	/**
-	 * Links.
-	 * Map (fieldName, definitions identified by its name)
-	 */
-	private final Map<DslEntityField, List<DslRawKey>> rawKeysByEntityField;
+	/** Ordinals of the properties that have been set (a value may be null). */
+	private final BitSet definedProperties;
 
-	/**
-	 * Children.
-	 * Map (fieldName, definitions
-	 */
-	private final Map<DslEntityField, List<DslRaw>> subRawsByEntityField;
+	/** All the children, in the order of the fields. */
+	private final List<DslRaw> allSubRaws;
 
 	DslRaw(
 			final DslEntity entity,
 			final String packageName,
 			final DslRawKey rawKey,
-			final Map<DslEntityField, Object> propertyValueByEntityField,
-			final Map<DslEntityField, List<DslRawKey>> rawKeysByEntityField,
-			final Map<DslEntityField, List<DslRaw>> subRawsByEntityField) {
+			final Object[] values,
+			final BitSet definedProperties) {
 		Assertion.check()
 				.isNotNull(entity)
 				//packageName can be null
 				.isNotNull(rawKey)
-				.isNotNull(propertyValueByEntityField)
-				.isNotNull(rawKeysByEntityField)
-				.isNotNull(subRawsByEntityField);
+				.isNotNull(values)
+				.isTrue(values.length == entity.getFields().size(), "one value per field is expected on {0}", rawKey)
+				.isNotNull(definedProperties);
 		//---
 		this.entity = entity;
 		this.packageName = packageName;
 		this.rawKey = rawKey;
-		this.propertyValueByEntityField = propertyValueByEntityField;
-		this.rawKeysByEntityField = rawKeysByEntityField;
-		this.subRawsByEntityField = subRawsByEntityField;
+		this.values = values;
+		this.definedProperties = definedProperties;
+		allSubRaws = collectSubRaws(entity, values);
+	}
+
+	private static List<DslRaw> collectSubRaws(final DslEntity entity, final Object[] values) {
+		List<DslRaw> subRaws = null;
+		final List<DslEntityField> entityFields = entity.getFields();
+		for (int ordinal = 0; ordinal < entityFields.size(); ordinal++) {
+			if (entityFields.get(ordinal).getType().isEntity()) {
+				final List<DslRaw> fieldSubRaws = asSubRaws(values[ordinal]);
+				if (!fieldSubRaws.isEmpty()) {
+					if (subRaws == null) {
+						subRaws = new ArrayList<>();
+					}
+					subRaws.addAll(fieldSubRaws);
+				}
+			}
+		}
+		return subRaws == null ? Collections.emptyList() : Collections.unmodifiableList(subRaws);
+	}
+
+	/**
+	 * @param value the value of a link field
+	 * @return the keys of the link
+	 */
+	@SuppressWarnings("unchecked")
+	static List<DslRawKey> asRawKeys(final Object value) {
+		return (List<DslRawKey>) value;
+	}
+
+	/**
+	 * @param value the value of an entity field
+	 * @return the children
+	 */
+	@SuppressWarnings("unchecked")
+	static List<DslRaw> asSubRaws(final Object value) {
+		return (List<DslRaw>) value;
 	}
 
 	/**
@@ -123,24 +157,39 @@ public final class DslRaw {
 	 * @return valeur de la propriété
 	 */
 	public Object getPropertyValue(final String fieldName) {
-		final DslEntityField entityField = entity.getField(fieldName);
-		Assertion.check().isTrue(entityField.getType().isProperty(), "expected a property on {0}", fieldName);
+		final int ordinal = entity.getFieldOrdinal(fieldName);
+		Assertion.check().isTrue(entity.getFields().get(ordinal).getType().isProperty(), "expected a property on {0}", fieldName);
 		// On ne vérifie rien sur le type retourné par le getter.
 		// le type a été validé lors du put.
 		//-----
 		// Conformémément au contrat, on retourne null si pas de propriété trouvée
-		return propertyValueByEntityField.get(entityField);
+		return values[ordinal];
+	}
+
+	/**
+	 * @param ordinal the ordinal of a field
+	 * @return the value of the field : property value, list of keys for a link, list of children
+	 */
+	Object getValue(final int ordinal) {
+		return values[ordinal];
+	}
+
+	/**
+	 * Ordinals of the properties that have been set.
+	 * The returned bitset is shared and must not be modified.
+	 * @return the ordinals of the properties that have been set
+	 */
+	BitSet getDefinedProperties() {
+		return definedProperties;
 	}
 
 	/**
 	 * Set des propriétés gérées.
+	 * The set is a view of the defined properties, in the order of the fields.
 	 * @return Collection
 	 */
 	public Set<String> getPropertyNames() {
-		return propertyValueByEntityField.keySet()
-				.stream()
-				.map(DslEntityField::getName)
-				.collect(Collectors.toSet());
+		return definedProperties.isEmpty() ? Collections.emptySet() : new PropertyNames();
 	}
 
 	/**
@@ -150,10 +199,10 @@ public final class DslRaw {
 	 * @return List
 	 */
 	public List<DslRawKey> getRawKeysByFieldName(final String fieldName) {
-		final DslEntityField entityField = entity.getField(fieldName);
-		Assertion.check().isTrue(entityField.getType().isEntityLink(), "expected a link on {0}", fieldName);
+		final int ordinal = entity.getFieldOrdinal(fieldName);
+		Assertion.check().isTrue(entity.getFields().get(ordinal).getType().isEntityLink(), "expected a link on {0}", fieldName);
 		//---
-		return rawKeysByEntityField.get(entityField);
+		return asRawKeys(values[ordinal]);
 	}
 
 	/**
@@ -175,7 +224,7 @@ public final class DslRaw {
 	 * @return Collection de tous les champs utilisant des définitions référencées.
 	 */
 	public Set<DslEntityField> getAllRawLinkFields() {
-		return rawKeysByEntityField.keySet();
+		return entity.getLinkFields();
 	}
 
 	/**
@@ -184,19 +233,40 @@ public final class DslRaw {
 	 * @return List
 	 */
 	public List<DslRaw> getSubRaws(final String fieldName) {
-		final DslEntityField entityField = entity.getField(fieldName);
-		Assertion.check().isTrue(entityField.getType().isEntity(), "expected an entity on {0}", fieldName);
+		final int ordinal = entity.getFieldOrdinal(fieldName);
+		Assertion.check().isTrue(entity.getFields().get(ordinal).getType().isEntity(), "expected an entity on {0}", fieldName);
 		//---
-		return subRawsByEntityField.get(entityField);
+		return asSubRaws(values[ordinal]);
 	}
 
 	/**
 	 * @return Collection des listes de définitions composites.
 	 */
 	public List<DslRaw> getAllSubRaws() {
-		return subRawsByEntityField.values()
-				.stream()
-				.flatMap(List::stream)
-				.toList();
+		return allSubRaws;
+	}
+
+	/**
+	 * Names of the properties that have been set, read from the defined ordinals.
+	 */
+	private final class PropertyNames extends AbstractSet<String> {
+		@Override
+		public Iterator<String> iterator() {
+			return definedProperties.stream()
+					.mapToObj(ordinal -> entity.getFields().get(ordinal).getName())
+					.iterator();
+		}
+
+		@Override
+		public int size() {
+			return definedProperties.cardinality();
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			return o instanceof final String name
+					&& entity.getPropertyNames().contains(name)
+					&& definedProperties.get(entity.getFieldOrdinal(name));
+		}
 	}
 }
@@ -18,16 +18,15 @@
 package io.vertigo.studio.impl.source.dsl.raw;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.Builder;
 import io.vertigo.studio.impl.source.dsl.entity.DslEntity;
 import io.vertigo.studio.impl.source.dsl.entity.DslEntityField;
+import io.vertigo.studio.impl.source.dsl.entity.DslPropertyType;
 
 /**
  * Interface de création des définitions.
@@ -43,21 +42,14 @@ public final class DslRawBuilder implements Builder<DslRaw> {
 	/**key of this sketch.*/
 	private final DslRawKey rawKey;
 
-	/** Map  (fieldName, propertyValue)  */
-	private final Map<DslEntityField, Object> propertyValueByEntityField = new HashMap<>();
-
 	/**
-	 * Links.
-	 * Map (fieldName, definitions identified by its name)
+	 * Values by field ordinal.
+	 * propertyValue for a property, definitions identified by their names for a link, definitions for children
 	 */
+	private final Object[] values;
 
-	private final Map<DslEntityField, List<DslRawKey>> rawKeysByEntityField = new LinkedHashMap<>();
-
-	/**
-	 * Children.
-	 * Map (fieldName, definitions
-	 */
-	private final Map<DslEntityField, List<DslRaw>> subRawsByEntityField = new LinkedHashMap<>();
+	/** Ordinals of the properties that have been set. */
+	private final BitSet definedProperties = new BitSet();
 
 	/**
 	 * Constructor.
@@ -71,11 +63,11 @@ public final class DslRawBuilder implements Builder<DslRaw> {
 		//-----
 		this.rawKey = rawKey;
 		this.entity = entity;
-		for (final DslEntityField dslEntityField : entity.getFields()) {
-			if (dslEntityField.getType().isEntityLink()) {
-				rawKeysByEntityField.put(dslEntityField, new ArrayList<>());
-			} else if (dslEntityField.getType().isEntity()) {
-				subRawsByEntityField.put(dslEntityField, new ArrayList<>());
+		final List<DslEntityField> entityFields = entity.getFields();
+		values = new Object[entityFields.size()];
+		for (int ordinal = 0; ordinal < values.length; ordinal++) {
+			if (!entityFields.get(ordinal).getType().isProperty()) {
+				values[ordinal] = new ArrayList<>();
 			}
 			// else : nothing for property
 		}
@@ -126,11 +118,13 @@ public final class DslRawBuilder implements Builder<DslRaw> {
 	 * @return this builder
 	 */
 	public DslRawBuilder addPropertyValue(final String fieldName, final Object value) {
-		final DslEntityField dslEntityField = entity.getField(fieldName);
+		final int ordinal = entity.getFieldOrdinal(fieldName);
+		final DslEntityField dslEntityField = entity.getFields().get(ordinal);
 		Assertion.check().isTrue(dslEntityField.getType().isProperty(), "expected a property on {0}", fieldName);
 		//----
-		entity.getPropertyType(fieldName).checkValue(value);
-		propertyValueByEntityField.put(dslEntityField, value);
+		((DslPropertyType) dslEntityField.getType()).checkValue(value);
+		values[ordinal] = value;
+		definedProperties.set(ordinal);
 		return this;
 	}
 
@@ -158,20 +152,20 @@ public final class DslRawBuilder implements Builder<DslRaw> {
 	 */
 	public DslRawBuilder addAllRawLinks(final String fieldName, final List<DslRawKey> rawKeys) {
 		Assertion.check().isNotNull(rawKeys);
-		final DslEntityField dslEntityField = entity.getField(fieldName);
-		Assertion.check().isTrue(dslEntityField.getType().isEntityLink(), "expected a link on {0}", fieldName);
+		final int ordinal = entity.getFieldOrdinal(fieldName);
+		Assertion.check().isTrue(entity.getFields().get(ordinal).getType().isEntityLink(), "expected a link on {0}", fieldName);
 		//---
-		rawKeysByEntityField.get(dslEntityField)
+		DslRaw.asRawKeys(values[ordinal])
 				.addAll(rawKeys);
 		return this;
 	}
 
 	private void addAllSubRaws(final String fieldName, final List<DslRaw> raws) {
 		Assertion.check().isNotNull(raws);
-		final DslEntityField dslEntityField = entity.getField(fieldName);
-		Assertion.check().isTrue(dslEntityField.getType().isEntity(), "expected an entity on {0}", fieldName);
+		final int ordinal = entity.getFieldOrdinal(fieldName);
+		Assertion.check().isTrue(entity.getFields().get(ordinal).getType().isEntity(), "expected an entity on {0}", fieldName);
 		//---
-		subRawsByEntityField.get(dslEntityField)
+		DslRaw.asSubRaws(values[ordinal])
 				.addAll(raws);
 	}
 
@@ -190,7 +184,16 @@ public final class DslRawBuilder implements Builder<DslRaw> {
 	/** {@inheritDoc} */
 	@Override
 	public DslRaw build() {
-		return new DslRaw(entity, myPackageName, rawKey, propertyValueByEntityField, rawKeysByEntityField, subRawsByEntityField);
+		final List<DslEntityField> entityFields = entity.getFields();
+		final Object[] rawValues = values.clone();
+		for (int ordinal = 0; ordinal < rawValues.length; ordinal++) {
+			if (!entityFields.get(ordinal).getType().isProperty()) {
+				final List<?> list = (List<?>) rawValues[ordinal];
+				//the lists of the raw are immutable and no longer shared with this builder
+				rawValues[ordinal] = list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+			}
+		}
+		return new DslRaw(entity, myPackageName, rawKey, rawValues, (BitSet) definedProperties.clone());
 	}
 
 }
@@ -40,7 +40,7 @@ import io.vertigo.studio.notebook.Sketch;
  *
  * @author  pchretien
  */
-public final class DslRawRepository {
+public final class DslRawRepository implements DslRawSink {
 
 	/***
 	 * On retient les définitions dans l'ordre pour
@@ -51,6 +51,7 @@ public final class DslRawRepository {
 
 	private final DslSketchFactory sketchFactory;
 	private final DslGrammar grammar;
+	private final DslRawValidator rawValidator = new DslRawValidator();
 
 	/**
 	 * Constructor.
@@ -106,10 +107,20 @@ public final class DslRawRepository {
 		mergePartials();
 
 		final List<DslRaw> sortedDslSketches = DslRawSolver.solve(notebook, this);
-		return createSketchStream(notebook, sortedDslSketches);
+		// provided definitions are excluded
+		final List<DslRaw> rawsToCreate = sortedDslSketches
+				.stream()
+				.filter(raw -> !raw.getEntity().isProvided())
+				.toList();
+		//all the raws are validated before the creation of the first sketch
+		rawValidator.check(rawsToCreate);
+		return createSketchStream(notebook, rawsToCreate);
 	}
 
-	private void mergePartials() {
+	/**
+	 * Merges the parts of raws into the raws.
+	 */
+	void mergePartials() {
 		//parts of definitions are merged
 		for (final DslRaw partial : partialRaws) {
 			final DslRaw merged = DslRaw.builder(partial.getKey(), partial.getEntity())
@@ -120,22 +131,14 @@ public final class DslRawRepository {
 	}
 
 	private Stream<Sketch> createSketchStream(final Notebook notebook, final List<DslRaw> sortedRaws) {
+		//The definition identified as root are not registered.
 		return sortedRaws
 				.stream()
-				.filter(raw -> !raw.getEntity().isProvided()) // provided definitions are excluded
-				.flatMap(raw -> createSketches(notebook, raw).stream());
-	}
-
-	private List<Sketch> createSketches(final Notebook notebook, final DslRaw raw) {
-		DslRawValidator.check(raw);
-		//The definition identified as root are not registered.
-		return sketchFactory.createSketches(notebook, raw);
+				.flatMap(raw -> sketchFactory.createSketches(notebook, raw).stream());
 	}
 
-	/**
-	 * Adds a sketch.
-	 * @param raw sketch
-	 */
+	/** {@inheritDoc} */
+	@Override
 	public void addRaw(final DslRaw raw) {
 		Assertion.check().isNotNull(raw);
 		//---
@@ -147,9 +150,18 @@ public final class DslRawRepository {
 	}
 
 	/**
-	 * adds a partial sketch.
-	 * @param partial the part of a sketch
+	 * Registers a raw already read by another repository : the raws derived from it are not created again.
+	 * @param raw the raw
 	 */
+	void register(final DslRaw raw) {
+		Assertion.check().isNotNull(raw);
+		//---
+		final DslRaw previousRaw = rawsByRawKeys.put(raw.getKey(), raw);
+		Assertion.check().isNull(previousRaw, "this sketch '{0}' has already be registered", raw.getKey());
+	}
+
+	/** {@inheritDoc} */
+	@Override
 	public void addPartialSketch(final DslRaw partial) {
 		Assertion.check().isNotNull(partial);
 		//---
@@ -167,6 +179,13 @@ public final class DslRawRepository {
 				.collect(Collectors.toSet());
 	}
 
+	/**
+	 * @return the parts of raws, in the order they were added
+	 */
+	List<DslRaw> getPartialRaws() {
+		return Collections.unmodifiableList(partialRaws);
+	}
+
 	/**
 	 * @return Liste des définitions complètes
 	 */
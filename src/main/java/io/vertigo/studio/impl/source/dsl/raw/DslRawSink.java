@@ -0,0 +1,38 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.source.dsl.raw;
+
+/**
+ * Receives the raws declared by a source, in the order of their declaration.
+ *
+ * @author mlaroche
+ */
+public interface DslRawSink {
+
+	/**
+	 * Adds a sketch.
+	 * @param raw sketch
+	 */
+	void addRaw(DslRaw raw);
+
+	/**
+	 * adds a partial sketch.
+	 * @param partial the part of a sketch
+	 */
+	void addPartialSketch(DslRaw partial);
+}
@@ -19,8 +19,14 @@ package io.vertigo.studio.impl.source.dsl.raw;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.VSystemException;
@@ -33,6 +39,10 @@ import io.vertigo.studio.notebook.Notebook;
  * Les références circulaires ne peuvent pas être résolues.
  * Le solver est une fonction stateless qui prend en entrée le Repository du Model et calcule en sortie la liste des définitions.
  *
+ * The raws are sorted topologically on the graph of their links (including the links of their sub raws).
+ * Among the raws ready to be solved, the order is the one of the former sweeps over the repository :
+ * a raw comes in the first sweep where all its links are solved, sweeps being ordered by the repository, so that the generated files do not change.
+ *
  * @author  pchretien
  */
 final class DslRawSolver {
@@ -49,46 +59,73 @@ final class DslRawSolver {
 				.isNotNull(notebook)
 				.isNotNull(rawRepository);
 		//-----
-		//Liste des clés résolues
-		final List<DslRaw> sortedRaws = new ArrayList<>();
-
 		final Collection<DslRawKey> orphans = rawRepository.getOrphanDefinitionKeys();
 		if (!orphans.isEmpty()) {
 			throw new VSystemException(" Les clés suivantes {0} sont orphelines", orphans);
 		}
 		//-----
-		final Collection<DslRaw> raws = new ArrayList<>(rawRepository.getRaws());
-
-		DslRaw raw;
-		int size = raws.size();
-		while (size > 0) {
-			for (final Iterator<DslRaw> it = raws.iterator(); it.hasNext();) {
-				raw = it.next();
-				//==============================================================
-				//==============================================================
-				//On vérifie que les sous éléments sont résolues
-				if (isSolved(notebook, rawRepository, sortedRaws, raw, raw)) {
-					sortedRaws.add(raw);
-					it.remove();
-				}
+		final List<DslRaw> raws = new ArrayList<>(rawRepository.getRaws());
+		final Map<DslRawKey, Integer> indexByRawKey = new HashMap<>();
+		for (int i = 0; i < raws.size(); i++) {
+			indexByRawKey.put(raws.get(i).getKey(), i);
+		}
+		//graph of the links : dependents[i] are the raws waiting for the raw i
+		final List<List<Integer>> dependents = new ArrayList<>(raws.size());
+		final List<List<Integer>> dependencies = new ArrayList<>(raws.size());
+		final int[] unsolvedDependencyCounts = new int[raws.size()];
+		for (int i = 0; i < raws.size(); i++) {
+			dependents.add(new ArrayList<>());
+		}
+		for (int i = 0; i < raws.size(); i++) {
+			final Set<Integer> rawDependencies = new LinkedHashSet<>();
+			collectDependencies(notebook, rawRepository, indexByRawKey, raws.get(i), raws.get(i), rawDependencies);
+			for (final Integer dependency : rawDependencies) {
+				dependents.get(dependency).add(i);
 			}
-			//Si la liste n'a pas diminuée c'est que l'on a fini de résoudre ce qui peut l'être.
-			if (size == raws.size()) {
-				throw new VSystemException(" Les références {0} ne peuvent être résolues", raws);
+			unsolvedDependencyCounts[i] = rawDependencies.size();
+			dependencies.add(List.copyOf(rawDependencies));
+		}
+		//-----
+		//sweeps[i] : the sweep in which the raw i is solved
+		final int[] sweeps = new int[raws.size()];
+		final PriorityQueue<Integer> readyRaws = new PriorityQueue<>(
+				Comparator.<Integer> comparingInt(index -> sweeps[index])
+						.thenComparingInt(index -> index));
+		for (int i = 0; i < raws.size(); i++) {
+			if (unsolvedDependencyCounts[i] == 0) {
+				readyRaws.add(i);
+			}
+		}
+		//Liste des clés résolues
+		final List<DslRaw> sortedRaws = new ArrayList<>(raws.size());
+		while (!readyRaws.isEmpty()) {
+			final int solved = readyRaws.poll();
+			sortedRaws.add(raws.get(solved));
+			for (final int dependent : dependents.get(solved)) {
+				//a raw placed before in the repository waits for the next sweep
+				sweeps[dependent] = Math.max(sweeps[dependent], dependent > solved ? sweeps[solved] : sweeps[solved] + 1);
+				unsolvedDependencyCounts[dependent]--;
+				if (unsolvedDependencyCounts[dependent] == 0) {
+					readyRaws.add(dependent);
+				}
 			}
-			size = raws.size();
+		}
+		if (sortedRaws.size() < raws.size()) {
+			throw new VSystemException(" Les références {0} ne peuvent être résolues", findCycle(raws, dependencies, unsolvedDependencyCounts));
 		}
 		return sortedRaws;
 	}
 
-	private static boolean isSolved(
+	/**
+	 * Collects the raws of the repository a raw (and its sub raws) is linked to.
+	 */
+	private static void collectDependencies(
 			final Notebook notebook,
 			final DslRawRepository rawRepository,
-			final List<DslRaw> sortedRaws,
+			final Map<DslRawKey, Integer> indexByRawKey,
 			final DslRaw raw,
-			final DslRaw xdefRoot) {
-		//A definition is solved if all its sub definitions have been solved
-
+			final DslRaw xdefRoot,
+			final Set<Integer> dependencies) {
 		//We check all references were known
 		for (final DslEntityField entityField : raw.getAllRawLinkFields()) {
 			final String fieldName = entityField.getName();
@@ -102,17 +139,45 @@ final class DslRawSolver {
 						throw new VSystemException("Clé {0} de type {1}, référencée par la propriété {2} de {3} non trouvée",
 								rawKey, raw.getEntity().getField(fieldName).getType(), fieldName, xdefRootKey);
 					}
-					final DslRaw linkedRaw = rawRepository.getRaw(rawKey);
-					if (!sortedRaws.contains(linkedRaw)) {
-						return false;
-					}
+					dependencies.add(indexByRawKey.get(rawKey));
 				}
 			}
 		}
+		//Les composites doivent aussi être résolus.
+		for (final DslRaw subRaw : raw.getAllSubRaws()) {
+			collectDependencies(notebook, rawRepository, indexByRawKey, subRaw, xdefRoot, dependencies);
+		}
+	}
 
-		//On vérifie que les composites sont résolues.
-		return raw.getAllSubRaws()
-				.stream()
-				.allMatch(child -> isSolved(notebook, rawRepository, sortedRaws, child, xdefRoot));
+	/**
+	 * Every unsolved raw waits for at least one unsolved raw : following these links from the first unsolved raw always ends in a cycle.
+	 * @return the cycle as a path of keys (A -> B -> A)
+	 */
+	private static String findCycle(final List<DslRaw> raws, final List<List<Integer>> dependencies, final int[] unsolvedDependencyCounts) {
+		int current = 0;
+		while (unsolvedDependencyCounts[current] == 0) {
+			current++;
+		}
+		final Map<Integer, Integer> positionInPath = new HashMap<>();
+		final List<Integer> path = new ArrayList<>();
+		while (!positionInPath.containsKey(current)) {
+			positionInPath.put(current, path.size());
+			path.add(current);
+			current = firstUnsolvedDependency(dependencies.get(current), unsolvedDependencyCounts);
+		}
+		final List<Integer> cycle = new ArrayList<>(path.subList(positionInPath.get(current), path.size()));
+		cycle.add(current);
+		return cycle.stream()
+				.map(index -> raws.get(index).getKey().getName())
+				.collect(Collectors.joining(" -> "));
+	}
+
+	private static int firstUnsolvedDependency(final List<Integer> rawDependencies, final int[] unsolvedDependencyCounts) {
+		for (final int dependency : rawDependencies) {
+			if (unsolvedDependencyCounts[dependency] > 0) {
+				return dependency;
+			}
+		}
+		throw new IllegalStateException("an unsolved raw must wait for an unsolved raw");
 	}
 }
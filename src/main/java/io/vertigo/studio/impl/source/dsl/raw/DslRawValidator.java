@@ -17,91 +17,149 @@
  */
 package io.vertigo.studio.impl.source.dsl.raw;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
 import io.vertigo.studio.impl.source.dsl.entity.DslEntity;
 import io.vertigo.studio.impl.source.dsl.entity.DslEntityField;
 
 /**
  *
  * Validates a sketch considering its own entity.
+ * The rules of an entity are compiled once into a bitset of field ordinals (mandatory properties),
+ * so that checking a raw is a few bitset operations.
+ * The declaration and the type of each property are already checked by DslRawBuilder.addPropertyValue : they are not checked again.
+ * All the errors are collected and reported together.
  *
  * @author pchretien, mlaroche
  *
  */
 final class DslRawValidator {
-	private DslRawValidator() {
-		//utility Class
-	}
+	/** Under this number of raws, the validation is done by the calling thread. */
+	private static final int PARALLEL_THRESHOLD = 512;
+
+	private final Map<DslEntity, EntityValidator> validatorsByEntity = new ConcurrentHashMap<>();
 
-	static void check(final DslRaw raw) {
-		Assertion.check().isNotNull(raw);
+	/**
+	 * Checks independent raws (and their sub raws), in parallel when they are numerous.
+	 * @param raws the raws to check
+	 * @throws IllegalStateException with all the errors if a raw is not valid
+	 */
+	void check(final List<DslRaw> raws) {
+		Assertion.check().isNotNull(raws);
 		//-----
-		final DslEntity entity = raw.getEntity();
-		// 1.On vérifie la définition par rapport à la métadéfinition
-		// 1.1 on vérifie les propriétés.
-		final Set<String> propertyNames = raw.getPropertyNames();
-		final Set<String> entityPropertyNames = entity.getPropertyNames();
-		// 1.1.1 on vérifie que toutes les propriétés sont déclarées sur le
-		// métamodèle
-		checkProperties(raw, propertyNames, entityPropertyNames);
+		final List<String> errors = collectErrors(raws);
+		if (errors.size() == 1) {
+			throw new IllegalStateException(errors.get(0));
+		} else if (!errors.isEmpty()) {
+			throw new IllegalStateException(errors.size() + " erreurs de validation :\n" + String.join("\n", errors));
+		}
+	}
 
-		// 1.1.2 on vérifie les propriétés obligatoires
-		checkMandatoryProperties(raw, entity, propertyNames, entityPropertyNames);
+	private List<String> collectErrors(final List<DslRaw> raws) {
+		//the common pool is shared : no pool is created for each validation
+		final ForkJoinPool pool = ForkJoinPool.commonPool();
+		final int parallelism = pool.getParallelism();
+		if (raws.size() < PARALLEL_THRESHOLD || parallelism <= 1) {
+			return collectErrors(raws, 0, raws.size());
+		}
+		final int chunkSize = (raws.size() + parallelism - 1) / parallelism;
+		final List<Future<List<String>>> futures = new ArrayList<>();
+		try {
+			for (int from = 0; from < raws.size(); from += chunkSize) {
+				final int chunkFrom = from;
+				final int chunkTo = Math.min(from + chunkSize, raws.size());
+				futures.add(pool.submit(() -> collectErrors(raws, chunkFrom, chunkTo)));
+			}
+			//errors are read in the order of the raws
+			final List<String> errors = new ArrayList<>();
+			for (final Future<List<String>> future : futures) {
+				errors.addAll(future.get());
+			}
+			return errors;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw WrappedException.wrap(e);
+		} catch (final ExecutionException e) {
+			throw WrappedException.wrap(e.getCause());
+		} finally {
+			futures.forEach(future -> future.cancel(true));
+		}
+	}
 
-		// 1.1.3 on vérifie les types des propriétés déclarées
-		for (final String propertyName : propertyNames) {
-			entity.getPropertyType(propertyName).checkValue(raw.getPropertyValue(propertyName));
+	private List<String> collectErrors(final List<DslRaw> raws, final int from, final int to) {
+		final List<String> errors = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			collectErrors(raws.get(i), errors);
 		}
+		return errors;
+	}
+
+	private void collectErrors(final DslRaw raw, final List<String> errors) {
+		// 1.On vérifie la définition par rapport à la métadéfinition
+		validatorsByEntity
+				.computeIfAbsent(raw.getEntity(), EntityValidator::new)
+				.collectErrors(raw, errors);
 
 		// 1.2 on vérifie les définitions composites (sous définitions).
-		raw.getAllSubRaws()
-				.forEach(DslRawValidator::check);
+		for (final DslRaw subRaw : raw.getAllSubRaws()) {
+			collectErrors(subRaw, errors);
+		}
 
 		// 1.3 on vérifie les définitions références.
 		// TODO vérifier les définitions références
 	}
 
-	private static void checkProperties(
-			final DslRaw raw,
-			final Set<String> propertyNames,
-			final Set<String> entityPropertyNames) {
-		// Vérification que toutes les propriétés sont déclarées sur le
-		// métamodèle
-		final Set<String> undeclaredPropertyNames = new HashSet<>();
-		for (final String propertyName : propertyNames) {
-			if (!entityPropertyNames.contains(propertyName)) {
-				// Si la propriété n'est pas déclarée alors erreur
-				undeclaredPropertyNames.add(propertyName);
+	/**
+	 * Rules of an entity, indexed by field ordinal.
+	 */
+	private static final class EntityValidator {
+		private final DslEntity entity;
+		private final BitSet mandatoryProperties = new BitSet();
+
+		EntityValidator(final DslEntity entity) {
+			this.entity = entity;
+			final List<DslEntityField> entityFields = entity.getFields();
+			for (int ordinal = 0; ordinal < entityFields.size(); ordinal++) {
+				final DslEntityField entityField = entityFields.get(ordinal);
+				if (entityField.getType().isProperty() && entityField.getCardinality().hasOne()) {
+					mandatoryProperties.set(ordinal);
+				}
 			}
 		}
-		if (!undeclaredPropertyNames.isEmpty()) {
-			throw new IllegalStateException("Sur l'objet '" + raw.getKey() + "' Il existe des propriétés non déclarées " + undeclaredPropertyNames);
-		}
-	}
-
-	private static void checkMandatoryProperties(
-			final DslRaw raw,
-			final DslEntity entity,
-			final Set<String> propertyNames,
-			final Set<String> entityPropertyNames) {
-		// Vérification des propriétés obligatoires
-		final Set<String> unusedMandatoryPropertySet = new HashSet<>();
-		for (final String propertyName : entityPropertyNames) {
-			final DslEntityField entityField = entity.getField(propertyName);
 
-			if ((entityField.getCardinality().hasOne())
-					&& (!propertyNames.contains(propertyName) || raw.getPropertyValue(propertyName) == null)) {
-				// Si la propriété obligatoire n'est pas renseignée alors erreur
-				// Ou si la propriété obligatoire est renseignée mais qu'elle
-				// est nulle alors erreur !
-				unusedMandatoryPropertySet.add(propertyName);
+		void collectErrors(final DslRaw raw, final List<String> errors) {
+			final BitSet definedProperties = raw.getDefinedProperties();
+			// 1.1 on vérifie les propriétés obligatoires
+			// Si la propriété obligatoire n'est pas renseignée ou si elle est renseignée mais nulle alors erreur
+			BitSet unusedMandatoryProperties = null;
+			for (int ordinal = mandatoryProperties.nextSetBit(0); ordinal >= 0; ordinal = mandatoryProperties.nextSetBit(ordinal + 1)) {
+				if (!definedProperties.get(ordinal) || raw.getValue(ordinal) == null) {
+					if (unusedMandatoryProperties == null) {
+						unusedMandatoryProperties = new BitSet();
+					}
+					unusedMandatoryProperties.set(ordinal);
+				}
+			}
+			if (unusedMandatoryProperties != null) {
+				errors.add(raw.getKey() + " Il existe des propriétés obligatoires non renseignées " + toNames(unusedMandatoryProperties));
 			}
 		}
-		if (!unusedMandatoryPropertySet.isEmpty()) {
-			throw new IllegalStateException(raw.getKey() + " Il existe des propriétés obligatoires non renseignées " + unusedMandatoryPropertySet);
+
+		private Set<String> toNames(final BitSet ordinals) {
+			final Set<String> names = new LinkedHashSet<>();
+			ordinals.stream().forEach(ordinal -> names.add(entity.getFields().get(ordinal).getName()));
+			return names;
 		}
 	}
 }
@@ -33,6 +33,7 @@ import io.vertigo.studio.notebook.Sketch;
  */
 public interface DslSketchFactory {
 	/**
+	 * A grammar is stateless : a factory may build it once and return the same instance.
 	 * @return Grammar
 	 */
 	DslGrammar getGrammar();
@@ -55,4 +56,29 @@ public interface DslSketchFactory {
 	default List<DslRaw> onNewRaw(final DslRaw raw) {
 		return List.of();
 	}
+
+	/**
+	 * Raws a raw is created from, besides the raws it is linked to.
+	 * Exemple : a DtSketch is a fragment of the DtSketch named by a property.
+	 * When one of these raws changes, the sketches of the raw are created again.
+	 *
+	 * @param raw the raw
+	 * @return the keys of the raws
+	 */
+	default List<DslRawKey> getImplicitDependencies(final DslRaw raw) {
+		return List.of();
+	}
+
+	/**
+	 * Raws whose sketches are modified by the creation of the sketches of a raw.
+	 * Exemple : an association adds a foreign key to a DtSketch.
+	 * Only the properties and the links of the raw are read : it may be called on a raw not solved yet.
+	 * When the raw changes, the sketches of these raws are created again.
+	 *
+	 * @param raw the raw
+	 * @return the keys of the raws
+	 */
+	default List<DslRawKey> getAlteredRaws(final DslRaw raw) {
+		return List.of();
+	}
 }
@@ -17,22 +17,48 @@
  */
 package io.vertigo.studio.notebook;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import io.vertigo.core.lang.Assertion;
 
 /**
- * A Studio notebook is a space where sketches are shared and modified. (not threadSafe).
+ * A Studio notebook is a space where sketches are shared and modified.
  * It's a conceptual representation of a project design that is human readable, storable and comparable
+ *
+ * Threading : the sketches are registered and unregistered by a single thread, while nobody reads the notebook.
+ * Once filled, the notebook may be read by concurrent threads (generators) :
+ * the indexes and the fingerprints computed on demand by the reads are guarded.
  * @author mlaroche, pchretien
  */
 public final class Notebook {
+	/** sketch supertypes by sketch class */
+	private static final Map<Class<?>, List<Class<?>>> SKETCH_TYPES = new ConcurrentHashMap<>();
 	private final Map<String, Sketch> sketches = new LinkedHashMap<>();
+	/** sketches by type (concrete class and every sketch supertype), sorted by name ; the index is guarded by this map */
+	private final transient Map<Class<?>, SortedMap<String, Sketch>> sketchesByType = new HashMap<>();
+	/** immutable views of the index returned by getAll, dropped when a sketch of the type is registered */
+	private final transient Map<Class<?>, List<? extends Sketch>> sortedSketchesByType = new ConcurrentHashMap<>();
+	/** if the index is built : a notebook read from json (its sketches set without register) is indexed on first use */
+	private transient boolean indexed;
+	/** fingerprints are computed lazily (and may be computed by concurrent generators) */
+	private final transient Map<String, SketchFingerprint> fingerprints = new ConcurrentHashMap<>();
+	/** names of the sketches unregistered and not registered again */
+	private final transient Set<String> unregisteredNames = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * Registers a new Sketch.
@@ -45,7 +71,95 @@ public final class Notebook {
 				.isNotNull(sketch)
 				.isFalse(contains(sketch.getKey().getName()), "this sketch '{0}' is already registered", sketch);
 		//---
+		ensureIndexed();
 		sketches.put(sketch.getKey().getName(), sketch);
+		index(sketch);
+		if (unregisteredNames.remove(sketch.getKey().getName())) {
+			//a new version of a sketch : the other sketches only reference it by its key
+			fingerprints.remove(sketch.getKey().getName());
+		} else {
+			//a new sketch may turn a plain key into a reference
+			fingerprints.clear();
+		}
+	}
+
+	/**
+	 * Unregisters a sketch, so that a new version of the sketch can be registered.
+	 * The sketches holding the unregistered sketch must be registered again too.
+	 * The fingerprints of the other sketches are kept as long as the sketch is registered again.
+	 *
+	 * @param sketchKey the key of a registered sketch
+	 */
+	public void unregister(final SketchKey sketchKey) {
+		Assertion.check()
+				.isNotNull(sketchKey)
+				.isTrue(contains(sketchKey.name()), "this sketch '{0}' is not registered", sketchKey.name());
+		//---
+		ensureIndexed();
+		final Sketch sketch = sketches.remove(sketchKey.name());
+		synchronized (sketchesByType) {
+			for (final Class<?> type : SKETCH_TYPES.computeIfAbsent(sketch.getClass(), Notebook::getSketchTypes)) {
+				sketchesByType.get(type).remove(sketchKey.name());
+				sortedSketchesByType.remove(type);
+			}
+		}
+		fingerprints.remove(sketchKey.name());
+		unregisteredNames.add(sketchKey.name());
+	}
+
+	/**
+	 * Returns the fingerprint of a sketch.
+	 * The fingerprint changes as soon as a value of the sketch changes;
+	 * other sketches are only referenced by their key.
+	 *
+	 * @param sketchKey the key of a registered sketch
+	 * @return the fingerprint
+	 */
+	public SketchFingerprint getFingerprint(final SketchKey sketchKey) {
+		Assertion.check().isNotNull(sketchKey);
+		//---
+		if (!unregisteredNames.isEmpty()) {
+			//a sketch has been removed : a reference to its key is now a plain key
+			synchronized (unregisteredNames) {
+				if (!unregisteredNames.isEmpty()) {
+					fingerprints.clear();
+					unregisteredNames.clear();
+				}
+			}
+		}
+		//no computeIfAbsent : the computation is safe to run twice
+		final SketchFingerprint fingerprint = fingerprints.get(sketchKey.name());
+		if (fingerprint != null) {
+			return fingerprint;
+		}
+		final SketchFingerprint computedFingerprint = SketchFingerprint.of(resolve(sketchKey.name(), Sketch.class), key -> contains(key.name()));
+		fingerprints.put(sketchKey.name(), computedFingerprint);
+		return computedFingerprint;
+	}
+
+	/**
+	 * Returns the fingerprint of some sketches and of all the sketches they reference, directly or not.
+	 * Anything built only from these sketches can be kept as long as this fingerprint is unchanged.
+	 *
+	 * @param sketchs the sketches
+	 * @return the deep fingerprint
+	 */
+	public String getDeepFingerprint(final Collection<? extends Sketch> sketchs) {
+		Assertion.check().isNotNull(sketchs);
+		//---
+		final Set<SketchKey> reached = new TreeSet<>(Comparator.comparing(SketchKey::name));
+		final Deque<SketchKey> toVisit = new ArrayDeque<>();
+		sketchs.forEach(sketch -> toVisit.add(sketch.getKey()));
+		while (!toVisit.isEmpty()) {
+			final SketchKey sketchKey = toVisit.pop();
+			if (reached.add(sketchKey)) {
+				toVisit.addAll(getFingerprint(sketchKey).references());
+			}
+		}
+		return SketchFingerprint.digest(reached
+				.stream()
+				.map(sketchKey -> sketchKey.name() + ':' + getFingerprint(sketchKey).fingerprint())
+				.collect(Collectors.joining(",")));
 	}
 
 	public boolean contains(final String name) {
@@ -74,15 +188,64 @@ public final class Notebook {
 				.collect(Collectors.toSet());
 	}
 
-	/** {@inheritDoc} */
+	/**
+	 * Returns all the sketches of a type, sorted by name.
+	 * The type may be a concrete sketch class or any of its supertypes (AssociationSketch, Sketch...).
+	 * The list is immutable and shared until a sketch of the same type is registered or unregistered.
+	 *
+	 * @param clazz the type of the sketches
+	 * @return the sketches of this type
+	 */
 	public <S extends Sketch> List<S> getAll(final Class<S> clazz) {
 		Assertion.check().isNotNull(clazz);
 		//---
-		return sketches.values()
-				.stream()
-				.filter(model -> clazz.isAssignableFrom(model.getClass()))
-				.map(clazz::cast)
-				.sorted(Comparator.comparing(s -> s.getKey().getName()))
-				.toList();
+		List<? extends Sketch> sortedSketches = sortedSketchesByType.get(clazz);
+		if (sortedSketches == null) {
+			synchronized (sketchesByType) {
+				ensureIndexed();
+				sortedSketches = sortedSketchesByType.computeIfAbsent(clazz,
+						type -> List.copyOf(sketchesByType.getOrDefault(type, Collections.emptySortedMap()).values()));
+			}
+		}
+		//all the sketches indexed by this type are instances of the type
+		return (List<S>) sortedSketches;
+	}
+
+	private void ensureIndexed() {
+		synchronized (sketchesByType) {
+			if (!indexed) {
+				sketches.values().forEach(this::index);
+				indexed = true;
+			}
+		}
+	}
+
+	private void index(final Sketch sketch) {
+		synchronized (sketchesByType) {
+			for (final Class<?> type : SKETCH_TYPES.computeIfAbsent(sketch.getClass(), Notebook::getSketchTypes)) {
+				sketchesByType.computeIfAbsent(type, k -> new TreeMap<>()).put(sketch.getKey().getName(), sketch);
+				sortedSketchesByType.remove(type);
+			}
+		}
+	}
+
+	/**
+	 * @param sketchClass the class of a sketch
+	 * @return the class and all its supertypes which are sketches
+	 */
+	private static List<Class<?>> getSketchTypes(final Class<?> sketchClass) {
+		final Set<Class<?>> sketchTypes = new LinkedHashSet<>();
+		final Deque<Class<?>> toVisit = new ArrayDeque<>();
+		toVisit.add(sketchClass);
+		while (!toVisit.isEmpty()) {
+			final Class<?> type = toVisit.pop();
+			if (Sketch.class.isAssignableFrom(type) && sketchTypes.add(type)) {
+				if (type.getSuperclass() != null) {
+					toVisit.add(type.getSuperclass());
+				}
+				toVisit.addAll(List.of(type.getInterfaces()));
+			}
+		}
+		return List.copyOf(sketchTypes);
 	}
 }
@@ -17,6 +17,8 @@
  */
 package io.vertigo.studio.notebook;
 
+import java.nio.file.Path;
+
 import io.vertigo.core.node.component.Manager;
 
 public interface NotebookManager extends Manager {
@@ -35,4 +37,21 @@ public interface NotebookManager extends Manager {
 	 */
 	Notebook fromJson(String json);
 
+	/**
+	 * Writes a compact binary snapshot of a notebook.
+	 * A snapshot is loaded much faster than the sources it was read from (strings are interned and the sketches are referenced by id).
+	 * @param notebook the notebook
+	 * @param snapshotPath the file of the snapshot
+	 */
+	void writeSnapshot(Notebook notebook, Path snapshotPath);
+
+	/**
+	 * Loads a notebook from a snapshot written by writeSnapshot.
+	 * A snapshot written by another version of the format is rejected : the sources must be read again.
+	 * The sketches are created again through their constructors and builders, and checked as when the sources are read.
+	 * @param snapshotPath the file of the snapshot
+	 * @return notebook
+	 */
+	Notebook readSnapshot(Path snapshotPath);
+
 }
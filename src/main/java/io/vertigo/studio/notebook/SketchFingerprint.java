@@ -0,0 +1,226 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.notebook;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+
+/**
+ * Stable fingerprint of the content of a sketch.
+ * The fingerprint is a digest of all the values held by the sketch.
+ * Other registered sketches (nested or referenced by a SketchKey) only contribute their key : they are listed as references,
+ * so that a deep fingerprint can be built from the fingerprints of all the sketches reached.
+ *
+ * @param fingerprint the digest of the content of the sketch
+ * @param references the keys of the sketches referenced by the sketch
+ * @author mlaroche
+ */
+public record SketchFingerprint(String fingerprint, Set<SketchKey> references) {
+	private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+	public SketchFingerprint {
+		Assertion.check()
+				.isNotBlank(fingerprint)
+				.isNotNull(references);
+	}
+
+	/**
+	 * Computes the fingerprint of a sketch.
+	 * @param sketch the sketch
+	 * @param isRegistered if a sketch is registered in the notebook (and may be referenced only by its key)
+	 * @return the fingerprint
+	 */
+	static SketchFingerprint of(final Sketch sketch, final Predicate<SketchKey> isRegistered) {
+		Assertion.check()
+				.isNotNull(sketch)
+				.isNotNull(isRegistered);
+		//---
+		final Set<SketchKey> references = new TreeSet<>(Comparator.comparing(SketchKey::name));
+		final String canonicalForm = new CanonicalWriter(sketch, isRegistered, references).write(sketch);
+		references.remove(sketch.getKey());
+		return new SketchFingerprint(digest(canonicalForm), Collections.unmodifiableSet(references));
+	}
+
+	static String digest(final String canonicalForm) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonicalForm.getBytes(StandardCharsets.UTF_8)));
+		} catch (final NoSuchAlgorithmException e) {
+			throw WrappedException.wrap(e);
+		}
+	}
+
+	/**
+	 * The fields written for a class, in the order of the canonical form : the reflection is done once per class.
+	 */
+	private static List<Field> getFields(final Class<?> clazz) {
+		return FIELDS.computeIfAbsent(clazz, SketchFingerprint::findFields);
+	}
+
+	private static List<Field> findFields(final Class<?> clazz) {
+		final List<Field> fields = new ArrayList<>();
+		for (Class<?> current = clazz; current != Object.class; current = current.getSuperclass()) {
+			final List<Field> declaredFields = new ArrayList<>(List.of(current.getDeclaredFields()));
+			declaredFields.sort(Comparator.comparing(Field::getName));
+			for (final Field field : declaredFields) {
+				if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+					field.setAccessible(true);
+					fields.add(field);
+				}
+			}
+		}
+		return Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * Writes any value held by a sketch as a canonical string.
+	 * Unordered collections are sorted so that the result does not depend on hashes.
+	 */
+	private static final class CanonicalWriter {
+		private final Sketch root;
+		private final Predicate<SketchKey> isRegistered;
+		private final Set<SketchKey> references;
+		private final Set<Object> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		CanonicalWriter(final Sketch root, final Predicate<SketchKey> isRegistered, final Set<SketchKey> references) {
+			this.root = root;
+			this.isRegistered = isRegistered;
+			this.references = references;
+		}
+
+		String write(final Object value) {
+			if (value == null) {
+				return "null";
+			} else if (value instanceof final Sketch sketch && sketch != root && isRegistered.test(sketch.getKey())) {
+				return writeReference(sketch.getKey());
+			} else if (value instanceof final SketchKey sketchKey) {
+				return isRegistered.test(sketchKey) ? writeReference(sketchKey) : "key:" + sketchKey.name();
+			} else if (value instanceof final String string) {
+				return string.length() + ":" + string;
+			} else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+				return value.toString();
+			} else if (value instanceof final Enum<?> enumValue) {
+				return enumValue.getDeclaringClass().getName() + '.' + enumValue.name();
+			} else if (value instanceof final Class<?> clazz) {
+				return clazz.getName();
+			} else if (value instanceof final Type type) {
+				//parameterized types of the JDK can't be read by reflection, and their implementation may vary
+				return type.getTypeName();
+			} else if (value instanceof final Optional<?> optional) {
+				return "Optional(" + (optional.isPresent() ? write(optional.get()) : "") + ")";
+			} else if (value instanceof final Collection<?> collection) {
+				return writeCollection(collection);
+			} else if (value instanceof final Map<?, ?> map) {
+				return writeMap(map);
+			} else if (value.getClass().isArray()) {
+				final List<Object> elements = new ArrayList<>();
+				for (int i = 0; i < Array.getLength(value); i++) {
+					elements.add(Array.get(value, i));
+				}
+				return writeCollection(elements);
+			} else if (value.getClass().isSynthetic()) {
+				//lambdas have no stable name
+				return "lambda";
+			} else if (value.getClass().getName().startsWith("java.") || value.getClass().getName().startsWith("javax.")) {
+				return value.toString();
+			}
+			return writeObject(value);
+		}
+
+		private String writeReference(final SketchKey sketchKey) {
+			references.add(sketchKey);
+			return "@" + sketchKey.name();
+		}
+
+		private String writeCollection(final Collection<?> collection) {
+			final List<String> elements = collection.stream().map(this::write).toList();
+			return "[" + String.join(",", isHashOrdered(collection) ? elements.stream().sorted().toList() : elements) + "]";
+		}
+
+		private String writeMap(final Map<?, ?> map) {
+			final List<String> entries = map.entrySet()
+					.stream()
+					.map(entry -> write(entry.getKey()) + "=" + write(entry.getValue()))
+					.toList();
+			return "{" + String.join(",", isHashOrdered(map) ? entries.stream().sorted().toList() : entries) + "}";
+		}
+
+		/**
+		 * Only the collections known to iterate in the order of the hashes are sorted.
+		 * Any other collection keeps its order, as the views and the unmodifiable wrappers of an ordered collection :
+		 * a wrapper of a HashMap may give a different fingerprint for the same content, which only generates a file again.
+		 */
+		private static boolean isHashOrdered(final Object collection) {
+			if (collection instanceof LinkedHashMap || collection instanceof LinkedHashSet) {
+				return false;
+			}
+			return collection instanceof HashMap
+					|| collection instanceof HashSet
+					|| collection instanceof Hashtable
+					|| collection instanceof IdentityHashMap
+					|| collection instanceof WeakHashMap
+					|| collection instanceof ConcurrentHashMap
+					//Set.of(), Map.of()...
+					|| collection.getClass().getName().startsWith("java.util.ImmutableCollections$Set")
+					|| collection.getClass().getName().startsWith("java.util.ImmutableCollections$Map");
+		}
+
+		private String writeObject(final Object value) {
+			if (!visiting.add(value)) {
+				return "cycle";
+			}
+			try {
+				final StringBuilder canonicalForm = new StringBuilder(value.getClass().getName()).append('(');
+				for (final Field field : getFields(value.getClass())) {
+					canonicalForm.append(field.getName()).append('=').append(write(field.get(value))).append(';');
+				}
+				return canonicalForm.append(')').toString();
+			} catch (final IllegalAccessException e) {
+				throw WrappedException.wrap(e);
+			} finally {
+				visiting.remove(value);
+			}
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.notebook.domain.association;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.SketchKey;
+
+/**
+ * Graph of the associations of a notebook : the associations incident to each DtSketch, by node (A or B) and by kind (simple or NN).
+ * The graph is built once by generation from the associations (sorted by name) so that each lookup is a map access ;
+ * all the returned lists are immutable and sorted by name.
+ *
+ * @author mlaroche
+ */
+public final class AssociationGraph {
+	private final Map<SketchKey, List<AssociationSimpleSketch>> simpleAssociationsByNodeA = new HashMap<>();
+	private final Map<SketchKey, List<AssociationSimpleSketch>> simpleAssociationsByNodeB = new HashMap<>();
+	private final Map<SketchKey, List<AssociationNNSketch>> nnAssociationsByNodeA = new HashMap<>();
+	private final Map<SketchKey, List<AssociationNNSketch>> nnAssociationsByNodeB = new HashMap<>();
+	private final Map<SketchKey, List<AssociationSketch>> associationsByDtSketch = new HashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param associations all the associations, sorted by name
+	 */
+	private AssociationGraph(final List<? extends AssociationSketch> associations) {
+		Assertion.check().isNotNull(associations);
+		//---
+		final Map<SketchKey, List<AssociationSketch>> simpleByDtSketch = new HashMap<>();
+		final Map<SketchKey, List<AssociationSketch>> nnByDtSketch = new HashMap<>();
+		for (final AssociationSketch association : associations) {
+			final SketchKey dtSketchKeyA = association.getAssociationNodeA().getDtSketch().getKey();
+			final SketchKey dtSketchKeyB = association.getAssociationNodeB().getDtSketch().getKey();
+			if (association instanceof final AssociationSimpleSketch associationSimple) {
+				add(simpleAssociationsByNodeA, dtSketchKeyA, associationSimple);
+				add(simpleAssociationsByNodeB, dtSketchKeyB, associationSimple);
+				addIncident(simpleByDtSketch, dtSketchKeyA, dtSketchKeyB, association);
+			} else if (association instanceof final AssociationNNSketch associationNN) {
+				add(nnAssociationsByNodeA, dtSketchKeyA, associationNN);
+				add(nnAssociationsByNodeB, dtSketchKeyB, associationNN);
+				addIncident(nnByDtSketch, dtSketchKeyA, dtSketchKeyB, association);
+			} else {
+				throw new IllegalArgumentException("association type not supported " + association.getClass().getName());
+			}
+		}
+		//simple associations first, then NN associations
+		simpleByDtSketch.forEach((dtSketchKey, incidents) -> associationsByDtSketch.computeIfAbsent(dtSketchKey, k -> new ArrayList<>()).addAll(incidents));
+		nnByDtSketch.forEach((dtSketchKey, incidents) -> associationsByDtSketch.computeIfAbsent(dtSketchKey, k -> new ArrayList<>()).addAll(incidents));
+		freeze(simpleAssociationsByNodeA);
+		freeze(simpleAssociationsByNodeB);
+		freeze(nnAssociationsByNodeA);
+		freeze(nnAssociationsByNodeB);
+		freeze(associationsByDtSketch);
+	}
+
+	/**
+	 * Builds the graph of the associations of a notebook.
+	 * The graph is not updated when the notebook changes : it is built by a generator, and used for this generation.
+	 *
+	 * @param notebook the notebook
+	 * @return the graph of the associations
+	 */
+	public static AssociationGraph of(final Notebook notebook) {
+		Assertion.check().isNotNull(notebook);
+		//---
+		return new AssociationGraph(notebook.getAll(AssociationSketch.class));
+	}
+
+	private static <A> void add(final Map<SketchKey, List<A>> associationsByDtSketch, final SketchKey dtSketchKey, final A association) {
+		associationsByDtSketch.computeIfAbsent(dtSketchKey, k -> new ArrayList<>()).add(association);
+	}
+
+	private static void addIncident(
+			final Map<SketchKey, List<AssociationSketch>> associationsByDtSketch,
+			final SketchKey dtSketchKeyA,
+			final SketchKey dtSketchKeyB,
+			final AssociationSketch association) {
+		add(associationsByDtSketch, dtSketchKeyA, association);
+		//a reflexive association is listed once
+		if (!dtSketchKeyB.equals(dtSketchKeyA)) {
+			add(associationsByDtSketch, dtSketchKeyB, association);
+		}
+	}
+
+	private static <A> void freeze(final Map<SketchKey, List<A>> associationsByDtSketch) {
+		associationsByDtSketch.replaceAll((dtSketchKey, dtSketchAssociations) -> List.copyOf(dtSketchAssociations));
+	}
+
+	/**
+	 * @param dtSketchKey the key of a DtSketch
+	 * @return the simple associations and then the NN associations where the DtSketch is on a node (A or B)
+	 */
+	public List<AssociationSketch> getAssociations(final SketchKey dtSketchKey) {
+		Assertion.check().isNotNull(dtSketchKey);
+		//---
+		return associationsByDtSketch.getOrDefault(dtSketchKey, Collections.emptyList());
+	}
+
+	/**
+	 * @param dtSketchKey the key of a DtSketch
+	 * @return the simple associations where the DtSketch is the node A
+	 */
+	public List<AssociationSimpleSketch> getSimpleAssociationsByNodeA(final SketchKey dtSketchKey) {
+		Assertion.check().isNotNull(dtSketchKey);
+		//---
+		return simpleAssociationsByNodeA.getOrDefault(dtSketchKey, Collections.emptyList());
+	}
+
+	/**
+	 * @param dtSketchKey the key of a DtSketch
+	 * @return the simple associations where the DtSketch is the node B
+	 */
+	public List<AssociationSimpleSketch> getSimpleAssociationsByNodeB(final SketchKey dtSketchKey) {
+		Assertion.check().isNotNull(dtSketchKey);
+		//---
+		return simpleAssociationsByNodeB.getOrDefault(dtSketchKey, Collections.emptyList());
+	}
+
+	/**
+	 * @param dtSketchKey the key of a DtSketch
+	 * @return the NN associations where the DtSketch is the node A
+	 */
+	public List<AssociationNNSketch> getNNAssociationsByNodeA(final SketchKey dtSketchKey) {
+		Assertion.check().isNotNull(dtSketchKey);
+		//---
+		return nnAssociationsByNodeA.getOrDefault(dtSketchKey, Collections.emptyList());
+	}
+
+	/**
+	 * @param dtSketchKey the key of a DtSketch
+	 * @return the NN associations where the DtSketch is the node B
+	 */
+	public List<AssociationNNSketch> getNNAssociationsByNodeB(final SketchKey dtSketchKey) {
+		Assertion.check().isNotNull(dtSketchKey);
+		//---
+		return nnAssociationsByNodeB.getOrDefault(dtSketchKey, Collections.emptyList());
+	}
+}
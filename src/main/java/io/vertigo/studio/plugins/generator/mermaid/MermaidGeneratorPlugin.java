@@ -22,7 +22,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.MapBuilder;
@@ -30,12 +29,11 @@ import io.vertigo.core.util.StringUtil;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.domain.DtSketch;
-import io.vertigo.studio.notebook.domain.association.AssociationNNSketch;
-import io.vertigo.studio.notebook.domain.association.AssociationSimpleSketch;
-import io.vertigo.studio.notebook.domain.association.AssociationSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationGraph;
 import io.vertigo.studio.plugins.generator.mermaid.model.MermaidDtModel;
 import io.vertigo.studio.plugins.generator.vertigo.util.DomainUtil;
 import io.vertigo.studio.plugins.generator.vertigo.util.MdaUtil;
@@ -54,22 +52,24 @@ public final class MermaidGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("mermaid.targetSubDir", DEFAULT_TARGET_SUBDIR);
 		final String mermaidDestFileName = generatorConfig.getOrDefaultAsString("mermaid.destFileName", "mermaid-" + generatorConfig.getProjectPackageName().replace('.', '-'));
 
+		final AssociationGraph associationGraph = AssociationGraph.of(notebook);
 		final List<MermaidDtModel> mermaidDtModels = notebook.getAll(DtSketch.class)
 				.stream()
 				.filter(dtSketch -> dtSketch.getPackageName().startsWith(generatorConfig.getProjectPackageName()))
 				.filter(DtSketch::isPersistent)
-				.map(dtSketch -> new MermaidDtModel(dtSketch, getAssociationsByDtDefinition(notebook, dtSketch), DomainUtil.createClassNameFromDtFunction(notebook)))
+				.map(dtSketch -> new MermaidDtModel(dtSketch, associationGraph.getAssociations(dtSketch.getKey()), DomainUtil.createClassNameFromDtFunction(notebook)))
 				.toList();
 
 		final Map<String, List<MermaidDtModel>> mermaidDtModelsByFeature = mermaidDtModels
@@ -87,7 +87,7 @@ public final class MermaidGeneratorPlugin implements GeneratorPlugin {
 				.put("dtSketchsByPackage", mermaidDtModelsByPackage)
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(mermaidDestFileName + ".html")
 				.withGenSubDir(targetSubDir)
@@ -98,14 +98,6 @@ public final class MermaidGeneratorPlugin implements GeneratorPlugin {
 
 	}
 
-	private static List<AssociationSketch> getAssociationsByDtDefinition(final Notebook notebook, final DtSketch dtSketch) {
-		return Stream
-				.concat(notebook.getAll(AssociationSimpleSketch.class).stream(), notebook.getAll(AssociationNNSketch.class).stream())
-				.filter(association -> association.getAssociationNodeA().getDtSketch().getKey().equals(dtSketch.getKey())
-						|| association.getAssociationNodeB().getDtSketch().getKey().equals(dtSketch.getKey())) // concerns current dt
-				.toList();
-	}
-
 	private static String extractFeatureFromPackageName(final String projectPackageName, final String dtPackageName) {
 		//we need to find the featureName, aka between projectpackageName and .domain
 		final String featureName = dtPackageName.substring(projectPackageName.length(), dtPackageName.indexOf(".domain"));
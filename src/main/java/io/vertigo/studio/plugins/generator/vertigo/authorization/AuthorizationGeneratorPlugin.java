@@ -30,6 +30,7 @@ import io.vertigo.datamodel.data.definitions.DataDefinition;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.authorization.SecuredFeatureSketch;
@@ -51,18 +52,19 @@ public final class AuthorizationGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.authorization.targetSubDir", DEFAULT_TARGET_SUBDIR);
 
-		generateGlobalAuthorizations(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generateGlobalAuthorizations(notebook, targetSubDir, generationContext, generatorResultBuilder);
 
-		generateOperations(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generateOperations(notebook, targetSubDir, generationContext, generatorResultBuilder);
 	}
 
 	private static List<GlobalAuthorizationModel> getGlobalAuthorizations(final Notebook notebook) {
@@ -85,20 +87,21 @@ public final class AuthorizationGeneratorPlugin implements GeneratorPlugin {
 				.toList();
 	}
 
-	private static void generateGlobalAuthorizations(final Notebook notebook, final String targetSubDir, final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder) {
-		generateDictionnary("GlobalAuthorizations", targetSubDir, generatorConfig, generatorResultBuilder, getGlobalAuthorizations(notebook));
+	private static void generateGlobalAuthorizations(final Notebook notebook, final String targetSubDir, final GenerationContext generationContext, final GeneratorResultBuilder generatorResultBuilder) {
+		generateDictionnary("GlobalAuthorizations", targetSubDir, generationContext, generatorResultBuilder, getGlobalAuthorizations(notebook));
 	}
 
-	private static void generateOperations(final Notebook notebook, final String targetSubDir, final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder) {
-		generateDictionnary("SecuredEntities", targetSubDir, generatorConfig, generatorResultBuilder, getSecuredEntities(notebook));
+	private static void generateOperations(final Notebook notebook, final String targetSubDir, final GenerationContext generationContext, final GeneratorResultBuilder generatorResultBuilder) {
+		generateDictionnary("SecuredEntities", targetSubDir, generationContext, generatorResultBuilder, getSecuredEntities(notebook));
 	}
 
 	private static void generateDictionnary(
 			final String objectName,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final Collection<?> values) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		Assertion.check()
 				.isNotBlank(objectName)
 				.isTrue(Character.isUpperCase(objectName.charAt(0)) && !objectName.contains("_"), "Object name ({0}) should be in camelcase and starts with UpperCase", objectName)
@@ -112,7 +115,7 @@ public final class AuthorizationGeneratorPlugin implements GeneratorPlugin {
 					.put("packageName", generatorConfig.getProjectPackageName() + ".authorization")
 					.build();
 
-			FileGenerator.builder(generatorConfig)
+			FileGenerator.builder(generationContext)
 					.withModel(model)
 					.withFileName(objectName + ".java")
 					.withGenSubDir(targetSubDir)
@@ -18,11 +18,14 @@
 package io.vertigo.studio.plugins.generator.vertigo.domain.java;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,12 +34,12 @@ import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.domain.DtSketch;
 import io.vertigo.studio.notebook.domain.StudioStereotype;
-import io.vertigo.studio.notebook.domain.association.AssociationNNSketch;
-import io.vertigo.studio.notebook.domain.association.AssociationSimpleSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationGraph;
 import io.vertigo.studio.notebook.domain.association.AssociationSketch;
 import io.vertigo.studio.notebook.domain.masterdata.MasterDataValue;
 import io.vertigo.studio.notebook.domain.masterdata.StaticMasterDataSketch;
@@ -59,37 +62,41 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.domain.java.targetSubDir", DEFAULT_TARGET_SUBDIR);
+		final AssociationGraph associationGraph = AssociationGraph.of(notebook);
 		/* Génération des ressources afférentes au DT. */
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.java.generateDtResources", Boolean.TRUE)) {// true by default
-			generateDtResources(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+			generateDtResources(notebook, targetSubDir, generationContext, generatorResultBuilder);
 		}
 
 		/* Génération de la lgeneratee référençant toutes des définitions. */
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.java.generateDtDefinitions", Boolean.TRUE)) {// true by default
-			generateDtDefinitions(notebook, targetSubDir, generatorConfig, generatorResultBuilder, generatorConfig.getOrDefaultAsString("vertigo.domain.java.dictionaryClassName", "DtDefinitions"));
+			generateDtDefinitions(notebook, associationGraph, targetSubDir, generationContext, generatorResultBuilder, generatorConfig.getOrDefaultAsString("vertigo.domain.java.dictionaryClassName", "DtDefinitions"));
 		}
 
 		/* Générations des DTO. */
-		generateDtObjects(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
-		generateJavaEnums(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generateDtObjects(notebook, associationGraph, targetSubDir, generationContext, generatorResultBuilder);
+		generateJavaEnums(notebook, targetSubDir, generationContext, generatorResultBuilder);
 
 	}
 
 	private static void generateDtDefinitions(
 			final Notebook notebook,
+			final AssociationGraph associationGraph,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final String dictionaryClassName) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final var projectDtSktecks = DomainUtil.getDtSketchs(notebook)
 				.stream()
 				.filter(dtSketch -> dtSketch.getPackageName().startsWith(generatorConfig.getProjectPackageName()))
@@ -97,11 +104,12 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 		final Map<String, Object> model = new MapBuilder<String, Object>()
 				.put("packageName", generatorConfig.getProjectPackageName() + ".domain")
 				.put("classSimpleName", dictionaryClassName)
-				.put("dtDefinitions", toModels(notebook, projectDtSktecks))
+				.put("dtDefinitions", toModels(notebook, associationGraph, projectDtSktecks))
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
+				.withSketches(notebook, projectDtSktecks)
 				.withFileName(dictionaryClassName + ".java")
 				.withGenSubDir(targetSubDir)
 				.withPackageName(generatorConfig.getProjectPackageName() + ".domain")
@@ -113,60 +121,58 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 
 	private static void generateDtObjects(
 			final Notebook notebook,
+			final AssociationGraph associationGraph,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
+		//each DTO is an independent render
+		final List<CompletableFuture<Void>> pendingFiles = new ArrayList<>();
 		for (final DtSketch dtSketch : DomainUtil.getDtSketchs(notebook)) {
 			if (dtSketch.getPackageName().startsWith(generatorConfig.getProjectPackageName())) {
-				generateDtObject(notebook, targetSubDir, generatorConfig, generatorResultBuilder, dtSketch, getAssociationsByDtDefinition(notebook, dtSketch));
+				pendingFiles.add(generateDtObject(notebook, targetSubDir, generationContext, generatorResultBuilder, dtSketch, associationGraph.getAssociations(dtSketch.getKey())));
 			}
 		}
+		FileGenerator.joinAll(pendingFiles);
 	}
 
-	private static void generateDtObject(
+	private static CompletableFuture<Void> generateDtObject(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final DtSketch dtSketch,
 			final List<? extends AssociationSketch> associations) {
-		final StudioDtModel dtDefinitionModel = new StudioDtModel(dtSketch, associations, DomainUtil.createClassNameFromDtFunction(notebook));
-
-		final Map<String, Object> model = new MapBuilder<String, Object>()
-				.put("dtDefinition", dtDefinitionModel)
+		//the model is built only if the DTO has to be rendered
+		final Supplier<Map<String, Object>> model = () -> new MapBuilder<String, Object>()
+				.put("dtDefinition", new StudioDtModel(dtSketch, associations, DomainUtil.createClassNameFromDtFunction(notebook)))
 				.put("annotations", new MethodAnnotationsModel())
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		return FileGenerator.builder(generationContext)
 				.withModel(model)
-				.withFileName(dtDefinitionModel.getClassSimpleName() + ".java")
+				.withSketches(notebook, Stream.concat(Stream.of(dtSketch), associations.stream()).toList())
+				.withFileName(dtSketch.getClassSimpleName() + ".java")
 				.withGenSubDir(targetSubDir)
-				.withPackageName(dtDefinitionModel.getPackageName())
+				.withPackageName(dtSketch.getPackageName())
 				.withTemplateName(DomainGeneratorPlugin.class, "template/dto.ftl")
 				.build()
-				.generateFile(generatorResultBuilder);
+				.submitFile(generatorResultBuilder);
 	}
 
-	private static List<StudioDtModel> toModels(final Notebook notebook, final Collection<DtSketch> dtDefinitions) {
+	private static List<StudioDtModel> toModels(final Notebook notebook, final AssociationGraph associationGraph, final Collection<DtSketch> dtDefinitions) {
 		return dtDefinitions
 				.stream()
-				.map(dtDef -> new StudioDtModel(dtDef, getAssociationsByDtDefinition(notebook, dtDef), DomainUtil.createClassNameFromDtFunction(notebook)))
-				.toList();
-	}
-
-	private static List<AssociationSketch> getAssociationsByDtDefinition(final Notebook notebook, final DtSketch dtSketch) {
-		return Stream
-				.concat(notebook.getAll(AssociationSimpleSketch.class).stream(), notebook.getAll(AssociationNNSketch.class).stream())
-				.filter(association -> association.getAssociationNodeA().getDtSketch().getKey().equals(dtSketch.getKey())
-						|| association.getAssociationNodeB().getDtSketch().getKey().equals(dtSketch.getKey())) // concerns current dt
+				.map(dtDef -> new StudioDtModel(dtDef, associationGraph.getAssociations(dtDef.getKey()), DomainUtil.createClassNameFromDtFunction(notebook)))
 				.toList();
 	}
 
 	private static void generateDtResources(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String simpleClassName = "DtResources";
 		final String resourcesTemplateName = "template/resources.ftl";
 		final String propertiesTemplateName = "template/properties.ftl";
@@ -189,8 +195,9 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 					.put("dtDefinitions", toModels(notebook, dtDefinitions))
 					.build();
 
-			FileGenerator.builder(generatorConfig)
+			FileGenerator.builder(generationContext)
 					.withModel(model)
+					.withSketches(notebook, dtDefinitions)
 					.withFileName(simpleClassName + ".java")
 					.withGenSubDir(targetSubDir)
 					.withPackageName(packageName)
@@ -198,9 +205,10 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 					.build()
 					.generateFile(generatorResultBuilder);
 
-			FileGenerator.builder(generatorConfig)
+			FileGenerator.builder(generationContext)
 					.withEncoding("UTF-8")//for .properties we force  UTF-8 which is the new standard for Java 9+
 					.withModel(model)
+					.withSketches(notebook, dtDefinitions)
 					.withFileName(simpleClassName + ".properties")
 					.withGenSubDir(targetSubDir)
 					.withPackageName(packageName)
@@ -213,8 +221,9 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 	private void generateJavaEnums(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final Map<String, Map<String, MasterDataValue>> staticMasterDataValues = notebook.getAll(StaticMasterDataSketch.class)
 				.stream().collect(Collectors.toMap(StaticMasterDataSketch::getEntityClassName, StaticMasterDataSketch::getValues));
 
@@ -224,14 +233,14 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 				.filter(dtDefinition -> dtDefinition.getStereotype() == StudioStereotype.StaticMasterData)
 				.forEach(dtSketch -> generateJavaEnum(
 						targetSubDir,
-						generatorConfig,
+						generationContext,
 						generatorResultBuilder,
 						dtSketch, staticMasterDataValues.getOrDefault(dtSketch.getClassCanonicalName(), Collections.emptyMap())));
 	}
 
 	private static void generateJavaEnum(
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final DtSketch dtSketch,
 			final Map<String, MasterDataValue> values) {
@@ -242,7 +251,7 @@ public final class DomainGeneratorPlugin implements GeneratorPlugin {
 				.put("entity", masterDataDefinitionModel)
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(masterDataDefinitionModel.getClassSimpleName() + "Enum.java")
 				.withGenSubDir(targetSubDir)
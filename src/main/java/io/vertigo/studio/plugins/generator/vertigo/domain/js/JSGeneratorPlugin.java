@@ -26,6 +26,7 @@ import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.plugins.generator.vertigo.domain.js.model.JSDtModel;
@@ -45,22 +46,23 @@ public final class JSGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.domain.js.targetSubDir", DEFAULT_TARGET_SUBDIR);
 		//---
 		/* Génération des ressources afférentes au DT mais pour la partie JS.*/
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.js.generateDtResourcesJS", true)) {//true by default
-			generateDtResourcesJS(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+			generateDtResourcesJS(notebook, targetSubDir, generationContext, generatorResultBuilder);
 		}
 		/* Génération des fichiers javascripts référençant toutes les définitions. */
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.js.generateJsDtDefinitions", true)) {//true by default
-			generateJsDtDefinitions(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+			generateJsDtDefinitions(notebook, targetSubDir, generationContext, generatorResultBuilder);
 		}
 	}
 
@@ -75,8 +77,9 @@ public final class JSGeneratorPlugin implements GeneratorPlugin {
 	private static void generateJsDtDefinitions(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final Map<String, Object> model = new MapBuilder<String, Object>()
 				.put("packageName", generatorConfig.getProjectPackageName() + ".domain")
@@ -84,7 +87,7 @@ public final class JSGeneratorPlugin implements GeneratorPlugin {
 				.put("dtDefinitions", getJsDtDefinitionModels(notebook, generatorConfig))
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName("DtDefinitions.js")
 				.withGenSubDir(targetSubDir)
@@ -101,8 +104,9 @@ public final class JSGeneratorPlugin implements GeneratorPlugin {
 	private static void generateDtResourcesJS(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String simpleClassName = "DtDefinitions" + "Label";
 		final String packageName = generatorConfig.getProjectPackageName() + ".domain";
 
@@ -112,7 +116,7 @@ public final class JSGeneratorPlugin implements GeneratorPlugin {
 				.put("dtDefinitions", getJsDtDefinitionModels(notebook, generatorConfig))
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(simpleClassName + ".js")
 				.withGenSubDir(targetSubDir)
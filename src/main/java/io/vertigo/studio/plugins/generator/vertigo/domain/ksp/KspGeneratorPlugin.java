@@ -19,6 +19,7 @@ package io.vertigo.studio.plugins.generator.vertigo.domain.ksp;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,11 +29,11 @@ import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.domain.DtSketch;
-import io.vertigo.studio.notebook.domain.association.AssociationNNSketch;
-import io.vertigo.studio.notebook.domain.association.AssociationSimpleSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationGraph;
 import io.vertigo.studio.plugins.generator.vertigo.domain.ksp.model.KspAssociationNNModel;
 import io.vertigo.studio.plugins.generator.vertigo.domain.ksp.model.KspAssociationSimpleModel;
 import io.vertigo.studio.plugins.generator.vertigo.domain.ksp.model.KspDtDefinitionModel;
@@ -51,64 +52,69 @@ public final class KspGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
-		generateKspModel(notebook, generatorConfig, generatorResultBuilder);
+		generateKspModel(notebook, generationContext, generatorResultBuilder);
 	}
 
 	private void generateKspModel(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 
 		final Map<String, List<DtSketch>> sketckesByPackage = notebook.getAll(DtSketch.class)
 				.stream()
 				.collect(Collectors.groupingBy(DtSketch::getPackageName));
 
-		final Collection<AssociationSimpleSketch> collectionSimpleAll = notebook.getAll(AssociationSimpleSketch.class);
-		final Collection<AssociationNNSketch> collectionNNAll = notebook.getAll(AssociationNNSketch.class);
+		final AssociationGraph associationGraph = AssociationGraph.of(notebook);
 
 		sketckesByPackage.entrySet().stream()
-				.forEach(entry -> generateFile(generatorConfig, generatorResultBuilder,
+				.forEach(entry -> generateFile(generationContext, generatorResultBuilder,
 						entry.getKey(),
 						entry.getValue().stream().map(KspDtDefinitionModel::new).collect(Collectors.toList()),
-						filterAssociationSimple(collectionSimpleAll, entry.getKey()),
-						filterAssociationNN(collectionNNAll, entry.getKey())));
+						filterAssociationSimple(associationGraph, entry.getValue()),
+						filterAssociationNN(associationGraph, entry.getValue())));
 
 	}
 
+	/**
+	 * The associations of a package are the associations whose node A is a DtSketch of the package.
+	 */
 	private static Collection<KspAssociationSimpleModel> filterAssociationSimple(
-			final Collection<AssociationSimpleSketch> collectionSimpleAll,
-			final String packageName) {
-		return collectionSimpleAll
+			final AssociationGraph associationGraph,
+			final List<DtSketch> packageDtSketchs) {
+		return packageDtSketchs
 				.stream()
-				.filter(a -> packageName.equals(a.getAssociationNodeA().getDtSketch().getPackageName()))
+				.flatMap(dtSketch -> associationGraph.getSimpleAssociationsByNodeA(dtSketch.getKey()).stream())
+				.sorted(Comparator.comparing(association -> association.getKey().name()))
 				.map(KspAssociationSimpleModel::new)
 				.toList();
 	}
 
 	private static Collection<KspAssociationNNModel> filterAssociationNN(
-			final Collection<AssociationNNSketch> collectionNNAll,
-			final String packageName) {
-		return collectionNNAll
+			final AssociationGraph associationGraph,
+			final List<DtSketch> packageDtSketchs) {
+		return packageDtSketchs
 				.stream()
-				.filter(a -> packageName.equals(a.getAssociationNodeA().getDtSketch().getPackageName()))
+				.flatMap(dtSketch -> associationGraph.getNNAssociationsByNodeA(dtSketch.getKey()).stream())
+				.sorted(Comparator.comparing(association -> association.getKey().name()))
 				.map(KspAssociationNNModel::new)
 				.toList();
 	}
 
 	private static void generateFile(
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final String packageName,
 			final List<KspDtDefinitionModel> dtSketchs,
 			final Collection<KspAssociationSimpleModel> associationSimpleSketchs,
 			final Collection<KspAssociationNNModel> associationNNSketchs) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.domain.ksp.targetSubDir", DEFAULT_TARGET_SUBDIR);
 		//---
@@ -120,7 +126,7 @@ public final class KspGeneratorPlugin implements GeneratorPlugin {
 
 		final Map<String, Object> model = modelBuilder.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName("model.ksp")
 				.withGenSubDir(targetSubDir)
@@ -33,6 +33,7 @@ import io.vertigo.core.util.StringUtil;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.domain.DtSketch;
@@ -63,24 +64,26 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
-		generateSql(notebook, generatorConfig, generatorResultBuilder);
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
+		generateSql(notebook, generationContext, generatorResultBuilder);
 
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.sql.generateMasterData", false)) {
-			generateMasterDataInserts(notebook, generatorConfig, generatorResultBuilder);
+			generateMasterDataInserts(notebook, generationContext, generatorResultBuilder);
 		}
 	}
 
 	private static void generateMasterDataInserts(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final Map<String, Map<String, MasterDataValue>> staticMasterDataValues = notebook.getAll(StaticMasterDataSketch.class)
 				.stream()
@@ -99,7 +102,7 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 					.put("masterdata", sqlMasterDataModel)
 					.build();
 
-			FileGenerator.builder(generatorConfig)
+			FileGenerator.builder(generationContext)
 					.withModel(model)
 					.withFileName("init_masterdata_" + sqlMasterDataModel.getDefinition().getLocalName().toLowerCase() + ".sql")
 					.withGenSubDir(targetSubDir)
@@ -113,8 +116,9 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 
 	private void generateSql(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final Map<String, List<SqlStudioDtDefinitionModel>> mapListDtDef = new HashMap<>();
 		for (final DtSketch dtSketch : DomainUtil.sortSketchCollection(DomainUtil.getDtSketchs(notebook))) {
@@ -135,7 +139,7 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 			final Collection<SqlStudioAssociationNNModel> associationNNDefinitions = filterAssociationNN(collectionNNAll, dataSpace);
 
 			generateSqlByDataSpace(
-					generatorConfig,
+					generationContext,
 					generatorResultBuilder,
 					associationSimpleDefinitions,
 					associationNNDefinitions,
@@ -145,7 +149,7 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 	}
 
 	private void generateSqlByDataSpace(
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final Collection<SqlStudioAssociationSimpleModel> associationSimpleDefinitions,
 			final Collection<SqlStudioAssociationNNModel> associationNNDefinitions,
@@ -158,7 +162,7 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 		}
 		filename.append(".sql");
 		generateFile(
-				generatorConfig,
+				generationContext,
 				generatorResultBuilder,
 				dtDefinitions,
 				associationSimpleDefinitions,
@@ -193,12 +197,13 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 	}
 
 	private static void generateFile(
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final List<SqlStudioDtDefinitionModel> dtDefinitionModels,
 			final Collection<SqlStudioAssociationSimpleModel> associationSimpleDefinitions,
 			final Collection<SqlStudioAssociationNNModel> associationNNDefinitions,
 			final String fileName) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.domain.sql.targetSubDir", DEFAULT_TARGET_SUBDIR);
 		final String baseCible = generatorConfig.getAsString("vertigo.domain.sql.baseCible");
@@ -222,7 +227,7 @@ public final class SqlGeneratorPlugin implements GeneratorPlugin {
 		final Map<String, Object> model = modelBuilder.build();
 		final String templatName = isSqlServer(baseCible) ? "template/sqlserver.ftl" : "template/sql.ftl";
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(fileName)
 				.withGenSubDir(targetSubDir)
@@ -31,6 +31,7 @@ import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.domain.DtSketch;
@@ -55,26 +56,27 @@ public final class TSGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.domain.ts.targetSubDir", DEFAULT_TARGET_SUBDIR);
 		//----
 		/* Génération des ressources afférentes au DT mais pour la partie JS.*/
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.ts.generateDtResourcesTS", true)) {//true by default
-			generateDtResourcesTS(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+			generateDtResourcesTS(notebook, targetSubDir, generationContext, generatorResultBuilder);
 		}
 		/* Génération des fichiers javascripts référençant toutes les définitions. */
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.ts.generateTsDtDefinitions", true)) {//true by default
-			generateTsDtDefinitions(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+			generateTsDtDefinitions(notebook, targetSubDir, generationContext, generatorResultBuilder);
 		}
 		/* Génération des fichiers javascripts référençant toutes les masterdatas. */
 		if (generatorConfig.getOrDefaultAsBoolean("vertigo.domain.ts.generateTsMasterData", false)) {//false by default
-			generateTsMasterData(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+			generateTsMasterData(notebook, targetSubDir, generationContext, generatorResultBuilder);
 		}
 	}
 
@@ -87,16 +89,16 @@ public final class TSGeneratorPlugin implements GeneratorPlugin {
 	}
 
 	private static void generateTsDtDefinitions(
-			final Notebook notebook, final String targetSubDir, final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder) {
-		for (final TSStudioDtModel dtDefinitionModel : getTsDtDefinitionModels(notebook, generatorConfig)) {
-			generateTs(dtDefinitionModel, targetSubDir, generatorConfig, generatorResultBuilder);
+			final Notebook notebook, final String targetSubDir, final GenerationContext generationContext, final GeneratorResultBuilder generatorResultBuilder) {
+		for (final TSStudioDtModel dtDefinitionModel : getTsDtDefinitionModels(notebook, generationContext.getGeneratorConfig())) {
+			generateTs(dtDefinitionModel, targetSubDir, generationContext, generatorResultBuilder);
 		}
 	}
 
 	private static void generateTsMasterData(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 
 		final Map<String, Map<String, MasterDataValue>> staticMasterDataValues = notebook.getAll(StaticMasterDataSketch.class)
@@ -113,7 +115,7 @@ public final class TSGeneratorPlugin implements GeneratorPlugin {
 				.put("masterdatas", tsMasterDataModels)
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName("masterdata.ts")
 				.withGenSubDir(targetSubDir)
@@ -124,13 +126,14 @@ public final class TSGeneratorPlugin implements GeneratorPlugin {
 
 	}
 
-	private static void generateTs(final TSStudioDtModel dtDefinitionModel, final String targetSubDir, final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder) {
+	private static void generateTs(final TSStudioDtModel dtDefinitionModel, final String targetSubDir, final GenerationContext generationContext, final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final Map<String, Object> model = new MapBuilder<String, Object>()
 				.put("classSimpleName", "DtDefinitions")
 				.put("dtDefinition", dtDefinitionModel)
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(dtDefinitionModel.getJsClassFileName() + ".ts")
 				.withGenSubDir(targetSubDir)
@@ -147,8 +150,9 @@ public final class TSGeneratorPlugin implements GeneratorPlugin {
 	private static void generateDtResourcesTS(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
 		final Map<String, List<TSStudioDtModel>> packageMap = new HashMap<>();
 		for (final TSStudioDtModel dtDefinitionModel : getTsDtDefinitionModels(notebook, generatorConfig)) {
@@ -166,7 +170,7 @@ public final class TSGeneratorPlugin implements GeneratorPlugin {
 					.put("dtDefinitions", entry.getValue())
 					.build();
 
-			FileGenerator.builder(generatorConfig)
+			FileGenerator.builder(generationContext)
 					.withModel(model)
 					.withFileName(entry.getKey() + ".ts")
 					.withGenSubDir(targetSubDir)
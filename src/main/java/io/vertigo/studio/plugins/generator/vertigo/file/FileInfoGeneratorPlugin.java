@@ -26,6 +26,7 @@ import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.file.FileInfoSketch;
@@ -45,34 +46,36 @@ public final class FileInfoGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		/* Générations des FI. */
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.file.targetSubDir", DEFAULT_TARGET_SUBDIR);
-		generateFileInfos(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generateFileInfos(notebook, targetSubDir, generationContext, generatorResultBuilder);
 	}
 
 	private static void generateFileInfos(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		final Collection<FileInfoSketch> fileInfoSketchs = notebook.getAll(FileInfoSketch.class);
 		for (final FileInfoSketch fileInfoSketch : fileInfoSketchs) {
-			generateFileInfo(targetSubDir, generatorConfig, generatorResultBuilder, fileInfoSketch);
+			generateFileInfo(targetSubDir, generationContext, generatorResultBuilder, fileInfoSketch);
 		}
 	}
 
 	private static void generateFileInfo(
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final FileInfoSketch fileInfoSketch) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final FileInfoModel fileInfoModel = new FileInfoModel(fileInfoSketch);
 
 		final Map<String, Object> model = new MapBuilder<String, Object>()
@@ -80,7 +83,7 @@ public final class FileInfoGeneratorPlugin implements GeneratorPlugin {
 				.put("packageName", generatorConfig.getProjectPackageName() + ".fileinfo")
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(fileInfoModel.getClassSimpleName() + ".java")
 				.withGenSubDir(targetSubDir)
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.function.Function;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,6 +33,7 @@ import io.vertigo.core.util.StringUtil;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.domain.DtSketch;
@@ -57,15 +60,16 @@ public final class SearchGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.search.targetSubDir", DEFAULT_TARGET_SUBDIR);
-		generateSearchAos(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generateSearchAos(notebook, targetSubDir, generationContext, generatorResultBuilder);
 	}
 
 	/**
@@ -74,32 +78,36 @@ public final class SearchGeneratorPlugin implements GeneratorPlugin {
 	private static void generateSearchAos(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 
-		Stream.of(
-			notebook.getAll(SearchIndexSketch.class).stream().map(SearchIndexSketch::getIndexDtSketch),
-			notebook.getAll(FacetedQuerySketch.class).stream().map(FacetedQuerySketch::getIndexDtSketch),
-			notebook.getAll(FacetSketch.class).stream().map(FacetSketch::getIndexDtSketch)
-		)
+		final List<CompletableFuture<Void>> pendingFiles = Stream.of(
+				notebook.getAll(SearchIndexSketch.class).stream().map(SearchIndexSketch::getIndexDtSketch),
+				notebook.getAll(FacetedQuerySketch.class).stream().map(FacetedQuerySketch::getIndexDtSketch),
+				notebook.getAll(FacetSketch.class).stream().map(FacetSketch::getIndexDtSketch))
 				.flatMap(Function.identity())
 				.map(DtSketch::getKey)
 				.distinct()
 				.map(dtSketchKey -> notebook.resolve(dtSketchKey.getName(), DtSketch.class))
 				.filter(indexDtSketch -> indexDtSketch.getPackageName().startsWith(generatorConfig.getProjectPackageName()))
-				.forEach(indexDtSketch -> generateSearchAo(notebook, targetSubDir, generatorConfig, generatorResultBuilder, indexDtSketch));
+				.map(indexDtSketch -> generateSearchAo(notebook, targetSubDir, generationContext, generatorResultBuilder, indexDtSketch))
+				.flatMap(Optional::stream)
+				.toList();
+		FileGenerator.joinAll(pendingFiles);
 
 	}
 
 	/**
 	 * Génération d'un DAO c'est à dire des taches afférentes à un objet.
 	 */
-	private static void generateSearchAo(
+	private static Optional<CompletableFuture<Void>> generateSearchAo(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final DtSketch dtIndexSketch) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		Assertion.check().isNotNull(dtIndexSketch);
 
 		final String dtPackageName = dtIndexSketch.getPackageName();
@@ -144,7 +152,7 @@ public final class SearchGeneratorPlugin implements GeneratorPlugin {
 		}
 
 		if (searchIndexSketches.isEmpty() && facetedQueryDefinitions.isEmpty() && facetDefinitions.isEmpty()) {
-			return;
+			return Optional.empty();
 		}
 
 		final boolean hasSearchIndex = !searchIndexSketches.isEmpty();
@@ -168,14 +176,14 @@ public final class SearchGeneratorPlugin implements GeneratorPlugin {
 				? "template/search_client.ftl"
 				: "template/facet_definition_provider.ftl";
 
-		FileGenerator.builder(generatorConfig)
+		return Optional.of(FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(generatedFileName)
 				.withGenSubDir(targetSubDir)
 				.withPackageName(packageName)
 				.withTemplateName(SearchGeneratorPlugin.class, templateName)
 				.build()
-				.generateFile(generatorResultBuilder);
+				.submitFile(generatorResultBuilder));
 	}
 
 	@Override
@@ -24,12 +24,15 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.SketchKey;
@@ -56,17 +59,18 @@ public final class TaskGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.task.targetSubDir", DEFAULT_TARGET_SUBDIR);
 		//---
-		generatePaos(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
-		generateDaos(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generatePaos(notebook, targetSubDir, generationContext, generatorResultBuilder);
+		generateDaos(notebook, targetSubDir, generationContext, generatorResultBuilder);
 	}
 
 	/**
@@ -75,16 +79,18 @@ public final class TaskGeneratorPlugin implements GeneratorPlugin {
 	private static void generatePaos(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
+		final List<CompletableFuture<Void>> pendingFiles = new ArrayList<>();
 		//On liste des taches regroupées par Package.
-		for (final Entry<String, List<TaskSketch>> entry : buildPackageMap(notebook, generatorConfig).entrySet()) {
+		for (final Entry<String, List<TaskSketch>> entry : buildPackageMap(notebook, generationContext.getGeneratorConfig()).entrySet()) {
 			final Collection<TaskSketch> taskSketchs = entry.getValue();
 			if (!taskSketchs.isEmpty()) {
 				final String packageName = entry.getKey();
-				generatePao(notebook, targetSubDir, generatorConfig, generatorResultBuilder, taskSketchs, packageName);
+				pendingFiles.add(generatePao(notebook, targetSubDir, generationContext, generatorResultBuilder, taskSketchs, packageName));
 			}
 		}
+		FileGenerator.joinAll(pendingFiles);
 	}
 
 	/**
@@ -93,67 +99,71 @@ public final class TaskGeneratorPlugin implements GeneratorPlugin {
 	private static void generateDaos(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
-		for (final Entry<DtSketch, List<TaskSketch>> entry : builDtSketchsMap(notebook, generatorConfig).entrySet()) {
+		final List<CompletableFuture<Void>> pendingFiles = new ArrayList<>();
+		for (final Entry<DtSketch, List<TaskSketch>> entry : builDtSketchsMap(notebook, generationContext.getGeneratorConfig()).entrySet()) {
 			final DtSketch dtSketch = entry.getKey();
 			if (dtSketch.isPersistent()) {
 				//Si DAO est persitant on génère son CRUD.
-				generateDao(notebook, targetSubDir, generatorConfig, generatorResultBuilder, dtSketch, entry.getValue());
+				pendingFiles.add(generateDao(notebook, targetSubDir, generationContext, generatorResultBuilder, dtSketch, entry.getValue()));
 			}
 		}
+		FileGenerator.joinAll(pendingFiles);
 	}
 
 	/**
 	 * Génération d'un DAO c'est à dire des taches afférentes à un objet.
 	 */
-	private static void generateDao(
+	private static CompletableFuture<Void> generateDao(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final DtSketch dtDefinition,
 			final Collection<TaskSketch> taskDefinitions) {
-		final DAOModel daoModel = new DAOModel(generatorConfig, dtDefinition, taskDefinitions, DomainUtil.createClassNameFromDtFunction(notebook));
+		final DAOModel daoModel = new DAOModel(generationContext.getGeneratorConfig(), dtDefinition, taskDefinitions, DomainUtil.createClassNameFromDtFunction(notebook));
 
 		final Map<String, Object> model = new MapBuilder<String, Object>()
 				.put("dao", daoModel)
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		return FileGenerator.builder(generationContext)
 				.withModel(model)
+				.withSketches(notebook, Stream.concat(Stream.of(dtDefinition), taskDefinitions.stream()).toList())
 				.withFileName(daoModel.getClassSimpleName() + ".java")
 				.withGenSubDir(targetSubDir)
 				.withPackageName(daoModel.getPackageName())
 				.withTemplateName(TaskGeneratorPlugin.class, "template/dao.ftl")
 				.build()
-				.generateFile(generatorResultBuilder);
+				.submitFile(generatorResultBuilder);
 	}
 
 	/**
 	 *  Génération d'un PAO c'est à dire des taches afférentes à un package.
 	 */
-	private static void generatePao(
+	private static CompletableFuture<Void> generatePao(
 			final Notebook notebook,
 			final String targetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder,
 			final Collection<TaskSketch> taskSketches,
 			final String packageName) {
-		final PAOModel paoModel = new PAOModel(generatorConfig, taskSketches, packageName, DomainUtil.createClassNameFromDtFunction(notebook));
+		final PAOModel paoModel = new PAOModel(generationContext.getGeneratorConfig(), taskSketches, packageName, DomainUtil.createClassNameFromDtFunction(notebook));
 
 		final Map<String, Object> model = new MapBuilder<String, Object>()
 				.put("pao", paoModel)
 				.build();
 
-		FileGenerator.builder(generatorConfig)
+		return FileGenerator.builder(generationContext)
 				.withModel(model)
+				.withSketches(notebook, taskSketches)
 				.withFileName(paoModel.getClassSimpleName() + ".java")
 				.withGenSubDir(targetSubDir)
 				.withPackageName(paoModel.getPackageName())
 				.withTemplateName(TaskGeneratorPlugin.class, "template/pao.ftl")
 				.build()
-				.generateFile(generatorResultBuilder);
+				.submitFile(generatorResultBuilder);
 	}
 
 	/**
@@ -24,6 +24,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.MapBuilder;
@@ -31,6 +33,7 @@ import io.vertigo.core.util.StringUtil;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.SketchKey;
@@ -51,17 +54,18 @@ public final class TaskTestGeneratorPlugin implements GeneratorPlugin {
 
 	/** {@inheritDoc} */
 	@Override
-	public void generate(final Notebook notebook, final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder) {
+	public void generate(final Notebook notebook, final GenerationContext generationContext, final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String targetSubDir = generatorConfig.getAsString("vertigo.taskTest.targetSubDir");
 		Assertion.check().isNotNull(targetSubDir);
 		//---
-		generatePaos(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
-		generateDaos(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generatePaos(notebook, targetSubDir, generationContext, generatorResultBuilder);
+		generateDaos(notebook, targetSubDir, generationContext, generatorResultBuilder);
 	}
 
 	/**
@@ -70,22 +74,22 @@ public final class TaskTestGeneratorPlugin implements GeneratorPlugin {
 	private static void generatePaos(
 			final Notebook notebook,
 			final String paosTargetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
-
+		final List<CompletableFuture<Void>> pendingFiles = new ArrayList<>();
 		//On liste des taches regroupées par Package.
-		for (final Entry<String, List<TaskSketch>> entry : buildPackageMap(notebook, generatorConfig).entrySet()) {
+		for (final Entry<String, List<TaskSketch>> entry : buildPackageMap(notebook, generationContext.getGeneratorConfig()).entrySet()) {
 			final Collection<TaskSketch> taskSketchs = entry.getValue();
 			if (!taskSketchs.isEmpty()) {
 
 				final String packageName = entry.getKey();
 				final String classSimpleName = getLastPackageName(packageName) + "PAO";
 
-				generateAo(notebook, paosTargetSubDir, generatorConfig, generatorResultBuilder, taskSketchs, packageName,
-						classSimpleName);
+				pendingFiles.addAll(generateAo(notebook, paosTargetSubDir, generationContext, generatorResultBuilder, taskSketchs, packageName,
+						classSimpleName));
 			}
 		}
-
+		FileGenerator.joinAll(pendingFiles);
 	}
 
 	/**
@@ -94,9 +98,10 @@ public final class TaskTestGeneratorPlugin implements GeneratorPlugin {
 	private static void generateDaos(
 			final Notebook notebook,
 			final String daosTargetSubDir,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
-
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
+		final List<CompletableFuture<Void>> pendingFiles = new ArrayList<>();
 		for (final Entry<DtSketch, List<TaskSketch>> entry : builDtSketchMap(notebook, generatorConfig).entrySet()) {
 			final DtSketch dtSketch = entry.getKey();
 			final String packageNamePrefix = generatorConfig.getProjectPackageName();
@@ -119,21 +124,27 @@ public final class TaskTestGeneratorPlugin implements GeneratorPlugin {
 				final String packageName = generatorConfig.getProjectPackageName() + featureName + ".dao" + subpackage;
 				final String classSimpleName = dtSketch.getClassSimpleName() + "DAO";
 
-				generateAo(notebook, daosTargetSubDir, generatorConfig, generatorResultBuilder, entry.getValue(), packageName,
-						classSimpleName);
+				pendingFiles.addAll(generateAo(notebook, daosTargetSubDir, generationContext, generatorResultBuilder, entry.getValue(), packageName,
+						classSimpleName));
 			}
 		}
+		FileGenerator.joinAll(pendingFiles);
 	}
 
-	private static void generateAo(
+	private static List<CompletableFuture<Void>> generateAo(
 			final Notebook notebook,
-			final String aoTargetSubDir, final GeneratorConfig generatorConfig,
+			final String aoTargetSubDir, final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder, final Collection<TaskSketch> tasSketches,
 			final String packageName, final String classSimpleName) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
+		//each task test is an independent render
+		final List<CompletableFuture<Void>> pendingFiles = new ArrayList<>();
 		for (final TaskSketch taskSketch : tasSketches) {
 			final TemplateAoTaskTest paoModel = new TemplateAoTaskTest(generatorConfig, taskSketch, packageName, classSimpleName, generatorConfig.getAsString("vertigo.taskTest.baseTestClass"), DomainUtil.createClassNameFromDtFunction(notebook));
-			generatePaoTaskTest(aoTargetSubDir, generatorConfig, generatorResultBuilder, paoModel);
+			generatePaoTaskTest(aoTargetSubDir, generationContext, generatorResultBuilder, paoModel)
+					.ifPresent(pendingFiles::add);
 		}
+		return pendingFiles;
 	}
 
 	/**
@@ -150,8 +161,9 @@ public final class TaskTestGeneratorPlugin implements GeneratorPlugin {
 		return StringUtil.first2UpperCase(lastPackageName);
 	}
 
-	private static void generatePaoTaskTest(final String targetSubDir, final GeneratorConfig generatorConfig,
+	private static Optional<CompletableFuture<Void>> generatePaoTaskTest(final String targetSubDir, final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder, final TemplateAoTaskTest paoModel) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final Map<String, Object> model = new MapBuilder<String, Object>()
 				.put("pao", paoModel)
 				.build();
@@ -164,19 +176,21 @@ public final class TaskTestGeneratorPlugin implements GeneratorPlugin {
 		final String fullFilePath = directoryPath + fileName;
 
 		/* Vérifie que le fichier n'existe pas déjà. */
-		if (new File(fullFilePath).exists()) {
+		final File file = new File(fullFilePath);
+		if (file.exists()) {
 			/* Le fichier existe : on ne l'écrase pas. */
-			return;
+			generatorResultBuilder.addPreservedFile(file);
+			return Optional.empty();
 		}
 
-		FileGenerator.builder(generatorConfig)
+		return Optional.of(FileGenerator.builder(generationContext)
 				.withModel(model)
 				.withFileName(fileName)
 				.withGenSubDir(targetSubDir)
 				.withPackageName(testPackageName)
 				.withTemplateName(TaskTestGeneratorPlugin.class, "ao_task_test.ftl")
 				.build()
-				.generateFile(generatorResultBuilder);
+				.submitFile(generatorResultBuilder));
 	}
 
 	private static String package2directory(final String packageName) {
@@ -33,7 +33,6 @@ import io.vertigo.studio.notebook.domain.DtSketch;
 import io.vertigo.studio.notebook.domain.DtSketchField;
 import io.vertigo.studio.notebook.domain.association.AssociationNNSketch;
 import io.vertigo.studio.notebook.domain.association.AssociationSimpleSketch;
-import io.vertigo.studio.notebook.domain.association.AssociationSketch;
 import io.vertigo.studio.notebook.task.TaskSketchAttribute;
 
 /**
@@ -157,7 +156,8 @@ public final class DomainUtil {
 	}
 
 	public static Collection<DtSketch> getDtSketchs(final Notebook notebook) {
-		return sortSketchCollection(notebook.getAll(DtSketch.class));
+		//the notebook already sorts the sketches by name
+		return notebook.getAll(DtSketch.class);
 	}
 
 	public static Map<String, Collection<DtSketch>> getDtSketchCollectionMap(final Notebook notebook) {
@@ -165,11 +165,11 @@ public final class DomainUtil {
 	}
 
 	public static Collection<AssociationSimpleSketch> getSimpleAssociations(final Notebook notebook) {
-		return sortAssociationsCollection(notebook.getAll(AssociationSimpleSketch.class));
+		return notebook.getAll(AssociationSimpleSketch.class);
 	}
 
 	public static Collection<AssociationNNSketch> getNNAssociations(final Notebook notebook) {
-		return sortAssociationsCollection(notebook.getAll(AssociationNNSketch.class));
+		return notebook.getAll(AssociationNNSketch.class);
 	}
 
 	/**
@@ -199,13 +199,6 @@ public final class DomainUtil {
 		return map;
 	}
 
-	private static <A extends AssociationSketch> Collection<A> sortAssociationsCollection(final Collection<A> associationCollection) {
-		return associationCollection
-				.stream()
-				.sorted(Comparator.comparing(dt -> dt.getKey().getName()))
-				.toList();
-	}
-
 	public static String getSimpleNameFromCanonicalName(final String canonicalClassName) {
 		final int lastDot = canonicalClassName.lastIndexOf('.');
 		Assertion.check().isTrue(lastDot > 0, "A cananical class name is required, '{0}' does not contain package name", canonicalClassName);
@@ -31,6 +31,7 @@ import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorResultBuilder;
 import io.vertigo.studio.impl.generator.FileGenerator;
+import io.vertigo.studio.impl.generator.GenerationContext;
 import io.vertigo.studio.impl.generator.GeneratorPlugin;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.webservices.WebServiceSketch;
@@ -50,22 +51,24 @@ public final class WsTsGeneratorPlugin implements GeneratorPlugin {
 	@Override
 	public void generate(
 			final Notebook notebook,
-			final GeneratorConfig generatorConfig,
+			final GenerationContext generationContext,
 			final GeneratorResultBuilder generatorResultBuilder) {
 		Assertion.check()
 				.isNotNull(notebook)
-				.isNotNull(generatorConfig)
+				.isNotNull(generationContext)
 				.isNotNull(generatorResultBuilder);
 		//-----
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final String targetSubDir = generatorConfig.getOrDefaultAsString("vertigo.wsts.targetSubDir", DEFAULT_TARGET_SUBDIR);
-		generateRoute(notebook, targetSubDir, generatorConfig, generatorResultBuilder);
+		generateRoute(notebook, targetSubDir, generationContext, generatorResultBuilder);
 	}
 
 	private static Collection<WebServiceSketch> getWebServiceSketchs(final Notebook notebook) {
 		return notebook.getAll(WebServiceSketch.class);
 	}
 
-	private static void generateRoute(final Notebook notebook, final String targetSubDir, final GeneratorConfig generatorConfig, final GeneratorResultBuilder generatorResultBuilder) {
+	private static void generateRoute(final Notebook notebook, final String targetSubDir, final GenerationContext generationContext, final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorConfig generatorConfig = generationContext.getGeneratorConfig();
 		final Collection<WebServiceSketch> webServiceSketchs = getWebServiceSketchs(notebook);
 		if (!webServiceSketchs.isEmpty()) {
 			final Map<String, List<WebServiceModelTs>> webServicesPerFacades = new HashMap<>();
@@ -101,7 +104,7 @@ public final class WsTsGeneratorPlugin implements GeneratorPlugin {
 						.put("importList", importList)
 						.build();
 
-				FileGenerator.builder(generatorConfig)
+				FileGenerator.builder(generationContext)
 						.withModel(model)
 						.withFileName(jsFileNameWithoutExtension + ".ts")
 						.withGenSubDir(targetSubDir)
@@ -117,7 +120,7 @@ public final class WsTsGeneratorPlugin implements GeneratorPlugin {
 						.put("serviceList", entry.getValue())
 						.build();
 
-				FileGenerator.builder(generatorConfig)
+				FileGenerator.builder(generationContext)
 						.withModel(model)
 						.withFileName("service-gen-initializer.ts")
 						.withGenSubDir(targetSubDir)
@@ -126,7 +129,7 @@ public final class WsTsGeneratorPlugin implements GeneratorPlugin {
 						.build()
 						.generateFile(generatorResultBuilder);
 
-				FileGenerator.builder(generatorConfig)
+				FileGenerator.builder(generationContext)
 						.withModel(model)
 						.withFileName("service-type.ts")
 						.withGenSubDir(targetSubDir)
@@ -38,6 +38,7 @@ import io.vertigo.core.lang.WrappedException;
 import io.vertigo.core.resource.ResourceManager;
 import io.vertigo.studio.impl.source.SourceReaderPlugin;
 import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
 import io.vertigo.studio.notebook.authorization.SecuredFeatureSketch;
 import io.vertigo.studio.source.Source;
 
@@ -70,6 +71,18 @@ public final class AccountJsonSecuritySourceReaderPlugin implements SourceReader
 		return Set.of("security");
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getConsumedSketchTypes() {
+		return Set.of();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getProducedSketchTypes() {
+		return Set.of(SecuredFeatureSketch.class);
+	}
+
 	final List<SecuredFeatureSketch> parseJson(final URL url) {
 		final List<SecuredFeatureSketch> securedFeatureSketchs = new ArrayList<>();
 		final JsonObject rootJsonObject;
@@ -65,6 +65,18 @@ public final class JsonStaticMasterDataSourceReaderPlugin implements SourceReade
 		return Set.of("staticMasterData");
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getConsumedSketchTypes() {
+		return Set.of();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getProducedSketchTypes() {
+		return Set.of(StaticMasterDataSketch.class);
+	}
+
 	@Override
 	public Stream<Sketch> parseResources(final List<Source> sources, final Notebook notebook) {
 		Assertion.check()
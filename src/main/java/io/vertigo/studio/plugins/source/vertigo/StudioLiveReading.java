@@ -0,0 +1,168 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.resource.ResourceManager;
+import io.vertigo.studio.impl.source.LiveSourceReading;
+import io.vertigo.studio.impl.source.dsl.raw.DslLiveRawRepository;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.plugins.source.vertigo.factories.DynamoSketchFactory;
+import io.vertigo.studio.plugins.source.vertigo.loaders.Loader;
+import io.vertigo.studio.plugins.source.vertigo.loaders.LoaderUnit;
+import io.vertigo.studio.source.Source;
+
+/**
+ * Live reading of the sources of the StudioSourceReaderPlugin.
+ * Each source is split into the units of its loader (the ksp files of a kpr, an oom file...) : a changed file loads its unit again.
+ * A change of the file of a source (a kpr) lists its units again.
+ *
+ * @author mlaroche
+ */
+final class StudioLiveReading implements LiveSourceReading {
+	private static final String GRAMMAR_UNIT = "grammar";
+
+	private final Map<String, Loader> loadersByType;
+	private final ResourceManager resourceManager;
+	private final DslLiveRawRepository liveRawRepository = new DslLiveRawRepository(DynamoSketchFactory::new);
+	/** the units of each source, in the order of the sources */
+	private final Map<Source, List<LoaderUnit>> unitsBySource = new LinkedHashMap<>();
+
+	StudioLiveReading(final Map<String, Loader> loadersByType, final ResourceManager resourceManager) {
+		Assertion.check()
+				.isNotNull(loadersByType)
+				.isNotNull(resourceManager);
+		//-----
+		this.loadersByType = loadersByType;
+		this.resourceManager = resourceManager;
+	}
+
+	/**
+	 * Reads all the sources and registers their sketches.
+	 * @param sources the sources
+	 * @param notebook the notebook
+	 */
+	void read(final List<Source> sources, final Notebook notebook) {
+		Assertion.check()
+				.isNotNull(sources)
+				.isNotNull(notebook);
+		//-----
+		//--Enregistrement des types primitifs
+		liveRawRepository.load(GRAMMAR_UNIT, rawRepository -> liveRawRepository.getGrammar()
+				.getRootRaws()
+				.forEach(rawRepository::addRaw));
+		for (final Source source : sources) {
+			final List<LoaderUnit> units = getLoader(source).getUnits(source.path());
+			for (final LoaderUnit unit : units) {
+				liveRawRepository.load(getUnitName(source, unit), unit.loading());
+			}
+			unitsBySource.put(source, units);
+		}
+		liveRawRepository.solve(notebook);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Path> getFiles() {
+		final Set<Path> files = new HashSet<>();
+		for (final Map.Entry<Source, List<LoaderUnit>> entry : unitsBySource.entrySet()) {
+			getSourceFile(entry.getKey()).ifPresent(files::add);
+			entry.getValue().forEach(unit -> unit.fileOpt().ifPresent(files::add));
+		}
+		return Collections.unmodifiableSet(files);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<SketchKey> update(final Set<Path> changedFiles, final Notebook notebook) {
+		Assertion.check()
+				.isNotNull(changedFiles)
+				.isNotNull(notebook);
+		//-----
+		for (final Map.Entry<Source, List<LoaderUnit>> entry : unitsBySource.entrySet()) {
+			final Source source = entry.getKey();
+			if (getSourceFile(source).filter(changedFiles::contains).isPresent()) {
+				entry.setValue(updateUnits(source, entry.getValue(), changedFiles));
+			} else {
+				for (final LoaderUnit unit : entry.getValue()) {
+					if (unit.fileOpt().filter(changedFiles::contains).isPresent()) {
+						liveRawRepository.load(getUnitName(source, unit), unit.loading());
+					}
+				}
+			}
+		}
+		return liveRawRepository.solve(notebook);
+	}
+
+	/**
+	 * Lists the units of a changed source again : the units still listed keep their position.
+	 */
+	private List<LoaderUnit> updateUnits(final Source source, final List<LoaderUnit> previousUnits, final Set<Path> changedFiles) {
+		final List<LoaderUnit> units = getLoader(source).getUnits(source.path());
+		final Set<String> unitNames = units
+				.stream()
+				.map(unit -> getUnitName(source, unit))
+				.collect(Collectors.toSet());
+		final Set<String> previousUnitNames = new HashSet<>();
+		for (final LoaderUnit previousUnit : previousUnits) {
+			final String unitName = getUnitName(source, previousUnit);
+			previousUnitNames.add(unitName);
+			if (!unitNames.contains(unitName)) {
+				liveRawRepository.remove(unitName);
+			}
+		}
+		for (final LoaderUnit unit : units) {
+			final String unitName = getUnitName(source, unit);
+			if (!previousUnitNames.contains(unitName)
+					|| unit.fileOpt().isEmpty()
+					|| unit.fileOpt().filter(changedFiles::contains).isPresent()) {
+				liveRawRepository.load(unitName, unit.loading());
+			}
+		}
+		return units;
+	}
+
+	private Loader getLoader(final Source source) {
+		final Loader loader = loadersByType.get(source.type());
+		Assertion.check().isNotNull(loader, "This resource {0} can not be parse by these loaders : {1}", source, loadersByType.keySet());
+		return loader;
+	}
+
+	private Optional<Path> getSourceFile(final Source source) {
+		//classes are not resources
+		if ("classes".equals(source.type())) {
+			return Optional.empty();
+		}
+		return LoaderUnit.toFile(resourceManager.resolve(source.path()));
+	}
+
+	private static String getUnitName(final Source source, final LoaderUnit unit) {
+		return source.type() + ':' + source.path() + '#' + unit.name();
+	}
+}
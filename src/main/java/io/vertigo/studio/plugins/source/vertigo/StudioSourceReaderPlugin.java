@@ -29,11 +29,21 @@ import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.MapBuilder;
 import io.vertigo.core.param.ParamValue;
 import io.vertigo.core.resource.ResourceManager;
+import io.vertigo.studio.impl.source.LiveSourceReading;
 import io.vertigo.studio.impl.source.SourceReaderPlugin;
 import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
 import io.vertigo.studio.impl.source.dsl.raw.DslSketchFactory;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.domain.DomainSketch;
+import io.vertigo.studio.notebook.domain.DtSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationSketch;
+import io.vertigo.studio.notebook.domain.masterdata.StaticMasterDataSketch;
+import io.vertigo.studio.notebook.file.FileInfoSketch;
+import io.vertigo.studio.notebook.search.FacetSketch;
+import io.vertigo.studio.notebook.search.FacetedQuerySketch;
+import io.vertigo.studio.notebook.search.SearchIndexSketch;
+import io.vertigo.studio.notebook.task.TaskSketch;
 import io.vertigo.studio.plugins.source.vertigo.factories.DynamoSketchFactory;
 import io.vertigo.studio.plugins.source.vertigo.loaders.Loader;
 import io.vertigo.studio.plugins.source.vertigo.loaders.eaxmi.core.EAXmiLoader;
@@ -55,21 +65,29 @@ import io.vertigo.studio.source.Source;
  * @author pchretien, mlaroche
  */
 public final class StudioSourceReaderPlugin implements SourceReaderPlugin {
+	private final ResourceManager resourceManager;
 	private final Map<String, Loader> loadersByType;
 
 	/**
 	 * Constructeur injectable.
 	 * @param resourceManager the component for finding resources
 	 * @param encodingOpt the encoding to use for reading ksp files
+	 * @param kspParallelismOpt the number of ksp files parsed at the same time (0 by default : one per available processor)
+	 * @param kspCacheDirOpt the directory where the parsings of the ksp files are cached (no cache by default)
+	 * @param oomStreamingOpt if the oom files are read in streaming mode, for large models (false by default)
 	 */
 	@Inject
 	public StudioSourceReaderPlugin(
 			final ResourceManager resourceManager,
 			@ParamValue("encoding") final Optional<String> encodingOpt,
-			@ParamValue("constFieldName") final Optional<Boolean> constFieldName) {
+			@ParamValue("constFieldName") final Optional<Boolean> constFieldName,
+			@ParamValue("kspParallelism") final Optional<Integer> kspParallelismOpt,
+			@ParamValue("kspCacheDir") final Optional<String> kspCacheDirOpt,
+			@ParamValue("oomStreaming") final Optional<Boolean> oomStreamingOpt) {
+		this.resourceManager = resourceManager;
 		loadersByType = new MapBuilder<String, Loader>()
-				.put("kpr", new KprLoader(resourceManager, encodingOpt))
-				.put("oom", new OOMLoader(constFieldName.orElse(true), resourceManager))
+				.put("kpr", new KprLoader(resourceManager, encodingOpt, kspParallelismOpt, kspCacheDirOpt))
+				.put("oom", new OOMLoader(constFieldName.orElse(true), oomStreamingOpt.orElse(false), resourceManager))
 				.put("xmi", new EAXmiLoader(constFieldName.orElse(true), resourceManager))
 				.put("classes", new AnnotationLoader())
 				.unmodifiable()
@@ -100,9 +118,45 @@ public final class StudioSourceReaderPlugin implements SourceReaderPlugin {
 		return rawRepository.solve(notebook);
 	}
 
+	/**
+	 * The sources are read by units : a changed ksp file (or oom, xmi file) is read again on its own,
+	 * and only the sketches depending on it are created again.
+	 */
+	@Override
+	public Optional<LiveSourceReading> readLive(final List<Source> sources, final Notebook notebook) {
+		Assertion.check()
+				.isNotNull(sources)
+				.isNotNull(notebook);
+		//---
+		final StudioLiveReading liveReading = new StudioLiveReading(loadersByType, resourceManager);
+		liveReading.read(sources, notebook);
+		return Optional.of(liveReading);
+	}
+
 	@Override
 	public Set<String> getHandledSourceTypes() {
 		return Set.of("kpr", "oom", "xmi", "classes");
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getConsumedSketchTypes() {
+		return Set.of();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getProducedSketchTypes() {
+		return Set.of(
+				DomainSketch.class,
+				DtSketch.class,
+				AssociationSketch.class,
+				StaticMasterDataSketch.class,
+				TaskSketch.class,
+				FacetSketch.class,
+				FacetedQuerySketch.class,
+				SearchIndexSketch.class,
+				FileInfoSketch.class);
+	}
+
 }
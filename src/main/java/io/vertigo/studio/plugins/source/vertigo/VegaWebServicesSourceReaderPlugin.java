@@ -37,6 +37,7 @@ import io.vertigo.core.util.ClassUtil;
 import io.vertigo.core.util.StringUtil;
 import io.vertigo.studio.impl.source.SourceReaderPlugin;
 import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
 import io.vertigo.studio.notebook.webservices.WebServiceSketch;
 import io.vertigo.studio.notebook.webservices.WebServiceSketchParam;
 import io.vertigo.studio.notebook.webservices.WebServiceSketchParam.WebServiceParamLocation;
@@ -206,4 +207,16 @@ public final class VegaWebServicesSourceReaderPlugin implements SourceReaderPlug
 		return Set.of("webservice");
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getConsumedSketchTypes() {
+		return Set.of();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Class<? extends Sketch>> getProducedSketchTypes() {
+		return Set.of(WebServiceSketch.class);
+	}
+
 }
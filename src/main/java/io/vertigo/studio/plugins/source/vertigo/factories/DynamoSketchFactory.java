@@ -18,12 +18,15 @@
 package io.vertigo.studio.plugins.source.vertigo.factories;
 
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.vertigo.core.lang.WrappedException;
 import io.vertigo.studio.impl.source.dsl.entity.DslEntity;
 import io.vertigo.studio.impl.source.dsl.entity.DslGrammar;
 import io.vertigo.studio.impl.source.dsl.raw.DslRaw;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawKey;
 import io.vertigo.studio.impl.source.dsl.raw.DslSketchFactory;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.Sketch;
@@ -38,6 +41,8 @@ import io.vertigo.studio.plugins.source.vertigo.factories.task.TaskSketchFactory
 public final class DynamoSketchFactory implements DslSketchFactory {
 	private final List<DslSketchFactory> sketchFactories;
 	private final DslGrammar dslGrammar;
+	/** the factory of each entity : entities are constants, compared by identity */
+	private final Map<DslEntity, DslSketchFactory> sketchFactoriesByEntity = new IdentityHashMap<>();
 
 	/**
 	 * Constructor.
@@ -48,18 +53,25 @@ public final class DynamoSketchFactory implements DslSketchFactory {
 				new TaskSketchFactory(),
 				new SearchSketchFactory(),
 				new FileSketchFactory());
+		for (final DslSketchFactory sketchFactory : sketchFactories) {
+			for (final DslEntity entity : sketchFactory.getGrammar().getEntities()) {
+				//the first factory declaring an entity handles it
+				sketchFactoriesByEntity.putIfAbsent(entity, sketchFactory);
+			}
+		}
 		dslGrammar = createGrammar();
 	}
 
 	private DslGrammar createGrammar() {
+		final List<DslEntity> entities = sketchFactories
+				.stream()
+				.flatMap(sketchFactory -> sketchFactory.getGrammar().getEntities().stream())
+				.toList();
 		return new DslGrammar() {
 
 			@Override
 			public List<DslEntity> getEntities() {
-				return sketchFactories
-						.stream()
-						.flatMap(sketchFactory -> sketchFactory.getGrammar().getEntities().stream())
-						.toList();
+				return entities;
 			}
 
 			@Override
@@ -89,6 +101,26 @@ public final class DynamoSketchFactory implements DslSketchFactory {
 		return Collections.emptyList();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public List<DslRawKey> getImplicitDependencies(final DslRaw raw) {
+		if (!raw.getEntity().isProvided()) {
+			return lookUpSketchFactory(raw)
+					.getImplicitDependencies(raw);
+		}
+		return Collections.emptyList();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public List<DslRawKey> getAlteredRaws(final DslRaw raw) {
+		if (!raw.getEntity().isProvided()) {
+			return lookUpSketchFactory(raw)
+					.getAlteredRaws(raw);
+		}
+		return Collections.emptyList();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public List<Sketch> createSketches(final Notebook notebook, final DslRaw raw) {
@@ -104,11 +136,11 @@ public final class DynamoSketchFactory implements DslSketchFactory {
 
 	private DslSketchFactory lookUpSketchFactory(final DslRaw raw) {
 		//On regarde si la grammaire contient la métaDefinition.
-		return sketchFactories
-				.stream()
-				.filter(sketchFactory -> sketchFactory.getGrammar().getEntities().contains(raw.getEntity()))
-				.findFirst()
-				//Si on n'a pas trouvé de définition c'est qu'il manque la registry.
-				.orElseThrow(() -> new IllegalArgumentException(raw.getEntity().getName() + " " + raw.getKey() + " non traitée. Il manque une DynamicRegistry ad hoc."));
+		final DslSketchFactory sketchFactory = sketchFactoriesByEntity.get(raw.getEntity());
+		if (sketchFactory == null) {
+			//Si on n'a pas trouvé de définition c'est qu'il manque la registry.
+			throw new IllegalArgumentException(raw.getEntity().getName() + " " + raw.getKey() + " non traitée. Il manque une DynamicRegistry ad hoc.");
+		}
+		return sketchFactory;
 	}
 }
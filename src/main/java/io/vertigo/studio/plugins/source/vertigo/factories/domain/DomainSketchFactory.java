@@ -64,11 +64,12 @@ import io.vertigo.studio.tools.SketchUtil;
 public final class DomainSketchFactory implements DslSketchFactory {
 	private static final Logger LOGGER = LogManager.getLogger(DomainSketchFactory.class);
 	private static final Gson GSON = new Gson();
+	private static final DslGrammar GRAMMAR = new DomainGrammar();
 	private final Map<SketchKey, DtSketchBuilder> dtDefinitionBuilders = new HashMap<>();
 
 	@Override
 	public DslGrammar getGrammar() {
-		return new DomainGrammar();
+		return GRAMMAR;
 	}
 
 	/** {@inheritDoc} */
@@ -452,6 +453,37 @@ public final class DomainSketchFactory implements DslSketchFactory {
 		return Collections.emptyList();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public List<DslRawKey> getImplicitDependencies(final DslRaw dslDefinition) {
+		if (DomainGrammar.DT_ENTITY.equals(dslDefinition.getEntity())) {
+			final String fragmentOf = (String) dslDefinition.getPropertyValue(KspProperty.FRAGMENT_OF);
+			if (!StringUtil.isBlank(fragmentOf)) {
+				return Collections.singletonList(DslRawKey.of(fragmentOf));
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public List<DslRawKey> getAlteredRaws(final DslRaw dslDefinition) {
+		if (DomainGrammar.ASSOCIATION_ENTITY.equals(dslDefinition.getEntity())) {
+			//the foreign key is added on the DtSketch of the foreign node (only the properties of the raw are read)
+			final boolean isAForeignNode;
+			if (dslDefinition.getPropertyValue("type") != null) {
+				//*>1, *>? : the node A is multiple
+				isAForeignNode = true;
+			} else {
+				isAForeignNode = !AssociationUtil.isAPrimaryNode(
+						(String) dslDefinition.getPropertyValue(KspProperty.MULTIPLICITY_A),
+						(String) dslDefinition.getPropertyValue(KspProperty.MULTIPLICITY_B));
+			}
+			return Collections.singletonList(dslDefinition.getRawKeyByFieldName(isAForeignNode ? "dtDefinitionA" : "dtDefinitionB"));
+		}
+		return Collections.emptyList();
+	}
+
 	/*
 	 * Construction du domaine relatif à un DT : DoDtXxxXX
 	 */
@@ -33,10 +33,11 @@ import io.vertigo.studio.plugins.source.vertigo.KspProperty;
  * @author pchretien, mlaroche
  */
 public final class FileSketchFactory implements DslSketchFactory {
+	private static final DslGrammar GRAMMAR = new FileGrammar();
 
 	@Override
 	public DslGrammar getGrammar() {
-		return new FileGrammar();
+		return GRAMMAR;
 	}
 
 	/** {@inheritDoc} */
@@ -49,10 +49,11 @@ import io.vertigo.studio.plugins.source.vertigo.KspProperty;
  * @author pchretien, mlaroche
  */
 public final class SearchSketchFactory implements DslSketchFactory {
+	private static final DslGrammar GRAMMAR = new SearchGrammar();
 
 	@Override
 	public DslGrammar getGrammar() {
-		return new SearchGrammar();
+		return GRAMMAR;
 	}
 
 	/** {@inheritDoc} */
@@ -37,10 +37,11 @@ import io.vertigo.studio.plugins.source.vertigo.KspProperty;
  * @author pchretien, mlaroche
  */
 public final class TaskSketchFactory implements DslSketchFactory {
+	private static final DslGrammar GRAMMAR = new TaskGrammar();
 
 	@Override
 	public DslGrammar getGrammar() {
-		return new TaskGrammar();
+		return GRAMMAR;
 	}
 
 	/** {@inheritDoc} */
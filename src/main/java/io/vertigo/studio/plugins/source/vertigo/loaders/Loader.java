@@ -17,6 +17,9 @@
  */
 package io.vertigo.studio.plugins.source.vertigo.loaders;
 
+import java.util.List;
+import java.util.Optional;
+
 import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
 
 /**
@@ -40,4 +43,13 @@ public interface Loader {
 	 */
 	void load(String resourcePath, DslRawRepository rawRepository);
 
+	/**
+	 * Splits a resource into units that can be loaded on their own : when a file changes, only its unit is loaded again.
+	 * By default, the resource is a single unit without a local file.
+	 * @param resourcePath resourcePath
+	 * @return the units of the resource
+	 */
+	default List<LoaderUnit> getUnits(final String resourcePath) {
+		return List.of(new LoaderUnit(resourcePath, Optional.empty(), rawRepository -> load(resourcePath, rawRepository)));
+	}
 }
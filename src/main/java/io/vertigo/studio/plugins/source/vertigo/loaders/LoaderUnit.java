@@ -0,0 +1,60 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
+
+/**
+ * A part of a resource that can be loaded on its own : a ksp file of a kpr, an oom file...
+ *
+ * @param name the name of the unit
+ * @param fileOpt the local file of the unit, if any : a change of this file loads the unit again
+ * @param loading the loading of the raws of the unit
+ * @author mlaroche
+ */
+public record LoaderUnit(String name, Optional<Path> fileOpt, Consumer<DslRawRepository> loading) {
+
+	public LoaderUnit {
+		Assertion.check()
+				.isNotBlank(name)
+				.isNotNull(fileOpt)
+				.isNotNull(loading);
+	}
+
+	/**
+	 * @param url the url of a resource
+	 * @return the local file of the resource, if the resource is a file
+	 */
+	public static Optional<Path> toFile(final URL url) {
+		Assertion.check().isNotNull(url);
+		//-----
+		try {
+			return "file".equals(url.toURI().getScheme()) ? Optional.of(Path.of(url.toURI())) : Optional.empty();
+		} catch (final URISyntaxException e) {
+			throw WrappedException.wrap(e);
+		}
+	}
+}
@@ -36,6 +36,7 @@ import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlAssociation;
 import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlAttribute;
 import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlClass;
 import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlId;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlLoading;
 
 /**
  * Loader de fichier XMI version Enterprise Architect.
@@ -44,7 +45,6 @@ import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlId;
 public final class EAXmiLoader extends AbstractXmlLoader {
 	private static final Pattern CODE_PATTERN = Pattern.compile("[a-zA-Z0-9_]+");
 	private static final Logger LOG = LogManager.getLogger(EAXmiLoader.class);
-	private final Map<XmlId, EAXmiObject> map = new LinkedHashMap<>();
 
 	/**
 	 * Constructor.
@@ -56,36 +56,44 @@ public final class EAXmiLoader extends AbstractXmlLoader {
 	}
 
 	@Override
-	protected DefaultHandler getHandler() {
-		return new EAXmiHandler(map);
-	}
+	protected XmlLoading createLoading() {
+		final boolean constFieldNameInSource = isConstFieldNameInSource();
+		//objects of this load only
+		final Map<XmlId, EAXmiObject> map = new LinkedHashMap<>();
+		return new XmlLoading() {
+			@Override
+			public DefaultHandler getHandler() {
+				return new EAXmiHandler(map);
+			}
 
-	/**
-	 * Récupération des classes déclarées dans le XMI.
-	 * @return Liste des classes
-	 */
-	@Override
-	public List<XmlClass> getClasses() {
-		return map.values()
-				.stream()
-				.peek(obj -> LOG.debug("class : {}", obj))
-				//On ne conserve que les classes et les domaines
-				.filter(obj -> obj.getType() == EAXmiType.Class)
-				.map(obj -> createClass(obj, isConstFieldNameInSource()))
-				.toList();
-	}
+			/**
+			 * Récupération des classes déclarées dans le XMI.
+			 * @return Liste des classes
+			 */
+			@Override
+			public List<XmlClass> getClasses() {
+				return map.values()
+						.stream()
+						.peek(obj -> LOG.debug("class : {}", obj))
+						//On ne conserve que les classes et les domaines
+						.filter(obj -> obj.getType() == EAXmiType.Class)
+						.map(obj -> createClass(obj, constFieldNameInSource))
+						.toList();
+			}
 
-	/**
-	 * Récupération des associations déclarées dans le XMI.
-	 * @return Liste des associations
-	 */
-	@Override
-	public List<XmlAssociation> getAssociations() {
-		return map.values()
-				.stream()
-				.filter(obj -> obj.getType() == EAXmiType.Association)
-				.map(obj -> createAssociation(obj, isConstFieldNameInSource()))
-				.toList();
+			/**
+			 * Récupération des associations déclarées dans le XMI.
+			 * @return Liste des associations
+			 */
+			@Override
+			public List<XmlAssociation> getAssociations() {
+				return map.values()
+						.stream()
+						.filter(obj -> obj.getType() == EAXmiType.Association)
+						.map(obj -> createAssociation(obj, map, constFieldNameInSource))
+						.toList();
+			}
+		};
 	}
 
 	private static XmlClass createClass(final EAXmiObject obj, final boolean constFieldNameInSource) {
@@ -134,9 +142,11 @@ public final class EAXmiLoader extends AbstractXmlLoader {
 	/**
 	 * Création d'une association.
 	 * @param obj ObjectOOM
+	 * @param map the objects of the XMI, by id
+	 * @param constFieldNameInSource FieldName in file is in CONST_CASE instead of camelCase
 	 * @return Association
 	 */
-	private XmlAssociation createAssociation(final EAXmiObject obj, final boolean constFieldNameInSource) {
+	private static XmlAssociation createAssociation(final EAXmiObject obj, final Map<XmlId, EAXmiObject> map, final boolean constFieldNameInSource) {
 		LOG.debug("Créer association : {}", obj.getName());
 		//On recherche les objets référencés par l'association.
 		final EAXmiObject objectB = map.get(obj.getClassB());
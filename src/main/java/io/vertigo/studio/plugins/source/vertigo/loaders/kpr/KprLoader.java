@@ -21,9 +21,14 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.inject.Inject;
 
@@ -32,8 +37,10 @@ import io.vertigo.core.lang.VSystemException;
 import io.vertigo.core.lang.WrappedException;
 import io.vertigo.core.param.ParamValue;
 import io.vertigo.core.resource.ResourceManager;
+import io.vertigo.studio.impl.source.dsl.entity.DslGrammar;
 import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
 import io.vertigo.studio.plugins.source.vertigo.loaders.Loader;
+import io.vertigo.studio.plugins.source.vertigo.loaders.LoaderUnit;
 
 /**
  * Parses a KPR file.
@@ -47,23 +54,34 @@ public final class KprLoader implements Loader {
 	private static final String KSP_EXTENSION = ".ksp";
 	private final ResourceManager resourceManager;
 	private final Charset charset;
+	private final int parallelism;
+	private final Optional<Path> kspCacheDirOpt;
 
 	/**
 	 * Constructor.
 	 *
 	 * @param resourceManager the resourceManager
 	 * @param encodingOpt encoding des KSP
+	 * @param parallelismOpt the number of KSP parsed at the same time : 1 means sequential, 0 (default) means one per available processor
+	 * @param kspCacheDirOpt the directory of the cache of the parsings of the KSP (no cache by default)
 	 */
 	@Inject
 	public KprLoader(
 			final ResourceManager resourceManager,
-			@ParamValue("encoding") final Optional<String> encodingOpt) {
+			@ParamValue("encoding") final Optional<String> encodingOpt,
+			@ParamValue("kspParallelism") final Optional<Integer> parallelismOpt,
+			@ParamValue("kspCacheDir") final Optional<String> kspCacheDirOpt) {
 		Assertion.check()
 				.isNotNull(resourceManager)
-				.isNotNull(encodingOpt);
+				.isNotNull(encodingOpt)
+				.isNotNull(parallelismOpt)
+				.isNotNull(kspCacheDirOpt)
+				.isTrue(parallelismOpt.orElse(0) >= 0, "kspParallelism must be positive or 0 (auto)");
 		//-----
 		this.resourceManager = resourceManager;
 		charset = Charset.forName(encodingOpt.orElse("utf-8"));
+		parallelism = parallelismOpt.orElse(0) == 0 ? Runtime.getRuntime().availableProcessors() : parallelismOpt.get();
+		this.kspCacheDirOpt = kspCacheDirOpt.map(Path::of);
 	}
 
 	/** {@inheritDoc} */
@@ -74,9 +92,63 @@ public final class KprLoader implements Loader {
 				.isNotNull(rawRepository);
 		//-----
 		final URL kprURL = resourceManager.resolve(resourcePath);
-		for (final URL url : getKspFiles(kprURL, charset, resourceManager)) {
-			final KspLoader loader = new KspLoader(url, charset);
-			loader.load(rawRepository);
+		final List<URL> kspURLs = getKspFiles(kprURL, charset, resourceManager);
+		final Optional<KspParseCache> kspParseCacheOpt = kspCacheDirOpt.map(kspCacheDir -> new KspParseCache(kspCacheDir, rawRepository.getGrammar()));
+		//the files are parsed independently, then their raws are registered in the order of the KPR
+		for (final KspParsing kspParsing : parse(kspURLs, rawRepository.getGrammar(), kspParseCacheOpt)) {
+			kspParsing.registerInto(rawRepository);
+		}
+		kspParseCacheOpt.ifPresent(KspParseCache::evictStaleEntries);
+	}
+
+	/**
+	 * Each KSP of the KPR is a unit : a change of a KSP parses only this KSP again.
+	 */
+	@Override
+	public List<LoaderUnit> getUnits(final String resourcePath) {
+		Assertion.check().isNotBlank(resourcePath);
+		//-----
+		final URL kprURL = resourceManager.resolve(resourcePath);
+		return getKspFiles(kprURL, charset, resourceManager)
+				.stream()
+				.map(kspURL -> new LoaderUnit(kspURL.toExternalForm(), LoaderUnit.toFile(kspURL), rawRepository -> loadKsp(kspURL, rawRepository)))
+				.toList();
+	}
+
+	private void loadKsp(final URL kspURL, final DslRawRepository rawRepository) {
+		//the stale entries are only evicted by a full load
+		final Optional<KspParseCache> kspParseCacheOpt = kspCacheDirOpt.map(kspCacheDir -> new KspParseCache(kspCacheDir, rawRepository.getGrammar()));
+		new KspLoader(kspURL, charset)
+				.parse(rawRepository.getGrammar(), kspParseCacheOpt)
+				.registerInto(rawRepository);
+	}
+
+	private List<KspParsing> parse(final List<URL> kspURLs, final DslGrammar grammar, final Optional<KspParseCache> kspParseCacheOpt) {
+		if (parallelism <= 1 || kspURLs.size() <= 1) {
+			return kspURLs
+					.stream()
+					.map(kspURL -> new KspLoader(kspURL, charset).parse(grammar, kspParseCacheOpt))
+					.toList();
+		}
+		final ExecutorService executorService = Executors.newWorkStealingPool(Math.min(parallelism, kspURLs.size()));
+		try {
+			final List<Future<KspParsing>> futures = kspURLs
+					.stream()
+					.map(kspURL -> executorService.submit(() -> new KspLoader(kspURL, charset).parse(grammar, kspParseCacheOpt)))
+					.toList();
+			//results are read in the order of the KPR : the first failing file of the KPR is reported
+			final List<KspParsing> kspParsings = new ArrayList<>(futures.size());
+			for (final Future<KspParsing> future : futures) {
+				kspParsings.add(future.get());
+			}
+			return kspParsings;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw WrappedException.wrap(e);
+		} catch (final ExecutionException e) {
+			throw WrappedException.wrap(e.getCause());
+		} finally {
+			executorService.shutdownNow();
 		}
 	}
 
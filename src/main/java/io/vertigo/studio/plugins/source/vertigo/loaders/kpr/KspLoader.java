@@ -17,16 +17,21 @@
  */
 package io.vertigo.studio.plugins.source.vertigo.loaders.kpr;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 
 import io.vertigo.commons.peg.PegNoMatchFoundException;
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.WrappedException;
 import io.vertigo.core.util.StringUtil;
+import io.vertigo.studio.impl.source.dsl.entity.DslGrammar;
 import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
 import io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules.DslKspRule;
 
@@ -36,7 +41,6 @@ import io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules.DslKspRule;
  * @author pchretien, mlaroche
  */
 final class KspLoader {
-
 	private final Charset charset;
 	private final URL kspURL;
 
@@ -62,13 +66,68 @@ final class KspLoader {
 	 */
 	void load(final DslRawRepository rawRepository) {
 		Assertion.check().isNotNull(rawRepository);
+		//-----
+		parse(rawRepository.getGrammar(), Optional.empty())
+				.registerInto(rawRepository);
+	}
+
+	/**
+	 * Analyse du fichier, sans toucher au repository : may be called concurrently for different files.
+	 *
+	 * An unchanged file is read from the cache, if any, instead of being parsed.
+	 *
+	 * @param grammar the grammar
+	 * @param kspParseCacheOpt the cache of the parsings (of this grammar)
+	 * @return the raws declared in the file
+	 */
+	KspParsing parse(final DslGrammar grammar, final Optional<KspParseCache> kspParseCacheOpt) {
+		Assertion.check()
+				.isNotNull(grammar)
+				.isNotNull(kspParseCacheOpt);
+		final String s = readFile();
 		try {
-			final String s = parseFile();
-			new DslKspRule(rawRepository)
-					.parse(s);
+			if (kspParseCacheOpt.isPresent()) {
+				final KspParsing cachedKspParsing = new KspParsing(kspURL);
+				if (kspParseCacheOpt.get().read(s, cachedKspParsing)) {
+					return cachedKspParsing;
+				}
+			}
+			final KspParsing kspParsing = new KspParsing(kspURL);
+			DslKspRule.of(grammar)
+					.parse(s, kspParsing);
+			kspParseCacheOpt.ifPresent(kspParseCache -> kspParseCache.write(s, kspParsing));
+			return kspParsing;
 		} catch (final PegNoMatchFoundException e) {
-			final String message = StringUtil.format("Echec de lecture du fichier KSP {0}\n{1}", kspURL.getFile(), e.getFullMessage());
+			final String message = StringUtil.format("Echec de lecture du fichier KSP {0} ({1})\n{2}", kspURL.getFile(), getPosition(s, e.getIndex()), e.getFullMessage());
+			throw WrappedException.wrap(e, message);
+		} catch (final Exception e) {
+			final String message = StringUtil.format("Echec de lecture du fichier KSP {0}\n{1}", kspURL.getFile(), e.getMessage());
 			throw WrappedException.wrap(e, message);
+		}
+	}
+
+	/**
+	 * Décode le fichier en une seule passe, puis normalise les fins de ligne en \r\n (as a reader line by line) :
+	 * the parsed text does not depend on the line endings of the checkout.
+	 * Only the line endings change, so the lines and the columns of the errors are the ones of the file.
+	 * A local file is read from its channel in a single buffer.
+	 *
+	 * @return Chaine parsable correspondant au fichier.
+	 */
+	private String readFile() {
+		try {
+			final ByteBuffer bytes;
+			if ("file".equals(kspURL.getProtocol())) {
+				try (final FileChannel channel = FileChannel.open(Path.of(kspURL.toURI()), StandardOpenOption.READ)) {
+					bytes = readChannel(channel);
+				}
+			} else {
+				try (final InputStream inputStream = kspURL.openStream()) {
+					bytes = ByteBuffer.wrap(inputStream.readAllBytes());
+				}
+			}
+			//malformed input is replaced, as with a reader
+			return normalizeLineEndings(charset.decode(bytes));
 		} catch (final Exception e) {
 			final String message = StringUtil.format("Echec de lecture du fichier KSP {0}\n{1}", kspURL.getFile(), e.getMessage());
 			throw WrappedException.wrap(e, message);
@@ -76,22 +135,71 @@ final class KspLoader {
 	}
 
 	/**
-	 * Transforme un fichier en une chaine de caractÃ¨re parsable.
+	 * Ends each line (the last one too) with \r\n, whether it ended with \n, \r\n or \r.
 	 *
-	 * @return String Chaine parsable correspondant au fichier.
-	 * @throws IOException Erreur d'entrÃ©e/sortie
+	 * @param text the decoded file
+	 * @return the text with normalized line endings
 	 */
-	private String parseFile() throws IOException {
-		try (final BufferedReader reader = new BufferedReader(new InputStreamReader(kspURL.openStream(), charset))) {
-			final StringBuilder buff = new StringBuilder();
-			String line = reader.readLine();
-			while (line != null) {
-				buff.append(line);
-				line = reader.readLine();
-				buff.append("\r\n");
+	static String normalizeLineEndings(final CharSequence text) {
+		final int length = text.length();
+		//a first pass gives the normalized length : a file already normalized is not copied again
+		int normalizedLength = length;
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c == '\r' && (i + 1 == length || text.charAt(i + 1) != '\n')
+					|| c == '\n' && (i == 0 || text.charAt(i - 1) != '\r')) {
+				normalizedLength++;
 			}
-			return buff.toString();
+		}
+		final boolean lastLineEnded = length == 0 || text.charAt(length - 1) == '\n' || text.charAt(length - 1) == '\r';
+		if (!lastLineEnded) {
+			normalizedLength += 2;
+		}
+		if (normalizedLength == length) {
+			return text.toString();
+		}
+		final StringBuilder normalized = new StringBuilder(normalizedLength);
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c == '\r' || c == '\n') {
+				normalized.append("\r\n");
+				if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				}
+			} else {
+				normalized.append(c);
+			}
+		}
+		if (!lastLineEnded) {
+			normalized.append("\r\n");
+		}
+		return normalized.toString();
+	}
+
+	private static ByteBuffer readChannel(final FileChannel channel) throws IOException {
+		final ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+		while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+			//read until the end of the file
+		}
+		return bytes.flip();
+	}
 
+	/**
+	 * @param text the text of the file
+	 * @param index an index in the text
+	 * @return the line and the column (from 1) of the index ; a line ends with \n, \r\n or \r
+	 */
+	private static String getPosition(final String text, final int index) {
+		int line = 1;
+		int lineStart = 0;
+		final int end = Math.min(index, text.length());
+		for (int i = 0; i < end; i++) {
+			final char c = text.charAt(i);
+			if (c == '\n' || c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n')) {
+				line++;
+				lineStart = i + 1;
+			}
 		}
+		return StringUtil.format("ligne {0}, colonne {1}", line, index - lineStart + 1);
 	}
 }
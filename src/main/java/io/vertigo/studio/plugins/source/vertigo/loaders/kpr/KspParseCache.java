@@ -0,0 +1,440 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.kpr;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.studio.impl.source.dsl.entity.DslEntity;
+import io.vertigo.studio.impl.source.dsl.entity.DslEntityField;
+import io.vertigo.studio.impl.source.dsl.entity.DslEntityLink;
+import io.vertigo.studio.impl.source.dsl.entity.DslGrammar;
+import io.vertigo.studio.impl.source.dsl.entity.DslPropertyType;
+import io.vertigo.studio.impl.source.dsl.raw.DslRaw;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawBuilder;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawKey;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawSink;
+
+/**
+ * On-disk cache of the parsings of the KSP files, for a grammar.
+ * An entry holds the raws and partial raws declared by a file, in a compact binary form.
+ * Its name is built from the version of the grammar and of the studio (the namespace) and from the digest of the content of the file :
+ * an unchanged file is read back from its entry instead of being parsed.
+ *
+ * Entries of another namespace and entries unused for a while are evicted ;
+ * a corrupt entry (checked by a CRC) is deleted and the file is parsed again.
+ *
+ * @author mlaroche
+ */
+final class KspParseCache {
+	private static final Logger LOGGER = LogManager.getLogger(KspParseCache.class);
+
+	/** version of the binary format : to be incremented when the format changes */
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAGIC = 0x4B535043; //KSPC
+	private static final String ENTRY_EXTENSION = ".kspc";
+	private static final Duration MAX_UNUSED_AGE = Duration.ofDays(30);
+
+	private static final byte NULL_VALUE = 0;
+	private static final byte NOT_NULL_VALUE = 1;
+
+	private final Path cacheDir;
+	private final String namespace;
+	private final Map<String, DslEntity> entitiesByName = new HashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param cacheDir the directory of the entries (created if needed)
+	 * @param grammar the grammar of the parsed files
+	 */
+	KspParseCache(final Path cacheDir, final DslGrammar grammar) {
+		Assertion.check()
+				.isNotNull(cacheDir)
+				.isNotNull(grammar);
+		//-----
+		this.cacheDir = cacheDir;
+		for (final DslEntity entity : grammar.getEntities()) {
+			entitiesByName.put(entity.getName(), entity);
+		}
+		final String studioVersion = String.valueOf(KspParseCache.class.getPackage().getImplementationVersion());
+		namespace = digest((FORMAT_VERSION + "/" + studioVersion + "/" + describe(grammar)).getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+	}
+
+	/**
+	 * Reads the parsing of a file, if an entry matches its content.
+	 * A corrupt entry is deleted.
+	 *
+	 * @param content the content of the file
+	 * @param kspParsing the parsing to fill
+	 * @return if the entry was found and read
+	 */
+	boolean read(final String content, final KspParsing kspParsing) {
+		final Path entry = getEntry(content);
+		if (!Files.exists(entry)) {
+			return false;
+		}
+		try {
+			final byte[] bytes = Files.readAllBytes(entry);
+			readEntry(bytes, kspParsing);
+			//the last modified time tells when the entry was used
+			Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+			return true;
+		} catch (final IOException | RuntimeException e) {
+			LOGGER.warn("corrupt ksp cache entry {} : deleted", entry, e);
+			delete(entry);
+			return false;
+		}
+	}
+
+	/**
+	 * Writes the parsing of a file.
+	 * Failures are only logged : the cache is never required.
+	 *
+	 * @param content the content of the file
+	 * @param kspParsing the parsing of the file
+	 */
+	void write(final String content, final KspParsing kspParsing) {
+		final Path entry = getEntry(content);
+		try {
+			Files.createDirectories(cacheDir);
+			final Path tmpEntry = Files.createTempFile(cacheDir, entry.getFileName().toString(), ".tmp");
+			try {
+				Files.write(tmpEntry, writeEntry(kspParsing));
+				move(tmpEntry, entry);
+			} finally {
+				Files.deleteIfExists(tmpEntry);
+			}
+		} catch (final IOException e) {
+			LOGGER.warn("can't write ksp cache entry {}", entry, e);
+		}
+	}
+
+	/**
+	 * Evicts the stale entries : the entries of another namespace (grammar or studio version) and the entries unused for a while.
+	 */
+	void evictStaleEntries() {
+		if (!Files.isDirectory(cacheDir)) {
+			return;
+		}
+		final Instant minLastUse = Instant.now().minus(MAX_UNUSED_AGE);
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(cacheDir, "*" + ENTRY_EXTENSION)) {
+			for (final Path entry : entries) {
+				if (!entry.getFileName().toString().startsWith(namespace + '-')
+						|| Files.getLastModifiedTime(entry).toInstant().isBefore(minLastUse)) {
+					delete(entry);
+				}
+			}
+		} catch (final IOException e) {
+			LOGGER.warn("can't evict the stale entries of the ksp cache {}", cacheDir, e);
+		}
+	}
+
+	private Path getEntry(final String content) {
+		return cacheDir.resolve(namespace + '-' + digest(content.getBytes(StandardCharsets.UTF_8)) + ENTRY_EXTENSION);
+	}
+
+	private static void move(final Path source, final Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (final AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void delete(final Path entry) {
+		try {
+			Files.deleteIfExists(entry);
+		} catch (final IOException e) {
+			LOGGER.warn("can't delete ksp cache entry {}", entry, e);
+		}
+	}
+
+	//-----
+	// Binary format
+	//-----
+
+	private byte[] writeEntry(final KspParsing kspParsing) throws IOException {
+		final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+		try (final DataOutputStream out = new DataOutputStream(payload)) {
+			final List<KspParsing.Declaration> declarations = kspParsing.getDeclarations();
+			out.writeInt(declarations.size());
+			for (final KspParsing.Declaration declaration : declarations) {
+				out.writeBoolean(declaration.partial());
+				writeRaw(out, declaration.raw());
+			}
+		}
+		final byte[] payloadBytes = payload.toByteArray();
+		final CRC32 crc = new CRC32();
+		crc.update(payloadBytes);
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(payloadBytes.length + 20);
+		try (final DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(payloadBytes.length);
+			out.write(payloadBytes);
+			out.writeLong(crc.getValue());
+		}
+		return bytes.toByteArray();
+	}
+
+	private void readEntry(final byte[] bytes, final KspParsing kspParsing) throws IOException {
+		try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			check(in.readInt() == MAGIC, "not a ksp cache entry");
+			check(in.readInt() == FORMAT_VERSION, "unknown format version");
+			final byte[] payloadBytes = new byte[in.readInt()];
+			in.readFully(payloadBytes);
+			final CRC32 crc = new CRC32();
+			crc.update(payloadBytes);
+			check(in.readLong() == crc.getValue(), "bad crc");
+			check(in.read() == -1, "trailing bytes");
+			//-----
+			try (final DataInputStream payload = new DataInputStream(new ByteArrayInputStream(payloadBytes))) {
+				final int size = payload.readInt();
+				for (int i = 0; i < size; i++) {
+					final boolean partial = payload.readBoolean();
+					final String entityName = readString(payload);
+					final DslEntity entity = entitiesByName.get(entityName);
+					check(entity != null, "unknown entity");
+					final DslRaw raw = readRaw(payload, entity, entityName);
+					registerDeclaration(kspParsing, raw, partial);
+				}
+			}
+		}
+	}
+
+	private static void registerDeclaration(final DslRawSink rawSink, final DslRaw raw, final boolean partial) {
+		if (partial) {
+			rawSink.addPartialSketch(raw);
+		} else {
+			rawSink.addRaw(raw);
+		}
+	}
+
+	private static void writeRaw(final DataOutputStream out, final DslRaw raw) throws IOException {
+		final DslEntity entity = raw.getEntity();
+		writeString(out, entity.getName());
+		writeNullableString(out, raw.getPackageName());
+		writeString(out, raw.getKey().getName());
+		//properties
+		final Set<String> propertyNames = raw.getPropertyNames();
+		out.writeInt(propertyNames.size());
+		for (final String propertyName : propertyNames) {
+			writeString(out, propertyName);
+			writeValue(out, entity.getPropertyType(propertyName), raw.getPropertyValue(propertyName));
+		}
+		//links and sub raws, only the fields with values
+		final List<DslEntityField> linkFields = entity.getFields()
+				.stream()
+				.filter(field -> field.getType().isEntityLink() && !raw.getRawKeysByFieldName(field.getName()).isEmpty())
+				.toList();
+		out.writeInt(linkFields.size());
+		for (final DslEntityField linkField : linkFields) {
+			writeString(out, linkField.getName());
+			final List<DslRawKey> rawKeys = raw.getRawKeysByFieldName(linkField.getName());
+			out.writeInt(rawKeys.size());
+			for (final DslRawKey rawKey : rawKeys) {
+				writeString(out, rawKey.getName());
+			}
+		}
+		final List<DslEntityField> subRawFields = entity.getFields()
+				.stream()
+				.filter(field -> field.getType().isEntity() && !raw.getSubRaws(field.getName()).isEmpty())
+				.toList();
+		out.writeInt(subRawFields.size());
+		for (final DslEntityField subRawField : subRawFields) {
+			writeString(out, subRawField.getName());
+			final List<DslRaw> subRaws = raw.getSubRaws(subRawField.getName());
+			out.writeInt(subRaws.size());
+			for (final DslRaw subRaw : subRaws) {
+				writeRaw(out, subRaw);
+			}
+		}
+	}
+
+	private static DslRaw readRaw(final DataInputStream in, final DslEntity entity, final String entityName) throws IOException {
+		check(entity.getName().equals(entityName), "unexpected entity");
+		final String packageName = readNullableString(in);
+		final DslRawBuilder rawBuilder = DslRaw.builder(readString(in), entity)
+				.withPackageName(packageName);
+		final int propertyCount = in.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			final String propertyName = readString(in);
+			rawBuilder.addPropertyValue(propertyName, readValue(in, entity.getPropertyType(propertyName)));
+		}
+		final int linkFieldCount = in.readInt();
+		for (int i = 0; i < linkFieldCount; i++) {
+			final String fieldName = readString(in);
+			final DslRawKey[] rawKeys = new DslRawKey[in.readInt()];
+			for (int j = 0; j < rawKeys.length; j++) {
+				rawKeys[j] = DslRawKey.of(readString(in));
+			}
+			rawBuilder.addAllRawLinks(fieldName, List.of(rawKeys));
+		}
+		final int subRawFieldCount = in.readInt();
+		for (int i = 0; i < subRawFieldCount; i++) {
+			final String fieldName = readString(in);
+			final DslEntityField subRawField = entity.getField(fieldName);
+			check(subRawField.getType().isEntity(), "expected an entity");
+			final int subRawCount = in.readInt();
+			for (int j = 0; j < subRawCount; j++) {
+				rawBuilder.addSubRaw(fieldName, readRaw(in, (DslEntity) subRawField.getType(), readString(in)));
+			}
+		}
+		return rawBuilder.build();
+	}
+
+	private static void writeValue(final DataOutputStream out, final DslPropertyType propertyType, final Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL_VALUE);
+			return;
+		}
+		out.writeByte(NOT_NULL_VALUE);
+		switch (propertyType) {
+			case Integer -> out.writeInt((Integer) value);
+			case Double -> out.writeDouble((Double) value);
+			case Boolean -> out.writeBoolean((Boolean) value);
+			case String -> writeString(out, (String) value);
+			default -> throw new IllegalArgumentException("type " + propertyType + " not supported");
+		}
+	}
+
+	private static Object readValue(final DataInputStream in, final DslPropertyType propertyType) throws IOException {
+		final byte tag = in.readByte();
+		if (tag == NULL_VALUE) {
+			return null;
+		}
+		check(tag == NOT_NULL_VALUE, "bad value tag");
+		return switch (propertyType) {
+			case Integer -> in.readInt();
+			case Double -> in.readDouble();
+			case Boolean -> in.readBoolean();
+			case String -> readString(in);
+			default -> throw new IllegalArgumentException("type " + propertyType + " not supported");
+		};
+	}
+
+	private static void writeNullableString(final DataOutputStream out, final String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			writeString(out, value);
+		}
+	}
+
+	private static String readNullableString(final DataInputStream in) throws IOException {
+		return in.readBoolean() ? readString(in) : null;
+	}
+
+	/** strings are written with their length (writeUTF is limited to 64k : not enough for a request) */
+	private static void writeString(final DataOutputStream out, final String value) throws IOException {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(final DataInputStream in) throws IOException {
+		final int length = in.readInt();
+		check(length >= 0 && length <= in.available(), "bad string length");
+		final byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void check(final boolean test, final String message) throws IOException {
+		if (!test) {
+			throw new IOException(message);
+		}
+	}
+
+	//-----
+	// Versions
+	//-----
+
+	/**
+	 * Describes all the entities reached by a grammar : a change in the grammar changes the namespace of the entries.
+	 */
+	private static String describe(final DslGrammar grammar) {
+		final StringBuilder description = new StringBuilder();
+		final Set<DslEntity> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		final Deque<DslEntity> toVisit = new ArrayDeque<>(grammar.getEntities());
+		while (!toVisit.isEmpty()) {
+			final DslEntity entity = toVisit.poll();
+			if (!visited.add(entity)) {
+				continue;
+			}
+			description.append(entity.getName()).append(entity.isProvided() ? "!" : "").append('{');
+			final List<DslEntityField> fields = entity.getFields()
+					.stream()
+					.sorted(Comparator.comparing(DslEntityField::getName))
+					.toList();
+			for (final DslEntityField field : fields) {
+				description.append(field.getName()).append(':').append(field.getCardinality()).append(':');
+				if (field.getType() instanceof final DslEntity fieldEntity) {
+					description.append("entity:").append(fieldEntity.getName());
+					toVisit.add(fieldEntity);
+				} else if (field.getType() instanceof final DslEntityLink fieldLink) {
+					description.append("link:").append(fieldLink.getEntity().getName());
+					toVisit.add(fieldLink.getEntity());
+				} else {
+					description.append(field.getType());
+				}
+				description.append(';');
+			}
+			description.append('}');
+		}
+		return description.toString();
+	}
+
+	private static String digest(final byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (final NoSuchAlgorithmException e) {
+			throw WrappedException.wrap(e);
+		}
+	}
+}
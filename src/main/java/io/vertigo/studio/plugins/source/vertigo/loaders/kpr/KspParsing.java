@@ -0,0 +1,99 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.kpr;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.core.util.StringUtil;
+import io.vertigo.studio.impl.source.dsl.raw.DslRaw;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawSink;
+
+/**
+ * Result of the parsing of a KSP file : the raws and partial raws it declares, in their order.
+ * A KSP is parsed on its own and its raws are added to the repository later, in the order of the KPR.
+ *
+ * @author mlaroche
+ */
+final class KspParsing implements DslRawSink {
+	private final URL kspURL;
+	private final List<Declaration> declarations = new ArrayList<>();
+
+	record Declaration(DslRaw raw, boolean partial) {
+		//only a declaration
+	}
+
+	/**
+	 * Constructor.
+	 * @param kspURL URL du fichier KSP.
+	 */
+	KspParsing(final URL kspURL) {
+		Assertion.check().isNotNull(kspURL);
+		//-----
+		this.kspURL = kspURL;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void addRaw(final DslRaw raw) {
+		Assertion.check().isNotNull(raw);
+		//-----
+		declarations.add(new Declaration(raw, false));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void addPartialSketch(final DslRaw partial) {
+		Assertion.check().isNotNull(partial);
+		//-----
+		declarations.add(new Declaration(partial, true));
+	}
+
+	/**
+	 * @return the declared raws, in the order of the file
+	 */
+	List<Declaration> getDeclarations() {
+		return Collections.unmodifiableList(declarations);
+	}
+
+	/**
+	 * Adds the declared raws to a sink (the repository), in the order of the file.
+	 * @param rawSink the sink
+	 */
+	void registerInto(final DslRawSink rawSink) {
+		Assertion.check().isNotNull(rawSink);
+		//-----
+		try {
+			for (final Declaration declaration : declarations) {
+				if (declaration.partial()) {
+					rawSink.addPartialSketch(declaration.raw());
+				} else {
+					rawSink.addRaw(declaration.raw());
+				}
+			}
+		} catch (final Exception e) {
+			//same message as a failure during the parsing
+			final String message = StringUtil.format("Echec de lecture du fichier KSP {0}\n{1}", kspURL.getFile(), e.getMessage());
+			throw WrappedException.wrap(e, message);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.vertigo.commons.peg.PegNoMatchFoundException;
+import io.vertigo.commons.peg.PegResult;
+import io.vertigo.commons.peg.rule.PegRule;
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.impl.source.dsl.entity.DslGrammar;
+import io.vertigo.studio.plugins.source.vertigo.loaders.kpr.raw.DslRawEntry;
+
+/**
+ * Choice of the entity of a raw (Domain, DtDefinition, Task...).
+ * The entity keyword is read once and the rule of this entity is found by its name :
+ * there is no backtracking over all the entities of the grammar.
+ *
+ * @author mlaroche
+ */
+final class DslEntityChoiceRule implements PegRule<DslRawEntry> {
+	private final Map<String, DslInnerRawRule> innerRawRulesByEntityName = new LinkedHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param grammar the grammar
+	 */
+	DslEntityChoiceRule(final DslGrammar grammar) {
+		Assertion.check().isNotNull(grammar);
+		//-----
+		grammar.getEntities()
+				.forEach(entity -> innerRawRulesByEntityName.put(entity.getName(), new DslInnerRawRule(entity.getName(), entity)));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String getExpression() {
+		return "(" + String.join(" | ", innerRawRulesByEntityName.keySet()) + ") ...";
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public PegResult<DslRawEntry> parse(final String text, final int start) throws PegNoMatchFoundException {
+		//the keyword is a word : it ends with a delimiter
+		final String entityName = DslSyntaxRules.WORD.parse(text, start).getValue();
+		final DslInnerRawRule innerRawRule = innerRawRulesByEntityName.get(entityName);
+		if (innerRawRule == null) {
+			throw new PegNoMatchFoundException(text, start, null, "unknown entity {0}", entityName);
+		}
+		//the inner rule reads the keyword again, so the result is the same as with a choice
+		return innerRawRule.parse(text, start);
+	}
+}
@@ -19,17 +19,21 @@ package io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules;
 
 import static io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules.DslSyntaxRules.SPACES;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.vertigo.commons.peg.PegChoice;
+import io.vertigo.commons.peg.PegNoMatchFoundException;
 import io.vertigo.commons.peg.rule.PegAbstractRule;
 import io.vertigo.commons.peg.rule.PegRule;
 import io.vertigo.commons.peg.rule.PegRules;
-import io.vertigo.commons.peg.rule.PegRule.Dummy;
 import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.impl.source.dsl.entity.DslEntity;
 import io.vertigo.studio.impl.source.dsl.entity.DslGrammar;
 import io.vertigo.studio.impl.source.dsl.raw.DslRaw;
-import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawSink;
 
 /**
  * règle de composition d'un fichier KSP.
@@ -40,18 +44,63 @@ import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
  *
  * Tout fichier ksp commence par une entête ou est précisé le nom du pacakage.
  *
+ * The rule is compiled once per grammar and shared by all the parsings (it holds no state) :
+ * the declarations of a file are sent to a sink given for each parsing.
+ *
  * @author pchretien, mlaroche
  */
-public final class DslKspRule extends PegAbstractRule<Dummy, List<Object>> {
-	private final DslRawRepository rawRepository;
+public final class DslKspRule extends PegAbstractRule<List<DslKspRule.DslKspDeclaration>, List<Object>> {
+	/** rules by the entities of their grammar (entities are constants : grammars built for each parsing share the same rule) */
+	private static final Map<List<DslEntity>, DslKspRule> KSP_RULES = new ConcurrentHashMap<>();
+
+	/**
+	 * A raw declared in a ksp.
+	 * @param raw the raw
+	 * @param partial if the raw alters a raw declared elsewhere
+	 */
+	public record DslKspDeclaration(DslRaw raw, boolean partial) {
+		public DslKspDeclaration {
+			Assertion.check().isNotNull(raw);
+		}
+	}
 
 	/**
 	 * Constructor.
-	 * @param rawRepository Grammaire
+	 * @param grammar Grammaire
 	 */
-	public DslKspRule(final DslRawRepository rawRepository) {
-		super(createMainRule(rawRepository.getGrammar()), "Ksp");
-		this.rawRepository = rawRepository;
+	private DslKspRule(final DslGrammar grammar) {
+		super(createMainRule(grammar), "Ksp");
+	}
+
+	/**
+	 * Returns the rule of a grammar, compiled on the first call.
+	 * @param grammar Grammaire
+	 * @return the rule
+	 */
+	public static DslKspRule of(final DslGrammar grammar) {
+		Assertion.check().isNotNull(grammar);
+		//-----
+		return KSP_RULES.computeIfAbsent(List.copyOf(grammar.getEntities()), entities -> new DslKspRule(grammar));
+	}
+
+	/**
+	 * Parses a ksp and sends its declarations to a sink, in their order.
+	 * @param text the content of the ksp
+	 * @param rawSink the sink of this parsing
+	 * @throws PegNoMatchFoundException if the text is not a ksp
+	 */
+	public void parse(final String text, final DslRawSink rawSink) throws PegNoMatchFoundException {
+		Assertion.check()
+				.isNotNull(text)
+				.isNotNull(rawSink);
+		//-----
+		for (final DslKspDeclaration declaration : parse(text).getValue()) {
+			if (declaration.partial()) {
+				rawSink.addPartialSketch(declaration.raw());
+			} else {
+				rawSink.addRaw(declaration.raw());
+			}
+		}
 	}
 
 	private static PegRule<List<Object>> createMainRule(final DslGrammar grammar) {
@@ -75,10 +124,11 @@ public final class DslKspRule extends PegAbstractRule<Dummy, List<Object>> {
 	}
 
 	@Override
-	protected Dummy handle(final List<Object> parsing) {
+	protected List<DslKspDeclaration> handle(final List<Object> parsing) {
 		final String packageName = (String) parsing.get(1);
 		final List<PegChoice> declarationChoices = (List<PegChoice>) parsing.get(3);
 
+		final List<DslKspDeclaration> declarations = new ArrayList<>();
 		for (final PegChoice declarationChoice : declarationChoices) {
 			//Tant qu'il y a du texte, il doit correspondre
 			// - à des définitions qui appartiennent toutes au même package.
@@ -91,10 +141,10 @@ public final class DslKspRule extends PegAbstractRule<Dummy, List<Object>> {
 							.withPackageName(packageName)
 							.merge(oldDynamicDefinition)
 							.build();
-					handleDefinitionRule(newDynamicDefinition);
+					declarations.add(new DslKspDeclaration(newDynamicDefinition, false));
 					break;
 				case 1:
-					handleTemplateRule((DslRaw) declarationChoice.value());
+					declarations.add(new DslKspDeclaration((DslRaw) declarationChoice.value(), true));
 					break;
 				case 2:
 					//declare
@@ -105,14 +155,6 @@ public final class DslKspRule extends PegAbstractRule<Dummy, List<Object>> {
 					throw new IllegalArgumentException("case " + declarationChoice.choiceIndex() + " not implemented");
 			}
 		}
-		return Dummy.INSTANCE;
-	}
-
-	private void handleTemplateRule(final DslRaw dslDefinition) {
-		rawRepository.addPartialSketch(dslDefinition);
-	}
-
-	private void handleDefinitionRule(final DslRaw dslDefinition) {
-		rawRepository.addRaw(dslDefinition);
+		return declarations;
 	}
 }
@@ -20,9 +20,7 @@ package io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules;
 import static io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules.DslSyntaxRules.SPACES;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-import io.vertigo.commons.peg.PegChoice;
 import io.vertigo.commons.peg.rule.PegAbstractRule;
 import io.vertigo.commons.peg.rule.PegRule;
 import io.vertigo.commons.peg.rule.PegRules;
@@ -34,7 +32,7 @@ import io.vertigo.studio.plugins.source.vertigo.loaders.kpr.raw.DslRawEntry;
 /*
  * @author pchretien, mlaroche
  */
-public final class DslRawRule extends PegAbstractRule<DslRaw, PegChoice> {
+public final class DslRawRule extends PegAbstractRule<DslRaw, List<Object>> {
 
 	/**
 	 * Constructor.
@@ -44,31 +42,22 @@ public final class DslRawRule extends PegAbstractRule<DslRaw, PegChoice> {
 		super(createMainRule(operation, grammar), operation + "Definitions");
 	}
 
-	private static PegRule<PegChoice> createMainRule(final String operation, final DslGrammar grammar) {
+	private static PegRule<List<Object>> createMainRule(final String operation, final DslGrammar grammar) {
 		Assertion.check()
 				.isNotBlank(operation)
 				.isNotNull(grammar);
 		//-----
-		final List<PegRule<?>> rules = grammar.getEntities()
-				.stream()
-				.map(entity -> new DslInnerRawRule(entity.getName(), entity))
-				.map(innerRawRule -> createRule(operation, innerRawRule))
-				.collect(Collectors.toList());
-		return PegRules.choice(rules);
-	}
-
-	private static PegRule<List<Object>> createRule(final String operation, final DslInnerRawRule innerRawRule) {
 		// Création de la règle de déclaration d'une nouvelle definition.
 		return PegRules.sequence(//Definition
 				PegRules.term(operation), // alter ou create
 				SPACES,
-				innerRawRule, //2
+				new DslEntityChoiceRule(grammar), //2
 				SPACES);
 	}
 
 	@Override
-	protected DslRaw handle(final PegChoice parsing) {
-		final DslRawEntry rawEntry = (DslRawEntry) ((List) parsing.value()).get(2);
+	protected DslRaw handle(final List<Object> parsing) {
+		final DslRawEntry rawEntry = (DslRawEntry) parsing.get(2);
 		return rawEntry.getRaw();
 	}
 }
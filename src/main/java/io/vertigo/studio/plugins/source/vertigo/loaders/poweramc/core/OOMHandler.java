@@ -39,7 +39,10 @@ final class OOMHandler extends DefaultHandler {
 
 	private OOMTag currentTag;
 
-	private String chars;
+	/** texte de la balise courante, réutilisé d'une balise à l'autre */
+	private final StringBuilder chars = new StringBuilder();
+	/** if the text of the current tag is kept */
+	private boolean collectingChars;
 
 	OOMHandler(final Map<XmlId, OOMObject> map) {
 		Assertion.check().isNotNull(map);
@@ -76,8 +79,9 @@ final class OOMHandler extends DefaultHandler {
 				currentTag = currentTag.createTag();
 			}
 		}
-		//Initialisation des contenus de balise
-		chars = "";
+		//Initialisation des contenus de balise : only the text of the properties is collected
+		chars.setLength(0);
+		collectingChars = OOMObject.isProperty(name);
 	}
 
 	/** {@inheritDoc} */
@@ -88,15 +92,17 @@ final class OOMHandler extends DefaultHandler {
 			currentTag = currentTag.getParent();
 		}
 		//======================================================================
-		if (currentTag.getCurrentOOM() != null) {
-			currentTag.getCurrentOOM().setProperty(name, chars);
+		if (currentTag.getCurrentOOM() != null && OOMObject.isProperty(name)) {
+			currentTag.getCurrentOOM().setProperty(name, chars.toString());
 		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void characters(final char[] charArray, final int start, final int length) {
-		chars += new String(charArray, start, length);
+		if (collectingChars) {
+			chars.append(charArray, start, length);
+		}
 	}
 
 	/** {@inheritDoc} */
@@ -34,15 +34,18 @@ import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlAssociation;
 import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlAttribute;
 import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlClass;
 import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlId;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlLoading;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlStreaming;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlStreamingLoader;
 
 /**
  * Chargement d'un fichier OOM.
  * Seules les classes et leurs attributs ainsi que les associations sont extraites.
  * @author pchretien, mlaroche
  */
-public final class OOMLoader extends AbstractXmlLoader {
+public final class OOMLoader extends AbstractXmlLoader implements XmlStreamingLoader {
 	private static final Pattern CODE_PATTERN = Pattern.compile("[a-zA-Z0-9_]+");
-	private final Map<XmlId, OOMObject> map = new LinkedHashMap<>();
+	private final boolean streaming;
 
 	/**
 	 * Constructor.
@@ -50,34 +53,72 @@ public final class OOMLoader extends AbstractXmlLoader {
 	 * @param resourceManager the vertigo resourceManager
 	 */
 	public OOMLoader(final boolean constFieldNameInSource, final ResourceManager resourceManager) {
+		this(constFieldNameInSource, false, resourceManager);
+	}
+
+	/**
+	 * Constructor.
+	 * @param constFieldNameInSource FieldName in file is in CONST_CASE instead of camelCase
+	 * @param streaming if the OOM is read in streaming mode (StAX) : classes are registered as soon as they are read, for large models
+	 * @param resourceManager the vertigo resourceManager
+	 */
+	public OOMLoader(final boolean constFieldNameInSource, final boolean streaming, final ResourceManager resourceManager) {
 		super(constFieldNameInSource, resourceManager);
+		this.streaming = streaming;
 	}
 
+	/** {@inheritDoc} */
 	@Override
-	protected DefaultHandler getHandler() {
-		return new OOMHandler(map);
+	public boolean isStreaming() {
+		return streaming;
 	}
 
+	/** {@inheritDoc} */
 	@Override
-	public List<XmlClass> getClasses() {
-		return map.values()
-				.stream()
-				//On ne conserve que les classes et les domaines
-				.filter(obj -> obj.getType() == OOMType.Class)
-				.map(obj -> createClass(obj, isConstFieldNameInSource()))
-				.toList();
+	public XmlStreaming createStreaming() {
+		return new OOMStreamingReader(isConstFieldNameInSource());
 	}
 
 	@Override
-	public List<XmlAssociation> getAssociations() {
-		return map.values()
-				.stream()
-				.filter(obj -> obj.getType() == OOMType.Association)
-				.map(obj -> createAssociation(obj, isConstFieldNameInSource()))
-				.toList();
+	protected XmlLoading createLoading() {
+		final boolean constFieldNameInSource = isConstFieldNameInSource();
+		//objects of this load only
+		final Map<XmlId, OOMObject> map = new LinkedHashMap<>();
+		return new XmlLoading() {
+			@Override
+			public DefaultHandler getHandler() {
+				return new OOMHandler(map);
+			}
+
+			@Override
+			public List<XmlClass> getClasses() {
+				return map.values()
+						.stream()
+						//On ne conserve que les classes et les domaines
+						.filter(obj -> obj.getType() == OOMType.Class)
+						.map(obj -> createClass(obj, map, constFieldNameInSource))
+						.toList();
+			}
+
+			@Override
+			public List<XmlAssociation> getAssociations() {
+				return map.values()
+						.stream()
+						.filter(obj -> obj.getType() == OOMType.Association)
+						.map(obj -> createAssociation(obj, map, constFieldNameInSource))
+						.toList();
+			}
+		};
 	}
 
-	private XmlClass createClass(final OOMObject obj, final boolean constFieldNameInSource) {
+	/**
+	 * Création d'une classe.
+	 * @param obj ObjectOOM
+	 * @param objects the objects of the OOM, by id : the identifiers and the attributes of the class, the domains
+	 * @param constFieldNameInSource FieldName in file is in CONST_CASE instead of camelCase
+	 * @return Class
+	 */
+	static XmlClass createClass(final OOMObject obj, final Map<XmlId, OOMObject> objects, final boolean constFieldNameInSource) {
 		//On recherche les attributs (>DtField) de cet classe(>Dt_DEFINITION)
 		final String code = constFieldNameInSource ? StringUtil.constToUpperCamelCase(obj.getCode().toUpperCase(Locale.ENGLISH)) : obj.getCode();
 		final String packageName = obj.getParent().getPackageName();
@@ -89,7 +130,7 @@ public final class OOMLoader extends AbstractXmlLoader {
 		//C'est pourquoi on a une double redirection
 		final List<XmlId> pkList = new ArrayList<>();
 		for (final XmlId ref : obj.getRefList()) {
-			final OOMObject childRef = map.get(ref); //On recherche les references vers identifiers (ceux dans PrimaryIdentifier)
+			final OOMObject childRef = objects.get(ref); //On recherche les references vers identifiers (ceux dans PrimaryIdentifier)
 			if (childRef != null && childRef.getType() == OOMType.Identifier) {
 				pkList.addAll(childRef.getRefList()); //On recherche les champs pointé par l'identifier
 			}
@@ -100,17 +141,17 @@ public final class OOMLoader extends AbstractXmlLoader {
 		for (final OOMObject child : obj.getChildren()) {
 			if (child.getType() == OOMType.Attribute) {
 				if (pkList.contains(child.getId())) {
-					final XmlAttribute attributeOOm = createAttribute(child, true, constFieldNameInSource);
+					final XmlAttribute attributeOOm = createAttribute(child, true, objects, constFieldNameInSource);
 					keyAttributes.add(attributeOOm);
 				} else {
-					fieldAttributes.add(createAttribute(child, false, constFieldNameInSource));
+					fieldAttributes.add(createAttribute(child, false, objects, constFieldNameInSource));
 				}
 			}
 		}
 		return new XmlClass(code, packageName, stereotype, keyAttributes, fieldAttributes);
 	}
 
-	private XmlAttribute createAttribute(final OOMObject obj, final boolean isPK, final boolean constFieldNameInSource) {
+	private static XmlAttribute createAttribute(final OOMObject obj, final boolean isPK, final Map<XmlId, OOMObject> objects, final boolean constFieldNameInSource) {
 		final String code = obj.getCode();
 		Assertion.check().isTrue(CODE_PATTERN.matcher(code).matches(), "Code {0} must use a simple charset a-z A-Z 0-9 or _", code);
 		final String fieldName = constFieldNameInSource ? StringUtil.constToLowerCamelCase(code.toUpperCase(Locale.ENGLISH)) : code;
@@ -128,7 +169,7 @@ public final class OOMLoader extends AbstractXmlLoader {
 		//Domain
 		String domain = null;
 		for (final XmlId ref : obj.getRefList()) {
-			final OOMObject childRef = map.get(ref);
+			final OOMObject childRef = objects.get(ref);
 			if (childRef != null && childRef.getType() == OOMType.Domain) {
 				Assertion.check().isNull(domain, "domain already set");
 				domain = childRef.getCode();
@@ -142,14 +183,16 @@ public final class OOMLoader extends AbstractXmlLoader {
 	/**
 	 * Création d'une association.
 	 * @param obj ObjectOOM
+	 * @param objects the objects of the OOM, by id : the classes and the shortcuts
+	 * @param constFieldNameInSource FieldName in file is in CONST_CASE instead of camelCase
 	 * @return Association
 	 */
-	private XmlAssociation createAssociation(final OOMObject obj, final boolean constFieldNameInSource) {
+	static XmlAssociation createAssociation(final OOMObject obj, final Map<XmlId, OOMObject> objects, final boolean constFieldNameInSource) {
 		//On recherche les objets référencés par l'association.
 		OOMObject objectB = null;
 		OOMObject objectA = null;
 		for (final XmlId ref : obj.getRefList()) {
-			final OOMObject childRef = map.get(ref);
+			final OOMObject childRef = objects.get(ref);
 			if (childRef != null && (childRef.getType() == OOMType.Class || childRef.getType() == OOMType.Shortcut)) {
 				if (objectB == null) {
 					objectB = childRef;
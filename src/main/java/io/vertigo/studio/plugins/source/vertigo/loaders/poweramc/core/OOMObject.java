@@ -19,6 +19,7 @@ package io.vertigo.studio.plugins.source.vertigo.loaders.poweramc.core;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlId;
@@ -48,6 +49,21 @@ final class OOMObject {
 
 	private static final String PROPERTY_STEREOTYPE = "a:Stereotype";
 
+	/** les propriétés conservées : le texte des autres balises est ignoré */
+	private static final Set<String> PROPERTIES = Set.of(
+			PROPERTY_CODE,
+			PROPERTY_NAME,
+			PROPERTY_COMMENT,
+			PROPERTY_PERSISTENT,
+			PROPERTY_MULTIPLICITY,
+			PROPERTY_ROLE_A_MULTIPLICITY,
+			PROPERTY_ROLE_B_MULTIPLICITY,
+			PROPERTY_ROLE_A_NAVIGABILITY,
+			PROPERTY_ROLE_B_NAVIGABILITY,
+			PROPERTY_ROLE_A_NAME,
+			PROPERTY_ROLE_B_NAME,
+			PROPERTY_STEREOTYPE);
+
 	private final XmlId id;
 	private final OOMObject parent;
 	private final OOMType type;
@@ -137,6 +153,15 @@ final class OOMObject {
 		refList.add(idOOM);
 	}
 
+	/**
+	 * Drops the children and the references of this object : the object is then only kept for its own properties (code, name...).
+	 * It stays in the children of its parent, as it is still referenced by id.
+	 */
+	void release() {
+		children.clear();
+		refList.clear();
+	}
+
 	String getPersistent() {
 		return persistent;
 	}
@@ -207,6 +232,14 @@ final class OOMObject {
 		return roleBNavigability;
 	}
 
+	/**
+	 * @param propertyName the name of a tag
+	 * @return if the text of the tag is kept by setProperty
+	 */
+	static boolean isProperty(final String propertyName) {
+		return PROPERTIES.contains(propertyName);
+	}
+
 	void setProperty(final String propertyName, final String propertyValue) {
 		Assertion.check().isNotNull(propertyName);
 		//-----
@@ -0,0 +1,212 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.poweramc.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlAssociation;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlClass;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlId;
+import io.vertigo.studio.plugins.source.vertigo.loaders.xml.XmlStreaming;
+
+/**
+ * Lecture en flux (StAX) d'un OOM.
+ * Same tags as OOMHandler, but a class is sent as soon as its tag ends and is then released :
+ * only the domains, the codes of the classes and shortcuts and the associations stay in memory until the end of the file.
+ * The domains are declared at the end of an OOM, after the classes that use them : a first pass (scan) only reads the domains.
+ *
+ * @author mlaroche
+ */
+final class OOMStreamingReader implements XmlStreaming {
+	private static final String ATTR_ID = "Id";
+	private static final String ATTR_REF = "Ref";
+
+	private final boolean constFieldNameInSource;
+
+	/** les objets résidents, par id : domains, released classes and shortcuts, associations, and the objects of the class being read */
+	private final Map<XmlId, OOMObject> objects = new HashMap<>();
+	private final List<OOMObject> associations = new ArrayList<>();
+
+	private final StringBuilder chars = new StringBuilder();
+	private boolean collectingChars;
+	private OOMTag currentTag = OOMTag.createRootTag(OOMObject.createdRoot());
+
+	/**
+	 * Constructor.
+	 * @param constFieldNameInSource FieldName in file is in CONST_CASE instead of camelCase
+	 */
+	OOMStreamingReader(final boolean constFieldNameInSource) {
+		this.constFieldNameInSource = constFieldNameInSource;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void scan(final XMLStreamReader reader) throws XMLStreamException {
+		Assertion.check().isNotNull(reader);
+		//-----
+		final OOMObject scanRoot = OOMObject.createdRoot();
+		//the domain being read, and the depth of the objects declared inside it
+		OOMObject domain = null;
+		int depth = 0;
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT -> {
+					final String name = getName(reader);
+					if (domain != null) {
+						if (name.startsWith("o:")) {
+							depth++;
+						}
+					} else if (OOMType.getType(name).filter(OOMType.Domain::equals).isPresent() && reader.getAttributeValue(null, ATTR_ID) != null) {
+						final XmlId idOOM = new XmlId(reader.getAttributeValue(null, ATTR_ID));
+						domain = scanRoot.createObjectOOM(idOOM, OOMType.Domain);
+						objects.put(idOOM, domain);
+					}
+					chars.setLength(0);
+					collectingChars = domain != null && depth == 0 && OOMObject.isProperty(name);
+				}
+				case XMLStreamConstants.END_ELEMENT -> {
+					if (domain != null) {
+						final String name = getName(reader);
+						if (name.startsWith("o:")) {
+							if (depth == 0) {
+								domain = null;
+							} else {
+								depth--;
+							}
+						} else if (depth == 0 && OOMObject.isProperty(name)) {
+							domain.setProperty(name, chars.toString());
+						}
+					}
+				}
+				case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> appendChars(reader);
+				default -> {
+					//nothing to read
+				}
+			}
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public List<XmlAssociation> read(final XMLStreamReader reader, final Consumer<XmlClass> classConsumer) throws XMLStreamException {
+		Assertion.check()
+				.isNotNull(reader)
+				.isNotNull(classConsumer);
+		//-----
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT -> startElement(reader);
+				case XMLStreamConstants.END_ELEMENT -> endElement(getName(reader), classConsumer);
+				case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> appendChars(reader);
+				default -> {
+					//nothing to read
+				}
+			}
+		}
+		return associations
+				.stream()
+				.map(association -> OOMLoader.createAssociation(association, objects, constFieldNameInSource))
+				.toList();
+	}
+
+	private void appendChars(final XMLStreamReader reader) {
+		if (collectingChars) {
+			chars.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+		}
+	}
+
+	private void startElement(final XMLStreamReader reader) {
+		final String name = getName(reader);
+		//Dans le cas des références si on trouve une référence sur un objet courant alors on l'ajoute.
+		final String ref = reader.getAttributeValue(null, ATTR_REF);
+		if (ref != null && OOMType.isNodeByRef(name) && currentTag.getCurrentOOM() != null) {
+			currentTag.getCurrentOOM().addIdOOM(new XmlId(ref));
+		}
+
+		//Seuls les tags commençant par o: possèdent un id et réciproquement
+		if (name.startsWith("o:")) {
+			final String id = reader.getAttributeValue(null, ATTR_ID);
+			final Optional<OOMType> typeOpt = OOMType.getType(name);
+			if (typeOpt.isPresent() && id != null) {
+				final XmlId idOOM = new XmlId(id);
+				final OOMObject obj = currentTag.getParentOOM().createObjectOOM(idOOM, typeOpt.get());
+				objects.put(idOOM, obj);
+				currentTag = currentTag.createTag(obj);
+			} else {
+				currentTag = currentTag.createTag();
+			}
+		}
+		chars.setLength(0);
+		collectingChars = OOMObject.isProperty(name);
+	}
+
+	private void endElement(final String name, final Consumer<XmlClass> classConsumer) {
+		if (name.startsWith("o:")) {
+			//the object created by this tag, if any
+			final OOMObject endedObject = currentTag.getCurrentOOM();
+			currentTag = currentTag.getParent();
+			if (endedObject != null) {
+				onObjectEnd(endedObject, classConsumer);
+			}
+		}
+		if (currentTag.getCurrentOOM() != null && OOMObject.isProperty(name)) {
+			currentTag.getCurrentOOM().setProperty(name, chars.toString());
+		}
+	}
+
+	private void onObjectEnd(final OOMObject obj, final Consumer<XmlClass> classConsumer) {
+		if (obj.getType() == OOMType.Class) {
+			//the identifiers and the attributes are inside the class, the domains are already scanned
+			classConsumer.accept(OOMLoader.createClass(obj, objects, constFieldNameInSource));
+			//only the code and the name of the class are needed by the associations
+			release(obj);
+		} else if (obj.getType() == OOMType.Association) {
+			associations.add(obj);
+		}
+	}
+
+	private void release(final OOMObject obj) {
+		for (final OOMObject child : obj.getChildren()) {
+			removeObjects(child);
+		}
+		obj.release();
+	}
+
+	private void removeObjects(final OOMObject obj) {
+		objects.remove(obj.getId());
+		for (final OOMObject child : obj.getChildren()) {
+			removeObjects(child);
+		}
+	}
+
+	private static String getName(final XMLStreamReader reader) {
+		//same name as the qName of SAX
+		final String prefix = reader.getPrefix();
+		return prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ':' + reader.getLocalName();
+	}
+}
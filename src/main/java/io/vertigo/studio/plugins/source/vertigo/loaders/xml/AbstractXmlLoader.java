@@ -23,10 +23,11 @@ import java.util.List;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.xml.sax.helpers.DefaultHandler;
 
 import io.vertigo.core.lang.Assertion;
 import io.vertigo.core.lang.Cardinality;
@@ -42,6 +43,7 @@ import io.vertigo.studio.notebook.domain.association.AssociationUtil;
 import io.vertigo.studio.plugins.source.vertigo.KspProperty;
 import io.vertigo.studio.plugins.source.vertigo.factories.domain.DomainGrammar;
 import io.vertigo.studio.plugins.source.vertigo.loaders.Loader;
+import io.vertigo.studio.plugins.source.vertigo.loaders.LoaderUnit;
 
 /**
  * Parser d'un fichier powerAMC/OOM ou EA/XMI.
@@ -54,6 +56,12 @@ public abstract class AbstractXmlLoader implements Loader {
 	private static final Logger LOGGER = LogManager.getLogger(AbstractXmlLoader.class);
 
 	private static final String DT_DEFINITION_PREFIX = "Dt";
+
+	/** factories are secured once and shared : a StAX factory is thread safe once configured, SAX parsers are pooled by thread (the parse context reused by each load of the thread) */
+	private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+	private static final SAXParserFactory SAX_PARSER_FACTORY = createSAXParserFactory();
+	private static final ThreadLocal<SAXParser> SAX_PARSERS = ThreadLocal.withInitial(AbstractXmlLoader::createSAXParser);
+
 	private final ResourceManager resourceManager;
 	private final boolean constFieldNameInSource;
 
@@ -69,49 +77,111 @@ public abstract class AbstractXmlLoader implements Loader {
 		this.constFieldNameInSource = constFieldNameInSource;
 	}
 
+	/**
+	 * The xmi file is a single unit, loaded again when the file changes.
+	 */
+	@Override
+	public final List<LoaderUnit> getUnits(final String resourcePath) {
+		Assertion.check().isNotBlank(resourcePath);
+		//-----
+		final URL xmiFileURL = resourceManager.resolve(resourcePath);
+		return List.of(new LoaderUnit(resourcePath, LoaderUnit.toFile(xmiFileURL), rawRepository -> load(resourcePath, rawRepository)));
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public final void load(final String resourcePath, final DslRawRepository rawRepository) {
+		Assertion.check()
+				.isNotBlank(resourcePath)
+				.isNotNull(rawRepository);
+		//-----
 		final URL xmiFileURL = resourceManager.resolve(resourcePath);
+		if (this instanceof final XmlStreamingLoader streamingLoader && streamingLoader.isStreaming()) {
+			loadStreaming(streamingLoader, xmiFileURL, rawRepository);
+			return;
+		}
+		//the objects read are only kept for this load
+		final XmlLoading xmlLoading = createLoading();
+		final SAXParser saxParser = SAX_PARSERS.get();
+		try (final InputStream is = xmiFileURL.openStream()) {
+			saxParser.parse(is, xmlLoading.getHandler());
+		} catch (final Exception e) {
+			throw WrappedException.wrap(e, "erreur lors de la lecture du fichier xmi : {0}", xmiFileURL);
+		} finally {
+			saxParser.reset();
+		}
 
-		try {
-			final SAXParserFactory factory = SAXParserFactory.newInstance();
-			io.vertigo.core.util.XmlUtil.secureXmlXXEByOwasp(factory);
+		for (final XmlClass clazz : xmlLoading.getClasses()) {
+			rawRepository.addRaw(toRaw(clazz));
+		}
 
-			final SAXParser saxParser = factory.newSAXParser();
+		for (final XmlAssociation association : xmlLoading.getAssociations()) {
+			rawRepository.addRaw(toRaw(association, rawRepository));
+		}
+	}
+
+	private static void loadStreaming(final XmlStreamingLoader streamingLoader, final URL xmiFileURL, final DslRawRepository rawRepository) {
+		//the objects read are only kept for this load
+		final XmlStreaming xmlStreaming = streamingLoader.createStreaming();
+		final List<XmlAssociation> associations;
+		try {
+			//first pass : the domains, which may be declared after the classes
 			try (final InputStream is = xmiFileURL.openStream()) {
-				saxParser.parse(is, getHandler());
+				final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+				try {
+					xmlStreaming.scan(reader);
+				} finally {
+					reader.close();
+				}
+			}
+			//second pass : each class is registered as soon as it is read
+			try (final InputStream is = xmiFileURL.openStream()) {
+				final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+				try {
+					associations = xmlStreaming.read(reader, clazz -> rawRepository.addRaw(toRaw(clazz)));
+				} finally {
+					reader.close();
+				}
 			}
 		} catch (final Exception e) {
 			throw WrappedException.wrap(e, "erreur lors de la lecture du fichier xmi : {0}", xmiFileURL);
 		}
-		Assertion.check()
-				.isNotBlank(resourcePath)
-				.isNotNull(rawRepository);
-		//-----
-
-		for (final XmlClass clazz : getClasses()) {
-			rawRepository.addRaw(toRaw(clazz));
+		//the associations need all the classes
+		for (final XmlAssociation association : associations) {
+			rawRepository.addRaw(toRaw(association, rawRepository));
 		}
+	}
 
-		for (final XmlAssociation association : getAssociations()) {
-			rawRepository.addRaw(toRaw(association, rawRepository));
+	private static SAXParser createSAXParser() {
+		try {
+			//a factory is not thread safe
+			synchronized (SAX_PARSER_FACTORY) {
+				return SAX_PARSER_FACTORY.newSAXParser();
+			}
+		} catch (final Exception e) {
+			throw WrappedException.wrap(e);
 		}
 	}
 
-	protected abstract DefaultHandler getHandler();
+	private static SAXParserFactory createSAXParserFactory() {
+		final SAXParserFactory factory = SAXParserFactory.newInstance();
+		io.vertigo.core.util.XmlUtil.secureXmlXXEByOwasp(factory);
+		return factory;
+	}
 
-	/**
-	 * Récupération des classes déclarées.
-	 * @return Liste des classes
-	 */
-	protected abstract List<XmlClass> getClasses();
+	private static XMLInputFactory createXMLInputFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newFactory();
+		//no DTD and no external entities (XXE)
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		return factory;
+	}
 
 	/**
-	 * Récupération des associations déclarées dans l'OOM.
-	 * @return Liste des associations
+	 * @return a new state for a single load : the handler and the objects it reads
 	 */
-	protected abstract List<XmlAssociation> getAssociations();
+	protected abstract XmlLoading createLoading();
 
 	protected final boolean isConstFieldNameInSource() {
 		return constFieldNameInSource;
@@ -0,0 +1,48 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.xml;
+
+import java.util.List;
+
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Etat d'un chargement de fichier xml : the objects read by the handler, for a single load.
+ * A new loading is created for each load, so that nothing is kept from a load to another and two files can be loaded at the same time.
+ *
+ * @author mlaroche
+ */
+public interface XmlLoading {
+
+	/**
+	 * @return the SAX handler that reads the objects of the file
+	 */
+	DefaultHandler getHandler();
+
+	/**
+	 * Récupération des classes déclarées.
+	 * @return Liste des classes
+	 */
+	List<XmlClass> getClasses();
+
+	/**
+	 * Récupération des associations déclarées.
+	 * @return Liste des associations
+	 */
+	List<XmlAssociation> getAssociations();
+}
@@ -0,0 +1,50 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.xml;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Etat d'une lecture en flux : the objects kept between the two passes over the file, for a single load.
+ * The first pass only reads the objects that the classes reference but that may be declared after them (the domains of an OOM),
+ * so that the second pass can send each class as soon as its tag ends.
+ *
+ * @author mlaroche
+ */
+public interface XmlStreaming {
+
+	/**
+	 * Première lecture du fichier : the objects used by the classes.
+	 * @param reader the StAX reader of the file
+	 * @throws XMLStreamException Erreur de lecture
+	 */
+	void scan(XMLStreamReader reader) throws XMLStreamException;
+
+	/**
+	 * Seconde lecture du fichier.
+	 * @param reader a new StAX reader of the same file
+	 * @param classConsumer the consumer of the classes, called as soon as a class is read
+	 * @return the associations, once all the classes are read
+	 * @throws XMLStreamException Erreur de lecture
+	 */
+	List<XmlAssociation> read(XMLStreamReader reader, Consumer<XmlClass> classConsumer) throws XMLStreamException;
+}
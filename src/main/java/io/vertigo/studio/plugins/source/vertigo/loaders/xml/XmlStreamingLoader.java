@@ -0,0 +1,37 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.xml;
+
+/**
+ * Lecture en flux : a xml loader able to read a file with StAX and to send each class as soon as it is read,
+ * instead of collecting all the objects of the file (XmlLoading).
+ *
+ * @author mlaroche
+ */
+public interface XmlStreamingLoader {
+
+	/**
+	 * @return if the files are read in streaming mode
+	 */
+	boolean isStreaming();
+
+	/**
+	 * @return a new state for a single streamed load
+	 */
+	XmlStreaming createStreaming();
+}
@@ -0,0 +1,53 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.source;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.SketchKey;
+
+/**
+ * A notebook kept up to date with the files of its sources.
+ * The sketches read from the changed files (and the sketches depending on them) are replaced in the notebook,
+ * the other sketches (and their fingerprints) are kept.
+ *
+ * @author mlaroche
+ */
+public interface LiveNotebook {
+
+	/**
+	 * @return the notebook, up to date with the last update
+	 */
+	Notebook getNotebook();
+
+	/**
+	 * @return the local files the notebook is read from
+	 */
+	Set<Path> getFiles();
+
+	/**
+	 * Applies the changes of files to the notebook.
+	 * If a previous update failed, all the sources are read again in a new notebook.
+	 *
+	 * @param changedFiles the changed files (created, modified or deleted)
+	 * @return the keys of the sketches created, replaced or removed
+	 */
+	Set<SketchKey> update(Set<Path> changedFiles);
+}
@@ -26,4 +26,11 @@ public interface SourceManager extends Manager {
 
 	Notebook read(List<Source> sources);
 
+	/**
+	 * Reads the sources in a notebook kept up to date with the changes of their files.
+	 * @param sources the sources
+	 * @return the live notebook
+	 */
+	LiveNotebook readLive(List<Source> sources);
+
 }
@@ -0,0 +1,290 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.tools;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.NamedThreadFactory;
+import io.vertigo.core.lang.WrappedException;
+
+/**
+ * Watches the files of the sources and builds the change sets.
+ * - the directories of the files are watched recursively : created directories are watched too ;
+ * - the created, modified and deleted paths are coalesced into a set of changed paths ;
+ * - a change set is built once the events stop for a quiet period, which adapts to the pace of the events (a burst of saves is a single change set) ;
+ * - a build in progress is cancelled by a new event : only its cancellable steps (the generation) stop, between two files.
+ *
+ * @author mlaroche
+ */
+final class ChangeSetWatcher {
+	private static final Logger LOGGER = LogManager.getLogger(ChangeSetWatcher.class);
+	private static final long MIN_QUIET_PERIOD_MILLIS = 100;
+	private static final long MAX_QUIET_PERIOD_MILLIS = 2000;
+
+	private final Supplier<Set<Path>> filesSupplier;
+	private final Optional<Path> excludedDirectoryOpt;
+	private final Map<WatchKey, Path> directoriesByKey = new HashMap<>();
+	private final Set<Path> changedPaths = new HashSet<>();
+
+	private long lastEventMillis;
+	private long averageGapMillis = MIN_QUIET_PERIOD_MILLIS / 2;
+
+	/**
+	 * A build of a change set.
+	 */
+	@FunctionalInterface
+	interface ChangeSetBuild {
+		/**
+		 * @param changedPaths the paths created, modified or deleted since the previous build
+		 * @param cancellation the cancellation of the build
+		 */
+		void build(Set<Path> changedPaths, Cancellation cancellation);
+	}
+
+	/**
+	 * Cancellation of a build : the cancellable steps (the generation) check it and stop by themselves.
+	 * The thread of the build is never interrupted, so that a file is never left half written.
+	 */
+	static final class Cancellation {
+		private volatile boolean cancelled;
+
+		void cancel() {
+			cancelled = true;
+		}
+
+		boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	/**
+	 * Constructor.
+	 * @param filesSupplier the files to watch (they may change after a build)
+	 * @param excludedDirectoryOpt a directory never watched (the generated files)
+	 */
+	ChangeSetWatcher(final Supplier<Set<Path>> filesSupplier, final Optional<Path> excludedDirectoryOpt) {
+		Assertion.check()
+				.isNotNull(filesSupplier)
+				.isNotNull(excludedDirectoryOpt);
+		//-----
+		this.filesSupplier = filesSupplier;
+		this.excludedDirectoryOpt = excludedDirectoryOpt.map(directory -> directory.toAbsolutePath().normalize());
+	}
+
+	/**
+	 * Watches the files until the thread is interrupted.
+	 * @param changeSetBuild the build of the change sets : the builds are run one at a time, on another thread
+	 */
+	void watch(final ChangeSetBuild changeSetBuild) {
+		Assertion.check().isNotNull(changeSetBuild);
+		//-----
+		final ExecutorService buildExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("v-studio-watch-"));
+		Cancellation cancellation = null;
+		try (final WatchService watcher = FileSystems.getDefault().newWatchService()) {
+			registerDirectories(watcher);
+			Future<?> buildFuture = null;
+			while (true) {
+				final boolean building = buildFuture != null && !buildFuture.isDone();
+				final WatchKey key;
+				if (changedPaths.isEmpty()) {
+					key = watcher.take();
+				} else if (building) {
+					//the next change set waits for the end of the build
+					key = watcher.poll(MIN_QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+				} else {
+					key = watcher.poll(Math.max(1, lastEventMillis + getQuietPeriodMillis() - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+				}
+				if (key != null && processEvents(watcher, key) && building) {
+					//the build in progress is outdated
+					cancellation.cancel();
+				}
+				final boolean quiet = System.currentTimeMillis() - lastEventMillis >= getQuietPeriodMillis();
+				if (!changedPaths.isEmpty() && quiet && (buildFuture == null || buildFuture.isDone())) {
+					final Set<Path> changeSet = Set.copyOf(changedPaths);
+					changedPaths.clear();
+					final Cancellation buildCancellation = new Cancellation();
+					buildFuture = buildExecutor.submit(() -> build(changeSetBuild, changeSet, buildCancellation));
+					cancellation = buildCancellation;
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final IOException e) {
+			throw WrappedException.wrap(e);
+		} finally {
+			//the build in progress stops by itself
+			if (cancellation != null) {
+				cancellation.cancel();
+			}
+			buildExecutor.shutdown();
+		}
+	}
+
+	private static void build(final ChangeSetBuild changeSetBuild, final Set<Path> changeSet, final Cancellation cancellation) {
+		try {
+			changeSetBuild.build(changeSet, cancellation);
+		} catch (final Exception e) {
+			LOGGER.error("Error regenerating : ", e);
+		}
+	}
+
+	/**
+	 * @return if a relevant change has been found
+	 */
+	private boolean processEvents(final WatchService watcher, final WatchKey key) throws IOException {
+		final Path directory = directoriesByKey.get(key);
+		final Set<Path> files = filesSupplier.get();
+		boolean changed = false;
+		for (final WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				//events have been lost : every file may have changed
+				changedPaths.addAll(files);
+				changed = true;
+			} else if (directory != null) {
+				final Path path = directory.resolve((Path) event.context());
+				if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+					//the files created with the directory may have been missed
+					registerRecursively(watcher, path);
+					try (final Stream<Path> paths = Files.walk(path)) {
+						for (final Path createdPath : paths.filter(Files::isRegularFile).toList()) {
+							changed |= addIfRelevant(createdPath, true, files);
+						}
+					}
+				} else {
+					changed |= addIfRelevant(path, event.kind() != StandardWatchEventKinds.ENTRY_MODIFY, files);
+				}
+			}
+		}
+		if (!key.reset()) {
+			directoriesByKey.remove(key);
+		}
+		if (changed) {
+			onEvent(System.currentTimeMillis());
+		}
+		//the files may change with a kpr : their directories are watched
+		registerDirectories(watcher);
+		return changed;
+	}
+
+	/**
+	 * A path is relevant if it is a watched file, or if it is created or deleted with the extension of a watched file (a new ksp...).
+	 */
+	boolean addIfRelevant(final Path path, final boolean createdOrDeleted, final Set<Path> files) {
+		if (files.contains(path) || createdOrDeleted && getExtensions(files).contains(getExtension(path))) {
+			changedPaths.add(path);
+			return true;
+		}
+		return false;
+	}
+
+	private static Set<String> getExtensions(final Set<Path> files) {
+		return files
+				.stream()
+				.map(ChangeSetWatcher::getExtension)
+				.filter(extension -> !extension.isEmpty())
+				.collect(Collectors.toSet());
+	}
+
+	private static String getExtension(final Path path) {
+		final String fileName = path.getFileName().toString();
+		final int index = fileName.lastIndexOf('.');
+		return index < 0 ? "" : fileName.substring(index + 1);
+	}
+
+	/**
+	 * The quiet period is twice the average gap between the events of a burst, within bounds.
+	 * @param now the time of the event
+	 */
+	void onEvent(final long now) {
+		final long gapMillis = now - lastEventMillis;
+		if (gapMillis < MAX_QUIET_PERIOD_MILLIS) {
+			averageGapMillis = (3 * averageGapMillis + gapMillis) / 4;
+		} else {
+			//a new burst
+			averageGapMillis = MIN_QUIET_PERIOD_MILLIS / 2;
+		}
+		lastEventMillis = now;
+	}
+
+	/**
+	 * @return the time without any event after which the change set is built
+	 */
+	long getQuietPeriodMillis() {
+		return Math.min(MAX_QUIET_PERIOD_MILLIS, Math.max(MIN_QUIET_PERIOD_MILLIS, 2 * averageGapMillis));
+	}
+
+	private void registerDirectories(final WatchService watcher) throws IOException {
+		final Set<Path> watchedDirectories = new HashSet<>(directoriesByKey.values());
+		for (final Path file : filesSupplier.get()) {
+			final Path directory = file.toAbsolutePath().normalize().getParent();
+			if (directory != null && !watchedDirectories.contains(directory) && Files.isDirectory(directory)) {
+				watchedDirectories.addAll(registerRecursively(watcher, directory));
+			}
+		}
+	}
+
+	private Set<Path> registerRecursively(final WatchService watcher, final Path root) throws IOException {
+		final Set<Path> registeredDirectories = new HashSet<>();
+		Files.walkFileTree(root, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(final Path directory, final BasicFileAttributes attributes) throws IOException {
+				final Path normalizedDirectory = directory.toAbsolutePath().normalize();
+				if (excludedDirectoryOpt.filter(normalizedDirectory::startsWith).isPresent()
+						|| !normalizedDirectory.equals(root.toAbsolutePath().normalize()) && normalizedDirectory.getFileName().toString().startsWith(".")) {
+					//the generated files and the hidden directories (.git...) are not watched
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				final WatchKey key = normalizedDirectory.register(watcher,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_DELETE);
+				directoriesByKey.put(key, normalizedDirectory);
+				registeredDirectories.add(normalizedDirectory);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		LOGGER.debug("watched directories under {} : {}", root, registeredDirectories);
+		return registeredDirectories;
+	}
+}
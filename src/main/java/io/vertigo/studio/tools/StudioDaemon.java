@@ -0,0 +1,643 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.net.ExtendedSocketOptions;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.vertigo.core.lang.Assertion;
+import io.vertigo.core.lang.NamedThreadFactory;
+import io.vertigo.core.lang.VSystemException;
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.studio.generator.GeneratorConfig;
+import io.vertigo.studio.generator.GeneratorManager;
+import io.vertigo.studio.generator.GeneratorResult;
+import io.vertigo.studio.notebook.NotebookConfig;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.source.LiveNotebook;
+import io.vertigo.studio.source.Source;
+import io.vertigo.studio.source.SourceManager;
+
+/**
+ * Long-lived studio : a warm node serving the generations requested by local clients.
+ * The templates, the notebooks (one per config, kept up to date with the files of their sources) and their fingerprints are shared by all the requests.
+ *
+ * The protocol is line oriented (UTF-8), one request per connection :
+ * - the client sends "generate|clean|sync &lt;url of the studio config&gt;", "status" or "stop" ;
+ * - the daemon answers "INFO &lt;message&gt;" lines, then a line "RESULT &lt;fields of the GeneratorResult&gt;", "STATUS &lt;message&gt;" or "ERROR &lt;message&gt;", then "END".
+ * Only local clients are served : the daemon listens on a loopback port or on a unix domain socket.
+ * - on a unix domain socket, the socket is only readable and writable by its owner, and the user of the client must be the owner of the daemon ;
+ * - on a loopback port, the first line of the client must be "AUTH &lt;token&gt;" : the token is written in a file only readable by the owner of the daemon.
+ * At most MAX_CLIENTS requests are served at the same time, MAX_PENDING_CLIENTS wait, the other clients are answered that the daemon is busy.
+ * A client must send its request within READ_TIMEOUT_SECONDS.
+ *
+ * @author mlaroche
+ */
+final class StudioDaemon {
+	private static final Logger LOGGER = LogManager.getLogger(StudioDaemon.class);
+
+	private static final String INFO = "INFO";
+	private static final String RESULT = "RESULT";
+	private static final String STATUS = "STATUS";
+	private static final String ERROR = "ERROR";
+	private static final String END = "END";
+	private static final String AUTH = "AUTH";
+	/** max number of configs whose notebook is kept warm (least recently used are dropped) */
+	private static final int MAX_NOTEBOOKS = 16;
+	private static final int MAX_CLIENTS = 8;
+	private static final int MAX_PENDING_CLIENTS = 32;
+	private static final long READ_TIMEOUT_SECONDS = 30;
+
+	private final SourceManager sourceManager;
+	private final GeneratorManager generatorManager;
+	/** the directory of the tokens of the daemons listening on a port */
+	private final Path tokenDir;
+	private final Map<String, DaemonNotebook> notebooksByConfigUrl;
+	/** the generations in the same targetGenDir are serialized */
+	private final Map<Path, Object> locksByTargetGenDir = new ConcurrentHashMap<>();
+	private final AtomicLong requestCount = new AtomicLong();
+	private final long startMillis = System.currentTimeMillis();
+	private volatile ServerSocketChannel serverChannel;
+	private volatile SocketAddress localAddress;
+	private volatile Path lastTokenFile;
+
+	StudioDaemon(final SourceManager sourceManager, final GeneratorManager generatorManager) {
+		this(sourceManager, generatorManager, getDefaultTokenDir());
+	}
+
+	/**
+	 * Constructor.
+	 * @param sourceManager the sourceManager
+	 * @param generatorManager the generatorManager
+	 * @param tokenDir the directory of the tokens of the daemons listening on a port
+	 */
+	StudioDaemon(final SourceManager sourceManager, final GeneratorManager generatorManager, final Path tokenDir) {
+		Assertion.check()
+				.isNotNull(sourceManager)
+				.isNotNull(generatorManager)
+				.isNotNull(tokenDir);
+		//-----
+		this.sourceManager = sourceManager;
+		this.generatorManager = generatorManager;
+		this.tokenDir = tokenDir;
+		notebooksByConfigUrl = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, DaemonNotebook> eldest) {
+				return size() > MAX_NOTEBOOKS;
+			}
+		};
+	}
+
+	/**
+	 * @param address a port (served on the loopback interface) or the path of a unix domain socket
+	 * @return the address of the daemon
+	 */
+	static SocketAddress toAddress(final String address) {
+		Assertion.check().isNotBlank(address);
+		//-----
+		if (address.chars().allMatch(Character::isDigit)) {
+			return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+		}
+		return UnixDomainSocketAddress.of(address);
+	}
+
+	/**
+	 * @return the default directory of the tokens, in the home of the user
+	 */
+	static Path getDefaultTokenDir() {
+		return Path.of(System.getProperty("user.home"), ".vertigo-studio");
+	}
+
+	private static Path getTokenFile(final Path tokenDir, final InetSocketAddress address) {
+		return tokenDir.resolve("daemon-" + address.getPort() + ".token");
+	}
+
+	/**
+	 * Serves the requests until a stop request.
+	 * @param address the address of the daemon
+	 */
+	void serve(final SocketAddress address) {
+		Assertion.check().isNotNull(address);
+		//-----
+		final ThreadPoolExecutor executorService = new ThreadPoolExecutor(MAX_CLIENTS, MAX_CLIENTS, 1, TimeUnit.MINUTES,
+				new LinkedBlockingQueue<>(MAX_PENDING_CLIENTS), new NamedThreadFactory("v-studio-daemon-"));
+		executorService.allowCoreThreadTimeOut(true);
+		//closes the clients that don't send their request in time
+		final ScheduledExecutorService timeoutExecutorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("v-studio-daemon-timeout-"));
+		try (final ServerSocketChannel channel = address instanceof UnixDomainSocketAddress
+				? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+				: ServerSocketChannel.open()) {
+			final ClientAuthorization clientAuthorization;
+			if (address instanceof final UnixDomainSocketAddress unixAddress) {
+				checkPeerCredentials();
+				deleteStaleSocket(unixAddress);
+				bindOwnerOnly(channel, unixAddress.getPath());
+				clientAuthorization = createPeerAuthorization(unixAddress.getPath());
+				localAddress = unixAddress;
+			} else {
+				channel.bind(address);
+				localAddress = channel.getLocalAddress();
+				clientAuthorization = createTokenAuthorization(getTokenFile(tokenDir, (InetSocketAddress) localAddress));
+			}
+			serverChannel = channel;
+			LOGGER.info("Studio daemon listening on {}", localAddress);
+			while (true) {
+				final SocketChannel clientChannel = channel.accept();
+				try {
+					executorService.execute(() -> handle(clientChannel, clientAuthorization, timeoutExecutorService));
+				} catch (final RejectedExecutionException e) {
+					reject(clientChannel);
+				}
+			}
+		} catch (final ClosedChannelException e) {
+			LOGGER.info("Studio daemon stopped");
+		} catch (final IOException e) {
+			throw WrappedException.wrap(e, "Can't serve the studio daemon on {0}", address);
+		} finally {
+			//the requests in progress are completed
+			executorService.shutdown();
+			awaitTermination(executorService);
+			timeoutExecutorService.shutdownNow();
+			serverChannel = null;
+			localAddress = null;
+			try {
+				if (address instanceof final UnixDomainSocketAddress unixAddress) {
+					Files.deleteIfExists(unixAddress.getPath());
+				} else if (lastTokenFile != null) {
+					Files.deleteIfExists(lastTokenFile);
+				}
+			} catch (final IOException e) {
+				LOGGER.warn("Can't delete the files of the studio daemon {}", address, e);
+			}
+		}
+	}
+
+	/**
+	 * Checks a client before its request is read.
+	 */
+	@FunctionalInterface
+	private interface ClientAuthorization {
+		/**
+		 * @return the reason of the rejection of the client, if the client is rejected
+		 */
+		Optional<String> check(SocketChannel clientChannel, BufferedReader reader) throws IOException;
+	}
+
+	/**
+	 * On a port, any local user may connect : the client must send the token written in a file only readable by the owner of the daemon.
+	 */
+	private ClientAuthorization createTokenAuthorization(final Path tokenFile) throws IOException {
+		final byte[] tokenBytes = new byte[32];
+		new SecureRandom().nextBytes(tokenBytes);
+		final String token = HexFormat.of().formatHex(tokenBytes);
+		Files.createDirectories(tokenFile.getParent());
+		Files.deleteIfExists(tokenFile);
+		if (isPosix(tokenFile.getParent())) {
+			//the file is created with its permissions : it is never readable by other users
+			Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		} else {
+			Files.createFile(tokenFile);
+		}
+		Files.writeString(tokenFile, token, StandardCharsets.UTF_8);
+		lastTokenFile = tokenFile;
+		final byte[] expectedLine = (AUTH + ' ' + token).getBytes(StandardCharsets.UTF_8);
+		return (clientChannel, reader) -> {
+			final String line = reader.readLine();
+			//constant time comparison
+			return line != null && MessageDigest.isEqual(expectedLine, line.trim().getBytes(StandardCharsets.UTF_8))
+					? Optional.empty()
+					: Optional.of("a valid token is expected");
+		};
+	}
+
+	/**
+	 * The user of the clients of a unix domain socket must be known : otherwise the daemon must listen on a port.
+	 */
+	private static void checkPeerCredentials() throws IOException {
+		try (final SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+			if (!channel.supportedOptions().contains(ExtendedSocketOptions.SO_PEERCRED)) {
+				throw new VSystemException("The user of the clients of a unix domain socket can't be checked on this system : the studio daemon must listen on a port");
+			}
+		}
+	}
+
+	/**
+	 * The socket is bound in a directory only accessible by its owner, restricted, then moved to its path :
+	 * no other user can connect to it before its permissions are set.
+	 */
+	private static void bindOwnerOnly(final ServerSocketChannel channel, final Path socketPath) throws IOException {
+		final Path parentDir = socketPath.toAbsolutePath().getParent();
+		if (!isPosix(parentDir)) {
+			channel.bind(UnixDomainSocketAddress.of(socketPath));
+			return;
+		}
+		final Path privateDir = Files.createTempDirectory(parentDir, ".studio-daemon", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+		try {
+			final Path privateSocketPath = privateDir.resolve(socketPath.getFileName());
+			channel.bind(UnixDomainSocketAddress.of(privateSocketPath));
+			Files.setPosixFilePermissions(privateSocketPath, PosixFilePermissions.fromString("rw-------"));
+			//a socket can't be copied : the move is a rename
+			Files.move(privateSocketPath, socketPath, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(privateDir.resolve(socketPath.getFileName()));
+			Files.delete(privateDir);
+		}
+	}
+
+	/**
+	 * On a unix domain socket, the socket is only accessible by its owner and the user of the client must be the owner.
+	 */
+	private static ClientAuthorization createPeerAuthorization(final Path socketPath) throws IOException {
+		final String owner = Files.getOwner(socketPath).getName();
+		return (clientChannel, reader) -> {
+			final String user = clientChannel.getOption(ExtendedSocketOptions.SO_PEERCRED).user().getName();
+			return owner.equals(user)
+					? Optional.empty()
+					: Optional.of("the user " + user + " is not the owner of the daemon");
+		};
+	}
+
+	private static boolean isPosix(final Path path) throws IOException {
+		return Files.getFileStore(path).supportsFileAttributeView(PosixFileAttributeView.class);
+	}
+
+	private static void awaitTermination(final ExecutorService executorService) {
+		try {
+			if (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+				LOGGER.warn("Some requests to the studio daemon are still running");
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void deleteStaleSocket(final UnixDomainSocketAddress address) throws IOException {
+		if (Files.exists(address.getPath())) {
+			if (isListening(address)) {
+				throw new VSystemException("A studio daemon is already listening on {0}", address);
+			}
+			//nobody listens : the socket of a previous daemon
+			Files.delete(address.getPath());
+		}
+	}
+
+	private static boolean isListening(final SocketAddress address) {
+		try {
+			SocketChannel.open(address).close();
+			return true;
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Answers a client that can't be served now : the daemon is busy.
+	 */
+	private static void reject(final SocketChannel clientChannel) {
+		try (clientChannel;
+				final PrintWriter writer = new PrintWriter(Channels.newWriter(clientChannel, StandardCharsets.UTF_8), true)) {
+			LOGGER.warn("A client of the studio daemon has been rejected : too many clients");
+			writer.println(ERROR + " the studio daemon is busy, retry later");
+			writer.println(END);
+		} catch (final IOException e) {
+			LOGGER.warn("Can't answer a client of the studio daemon", e);
+		}
+	}
+
+	private void handle(final SocketChannel clientChannel, final ClientAuthorization clientAuthorization, final ScheduledExecutorService timeoutExecutorService) {
+		try (clientChannel;
+				final BufferedReader reader = new BufferedReader(Channels.newReader(clientChannel, StandardCharsets.UTF_8));
+				final PrintWriter writer = new PrintWriter(Channels.newWriter(clientChannel, StandardCharsets.UTF_8), true)) {
+			//a channel has no read timeout : it is closed if the request is not read in time
+			final ScheduledFuture<?> timeout = timeoutExecutorService.schedule(() -> closeQuietly(clientChannel), READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			final Optional<String> rejectionOpt;
+			final String request;
+			try {
+				rejectionOpt = clientAuthorization.check(clientChannel, reader);
+				request = rejectionOpt.isPresent() ? null : reader.readLine();
+			} finally {
+				timeout.cancel(false);
+			}
+			if (rejectionOpt.isPresent()) {
+				LOGGER.warn("A client of the studio daemon has been rejected : {}", rejectionOpt.get());
+				writer.println(ERROR + " unauthorized : " + rejectionOpt.get());
+				writer.println(END);
+				return;
+			}
+			if (request != null) {
+				requestCount.incrementAndGet();
+				respond(request.trim(), writer);
+			}
+			writer.println(END);
+		} catch (final IOException e) {
+			LOGGER.warn("Can't answer a client of the studio daemon", e);
+		}
+	}
+
+	private static void closeQuietly(final SocketChannel clientChannel) {
+		try {
+			clientChannel.close();
+		} catch (final IOException e) {
+			LOGGER.warn("Can't close a client of the studio daemon", e);
+		}
+	}
+
+	private void respond(final String request, final PrintWriter writer) {
+		final int index = request.indexOf(' ');
+		final String command = index < 0 ? request : request.substring(0, index);
+		final String argument = index < 0 ? "" : request.substring(index + 1).trim();
+		try {
+			switch (command) {
+				case "clean":
+				case "generate":
+				case "sync":
+					final GeneratorResult generatorResult = execute(command, argument, writer);
+					writer.println(RESULT + ' ' + format(generatorResult));
+					break;
+				case "status":
+					writer.println(STATUS + ' ' + getStatus());
+					break;
+				case "stop":
+					writer.println(INFO + " stopping the studio daemon");
+					stop();
+					break;
+				default:
+					writer.println(ERROR + " unknown command '" + command + "' (expected generate, clean, sync, status or stop)");
+					break;
+			}
+		} catch (final Exception e) {
+			LOGGER.error("Error serving '{}'", request, e);
+			writer.println(ERROR + ' ' + toLine(String.valueOf(e.getMessage())));
+		}
+	}
+
+	private GeneratorResult execute(final String command, final String configUrl, final PrintWriter writer) {
+		Assertion.check().isNotBlank(configUrl, "the {0} command expects the url of the studio config", command);
+		//-----
+		final NotebookConfig notebookConfig = VertigoStudioMda.loadStudioProjectConfig(configUrl);
+		final GeneratorConfig generatorConfig = notebookConfig.generatorConfig();
+		synchronized (getLock(Path.of(generatorConfig.getTargetGenDir()))) {
+			switch (command) {
+				case "clean":
+					return generatorManager.clean(generatorConfig);
+				case "generate":
+					final LiveNotebook generatedNotebook = getNotebook(configUrl, notebookConfig.metaModelResources(), writer);
+					generatorManager.clean(generatorConfig);
+					return generatorManager.generate(generatedNotebook.getNotebook(), generatorConfig);
+				case "sync":
+					//the notebook is up to date but the generator config may have changed : every file is checked
+					return generatorManager.sync(getNotebook(configUrl, notebookConfig.metaModelResources(), writer).getNotebook(), generatorConfig);
+				default:
+					throw new IllegalArgumentException("command not supported " + command);
+			}
+		}
+	}
+
+	/**
+	 * @param targetGenDir the directory of a generation
+	 * @return the lock of the generations in this directory
+	 */
+	Object getLock(final Path targetGenDir) {
+		return locksByTargetGenDir.computeIfAbsent(targetGenDir.toAbsolutePath().normalize(), k -> new Object());
+	}
+
+	/**
+	 * @return the address the daemon listens on, while it is serving
+	 */
+	Optional<SocketAddress> getLocalAddress() {
+		return Optional.ofNullable(localAddress);
+	}
+
+	/**
+	 * Returns the notebook of a config, up to date with the files of its sources.
+	 */
+	private LiveNotebook getNotebook(final String configUrl, final List<Source> sources, final PrintWriter writer) {
+		DaemonNotebook daemonNotebook;
+		synchronized (notebooksByConfigUrl) {
+			daemonNotebook = notebooksByConfigUrl.get(configUrl);
+		}
+		if (daemonNotebook != null && daemonNotebook.getSources().equals(sources)) {
+			final Set<SketchKey> changedSketchKeys = daemonNotebook.update();
+			writer.println(INFO + ' ' + changedSketchKeys.size() + " sketches changed since the previous request");
+			return daemonNotebook.getLiveNotebook();
+		}
+		writer.println(INFO + " reading the sources of " + configUrl);
+		daemonNotebook = new DaemonNotebook(sources, sourceManager.readLive(sources));
+		synchronized (notebooksByConfigUrl) {
+			notebooksByConfigUrl.put(configUrl, daemonNotebook);
+		}
+		return daemonNotebook.getLiveNotebook();
+	}
+
+	private String getStatus() {
+		final int notebookCount;
+		synchronized (notebooksByConfigUrl) {
+			notebookCount = notebooksByConfigUrl.size();
+		}
+		return "up since " + (System.currentTimeMillis() - startMillis) + " ms, " + requestCount.get() + " requests, " + notebookCount + " warm notebooks";
+	}
+
+	private void stop() throws IOException {
+		final ServerSocketChannel channel = serverChannel;
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Sends a request to a daemon.
+	 * @param address the address of the daemon
+	 * @param request the request line
+	 * @return the result of the generation, if the request is a generation
+	 * @throws IOException if the daemon can't be reached
+	 */
+	static Optional<GeneratorResult> request(final SocketAddress address, final String request) throws IOException {
+		return request(address, request, getDefaultTokenDir());
+	}
+
+	/**
+	 * Sends a request to a daemon.
+	 * @param address the address of the daemon
+	 * @param request the request line
+	 * @param tokenDir the directory of the tokens of the daemons listening on a port
+	 * @return the result of the generation, if the request is a generation
+	 * @throws IOException if the daemon can't be reached
+	 */
+	static Optional<GeneratorResult> request(final SocketAddress address, final String request, final Path tokenDir) throws IOException {
+		Assertion.check()
+				.isNotNull(address)
+				.isNotBlank(request)
+				.isNotNull(tokenDir);
+		//-----
+		//without its token file, no daemon listens on the port
+		final Optional<String> tokenOpt = address instanceof final InetSocketAddress inetAddress
+				? Optional.of(Files.readString(getTokenFile(tokenDir, inetAddress), StandardCharsets.UTF_8).trim())
+				: Optional.empty();
+		try (final SocketChannel channel = SocketChannel.open(address);
+				final BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+				final PrintWriter writer = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), true)) {
+			tokenOpt.ifPresent(token -> writer.println(AUTH + ' ' + token));
+			writer.println(request);
+			Optional<GeneratorResult> generatorResultOpt = Optional.empty();
+			for (String line = reader.readLine(); line != null && !END.equals(line); line = reader.readLine()) {
+				if (line.startsWith(RESULT + ' ')) {
+					generatorResultOpt = Optional.of(parse(line.substring(RESULT.length() + 1)));
+				} else if (line.startsWith(ERROR + ' ')) {
+					throw new VSystemException("The studio daemon failed : {0}", line.substring(ERROR.length() + 1));
+				} else {
+					LOGGER.info(line);
+				}
+			}
+			return generatorResultOpt;
+		}
+	}
+
+	private static String format(final GeneratorResult generatorResult) {
+		return generatorResult.createdFiles() + " "
+				+ generatorResult.updatedFiles() + " "
+				+ generatorResult.errorFiles() + " "
+				+ generatorResult.identicalFiles() + " "
+				+ generatorResult.deletedFiles() + " "
+				+ generatorResult.durationMillis() + " "
+				+ generatorResult.templateCacheHits() + " "
+				+ generatorResult.templateCacheMisses();
+	}
+
+	private static GeneratorResult parse(final String fields) {
+		final String[] values = fields.split(" ");
+		Assertion.check().isTrue(values.length == 8, "unexpected result {0}", fields);
+		return new GeneratorResult(
+				Integer.parseInt(values[0]),
+				Integer.parseInt(values[1]),
+				Integer.parseInt(values[2]),
+				Integer.parseInt(values[3]),
+				Integer.parseInt(values[4]),
+				Long.parseLong(values[5]),
+				Integer.parseInt(values[6]),
+				Integer.parseInt(values[7]));
+	}
+
+	private static String toLine(final String message) {
+		return message.replace('\r', ' ').replace('\n', ' ');
+	}
+
+	/**
+	 * The live notebook of a config : the changes of the files are found by their last modified time and size.
+	 */
+	private static final class DaemonNotebook {
+		private final List<Source> sources;
+		private final LiveNotebook liveNotebook;
+		private Map<Path, FileState> fileStates;
+
+		private record FileState(FileTime lastModifiedTime, long size) {
+			//only a state
+		}
+
+		DaemonNotebook(final List<Source> sources, final LiveNotebook liveNotebook) {
+			this.sources = sources;
+			this.liveNotebook = liveNotebook;
+			fileStates = readFileStates(liveNotebook.getFiles());
+		}
+
+		List<Source> getSources() {
+			return sources;
+		}
+
+		LiveNotebook getLiveNotebook() {
+			return liveNotebook;
+		}
+
+		synchronized Set<SketchKey> update() {
+			final Map<Path, FileState> currentFileStates = readFileStates(liveNotebook.getFiles());
+			final Set<Path> changedFiles = new HashSet<>();
+			final Set<Path> files = new HashSet<>(fileStates.keySet());
+			files.addAll(currentFileStates.keySet());
+			for (final Path file : files) {
+				if (!Objects.equals(fileStates.get(file), currentFileStates.get(file))) {
+					changedFiles.add(file);
+				}
+			}
+			if (changedFiles.isEmpty()) {
+				return Set.of();
+			}
+			final Set<SketchKey> changedSketchKeys = liveNotebook.update(changedFiles);
+			//the files of the sources may change with a kpr
+			fileStates = readFileStates(liveNotebook.getFiles());
+			return changedSketchKeys;
+		}
+
+		private static Map<Path, FileState> readFileStates(final Set<Path> files) {
+			final Map<Path, FileState> fileStates = new HashMap<>();
+			for (final Path file : files) {
+				try {
+					final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+					fileStates.put(file, new FileState(attributes.lastModifiedTime(), attributes.size()));
+				} catch (final IOException e) {
+					//a deleted file has no state
+				}
+			}
+			return fileStates;
+		}
+	}
+}
@@ -18,32 +18,23 @@
 package io.vertigo.studio.tools;
 
 import java.io.IOException;
+import java.net.SocketAddress;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.CancellationException;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import io.vertigo.commons.CommonsFeatures;
 import io.vertigo.core.lang.Assertion;
-import io.vertigo.core.lang.NamedThreadFactory;
-import io.vertigo.core.lang.VSystemException;
 import io.vertigo.core.lang.WrappedException;
 import io.vertigo.core.node.AutoCloseableNode;
 import io.vertigo.core.node.config.BootConfig;
@@ -51,13 +42,14 @@ import io.vertigo.core.node.config.NodeConfig;
 import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
 import io.vertigo.core.plugins.resource.local.LocalResourceResolverPlugin;
 import io.vertigo.core.plugins.resource.url.URLResourceResolverPlugin;
-import io.vertigo.core.resource.ResourceManager;
 import io.vertigo.studio.StudioFeatures;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorManager;
 import io.vertigo.studio.generator.GeneratorResult;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.notebook.NotebookConfig;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.source.LiveNotebook;
 import io.vertigo.studio.source.SourceManager;
 
 /**
@@ -70,16 +62,70 @@ public final class VertigoStudioMda {
 	private static final Logger LOGGER_STUDIO = LogManager.getLogger(VertigoStudioMda.class);
 
 	private enum StudioTarget {
-		clean, generate, watch, clean_watch
+		clean, generate, sync, watch, clean_watch, daemon, status, stop
 	}
 
+	/**
+	 * Targets :
+	 * - clean, generate, sync, watch, clean_watch &lt;config&gt; : runs the target in a new node ;
+	 * - clean, generate, sync &lt;config&gt; &lt;daemon address&gt; : sends the target to a daemon (runs it in a new node if the daemon is not reachable) ;
+	 * - daemon, status, stop &lt;daemon address&gt; : starts a daemon, asks for its status, stops it.
+	 * The address of a daemon is a port on the loopback interface or the path of a unix domain socket.
+	 * A unix domain socket is only accessible by the user of the daemon ; on a port, the clients send the token the daemon writes in ~/.vertigo-studio.
+	 * @param args the target, the studio config (or the daemon address), and optionally the daemon address
+	 */
 	public static void main(final String[] args) {
 		Assertion.check()
-				.isTrue(args.length == 2, "expected the target (clean, generate, watch or clean_watch) and the studio json config");
+				.isTrue(args.length == 2 || args.length == 3,
+						"expected the target (clean, generate, sync, watch, clean_watch, daemon, status or stop), the studio json config (or the address of the daemon) and optionally the address of a daemon");
 		//--
 		final StudioTarget studioTarget = StudioTarget.valueOf(args[0]);
-		final String studioProjectConfigJson = args[1];
-		doMain(studioTarget, studioProjectConfigJson);
+		switch (studioTarget) {
+			case daemon:
+				daemon(StudioDaemon.toAddress(args[1]));
+				break;
+			case status:
+			case stop:
+				requestDaemon(StudioDaemon.toAddress(args[1]), studioTarget.name());
+				break;
+			default:
+				final String studioProjectConfigJson = args[1];
+				if (args.length == 3) {
+					Assertion.check().isTrue(studioTarget == StudioTarget.clean || studioTarget == StudioTarget.generate || studioTarget == StudioTarget.sync,
+							"only clean, generate and sync can be sent to a daemon");
+					if (requestDaemon(StudioDaemon.toAddress(args[2]), studioTarget.name() + ' ' + studioProjectConfigJson)) {
+						return;
+					}
+				}
+				doMain(studioTarget, studioProjectConfigJson);
+				break;
+		}
+	}
+
+	/**
+	 * @return if the daemon has been reached
+	 */
+	private static boolean requestDaemon(final SocketAddress daemonAddress, final String request) {
+		try {
+			StudioDaemon.request(daemonAddress, request)
+					.ifPresent(generatorResult -> LOGGER_STUDIO.info(generatorResult.getResultMessage()));
+			return true;
+		} catch (final IOException e) {
+			LOGGER_STUDIO.warn("The studio daemon {} can't be reached : {}", daemonAddress, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Keeps a warm node serving the requests of local clients until a stop request.
+	 */
+	private static void daemon(final SocketAddress daemonAddress) {
+		try (final AutoCloseableNode studioApp = new AutoCloseableNode(buildNodeConfig())) {
+			final SourceManager sourceManager = studioApp.getComponentSpace().resolve(SourceManager.class);
+			final GeneratorManager generatorManager = studioApp.getComponentSpace().resolve(GeneratorManager.class);
+			//-----
+			new StudioDaemon(sourceManager, generatorManager).serve(daemonAddress);
+		}
 	}
 
 	private static void doMain(final StudioTarget studioTarget, final String studioProjectConfigJson) {
@@ -92,6 +138,9 @@ public final class VertigoStudioMda {
 			case generate:
 				generate(notebookConfig);
 				break;
+			case sync:
+				sync(notebookConfig);
+				break;
 			case watch:
 				watch(notebookConfig, false);
 				break;
@@ -126,97 +175,84 @@ public final class VertigoStudioMda {
 		}
 	}
 
-	private static void watch(final NotebookConfig notebookConfig, final boolean withClean) {
+	/**
+	 * Regenerates in place : unchanged files are not touched and only orphans are deleted.
+	 */
+	private static void sync(final NotebookConfig notebookConfig) {
 		try (final AutoCloseableNode studioApp = new AutoCloseableNode(buildNodeConfig())) {
 			final SourceManager sourceManager = studioApp.getComponentSpace().resolve(SourceManager.class);
 			final GeneratorManager generatorManager = studioApp.getComponentSpace().resolve(GeneratorManager.class);
-			final ResourceManager resourceManager = studioApp.getComponentSpace().resolve(ResourceManager.class);
 			//-----
 			final GeneratorConfig generatorConfig = notebookConfig.generatorConfig();
-			final List<Path> pathsToWatch = listPathToWatch(notebookConfig, resourceManager);
-			LOGGER_STUDIO.info("Monitored file for generation are {}", pathsToWatch);
-
-			final Set<Path> directoriesToWatch = pathsToWatch
-					.stream()
-					.map(Path::getParent)
-					.collect(Collectors.toSet());
-
-			final Debouncer debouncer = new Debouncer();
-
-			try (final FileSystem fs = FileSystems.getDefault()) {
-				try (final WatchService watcher = fs.newWatchService()) {
-					try {
-						directoriesToWatch.forEach(directory -> {
-							try {
-								directory.register(watcher, StandardWatchEventKinds.ENTRY_MODIFY);
-							} catch (final IOException e) {
-								throw WrappedException.wrap(e);
-							}
-						});
-						while (true) {
-							final WatchKey key = watcher.take(); // waits
-							for (final WatchEvent<?> event : key.pollEvents()) {
-								if (pathsToWatch.contains(Path.of(key.watchable().toString(), event.context().toString()))) {
-									debouncer.debounce(() -> {
-										LOGGER_STUDIO.info("Regeneration started");
-										try {
-											if (withClean) {
-												LOGGER_STUDIO.info("Start cleaning");
-												generatorManager.clean(generatorConfig);
-												LOGGER_STUDIO.info("Done cleaning");
-											}
-											final Notebook notebook = sourceManager.read(notebookConfig.metaModelResources());
-											final GeneratorResult generatorResult = generatorManager.generate(notebook, generatorConfig);
-											LOGGER_STUDIO.info("Regeneration completed. {} created files, {} updated files, {} identical files and {} issues in {} ms",
-													generatorResult.createdFiles(), generatorResult.updatedFiles(), generatorResult.identicalFiles(), generatorResult.errorFiles(),
-													generatorResult.durationMillis());
-										} catch (final Exception e) {
-											LOGGER_STUDIO.error("Error regenerating : ", e);
-										}
+			final Notebook notebook = sourceManager.read(notebookConfig.metaModelResources());
+			final GeneratorResult generatorResult = generatorManager.sync(notebook, generatorConfig);
+			LOGGER_STUDIO.info(generatorResult.getResultMessage());
+		}
+	}
 
-									}, 1);
-								}
-							}
-							key.reset();
+	/**
+	 * Watches the files of the sources : the notebook is kept alive and only the sketches read from the changed files are read again.
+	 * The changes are coalesced into change sets ; a generation in progress is cancelled by a new change.
+	 */
+	private static void watch(final NotebookConfig notebookConfig, final boolean withClean) {
+		try (final AutoCloseableNode studioApp = new AutoCloseableNode(buildNodeConfig())) {
+			final SourceManager sourceManager = studioApp.getComponentSpace().resolve(SourceManager.class);
+			final GeneratorManager generatorManager = studioApp.getComponentSpace().resolve(GeneratorManager.class);
+			//-----
+			final GeneratorConfig generatorConfig = notebookConfig.generatorConfig();
+			final LiveNotebook liveNotebook = sourceManager.readLive(notebookConfig.metaModelResources());
+			LOGGER_STUDIO.info("Monitored file for generation are {}", liveNotebook.getFiles());
+			new ChangeSetWatcher(liveNotebook::getFiles, Optional.of(Path.of(generatorConfig.getTargetGenDir())))
+					.watch(buildRegeneration(liveNotebook::update, (changedSketchKeys, cancelled) -> {
+						if (withClean) {
+							LOGGER_STUDIO.info("Start cleaning");
+							generatorManager.clean(generatorConfig);
+							LOGGER_STUDIO.info("Done cleaning");
+							return generatorManager.generate(liveNotebook.getNotebook(), generatorConfig, cancelled);
 						}
-					} catch (final InterruptedException e) {
-						Thread.currentThread().interrupt();
-						throw WrappedException.wrap(e);
-					}
-
-				}
-			} catch (final IOException e) {
-				throw WrappedException.wrap(e);
-			}
-
+						//in place : only the files reaching a changed sketch are rendered again and only orphans are deleted
+						return generatorManager.sync(liveNotebook.getNotebook(), generatorConfig, changedSketchKeys, cancelled);
+					}));
 		}
 	}
 
-	private static List<Path> listPathToWatch(final NotebookConfig notebookConfig, final ResourceManager resourceManager) {
-		return notebookConfig.metaModelResources()
-				.stream()
-				.map(source -> resourceManager.resolve(source.path()))
-				.filter(url -> {
-					try {
-						return "file".equals(url.toURI().getScheme());
-					} catch (final URISyntaxException e) {
-						throw WrappedException.wrap(e);
-					}
-				})
-				.map(url -> {
-					try {
-						return Path.of(url.toURI());
-					} catch (final URISyntaxException e) {
-						throw WrappedException.wrap(e);
-					}
-				})
-				.flatMap(sourcePath -> {
-					if (sourcePath.toString().endsWith(".kpr")) {
-						return Stream.concat(Stream.of(sourcePath), getKspFiles(sourcePath).stream());
-					}
-					return Stream.of(sourcePath);
-				})
-				.toList();
+	/**
+	 * The build of the change sets of a watch : the notebook is always updated, only the generation is cancelled.
+	 * The sketches changed since the last completed generation (cancelled or failed generations) are carried over to the next generation.
+	 *
+	 * @param update the update of the notebook with the changed paths, returning the changed sketches
+	 * @param generation the generation, from the sketches changed since the last completed generation ; it throws a CancellationException once cancelled
+	 * @return the build of the change sets
+	 */
+	static ChangeSetWatcher.ChangeSetBuild buildRegeneration(final Function<Set<Path>, Set<SketchKey>> update, final BiFunction<Set<SketchKey>, BooleanSupplier, GeneratorResult> generation) {
+		Assertion.check()
+				.isNotNull(update)
+				.isNotNull(generation);
+		//-----
+		//the sketches changed since the last completed generation, used only by the thread of the builds
+		final Set<SketchKey> pendingSketchKeys = new HashSet<>();
+		return (changedPaths, cancellation) -> {
+			LOGGER_STUDIO.info("Regeneration started for {}", changedPaths);
+			pendingSketchKeys.addAll(update.apply(changedPaths));
+			final Set<SketchKey> changedSketchKeys = Set.copyOf(pendingSketchKeys);
+			GeneratorResult generatorResult = null;
+			if (!cancellation.isCancelled()) {
+				try {
+					generatorResult = generation.apply(changedSketchKeys, cancellation::isCancelled);
+				} catch (final CancellationException e) {
+					//the generation has stopped between two files
+				}
+			}
+			if (generatorResult == null) {
+				LOGGER_STUDIO.info("Regeneration cancelled by a new change : {} changed sketches postponed", pendingSketchKeys.size());
+				return;
+			}
+			//the keys are kept until a generation completes (a failed generation throws)
+			pendingSketchKeys.clear();
+			LOGGER_STUDIO.info("Regeneration completed. {} created files, {} updated files, {} identical files, {} deleted files and {} issues in {} ms",
+					generatorResult.createdFiles(), generatorResult.updatedFiles(), generatorResult.identicalFiles(), generatorResult.deletedFiles(),
+					generatorResult.errorFiles(), generatorResult.durationMillis());
+		};
 	}
 
 	private static NodeConfig buildNodeConfig() {
@@ -240,7 +276,7 @@ public final class VertigoStudioMda {
 
 	}
 
-	private static NotebookConfig loadStudioProjectConfig(final String configFileUrl) {
+	static NotebookConfig loadStudioProjectConfig(final String configFileUrl) {
 		try {
 			return StudioConfigYamlParser.parseYaml(new URL(configFileUrl));
 		} catch (IOException | URISyntaxException e) {
@@ -248,53 +284,4 @@ public final class VertigoStudioMda {
 		}
 	}
 
-	private static List<Path> getKspFiles(final Path kprUrl) {
-		try {
-			return doGetKspFiles(kprUrl);
-		} catch (final Exception e) {
-			throw WrappedException.wrap(e, "Echec de lecture du fichier KPR {0}", kprUrl);
-		}
-	}
-
-	private static List<Path> doGetKspFiles(final Path krpUrl) throws IOException {
-		return Files.readAllLines(krpUrl)
-				.stream()
-				.flatMap(fileName -> {
-					if (fileName.length() > 0) {
-						// voir http://commons.apache.org/vfs/filesystems.html
-						// Protocol : vfszip pour jboss par exemple
-						final Path url = Path.of(krpUrl.getParent().toString(), fileName);
-						if (fileName.endsWith(".kpr")) {
-							// kpr
-							return getKspFiles(url).stream();
-						} else if (fileName.endsWith(".ksp")) {
-							// ksp
-							return Stream.of(url);
-						} else {
-							throw new VSystemException("Type de fichier inconnu : {0}", fileName);
-						}
-					}
-					return Stream.empty();
-				})
-				.toList();
-	}
-
-	static class Debouncer {
-
-		private final ScheduledExecutorService scheduledExecutorService;
-		private Future previousFuture;
-
-		public Debouncer() {
-			scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("v-studio-debounce-"));
-			previousFuture = null;
-		}
-
-		public synchronized void debounce(final Runnable runnable, final int delay) {
-			if (previousFuture != null) {
-				previousFuture.cancel(false);
-			}
-			previousFuture = scheduledExecutorService.schedule(runnable, delay, TimeUnit.SECONDS);
-		}
-	}
-
 }
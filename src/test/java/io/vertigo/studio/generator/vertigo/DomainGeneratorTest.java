@@ -17,11 +17,17 @@
  */
 package io.vertigo.studio.generator.vertigo;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -34,6 +40,7 @@ import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugi
 import io.vertigo.studio.StudioFeatures;
 import io.vertigo.studio.generator.GeneratorConfig;
 import io.vertigo.studio.generator.GeneratorManager;
+import io.vertigo.studio.generator.GeneratorResult;
 import io.vertigo.studio.notebook.Notebook;
 import io.vertigo.studio.source.Source;
 import io.vertigo.studio.source.SourceManager;
@@ -101,4 +108,153 @@ public class DomainGeneratorTest {
 		generatorManager.generate(notebook, generatorConfig);
 	}
 
+	/**
+	 * The concurrent generation must produce the same files as the sequential one.
+	 */
+	@Test
+	public void testGenerateConcurrently() {
+		final List<Source> resources = List.of(
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr"),
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/tasks.kpr"));
+
+		final Notebook notebook = sourceManager.read(resources);
+		final GeneratorResult sequentialResult = generatorManager.generate(notebook, buildGeneratorConfig("1"));
+		final GeneratorResult concurrentResult = generatorManager.generate(notebook, buildGeneratorConfig("4"));
+
+		Assertions.assertEquals(0, concurrentResult.errorFiles());
+		Assertions.assertEquals(0, concurrentResult.createdFiles() + concurrentResult.updatedFiles());
+		Assertions.assertEquals(countFiles(sequentialResult), concurrentResult.identicalFiles());
+	}
+
+	/**
+	 * A sync keeps unchanged files and deletes only the files no longer generated.
+	 */
+	@Test
+	public void testSync() {
+		final List<Source> resources = List.of(
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr"),
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/tasks.kpr"));
+		final Notebook notebook = sourceManager.read(resources);
+
+		final GeneratorConfig domainAndTaskConfig = GeneratorConfig.builder("io.vertigo.studio")
+				.withTargetGenDir("target/sync/")
+				.addProperty("vertigo.domain.java", "true")
+				.addProperty("vertigo.task", "true")
+				.build();
+		final GeneratorConfig domainConfig = GeneratorConfig.builder("io.vertigo.studio")
+				.withTargetGenDir("target/sync/")
+				.addProperty("vertigo.domain.java", "true")
+				.build();
+
+		generatorManager.sync(notebook, domainAndTaskConfig);
+		final GeneratorResult domainResult = generatorManager.generate(notebook, domainConfig);
+		final GeneratorResult secondResult = generatorManager.sync(notebook, domainAndTaskConfig);
+		Assertions.assertEquals(0, secondResult.deletedFiles());
+		//unchanged files are compared byte per byte and never rewritten
+		Assertions.assertEquals(0, secondResult.createdFiles() + secondResult.updatedFiles());
+
+		//task files are orphans once the task generation is disabled
+		final GeneratorResult thirdResult = generatorManager.sync(notebook, domainConfig);
+		Assertions.assertEquals(0, thirdResult.createdFiles());
+		Assertions.assertEquals(countFiles(secondResult) - countFiles(domainResult), thirdResult.deletedFiles());
+	}
+
+	@Test
+	public void testIncrementalGeneration() throws IOException {
+		final List<Source> resources = List.of(
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr"),
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/tasks.kpr"));
+		final Notebook notebook = sourceManager.read(resources);
+
+		final GeneratorConfig incrementalConfig = GeneratorConfig.builder("io.vertigo.studio")
+				.withTargetGenDir("target/incremental/")
+				.addProperty("generator.incremental", "true")
+				.addProperty("vertigo.domain.java", "true")
+				.addProperty("vertigo.task", "true")
+				.build();
+
+		final GeneratorResult firstResult = generatorManager.sync(notebook, incrementalConfig);
+		Assertions.assertEquals(0, firstResult.errorFiles());
+		//the sketches are unchanged : every file is up to date
+		final GeneratorResult secondResult = generatorManager.sync(notebook, incrementalConfig);
+		Assertions.assertEquals(0, secondResult.createdFiles() + secondResult.updatedFiles() + secondResult.deletedFiles());
+		Assertions.assertEquals(countFiles(firstResult), secondResult.identicalFiles());
+		//a file edited since the previous generation is rendered again, even if its inputs are unchanged
+		Files.writeString(Path.of("target/incremental/javagen/io/vertigo/studio/domain/DtDefinitions.java"), "");
+		final GeneratorResult thirdResult = generatorManager.sync(notebook, incrementalConfig);
+		Assertions.assertEquals(1, thirdResult.updatedFiles());
+		Assertions.assertEquals(countFiles(firstResult) - 1, thirdResult.identicalFiles());
+	}
+
+	/**
+	 * A cancelled generation writes no file and keeps the manifest of the previous generation.
+	 */
+	@Test
+	public void testCancelledGeneration() {
+		final List<Source> resources = List.of(
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr"),
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/tasks.kpr"));
+		final Notebook notebook = sourceManager.read(resources);
+
+		final GeneratorConfig incrementalConfig = GeneratorConfig.builder("io.vertigo.studio")
+				.withTargetGenDir("target/cancelled/")
+				.addProperty("generator.incremental", "true")
+				.addProperty("vertigo.domain.java", "true")
+				.build();
+
+		final GeneratorResult firstResult = generatorManager.sync(notebook, incrementalConfig);
+		Assertions.assertThrows(CancellationException.class, () -> generatorManager.sync(notebook, incrementalConfig, Set.of(), () -> true));
+		//the previous generation is still known : every file is up to date
+		final GeneratorResult secondResult = generatorManager.sync(notebook, incrementalConfig);
+		Assertions.assertEquals(countFiles(firstResult), secondResult.identicalFiles());
+	}
+
+	/**
+	 * The parallelism changes how the files are rendered, not their content : it is not an input of the files.
+	 */
+	@Test
+	public void testIncrementalGenerationWithAnotherParallelism() {
+		final List<Source> resources = List.of(
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr"),
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/data/tasks.kpr"));
+		final Notebook notebook = sourceManager.read(resources);
+
+		generatorManager.sync(notebook, buildIncrementalConfig("1"));
+		final GeneratorResult sequentialResult = generatorManager.sync(notebook, buildIncrementalConfig("1"));
+		final GeneratorResult concurrentResult = generatorManager.sync(notebook, buildIncrementalConfig("4"));
+		Assertions.assertEquals(countFiles(sequentialResult), concurrentResult.identicalFiles());
+		//only the files rendered at each generation (whose inputs are unknown) are rendered again
+		Assertions.assertEquals(countTemplates(sequentialResult), countTemplates(concurrentResult));
+	}
+
+	private static int countTemplates(final GeneratorResult generatorResult) {
+		return generatorResult.templateCacheHits() + generatorResult.templateCacheMisses();
+	}
+
+	private static GeneratorConfig buildIncrementalConfig(final String parallelism) {
+		return GeneratorConfig.builder("io.vertigo.studio")
+				.withTargetGenDir("target/incrementalParallelism/")
+				.addProperty("generator.incremental", "true")
+				.addProperty("generator.parallelism", parallelism)
+				.addProperty("vertigo.domain.java", "true")
+				.addProperty("vertigo.task", "true")
+				.build();
+	}
+
+	private static int countFiles(final GeneratorResult generatorResult) {
+		return generatorResult.createdFiles() + generatorResult.updatedFiles() + generatorResult.identicalFiles();
+	}
+
+	private static GeneratorConfig buildGeneratorConfig(final String parallelism) {
+		return GeneratorConfig.builder("io.vertigo.studio")
+				.withTargetGenDir("target/")
+				.addProperty("generator.parallelism", parallelism)
+				.addProperty("vertigo.domain.java", "true")
+				.addProperty("vertigo.domain.js", "true")
+				.addProperty("vertigo.domain.ts", "true")
+				.addProperty("vertigo.task", "true")
+				.addProperty("vertigo.search", "true")
+				.build();
+	}
+
 }
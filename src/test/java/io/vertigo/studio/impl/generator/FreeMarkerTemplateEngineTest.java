@@ -0,0 +1,86 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.vertigo.studio.generator.GeneratorResult;
+import io.vertigo.studio.generator.GeneratorResultBuilder;
+import io.vertigo.studio.plugins.generator.vertigo.task.TaskGeneratorPlugin;
+
+/**
+ * Test of the FreeMarker engine of the file generators.
+ *
+ * @author mlaroche
+ */
+public final class FreeMarkerTemplateEngineTest {
+	private static final String DAO_TEMPLATE = "template/dao.ftl";
+
+	@Test
+	public void testResolveTemplateName() {
+		Assertions.assertEquals("template/macro_ao.ftl", FreeMarkerTemplateEngine.resolveTemplateName(DAO_TEMPLATE, "macro_ao.ftl"));
+		Assertions.assertEquals("macro_ao.ftl", FreeMarkerTemplateEngine.resolveTemplateName(DAO_TEMPLATE, "../macro_ao.ftl"));
+		Assertions.assertEquals("lib/macro.ftl", FreeMarkerTemplateEngine.resolveTemplateName(DAO_TEMPLATE, "/lib/macro.ftl"));
+		Assertions.assertEquals("macro_ao.ftl", FreeMarkerTemplateEngine.resolveTemplateName("dao.ftl", "macro_ao.ftl"));
+	}
+
+	@Test
+	public void testTemplateFingerprint() throws IOException {
+		final FreeMarkerTemplateEngine templateEngine = new FreeMarkerTemplateEngine(10);
+		final String daoFingerprint = templateEngine.getTemplateFingerprint(TaskGeneratorPlugin.class, DAO_TEMPLATE);
+		//the fingerprint is stable
+		Assertions.assertEquals(daoFingerprint, new FreeMarkerTemplateEngine(10).getTemplateFingerprint(TaskGeneratorPlugin.class, DAO_TEMPLATE));
+		Assertions.assertNotEquals(daoFingerprint, templateEngine.getTemplateFingerprint(TaskGeneratorPlugin.class, "template/pao.ftl"));
+		//dao.ftl imports macro_ao.ftl : its fingerprint covers more than its own source
+		final String daoSource = templateEngine.getTemplate(TaskGeneratorPlugin.class, DAO_TEMPLATE, GeneratorResult.builder()).toString();
+		Assertions.assertNotEquals(FileGeneratorFreeMarker.digest((DAO_TEMPLATE + '\n' + daoSource + '\n').getBytes(StandardCharsets.UTF_8)), daoFingerprint);
+	}
+
+	@Test
+	public void testTemplateCacheCounters() throws IOException {
+		final FreeMarkerTemplateEngine templateEngine = new FreeMarkerTemplateEngine(10);
+		final GeneratorResultBuilder generatorResultBuilder = GeneratorResult.builder();
+		templateEngine.getTemplate(TaskGeneratorPlugin.class, DAO_TEMPLATE, generatorResultBuilder);
+		assertCounters(0, 1, generatorResultBuilder);
+		templateEngine.getTemplate(TaskGeneratorPlugin.class, DAO_TEMPLATE, generatorResultBuilder);
+		assertCounters(1, 1, generatorResultBuilder);
+		//the fingerprint reads the templates without counting them, and the lookups after it still hit
+		templateEngine.getTemplateFingerprint(TaskGeneratorPlugin.class, DAO_TEMPLATE);
+		assertCounters(1, 1, generatorResultBuilder);
+		templateEngine.getTemplate(TaskGeneratorPlugin.class, DAO_TEMPLATE, generatorResultBuilder);
+		assertCounters(2, 1, generatorResultBuilder);
+		//another template is a miss
+		templateEngine.getTemplate(TaskGeneratorPlugin.class, "template/pao.ftl", generatorResultBuilder);
+		assertCounters(2, 2, generatorResultBuilder);
+		//once cleared, the templates are compiled again : the fingerprint doesn't compile them
+		templateEngine.clear();
+		templateEngine.getTemplateFingerprint(TaskGeneratorPlugin.class, DAO_TEMPLATE);
+		templateEngine.getTemplate(TaskGeneratorPlugin.class, DAO_TEMPLATE, generatorResultBuilder);
+		assertCounters(2, 3, generatorResultBuilder);
+	}
+
+	private static void assertCounters(final int expectedHits, final int expectedMisses, final GeneratorResultBuilder generatorResultBuilder) {
+		final GeneratorResult generatorResult = generatorResultBuilder.build();
+		Assertions.assertEquals(expectedHits, generatorResult.templateCacheHits());
+		Assertions.assertEquals(expectedMisses, generatorResult.templateCacheMisses());
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.generator;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of the manifest of the generated files.
+ *
+ * @author mlaroche
+ */
+public final class GeneratorManifestTest {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testResolveInsideTargetGenDir() {
+		final Path targetGenDir = tempDir.resolve("gen");
+		final GeneratorManifest manifest = GeneratorManifest.read(targetGenDir);
+
+		Assertions.assertEquals(Optional.of(targetGenDir.resolve("javagen/DtCar.java").toAbsolutePath().normalize()), manifest.resolve("javagen/DtCar.java"));
+		//an edited manifest can't reach a file outside of the targetGenDir
+		Assertions.assertTrue(manifest.resolve("../outside.txt").isEmpty());
+		Assertions.assertTrue(manifest.resolve("javagen/../../outside.txt").isEmpty());
+		Assertions.assertTrue(manifest.resolve(tempDir.resolve("outside.txt").toAbsolutePath().toString()).isEmpty());
+		Assertions.assertTrue(manifest.resolve(".").isEmpty());
+	}
+}
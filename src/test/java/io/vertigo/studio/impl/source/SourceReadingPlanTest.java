@@ -0,0 +1,153 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.impl.source;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.domain.DomainSketch;
+import io.vertigo.studio.notebook.domain.DtSketch;
+import io.vertigo.studio.notebook.file.FileInfoSketch;
+import io.vertigo.studio.notebook.task.TaskSketch;
+import io.vertigo.studio.source.Source;
+
+/**
+ * Test of the plan of the reading of the sources.
+ *
+ * @author mlaroche
+ */
+public final class SourceReadingPlanTest {
+
+	/**
+	 * A plugin only declaring the sketches it consumes and produces.
+	 */
+	private static final class FakeSourceReaderPlugin implements SourceReaderPlugin {
+		private final String name;
+		private final Set<Class<? extends Sketch>> consumedSketchTypes;
+		private final Set<Class<? extends Sketch>> producedSketchTypes;
+
+		FakeSourceReaderPlugin(final String name, final Set<Class<? extends Sketch>> consumedSketchTypes, final Set<Class<? extends Sketch>> producedSketchTypes) {
+			this.name = name;
+			this.consumedSketchTypes = consumedSketchTypes;
+			this.producedSketchTypes = producedSketchTypes;
+		}
+
+		@Override
+		public Set<String> getHandledSourceTypes() {
+			return Set.of(name);
+		}
+
+		@Override
+		public Stream<? extends Sketch> parseResources(final List<Source> resources, final Notebook notebook) {
+			return Stream.empty();
+		}
+
+		@Override
+		public Set<Class<? extends Sketch>> getConsumedSketchTypes() {
+			return consumedSketchTypes;
+		}
+
+		@Override
+		public Set<Class<? extends Sketch>> getProducedSketchTypes() {
+			return producedSketchTypes;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	private static SourceReaderPlugin plugin(final String name, final Set<Class<? extends Sketch>> consumedSketchTypes, final Set<Class<? extends Sketch>> producedSketchTypes) {
+		return new FakeSourceReaderPlugin(name, consumedSketchTypes, producedSketchTypes);
+	}
+
+	private static SourceReadingPlan plan(final SourceReaderPlugin... plugins) {
+		final Map<SourceReaderPlugin, List<Source>> sourcesByPlugin = new LinkedHashMap<>();
+		for (final SourceReaderPlugin plugin : plugins) {
+			sourcesByPlugin.put(plugin, List.of(Source.of(plugin.toString(), plugin + ".json")));
+		}
+		return SourceReadingPlan.of(sourcesByPlugin);
+	}
+
+	@Test
+	public void testIndependentPlugins() {
+		final SourceReaderPlugin domains = plugin("domains", Set.of(), Set.of(DomainSketch.class));
+		final SourceReaderPlugin fileInfos = plugin("fileInfos", Set.of(), Set.of(FileInfoSketch.class));
+		final SourceReaderPlugin tasks = plugin("tasks", Set.of(FileInfoSketch.class), Set.of(TaskSketch.class));
+		//a plugin consuming what it produces itself does not wait
+		final SourceReaderPlugin dtSketchs = plugin("dtSketchs", Set.of(DtSketch.class), Set.of(DtSketch.class));
+		final SourceReadingPlan sourceReadingPlan = plan(domains, dtSketchs, fileInfos);
+
+		Assertions.assertEquals(List.of(List.of(domains, dtSketchs, fileInfos)), sourceReadingPlan.getStages());
+		Assertions.assertEquals(List.of(List.of(domains, fileInfos), List.of(tasks)), plan(domains, fileInfos, tasks).getStages());
+	}
+
+	@Test
+	public void testConsumerAfterProducer() {
+		final SourceReaderPlugin tasks = plugin("tasks", Set.of(DtSketch.class, DomainSketch.class), Set.of(TaskSketch.class));
+		final SourceReaderPlugin dtSketchs = plugin("dtSketchs", Set.of(DomainSketch.class), Set.of(DtSketch.class));
+		final SourceReaderPlugin domains = plugin("domains", Set.of(), Set.of(DomainSketch.class));
+		//a plugin may consume any sketch
+		final SourceReaderPlugin all = plugin("all", Set.of(Sketch.class), Set.of());
+		final SourceReadingPlan sourceReadingPlan = plan(tasks, all, dtSketchs, domains);
+
+		Assertions.assertEquals(List.of(List.of(domains), List.of(dtSketchs), List.of(tasks), List.of(all)), sourceReadingPlan.getStages());
+		//the sources are read in the order of the stages
+		Assertions.assertEquals(List.of(domains, dtSketchs, tasks, all), List.copyOf(sourceReadingPlan.getSourcesByPlugin().keySet()));
+		Assertions.assertEquals(List.of(Source.of("tasks", "tasks.json")), sourceReadingPlan.getSourcesByPlugin().get(tasks));
+	}
+
+	@Test
+	public void testCycle() {
+		final SourceReaderPlugin tasks = plugin("tasks", Set.of(DtSketch.class), Set.of(TaskSketch.class));
+		final SourceReaderPlugin dtSketchs = plugin("dtSketchs", Set.of(TaskSketch.class), Set.of(DtSketch.class));
+		final SourceReaderPlugin fileInfos = plugin("fileInfos", Set.of(DtSketch.class), Set.of(FileInfoSketch.class));
+		//in a cycle, the first plugin is run alone, then the plugins waiting for it
+		Assertions.assertEquals(List.of(List.of(tasks), List.of(dtSketchs), List.of(fileInfos)), plan(tasks, dtSketchs, fileInfos).getStages());
+		Assertions.assertEquals(List.of(List.of(dtSketchs), List.of(tasks, fileInfos)), plan(dtSketchs, tasks, fileInfos).getStages());
+
+		//by default, a plugin consumes and produces any sketch : the plugins are run one after the other
+		final SourceReaderPlugin first = plugin("first", Set.of(Sketch.class), Set.of(Sketch.class));
+		final SourceReaderPlugin second = plugin("second", Set.of(Sketch.class), Set.of(Sketch.class));
+		Assertions.assertEquals(List.of(List.of(first), List.of(second)), plan(first, second).getStages());
+	}
+
+	@Test
+	public void testDeterministicOrder() {
+		final SourceReaderPlugin domains = plugin("domains", Set.of(), Set.of(DomainSketch.class));
+		final SourceReaderPlugin fileInfos = plugin("fileInfos", Set.of(), Set.of(FileInfoSketch.class));
+		final SourceReaderPlugin dtSketchs = plugin("dtSketchs", Set.of(DomainSketch.class), Set.of(DtSketch.class));
+		final SourceReaderPlugin tasks = plugin("tasks", Set.of(DomainSketch.class), Set.of(TaskSketch.class));
+		//the plugins of a stage keep the order of their first source
+		Assertions.assertEquals(List.of(List.of(fileInfos, domains), List.of(tasks, dtSketchs)), plan(tasks, fileInfos, dtSketchs, domains).getStages());
+		Assertions.assertEquals(List.of(List.of(domains, fileInfos), List.of(dtSketchs, tasks)), plan(dtSketchs, domains, tasks, fileInfos).getStages());
+		//the same sources give the same plan
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertEquals(plan(tasks, fileInfos, dtSketchs, domains).getStages(), plan(tasks, fileInfos, dtSketchs, domains).getStages());
+		}
+	}
+}
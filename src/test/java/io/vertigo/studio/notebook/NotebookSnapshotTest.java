@@ -0,0 +1,183 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.notebook;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertigo.core.node.AutoCloseableNode;
+import io.vertigo.core.node.component.di.DIInjector;
+import io.vertigo.core.node.config.BootConfig;
+import io.vertigo.core.node.config.NodeConfig;
+import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
+import io.vertigo.studio.StudioFeatures;
+import io.vertigo.studio.notebook.domain.DtSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationSketch;
+import io.vertigo.studio.notebook.domain.masterdata.MasterDataValue;
+import io.vertigo.studio.notebook.domain.masterdata.StaticMasterDataSketch;
+import io.vertigo.studio.source.Source;
+import io.vertigo.studio.source.SourceManager;
+
+/**
+ * Test of the binary snapshots of a notebook.
+ *
+ * @author mlaroche
+ */
+public final class NotebookSnapshotTest {
+	private static final List<Source> SOURCES = List.of(
+			Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr"),
+			Source.of("kpr", "io/vertigo/studio/source/vertigo/data/tasks.kpr"),
+			Source.of("staticMasterData", "io/vertigo/studio/source/vertigo/data/masterdata/testJsonMasterDataValues.json"),
+			Source.of("security", "io/vertigo/studio/source/vertigo/data/security/advanced-auth-config-v2.json"),
+			Source.of("webservice", "io.vertigo.vega.impl.webservice.catalog.SwaggerWebServices"));
+
+	private AutoCloseableNode node;
+
+	@Inject
+	private SourceManager sourceManager;
+	@Inject
+	private NotebookManager notebookManager;
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	public void setUp() {
+		node = new AutoCloseableNode(buildNodeConfig());
+		DIInjector.injectMembers(this, node.getComponentSpace());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (node != null) {
+			node.close();
+		}
+	}
+
+	private static NodeConfig buildNodeConfig() {
+		return NodeConfig.builder()
+				.withBoot(BootConfig.builder()
+						.addPlugin(ClassPathResourceResolverPlugin.class)
+						.build())
+				.addModule(new StudioFeatures()
+						.withSource()
+						.withVertigoSource()
+						.build())
+				.build();
+	}
+
+	@Test
+	public void testSnapshot() {
+		final Notebook notebook = sourceManager.read(SOURCES);
+		final Path snapshotPath = tempDir.resolve("notebook.snapshot");
+		notebookManager.writeSnapshot(notebook, snapshotPath);
+
+		final Notebook snapshotNotebook = notebookManager.readSnapshot(snapshotPath);
+		Assertions.assertEquals(getFingerprints(notebook), getFingerprints(snapshotNotebook));
+		//the sketches are referenced, not copied
+		for (final AssociationSketch association : snapshotNotebook.getAll(AssociationSketch.class)) {
+			final DtSketch dtSketch = association.getAssociationNodeA().getDtSketch();
+			Assertions.assertSame(snapshotNotebook.resolve(dtSketch.getKey().name(), DtSketch.class), dtSketch);
+		}
+	}
+
+	@Test
+	public void testMasterDataValues() {
+		final Notebook notebook = sourceManager.read(SOURCES);
+		final Path snapshotPath = tempDir.resolve("notebook.snapshot");
+		notebookManager.writeSnapshot(notebook, snapshotPath);
+
+		final List<StaticMasterDataSketch> masterDataSketches = notebookManager.readSnapshot(snapshotPath).getAll(StaticMasterDataSketch.class);
+		Assertions.assertFalse(masterDataSketches.isEmpty());
+		for (final StaticMasterDataSketch masterDataSketch : masterDataSketches) {
+			//the values keep their class
+			for (final Object value : masterDataSketch.getValues().values()) {
+				Assertions.assertEquals(MasterDataValue.class, value.getClass());
+			}
+		}
+	}
+
+	@Test
+	public void testNotASnapshot() throws IOException {
+		final Path snapshotPath = Files.writeString(tempDir.resolve("notebook.snapshot"), "{}");
+		Assertions.assertThrows(IllegalStateException.class, () -> notebookManager.readSnapshot(snapshotPath));
+	}
+
+	@Test
+	public void testOtherVersion() throws IOException {
+		final Path snapshotPath = writeSnapshot();
+		final byte[] snapshot = Files.readAllBytes(snapshotPath);
+		//the version follows the magic number
+		final ByteBuffer header = ByteBuffer.wrap(snapshot);
+		header.putInt(4, header.getInt(4) + 1);
+		Files.write(snapshotPath, snapshot);
+
+		final IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> notebookManager.readSnapshot(snapshotPath));
+		Assertions.assertTrue(exception.getMessage().contains("version"));
+	}
+
+	@Test
+	public void testTruncated() throws IOException {
+		final Path snapshotPath = writeSnapshot();
+		final byte[] snapshot = Files.readAllBytes(snapshotPath);
+		Files.write(snapshotPath, Arrays.copyOf(snapshot, snapshot.length / 2));
+
+		final IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> notebookManager.readSnapshot(snapshotPath));
+		Assertions.assertTrue(exception.getMessage().contains("corrupted"));
+	}
+
+	@Test
+	public void testCorruptedCount() throws IOException {
+		final Path snapshotPath = writeSnapshot();
+		final byte[] snapshot = Files.readAllBytes(snapshotPath);
+		//the number of the strings follows the header : a huge count must not be allocated
+		final ByteBuffer header = ByteBuffer.wrap(snapshot);
+		header.position(8);
+		header.put(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 });
+		Files.write(snapshotPath, snapshot);
+
+		final IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> notebookManager.readSnapshot(snapshotPath));
+		Assertions.assertTrue(exception.getMessage().contains("corrupted"));
+	}
+
+	private Path writeSnapshot() {
+		final Path snapshotPath = tempDir.resolve("notebook.snapshot");
+		notebookManager.writeSnapshot(sourceManager.read(SOURCES), snapshotPath);
+		return snapshotPath;
+	}
+
+	private static Map<String, String> getFingerprints(final Notebook notebook) {
+		return notebook.getAll(Sketch.class)
+				.stream()
+				.collect(Collectors.toMap(sketch -> sketch.getKey().name(), sketch -> notebook.getFingerprint(sketch.getKey()).fingerprint()));
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.notebook;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.vertigo.studio.impl.notebook.NotebookManagerImpl;
+import io.vertigo.studio.notebook.domain.DtSketch;
+
+/**
+ * Test of the index of the sketches of a notebook.
+ *
+ * @author mlaroche
+ */
+public final class NotebookTest {
+
+	interface ShapeSketch extends Sketch {
+		//a supertype of sketches
+	}
+
+	@SkecthPrefix("Sq")
+	static final class SquareSketch extends AbstractSketch implements ShapeSketch {
+		SquareSketch(final String name) {
+			super(name);
+		}
+	}
+
+	@SkecthPrefix("Ci")
+	static final class CircleSketch extends AbstractSketch implements ShapeSketch {
+		CircleSketch(final String name) {
+			super(name);
+		}
+	}
+
+	@Test
+	public void testGetAllBySupertype() {
+		final Notebook notebook = new Notebook();
+		notebook.register(new SquareSketch("SqBeta"));
+		notebook.register(new CircleSketch("CiGamma"));
+		notebook.register(new SquareSketch("SqAlpha"));
+
+		Assertions.assertEquals(List.of("SqAlpha", "SqBeta"), getNames(notebook.getAll(SquareSketch.class)));
+		//the sketches of all the subtypes, sorted by name
+		Assertions.assertEquals(List.of("CiGamma", "SqAlpha", "SqBeta"), getNames(notebook.getAll(ShapeSketch.class)));
+		Assertions.assertEquals(List.of("CiGamma", "SqAlpha", "SqBeta"), getNames(notebook.getAll(AbstractSketch.class)));
+		Assertions.assertEquals(List.of("CiGamma", "SqAlpha", "SqBeta"), getNames(notebook.getAll(Sketch.class)));
+		Assertions.assertTrue(notebook.getAll(DtSketch.class).isEmpty());
+		//the lists are immutable views
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> notebook.getAll(Sketch.class).add(new SquareSketch("SqDelta")));
+		//a new sketch is added to the lists of all its types
+		notebook.register(new SquareSketch("SqDelta"));
+		Assertions.assertEquals(List.of("SqAlpha", "SqBeta", "SqDelta"), getNames(notebook.getAll(SquareSketch.class)));
+		Assertions.assertEquals(List.of("CiGamma", "SqAlpha", "SqBeta", "SqDelta"), getNames(notebook.getAll(ShapeSketch.class)));
+		Assertions.assertEquals(List.of("CiGamma"), getNames(notebook.getAll(CircleSketch.class)));
+	}
+
+	@Test
+	public void testUnregister() {
+		final Notebook notebook = new Notebook();
+		notebook.register(new SquareSketch("SqAlpha"));
+		notebook.register(new SquareSketch("SqBeta"));
+		notebook.register(new CircleSketch("CiGamma"));
+		Assertions.assertEquals(List.of("CiGamma", "SqAlpha", "SqBeta"), getNames(notebook.getAll(ShapeSketch.class)));
+
+		notebook.unregister(SketchKey.of("SqAlpha"));
+		Assertions.assertFalse(notebook.contains("SqAlpha"));
+		Assertions.assertEquals(List.of("SqBeta"), getNames(notebook.getAll(SquareSketch.class)));
+		Assertions.assertEquals(List.of("CiGamma", "SqBeta"), getNames(notebook.getAll(ShapeSketch.class)));
+
+		//a new version of the sketch replaces the previous one in the index
+		final SquareSketch alpha = new SquareSketch("SqAlpha");
+		notebook.register(alpha);
+		Assertions.assertEquals(List.of("SqAlpha", "SqBeta"), getNames(notebook.getAll(SquareSketch.class)));
+		Assertions.assertSame(alpha, notebook.getAll(ShapeSketch.class).get(1));
+		Assertions.assertSame(alpha, notebook.resolve("SqAlpha", SquareSketch.class));
+	}
+
+	@Test
+	public void testNotebookFromJson() {
+		final NotebookManagerImpl notebookManager = new NotebookManagerImpl();
+		final Notebook notebook = notebookManager.fromJson(notebookManager.toJson(new Notebook()));
+		Assertions.assertTrue(notebook.getAll(Sketch.class).isEmpty());
+		//the index of a notebook read from json is built on first use
+		notebook.register(new SquareSketch("SqBeta"));
+		notebook.register(new CircleSketch("CiGamma"));
+		notebook.register(new SquareSketch("SqAlpha"));
+		Assertions.assertEquals(List.of("SqAlpha", "SqBeta"), getNames(notebook.getAll(SquareSketch.class)));
+		Assertions.assertEquals(List.of("CiGamma", "SqAlpha", "SqBeta"), getNames(notebook.getAll(ShapeSketch.class)));
+		notebook.unregister(SketchKey.of("SqBeta"));
+		Assertions.assertEquals(List.of("CiGamma", "SqAlpha"), getNames(notebook.getAll(ShapeSketch.class)));
+	}
+
+	private static List<String> getNames(final List<? extends Sketch> sketches) {
+		return sketches
+				.stream()
+				.map(sketch -> sketch.getKey().name())
+				.toList();
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.notebook;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of the fingerprints of the sketches.
+ *
+ * @author mlaroche
+ */
+public final class SketchFingerprintTest {
+
+	private static final class TestSketch implements Sketch {
+		private final Map<String, String> params;
+		private final Set<String> tags;
+		private final Type type;
+
+		TestSketch(final Map<String, String> params, final Set<String> tags, final Type type) {
+			this.params = params;
+			this.tags = tags;
+			this.type = type;
+		}
+
+		@Override
+		public SketchKey getKey() {
+			return SketchKey.of("DtTest");
+		}
+
+		@Override
+		public String getLocalName() {
+			return "Test";
+		}
+	}
+
+	private static String fingerprint(final Map<String, String> params, final Set<String> tags) {
+		return SketchFingerprint.of(new TestSketch(params, tags, String.class), sketchKey -> false).fingerprint();
+	}
+
+	private static Map<String, String> params(final String... keys) {
+		final Map<String, String> params = new LinkedHashMap<>();
+		for (final String key : keys) {
+			params.put(key, key.toUpperCase());
+		}
+		return params;
+	}
+
+	@Test
+	public void testOrderedWrappers() {
+		//an unmodifiable view of an ordered map keeps its order
+		Assertions.assertNotEquals(
+				fingerprint(Collections.unmodifiableMap(params("a", "b")), Set.of()),
+				fingerprint(Collections.unmodifiableMap(params("b", "a")), Set.of()));
+	}
+
+	@Test
+	public void testUnorderedSets() {
+		Assertions.assertEquals(
+				fingerprint(params("a"), new HashSet<>(List.of("x", "y", "z"))),
+				fingerprint(params("a"), Set.of("z", "y", "x")));
+	}
+
+	@Test
+	public void testParameterizedType() throws NoSuchFieldException {
+		final Type parameterizedType = TestSketch.class.getDeclaredField("params").getGenericType();
+		final String fingerprint = SketchFingerprint.of(new TestSketch(params("a"), Set.of(), parameterizedType), sketchKey -> false).fingerprint();
+		Assertions.assertEquals(fingerprint, SketchFingerprint.of(new TestSketch(params("a"), Set.of(), parameterizedType), sketchKey -> false).fingerprint());
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.notebook.domain.association;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertigo.core.node.AutoCloseableNode;
+import io.vertigo.core.node.component.di.DIInjector;
+import io.vertigo.core.node.config.BootConfig;
+import io.vertigo.core.node.config.NodeConfig;
+import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
+import io.vertigo.studio.StudioFeatures;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.notebook.domain.DtSketch;
+import io.vertigo.studio.source.Source;
+import io.vertigo.studio.source.SourceManager;
+
+/**
+ * Test of the graph of the associations.
+ *
+ * @author mlaroche
+ */
+public final class AssociationGraphTest {
+	private AutoCloseableNode node;
+
+	@Inject
+	private SourceManager sourceManager;
+
+	@BeforeEach
+	public void setUp() {
+		node = new AutoCloseableNode(buildNodeConfig());
+		DIInjector.injectMembers(this, node.getComponentSpace());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (node != null) {
+			node.close();
+		}
+	}
+
+	private static NodeConfig buildNodeConfig() {
+		return NodeConfig.builder()
+				.withBoot(BootConfig.builder()
+						.addPlugin(ClassPathResourceResolverPlugin.class)
+						.build())
+				.addModule(new StudioFeatures()
+						.withSource()
+						.withVertigoSource()
+						.build())
+				.build();
+	}
+
+	private Notebook readNotebook() {
+		return sourceManager.read(List.of(Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr")));
+	}
+
+	@Test
+	public void testAssociations() {
+		final AssociationGraph associationGraph = AssociationGraph.of(readNotebook());
+		//simple associations first, then NN associations, each sorted by name
+		Assertions.assertEquals(List.of("AFamCarFamille", "AMtyCar", "AnnFamCarLocation"), getNames(associationGraph.getAssociations(SketchKey.of("DtCar"))));
+		Assertions.assertEquals(List.of("AFamCarFamille", "AnnFamCarLocation"), getNames(associationGraph.getAssociations(SketchKey.of("DtFamille"))));
+		Assertions.assertEquals(List.of("ACitCmd", "ACmdAtt", "ACmdCva", "ACtyCmd"), getNames(associationGraph.getAssociations(SketchKey.of("DtCommand"))));
+		Assertions.assertTrue(associationGraph.getAssociations(SketchKey.of("DtUnknown")).isEmpty());
+	}
+
+	@Test
+	public void testAssociationsByNode() {
+		final AssociationGraph associationGraph = AssociationGraph.of(readNotebook());
+		Assertions.assertEquals(List.of("ACitCmd", "ACtyCmd"), getNames(associationGraph.getSimpleAssociationsByNodeA(SketchKey.of("DtCommand"))));
+		Assertions.assertEquals(List.of("ACmdAtt", "ACmdCva"), getNames(associationGraph.getSimpleAssociationsByNodeB(SketchKey.of("DtCommand"))));
+		Assertions.assertEquals(List.of("AnnFamCarLocation"), getNames(associationGraph.getNNAssociationsByNodeA(SketchKey.of("DtFamille"))));
+		Assertions.assertEquals(List.of("AnnFamCarLocation"), getNames(associationGraph.getNNAssociationsByNodeB(SketchKey.of("DtCar"))));
+		Assertions.assertTrue(associationGraph.getNNAssociationsByNodeA(SketchKey.of("DtCar")).isEmpty());
+	}
+
+	@Test
+	public void testSameOrderAsAScan() {
+		final Notebook notebook = readNotebook();
+		final AssociationGraph associationGraph = AssociationGraph.of(notebook);
+		for (final DtSketch dtSketch : notebook.getAll(DtSketch.class)) {
+			//the associations of a DtSketch as they were found by scanning the notebook
+			final List<AssociationSketch> scannedAssociations = Stream
+					.concat(notebook.getAll(AssociationSimpleSketch.class).stream(), notebook.getAll(AssociationNNSketch.class).stream())
+					.filter(association -> association.getAssociationNodeA().getDtSketch().getKey().equals(dtSketch.getKey())
+							|| association.getAssociationNodeB().getDtSketch().getKey().equals(dtSketch.getKey()))
+					.map(AssociationSketch.class::cast)
+					.toList();
+			Assertions.assertEquals(scannedAssociations, associationGraph.getAssociations(dtSketch.getKey()), dtSketch.getKey().name());
+		}
+	}
+
+	private static List<String> getNames(final List<? extends Sketch> sketches) {
+		return sketches
+				.stream()
+				.map(sketch -> sketch.getKey().name())
+				.toList();
+	}
+}
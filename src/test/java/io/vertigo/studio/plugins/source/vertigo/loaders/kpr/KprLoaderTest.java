@@ -0,0 +1,109 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.kpr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertigo.core.node.AutoCloseableNode;
+import io.vertigo.core.node.component.di.DIInjector;
+import io.vertigo.core.node.config.BootConfig;
+import io.vertigo.core.node.config.NodeConfig;
+import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
+import io.vertigo.core.resource.ResourceManager;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
+import io.vertigo.studio.impl.source.dsl.raw.DslSketchFactory;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.plugins.source.vertigo.factories.DynamoSketchFactory;
+
+/**
+ * Test of the parallel parsing of the ksp files of a kpr : the shared rules of the grammar are used by several threads.
+ *
+ * @author mlaroche
+ */
+public final class KprLoaderTest {
+	private static final List<String> KPR_PATHS = List.of(
+			"io/vertigo/studio/source/vertigo/data/model.kpr",
+			"io/vertigo/studio/source/vertigo/data/tasks.kpr");
+
+	private AutoCloseableNode node;
+
+	@Inject
+	private ResourceManager resourceManager;
+
+	@BeforeEach
+	public void setUp() {
+		node = new AutoCloseableNode(NodeConfig.builder()
+				.withBoot(BootConfig.builder()
+						.addPlugin(ClassPathResourceResolverPlugin.class)
+						.build())
+				.build());
+		DIInjector.injectMembers(this, node.getComponentSpace());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (node != null) {
+			node.close();
+		}
+	}
+
+	@Test
+	public void testParallelParsing() {
+		final List<String> sequentialSketches = read(1);
+		Assertions.assertFalse(sequentialSketches.isEmpty());
+		//the same raws are registered in the same order : the sketches are the same, in the same order
+		for (int i = 0; i < 20; i++) {
+			Assertions.assertEquals(sequentialSketches, read(8));
+		}
+	}
+
+	/**
+	 * @param parallelism the number of ksp files parsed at the same time
+	 * @return the name and the fingerprint of each sketch, in the order of their creation
+	 */
+	private List<String> read(final int parallelism) {
+		final KprLoader kprLoader = new KprLoader(resourceManager, Optional.empty(), Optional.of(parallelism), Optional.empty());
+		final DslSketchFactory sketchFactory = new DynamoSketchFactory();
+		final DslRawRepository rawRepository = new DslRawRepository(sketchFactory);
+		sketchFactory.getGrammar()
+				.getRootRaws()
+				.forEach(rawRepository::addRaw);
+		KPR_PATHS.forEach(kprPath -> kprLoader.load(kprPath, rawRepository));
+		final Notebook notebook = new Notebook();
+		final List<Sketch> sketches = new ArrayList<>();
+		rawRepository.solve(notebook)
+				.forEach(sketch -> {
+					notebook.register(sketch);
+					sketches.add(sketch);
+				});
+		return sketches
+				.stream()
+				.map(sketch -> sketch.getKey().name() + ':' + notebook.getFingerprint(sketch.getKey()).fingerprint())
+				.toList();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.plugins.source.vertigo.loaders.kpr;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertigo.core.lang.WrappedException;
+import io.vertigo.studio.plugins.source.vertigo.factories.domain.DomainGrammar;
+
+/**
+ * Test of the reading of a ksp file, whatever its line endings.
+ *
+ * @author mlaroche
+ */
+public final class KspLoaderTest {
+	private static final List<String> KSP_LINES = List.of(
+			"package io.vertigo.studio.domain",
+			"",
+			"create Domain DoCode {",
+			"	dataType : String",
+			"	indexType : \"code\"",
+			"}");
+	private static final List<String> KSP_ERROR_LINES = List.of(
+			"package io.vertigo.studio.domain",
+			"",
+			"create Domain DoCode {",
+			"	dataType : String",
+			"	maxLengh : \"true\"",
+			"}");
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testNormalizeLineEndings() {
+		Assertions.assertEquals("", KspLoader.normalizeLineEndings(""));
+		Assertions.assertEquals("a\r\nb\r\n", KspLoader.normalizeLineEndings("a\nb"));
+		Assertions.assertEquals("a\r\nb\r\n", KspLoader.normalizeLineEndings("a\nb\n"));
+		Assertions.assertEquals("a\r\nb\r\n", KspLoader.normalizeLineEndings("a\r\nb\r\n"));
+		Assertions.assertEquals("a\r\n\r\nb\r\n", KspLoader.normalizeLineEndings("a\r\rb"));
+	}
+
+	@Test
+	public void testSameRawsWhateverTheLineEndings() throws IOException {
+		final KspParsing lfParsing = parse(writeKsp("lf.ksp", KSP_LINES, "\n"));
+		final KspParsing crlfParsing = parse(writeKsp("crlf.ksp", KSP_LINES, "\r\n"));
+
+		Assertions.assertEquals(1, lfParsing.getDeclarations().size());
+		Assertions.assertEquals(toString(lfParsing), toString(crlfParsing));
+	}
+
+	@Test
+	public void testErrorPositionWhateverTheLineEndings() throws IOException {
+		final String lfMessage = Assertions.assertThrows(WrappedException.class, () -> parse(writeKsp("lf.ksp", KSP_ERROR_LINES, "\n"))).getMessage();
+		final String crlfMessage = Assertions.assertThrows(WrappedException.class, () -> parse(writeKsp("crlf.ksp", KSP_ERROR_LINES, "\r\n"))).getMessage();
+
+		//the error is on the line of maxLengh, in the file as in the parsed text
+		Assertions.assertTrue(lfMessage.contains("(ligne 5, colonne "), lfMessage);
+		Assertions.assertEquals(getPosition(lfMessage), getPosition(crlfMessage));
+	}
+
+	private Path writeKsp(final String fileName, final List<String> lines, final String lineSeparator) throws IOException {
+		return Files.writeString(tempDir.resolve(fileName), String.join(lineSeparator, lines) + lineSeparator, StandardCharsets.UTF_8);
+	}
+
+	private static KspParsing parse(final Path kspFile) throws IOException {
+		final URL kspURL = kspFile.toUri().toURL();
+		return new KspLoader(kspURL, StandardCharsets.UTF_8).parse(new DomainGrammar(), Optional.empty());
+	}
+
+	private static String toString(final KspParsing kspParsing) {
+		return kspParsing.getDeclarations()
+				.stream()
+				.map(declaration -> declaration.raw().getKey().getName() + ':' + declaration.raw().getPropertyValue("indexType"))
+				.toList()
+				.toString();
+	}
+
+	private static String getPosition(final String message) {
+		return message.substring(message.indexOf("(ligne"), message.indexOf(')'));
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.source.vertigo.dsl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.vertigo.commons.peg.PegNoMatchFoundException;
+import io.vertigo.studio.impl.source.dsl.raw.DslRaw;
+import io.vertigo.studio.impl.source.dsl.raw.DslRawSink;
+import io.vertigo.studio.plugins.source.vertigo.factories.domain.DomainGrammar;
+import io.vertigo.studio.plugins.source.vertigo.loaders.kpr.rules.DslKspRule;
+
+/**
+ * Test of the rule of a ksp file, shared by all the parsings.
+ *
+ * @author mlaroche
+ */
+public final class DslKspRuleTest {
+	private static final String KSP = """
+			package io.vertigo.studio.domain
+
+			create Domain DoCode {
+				dataType : String
+			}
+
+			create Domain DoLabel {
+				dataType : String
+			}
+
+			create DtDefinition DtTest {
+				id id {domain: DoCode}
+				field label {domain: DoLabel, cardinality:"1"}
+			}
+
+			alter DtDefinition DtTest {
+				sortField : "label"
+			}
+			""";
+
+	/**
+	 * Records the declarations of a parsing.
+	 */
+	private static final class RecordingRawSink implements DslRawSink {
+		private final List<String> declarations = new ArrayList<>();
+
+		@Override
+		public void addRaw(final DslRaw raw) {
+			declarations.add("create " + toString(raw));
+		}
+
+		@Override
+		public void addPartialSketch(final DslRaw partial) {
+			declarations.add("alter " + toString(partial));
+		}
+
+		private static String toString(final DslRaw raw) {
+			return raw.getEntity().getName() + ' ' + raw.getKey().getName() + ' ' + raw.getPackageName() + ' ' + raw.getPropertyNames();
+		}
+	}
+
+	@Test
+	public void testSharedRule() {
+		//grammars built for each parsing share the same rule
+		Assertions.assertSame(DslKspRule.of(new DomainGrammar()), DslKspRule.of(new DomainGrammar()));
+	}
+
+	@Test
+	public void testConcurrentParsings() throws Exception {
+		final List<String> declarations = parse();
+		Assertions.assertEquals(4, declarations.size());
+		Assertions.assertTrue(declarations.get(3).startsWith("alter DtDefinition DtTest"), declarations.get(3));
+
+		final ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<List<String>>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				futures.add(executorService.submit(DslKspRuleTest::parse));
+			}
+			for (final Future<List<String>> future : futures) {
+				Assertions.assertEquals(declarations, future.get());
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private static List<String> parse() throws PegNoMatchFoundException {
+		final RecordingRawSink rawSink = new RecordingRawSink();
+		DslKspRule.of(new DomainGrammar()).parse(KSP, rawSink);
+		return rawSink.declarations;
+	}
+}
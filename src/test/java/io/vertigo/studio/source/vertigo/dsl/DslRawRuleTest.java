@@ -94,4 +94,16 @@ public class DslRawRuleTest {
 			Assertions.assertEquals(68, e.getIndex());
 		}
 	}
+
+	@Test
+	public void testUnknownEntity() {
+		try {
+			new DslRawRule("create", rawRepository.getGrammar())
+					.parse("create DtDefinitionX DtTest { }");
+			Assertions.fail();
+		} catch (final PegNoMatchFoundException e) {
+			Assertions.assertTrue(e.getFullMessage().contains("unknown entity DtDefinitionX"));
+			Assertions.assertEquals("create ".length(), e.getIndex());
+		}
+	}
 }
@@ -0,0 +1,136 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.source.vertigo.ksp;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertigo.core.node.AutoCloseableNode;
+import io.vertigo.core.node.component.di.DIInjector;
+import io.vertigo.core.node.config.BootConfig;
+import io.vertigo.core.node.config.NodeConfig;
+import io.vertigo.core.param.Param;
+import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
+import io.vertigo.studio.StudioFeatures;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.source.Source;
+import io.vertigo.studio.source.SourceManager;
+
+/**
+ * Test of the cache of the parsings of the ksp files.
+ *
+ * @author mlaroche
+ */
+public final class KspParseCacheTest {
+	private static final String KPR = "io/vertigo/studio/source/vertigo/ksp/data/execution.kpr";
+
+	@TempDir
+	Path kspCacheDir;
+
+	private AutoCloseableNode node;
+
+	@Inject
+	private SourceManager sourceManager;
+
+	@BeforeEach
+	public void setUp() {
+		node = new AutoCloseableNode(buildNodeConfig());
+		DIInjector.injectMembers(this, node.getComponentSpace());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (node != null) {
+			node.close();
+		}
+	}
+
+	private NodeConfig buildNodeConfig() {
+		return NodeConfig.builder()
+				.withBoot(BootConfig.builder()
+						.addPlugin(ClassPathResourceResolverPlugin.class)
+						.build())
+				.addModule(new StudioFeatures()
+						.withSource()
+						.withVertigoSource(Param.of("kspCacheDir", kspCacheDir.toString()))
+						.build())
+				.build();
+	}
+
+	@Test
+	public void testCachedParsing() throws IOException {
+		final Map<String, String> fingerprints = readFingerprints();
+		Assertions.assertFalse(getEntries().isEmpty());
+		//the second read uses the cache
+		Assertions.assertEquals(fingerprints, readFingerprints());
+	}
+
+	@Test
+	public void testCorruptEntries() throws IOException {
+		final Map<String, String> fingerprints = readFingerprints();
+		for (final Path entry : getEntries()) {
+			Files.writeString(entry, "corrupt", StandardCharsets.UTF_8);
+		}
+		//corrupt entries are parsed again and replaced
+		Assertions.assertEquals(fingerprints, readFingerprints());
+		for (final Path entry : getEntries()) {
+			Assertions.assertNotEquals("corrupt", Files.readString(entry, StandardCharsets.ISO_8859_1));
+		}
+	}
+
+	@Test
+	public void testStaleEntries() throws IOException {
+		final Path staleEntry = Files.writeString(kspCacheDir.resolve("0000000000000000-stale.kspc"), "stale", StandardCharsets.UTF_8);
+		readFingerprints();
+		Assertions.assertFalse(Files.exists(staleEntry));
+	}
+
+	private Map<String, String> readFingerprints() {
+		final Notebook notebook = sourceManager.read(List.of(Source.of("kpr", KPR)));
+		final Map<String, String> fingerprints = new TreeMap<>();
+		for (final Class<? extends Sketch> sketchType : notebook.getAllTypes()) {
+			for (final Sketch sketch : notebook.getAll(sketchType)) {
+				fingerprints.put(sketch.getKey().name(), notebook.getFingerprint(sketch.getKey()).fingerprint());
+			}
+		}
+		return fingerprints;
+	}
+
+	private List<Path> getEntries() throws IOException {
+		try (Stream<Path> entries = Files.list(kspCacheDir)) {
+			return entries
+					.filter(entry -> entry.getFileName().toString().endsWith(".kspc"))
+					.toList();
+		}
+	}
+}
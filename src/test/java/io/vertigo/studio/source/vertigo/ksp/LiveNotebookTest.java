@@ -0,0 +1,224 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.source.vertigo.ksp;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertigo.core.node.AutoCloseableNode;
+import io.vertigo.core.node.component.di.DIInjector;
+import io.vertigo.core.node.config.BootConfig;
+import io.vertigo.core.node.config.NodeConfig;
+import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
+import io.vertigo.core.plugins.resource.local.LocalResourceResolverPlugin;
+import io.vertigo.studio.StudioFeatures;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.notebook.domain.DomainSketch;
+import io.vertigo.studio.notebook.domain.DtSketch;
+import io.vertigo.studio.notebook.domain.association.AssociationSimpleSketch;
+import io.vertigo.studio.source.LiveNotebook;
+import io.vertigo.studio.source.Source;
+import io.vertigo.studio.source.SourceManager;
+
+/**
+ * Test of the live notebook : the changes of the ksp files are applied to the notebook.
+ *
+ * @author mlaroche
+ */
+public final class LiveNotebookTest {
+	private static final List<Source> SOURCES = List.of(
+			Source.of("kpr", "io/vertigo/studio/source/vertigo/data/model.kpr"),
+			Source.of("kpr", "io/vertigo/studio/source/vertigo/data/tasks.kpr"));
+
+	private AutoCloseableNode node;
+
+	@Inject
+	private SourceManager sourceManager;
+
+	@TempDir
+	Path modelDir;
+
+	@BeforeEach
+	public void setUp() {
+		node = new AutoCloseableNode(buildNodeConfig());
+		DIInjector.injectMembers(this, node.getComponentSpace());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (node != null) {
+			node.close();
+		}
+	}
+
+	private static NodeConfig buildNodeConfig() {
+		return NodeConfig.builder()
+				.withBoot(BootConfig.builder()
+						.addPlugin(ClassPathResourceResolverPlugin.class)
+						.addPlugin(LocalResourceResolverPlugin.class)
+						.build())
+				.addModule(new StudioFeatures()
+						.withSource()
+						.withVertigoSource()
+						.build())
+				.build();
+	}
+
+	@Test
+	public void testReadLive() {
+		final LiveNotebook liveNotebook = sourceManager.readLive(SOURCES);
+		Assertions.assertEquals(getFingerprints(sourceManager.read(SOURCES)), getFingerprints(liveNotebook.getNotebook()));
+		Assertions.assertTrue(liveNotebook.getFiles().stream().anyMatch(file -> file.endsWith("model_car.ksp")));
+	}
+
+	@Test
+	public void testNoChange() {
+		final LiveNotebook liveNotebook = sourceManager.readLive(SOURCES);
+		final DtSketch dtCar = liveNotebook.getNotebook().resolve("DtCar", DtSketch.class);
+
+		Assertions.assertTrue(liveNotebook.update(Set.of()).isEmpty());
+		Assertions.assertSame(dtCar, liveNotebook.getNotebook().resolve("DtCar", DtSketch.class));
+	}
+
+	@Test
+	public void testUpdateFile() {
+		final LiveNotebook liveNotebook = sourceManager.readLive(SOURCES);
+		final DtSketch dtCar = liveNotebook.getNotebook().resolve("DtCar", DtSketch.class);
+		final DomainSketch doString = liveNotebook.getNotebook().resolve("DoString", DomainSketch.class);
+		final Path carKsp = liveNotebook.getFiles()
+				.stream()
+				.filter(file -> file.endsWith("model_car.ksp"))
+				.findFirst()
+				.orElseThrow();
+
+		final Set<SketchKey> changedSketchKeys = liveNotebook.update(Set.of(carKsp));
+		Assertions.assertTrue(changedSketchKeys.contains(SketchKey.of("DtCar")));
+		Assertions.assertFalse(changedSketchKeys.contains(SketchKey.of("DoString")));
+		//the sketches read from the changed file are replaced, the others are kept
+		Assertions.assertNotSame(dtCar, liveNotebook.getNotebook().resolve("DtCar", DtSketch.class));
+		Assertions.assertSame(doString, liveNotebook.getNotebook().resolve("DoString", DomainSketch.class));
+		Assertions.assertEquals(getFingerprints(sourceManager.read(SOURCES)), getFingerprints(liveNotebook.getNotebook()));
+	}
+
+	@Test
+	public void testEditFile() throws IOException, URISyntaxException {
+		final List<Source> sources = copyModel();
+		final LiveNotebook liveNotebook = sourceManager.readLive(sources);
+		final DomainSketch doString = liveNotebook.getNotebook().resolve("DoString", DomainSketch.class);
+		final Path carKsp = modelDir.resolve("ksp/model_car.ksp");
+
+		Files.writeString(carKsp, Files.readString(carKsp).replace(
+				"field manufacturer  { domain: DoKeyword, 	label:\"Constructeur\",  				cardinality: \"1\"}",
+				"field manufacturer  { domain: DoKeyword, 	label:\"Marque\",  				cardinality: \"1\"}\n"
+						+ "		field color  { domain: DoKeyword, 	label:\"Couleur\" }"));
+		final Set<SketchKey> changedSketchKeys = liveNotebook.update(Set.of(carKsp));
+		Assertions.assertTrue(changedSketchKeys.contains(SketchKey.of("DtCar")));
+		Assertions.assertFalse(changedSketchKeys.contains(SketchKey.of("DoString")));
+		final DtSketch dtCar = liveNotebook.getNotebook().resolve("DtCar", DtSketch.class);
+		Assertions.assertTrue(dtCar.contains("color"));
+		Assertions.assertEquals("Marque", dtCar.getField("manufacturer").getLabel().getDisplay());
+		Assertions.assertSame(doString, liveNotebook.getNotebook().resolve("DoString", DomainSketch.class));
+		//the notebook updated is the notebook read from the modified files
+		Assertions.assertEquals(getFingerprints(sourceManager.read(sources)), getFingerprints(liveNotebook.getNotebook()));
+	}
+
+	@Test
+	public void testUpdateAllFiles() {
+		final LiveNotebook liveNotebook = sourceManager.readLive(SOURCES);
+
+		final Set<SketchKey> changedSketchKeys = liveNotebook.update(liveNotebook.getFiles());
+		Assertions.assertEquals(liveNotebook.getNotebook().getAll(Sketch.class).size(), changedSketchKeys.size());
+		Assertions.assertEquals(getFingerprints(sourceManager.read(SOURCES)), getFingerprints(liveNotebook.getNotebook()));
+	}
+
+	@Test
+	public void testAddAssociationInAnotherFile() throws IOException, URISyntaxException {
+		final Path associationKsp = modelDir.resolve("ksp/model_association.ksp");
+		final List<Source> sources = copyModel("ksp/model_association.ksp");
+		Files.writeString(associationKsp, "package io.vertigo.studio.domain.car\n");
+		final LiveNotebook liveNotebook = sourceManager.readLive(sources);
+
+		//the foreign key of the new association is added to a DtSketch read from another file
+		Files.writeString(associationKsp, """
+				package io.vertigo.studio.domain.car
+
+				create Association AMtyCarPrevious {
+					fkFieldName : "previousMtyCd"
+					dtDefinitionA : DtCar,
+					dtDefinitionB : DtMotorType
+					navigabilityA : "false"
+					navigabilityB : "true"
+					multiplicityA:"0..*"
+					multiplicityB:"0..1"
+					labelA : "Car"
+					labelB : "Previous motor type"
+					roleA : "Car"
+					roleB : "PreviousMotorType"
+				}
+				""");
+		final Set<SketchKey> changedSketchKeys = liveNotebook.update(Set.of(associationKsp));
+		Assertions.assertTrue(changedSketchKeys.contains(SketchKey.of("AMtyCarPrevious")));
+		Assertions.assertTrue(changedSketchKeys.contains(SketchKey.of("DtCar")));
+		liveNotebook.getNotebook().resolve("AMtyCarPrevious", AssociationSimpleSketch.class);
+		Assertions.assertTrue(liveNotebook.getNotebook().resolve("DtCar", DtSketch.class).contains("previousMtyCd"));
+		Assertions.assertEquals(getFingerprints(sourceManager.read(sources)), getFingerprints(liveNotebook.getNotebook()));
+	}
+
+	/**
+	 * Copies the ksp files of model.kpr in the model directory, so that they can be modified.
+	 * @param otherKspFiles the other ksp files listed by the kpr
+	 * @return the sources
+	 */
+	private List<Source> copyModel(final String... otherKspFiles) throws IOException, URISyntaxException {
+		final Path dataDir = Path.of(LiveNotebookTest.class.getResource("/io/vertigo/studio/source/vertigo/data/model.kpr").toURI()).getParent();
+		final List<String> kspFiles = Files.readAllLines(dataDir.resolve("model.kpr"))
+				.stream()
+				.map(String::trim)
+				.filter(line -> !line.isEmpty())
+				.collect(Collectors.toList());
+		Files.createDirectories(modelDir.resolve("ksp"));
+		for (final String kspFile : kspFiles) {
+			Files.copy(dataDir.resolve(kspFile), modelDir.resolve(kspFile));
+		}
+		kspFiles.addAll(List.of(otherKspFiles));
+		final Path kpr = Files.write(modelDir.resolve("model.kpr"), kspFiles);
+		return List.of(Source.of("kpr", kpr.toAbsolutePath().toString()));
+	}
+
+	private static Map<String, String> getFingerprints(final Notebook notebook) {
+		return notebook.getAll(Sketch.class)
+				.stream()
+				.collect(Collectors.toMap(sketch -> sketch.getKey().name(), sketch -> notebook.getFingerprint(sketch.getKey()).fingerprint()));
+	}
+}
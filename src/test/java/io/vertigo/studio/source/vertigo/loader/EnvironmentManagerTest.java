@@ -28,9 +28,12 @@ import static io.vertigo.studio.source.vertigo.loader.PersonGrammar.POSTAL_CODE;
 import static io.vertigo.studio.source.vertigo.loader.PersonGrammar.STREET;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import io.vertigo.core.lang.VSystemException;
 import io.vertigo.studio.impl.source.dsl.raw.DslRaw;
 import io.vertigo.studio.impl.source.dsl.raw.DslRawRepository;
 import io.vertigo.studio.notebook.Notebook;
@@ -74,6 +77,69 @@ public final class EnvironmentManagerTest {
 		assertNotNull(personDefinition);
 	}
 
+	@Test
+	public void solveOrderTest() {
+		final Notebook notebook = new Notebook();
+		rawRepository.addRaw(createPerson("MockMisterBean", "MockMainAddress"));
+		rawRepository.addRaw(createAddress("MockSecondAddress"));
+		rawRepository.addRaw(createAddress("MockMainAddress"));
+
+		//a raw comes once its links are solved, otherwise the order of the repository is kept
+		final List<String> sketchNames = rawRepository.solve(notebook)
+				.map(sketch -> sketch.getKey().name())
+				.toList();
+		Assertions.assertEquals(List.of("MockSecondAddress", "MockMainAddress", "MockMisterBean"), sketchNames);
+	}
+
+	@Test
+	public void cycleTest() {
+		final Notebook notebook = new Notebook();
+		rawRepository.addRaw(createAddress("MockMainAddress"));
+		rawRepository.addRaw(createPerson("MockMisterBean", "MockMisterBean"));
+
+		final VSystemException exception = Assertions.assertThrows(VSystemException.class, () -> rawRepository.solve(notebook));
+		Assertions.assertTrue(exception.getMessage().contains("MockMisterBean -> MockMisterBean"), exception.getMessage());
+	}
+
+	@Test
+	public void mandatoryPropertiesTest() {
+		final Notebook notebook = new Notebook();
+		rawRepository.addRaw(DslRaw.builder("MockMainAddress", PersonGrammar.ADDRESS_ENTITY)
+				.withPackageName("io.vertigo.test.model")
+				.addPropertyValue(CITY, "Paris")
+				.build());
+		rawRepository.addRaw(DslRaw.builder("MockMisterBean", PersonGrammar.PERSON_ENTITY)
+				.withPackageName("io.vertigo.test.model")
+				.addPropertyValue(NAME, "Bean")
+				.addPropertyValue(MALE, null)
+				.addRawLink(MAIN_ADDRESS, "MockMainAddress")
+				.build());
+
+		//all the invalid raws are reported together
+		final IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> rawRepository.solve(notebook));
+		Assertions.assertTrue(exception.getMessage().contains("MockMainAddress Il existe des propriétés obligatoires non renseignées [" + STREET + "]"), exception.getMessage());
+		Assertions.assertTrue(exception.getMessage().contains("MockMisterBean Il existe des propriétés obligatoires non renseignées"), exception.getMessage());
+		Assertions.assertTrue(exception.getMessage().contains(FIRST_NAME), exception.getMessage());
+		Assertions.assertTrue(exception.getMessage().contains(MALE), exception.getMessage());
+	}
+
+	private static DslRaw createAddress(final String name) {
+		return DslRaw.builder(name, PersonGrammar.ADDRESS_ENTITY)
+				.withPackageName("io.vertigo.test.model")
+				.addPropertyValue(STREET, "1, rue du louvre")
+				.build();
+	}
+
+	private static DslRaw createPerson(final String name, final String mainAddress) {
+		return DslRaw.builder(name, PersonGrammar.PERSON_ENTITY)
+				.withPackageName("io.vertigo.test.model")
+				.addPropertyValue(NAME, "Bean")
+				.addPropertyValue(FIRST_NAME, "Mister")
+				.addPropertyValue(MALE, Boolean.TRUE)
+				.addRawLink(MAIN_ADDRESS, mainAddress)
+				.build();
+	}
+
 	@Test
 	public void badTypeTest() {
 		Assertions.assertThrows(ClassCastException.class,
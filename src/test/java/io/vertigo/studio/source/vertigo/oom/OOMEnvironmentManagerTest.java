@@ -55,10 +55,13 @@ public final class OOMEnvironmentManagerTest {
 		node = new AutoCloseableNode(buildNodeConfig());
 		DIInjector.injectMembers(this, node.getComponentSpace());
 		//--
-		final List<Source> resources = List.of(
+		notebook = sourceManager.read(getResources());
+	}
+
+	private static List<Source> getResources() {
+		return List.of(
 				Source.of("kpr", "io/vertigo/studio/source/vertigo/oom/data/domain.kpr"),
 				Source.of("oom", "io/vertigo/studio/source/vertigo/oom/data/demo.oom"));
-		notebook = sourceManager.read(resources);
 	}
 
 	@AfterEach
@@ -93,4 +96,24 @@ public final class OOMEnvironmentManagerTest {
 		Assertions.assertTrue(dtDefinition.isPersistent());
 		Assertions.assertEquals("io.vertigo.dynamock.domain.famille", dtDefinition.getPackageName());
 	}
+
+	@Test
+	public void testReload() {
+		//nothing is kept by the loader from a load to another (watch mode) : another OOM read by the same loader only has its own classes
+		final List<String> otherDtNames = getDtNames(sourceManager.read(List.of(
+				Source.of("kpr", "io/vertigo/studio/source/vertigo/oom/data/domain.kpr"),
+				Source.of("oom", "io/vertigo/studio/source/vertigo/oom/data/Stereotypes.oom"))));
+		Assertions.assertTrue(otherDtNames.contains("DtCommand"));
+		Assertions.assertFalse(otherDtNames.contains("DtFamille"));
+		//and the first OOM read again has none of the classes of the other
+		Assertions.assertEquals(getDtNames(notebook), getDtNames(sourceManager.read(getResources())));
+	}
+
+	private static List<String> getDtNames(final Notebook loadedNotebook) {
+		return loadedNotebook.getAll(DtSketch.class)
+				.stream()
+				.map(dtSketch -> dtSketch.getKey().name())
+				.sorted()
+				.toList();
+	}
 }
@@ -0,0 +1,79 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.source.vertigo.oom;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.vertigo.core.node.AutoCloseableNode;
+import io.vertigo.core.node.config.BootConfig;
+import io.vertigo.core.node.config.NodeConfig;
+import io.vertigo.core.param.Param;
+import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
+import io.vertigo.studio.StudioFeatures;
+import io.vertigo.studio.notebook.Notebook;
+import io.vertigo.studio.notebook.Sketch;
+import io.vertigo.studio.notebook.domain.DtSketch;
+import io.vertigo.studio.source.Source;
+import io.vertigo.studio.source.SourceManager;
+
+/**
+ * Test de la lecture en flux d'un OOM : same sketches as the default loader.
+ *
+ * @author mlaroche
+ */
+public final class OOMStreamingTest {
+	private static final List<Source> RESOURCES = List.of(
+			Source.of("kpr", "io/vertigo/studio/source/vertigo/oom/data/domain.kpr"),
+			Source.of("oom", "io/vertigo/studio/source/vertigo/oom/data/demo.oom"));
+
+	private static NodeConfig buildNodeConfig(final boolean oomStreaming) {
+		return NodeConfig.builder()
+				.withBoot(BootConfig.builder()
+						.addPlugin(ClassPathResourceResolverPlugin.class)
+						.build())
+				.addModule(new StudioFeatures()
+						.withSource()
+						.withVertigoSource(Param.of("oomStreaming", String.valueOf(oomStreaming)))
+						.build())
+				.build();
+	}
+
+	private static Map<String, String> readFingerprints(final boolean oomStreaming) {
+		try (final AutoCloseableNode node = new AutoCloseableNode(buildNodeConfig(oomStreaming))) {
+			final Notebook notebook = node.getComponentSpace().resolve(SourceManager.class).read(RESOURCES);
+			Assertions.assertFalse(notebook.getAll(DtSketch.class).isEmpty());
+			final Map<String, String> fingerprints = new TreeMap<>();
+			for (final Class<? extends Sketch> sketchType : notebook.getAllTypes()) {
+				for (final Sketch sketch : notebook.getAll(sketchType)) {
+					fingerprints.put(sketch.getKey().name(), notebook.getFingerprint(sketch.getKey()).fingerprint());
+				}
+			}
+			return fingerprints;
+		}
+	}
+
+	@Test
+	public void testSameSketches() {
+		Assertions.assertEquals(readFingerprints(false), readFingerprints(true));
+	}
+}
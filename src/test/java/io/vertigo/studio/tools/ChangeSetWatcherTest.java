@@ -0,0 +1,201 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertigo.studio.generator.GeneratorResult;
+import io.vertigo.studio.notebook.SketchKey;
+import io.vertigo.studio.tools.ChangeSetWatcher.Cancellation;
+
+/**
+ * Test of the watch of the sources : quiet period, relevant events, watched directories and cancellation of the builds.
+ *
+ * @author mlaroche
+ */
+public final class ChangeSetWatcherTest {
+	private static final long TIMEOUT_SECONDS = 10;
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testQuietPeriod() {
+		final ChangeSetWatcher changeSetWatcher = new ChangeSetWatcher(Set::of, Optional.empty());
+		long now = 1_000_000;
+		changeSetWatcher.onEvent(now);
+		Assertions.assertEquals(100, changeSetWatcher.getQuietPeriodMillis());
+		//a fast burst keeps the minimal quiet period
+		for (int i = 0; i < 10; i++) {
+			now += 10;
+			changeSetWatcher.onEvent(now);
+		}
+		Assertions.assertEquals(100, changeSetWatcher.getQuietPeriodMillis());
+		//slower events lengthen the quiet period, up to its maximum
+		now += 600;
+		changeSetWatcher.onEvent(now);
+		final long quietPeriodMillis = changeSetWatcher.getQuietPeriodMillis();
+		Assertions.assertTrue(quietPeriodMillis > 100 && quietPeriodMillis < 600, "quiet period " + quietPeriodMillis);
+		for (int i = 0; i < 20; i++) {
+			now += 1900;
+			changeSetWatcher.onEvent(now);
+		}
+		Assertions.assertEquals(2000, changeSetWatcher.getQuietPeriodMillis());
+		//an event after a long pause starts a new burst
+		now += 60_000;
+		changeSetWatcher.onEvent(now);
+		Assertions.assertEquals(100, changeSetWatcher.getQuietPeriodMillis());
+	}
+
+	@Test
+	public void testRelevantPaths() {
+		final Path kprFile = tempDir.resolve("model.kpr");
+		final Path kspFile = tempDir.resolve("ksp/domain.ksp");
+		final Set<Path> files = Set.of(kprFile, kspFile, tempDir.resolve("Makefile"));
+		final ChangeSetWatcher changeSetWatcher = new ChangeSetWatcher(() -> files, Optional.empty());
+		//the watched files are relevant whatever the event
+		Assertions.assertTrue(changeSetWatcher.addIfRelevant(kspFile, false, files));
+		Assertions.assertTrue(changeSetWatcher.addIfRelevant(kprFile, true, files));
+		//another file is relevant if it is created or deleted with the extension of a watched file
+		final Path otherKspFile = tempDir.resolve("ksp/other.ksp");
+		Assertions.assertFalse(changeSetWatcher.addIfRelevant(otherKspFile, false, files));
+		Assertions.assertTrue(changeSetWatcher.addIfRelevant(otherKspFile, true, files));
+		Assertions.assertFalse(changeSetWatcher.addIfRelevant(tempDir.resolve("ksp/notes.txt"), true, files));
+		//a watched file without extension does not make every file without extension relevant
+		Assertions.assertFalse(changeSetWatcher.addIfRelevant(tempDir.resolve("README"), true, files));
+	}
+
+	@Test
+	public void testCreatedDirectories() throws Exception {
+		final Path sourceDirectory = Files.createDirectories(tempDir.resolve("src"));
+		final Path kspFile = Files.writeString(sourceDirectory.resolve("domain.ksp"), "");
+		final BlockingQueue<Set<Path>> changeSets = new LinkedBlockingQueue<>();
+		final ChangeSetWatcher changeSetWatcher = new ChangeSetWatcher(() -> Set.of(kspFile), Optional.of(tempDir.resolve("target")));
+		final Thread watchThread = new Thread(() -> changeSetWatcher.watch((changedPaths, cancellation) -> changeSets.add(changedPaths)));
+		watchThread.start();
+		try {
+			//the watcher registers its directories once started : the file is changed until the change is seen
+			Assertions.assertEquals(Set.of(kspFile), awaitChangeSet(changeSets, () -> Files.writeString(kspFile, "create DtDefinition")));
+			//the files created with a directory are found
+			final Path createdDirectory = sourceDirectory.resolve("created");
+			Files.createDirectories(createdDirectory);
+			final Path createdKspFile = Files.writeString(createdDirectory.resolve("created.ksp"), "");
+			Assertions.assertEquals(Set.of(createdKspFile), changeSets.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+			//and the created directory is watched
+			final Path otherKspFile = Files.writeString(createdDirectory.resolve("other.ksp"), "");
+			Assertions.assertEquals(Set.of(otherKspFile), changeSets.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		} finally {
+			watchThread.interrupt();
+			watchThread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+		}
+		Assertions.assertFalse(watchThread.isAlive());
+	}
+
+	@FunctionalInterface
+	private interface Change {
+		void apply() throws IOException;
+	}
+
+	private static Set<Path> awaitChangeSet(final BlockingQueue<Set<Path>> changeSets, final Change change) throws IOException, InterruptedException {
+		//each try is followed by more than a quiet period
+		for (int i = 0; i < TIMEOUT_SECONDS; i++) {
+			change.apply();
+			final Set<Path> changeSet = changeSets.poll(1, TimeUnit.SECONDS);
+			if (changeSet != null) {
+				return changeSet;
+			}
+		}
+		return Assertions.fail("no change set");
+	}
+
+	@Test
+	public void testCancellation() {
+		final Cancellation cancellation = new Cancellation();
+		Assertions.assertFalse(cancellation.isCancelled());
+		cancellation.cancel();
+		Assertions.assertTrue(cancellation.isCancelled());
+		//a cancelled build doesn't start its generation
+		final AtomicBoolean generated = new AtomicBoolean();
+		VertigoStudioMda.buildRegeneration(changedPaths -> Set.of(), (changedSketchKeys, cancelled) -> {
+			generated.set(true);
+			return GeneratorResult.builder().build();
+		}).build(Set.of(Path.of("DtAlpha")), cancellation);
+		Assertions.assertFalse(generated.get());
+	}
+
+	@Test
+	public void testCancelledSketchKeysCarriedOver() throws Exception {
+		final List<Set<SketchKey>> generations = new ArrayList<>();
+		final CountDownLatch started = new CountDownLatch(1);
+		final ChangeSetWatcher.ChangeSetBuild regeneration = VertigoStudioMda.buildRegeneration(
+				changedPaths -> Set.of(SketchKey.of(changedPaths.iterator().next().getFileName().toString())),
+				(changedSketchKeys, cancelled) -> {
+					generations.add(changedSketchKeys);
+					if (generations.size() == 1) {
+						//the first generation lasts until it is cancelled, and stops by itself
+						started.countDown();
+						final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS * 2);
+						while (!cancelled.getAsBoolean() && System.currentTimeMillis() < deadline) {
+							Thread.onSpinWait();
+						}
+						throw new CancellationException();
+					}
+					if (generations.size() == 2) {
+						//the second generation fails
+						throw new IllegalStateException("failure");
+					}
+					return GeneratorResult.builder().build();
+				});
+
+		final Cancellation cancellation = new Cancellation();
+		final Thread buildThread = new Thread(() -> regeneration.build(Set.of(Path.of("DtAlpha")), cancellation));
+		buildThread.start();
+		Assertions.assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		cancellation.cancel();
+		buildThread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+		Assertions.assertFalse(buildThread.isAlive());
+		//the sketches of the cancelled generation are generated with the next change set
+		Assertions.assertThrows(IllegalStateException.class, () -> regeneration.build(Set.of(Path.of("DtBeta")), new Cancellation()));
+		//and with the next one while no generation has completed
+		regeneration.build(Set.of(Path.of("DtGamma")), new Cancellation());
+		//once generated, they are not generated again
+		regeneration.build(Set.of(Path.of("DtDelta")), new Cancellation());
+
+		Assertions.assertEquals(List.of(
+				Set.of(SketchKey.of("DtAlpha")),
+				Set.of(SketchKey.of("DtAlpha"), SketchKey.of("DtBeta")),
+				Set.of(SketchKey.of("DtAlpha"), SketchKey.of("DtBeta"), SketchKey.of("DtGamma")),
+				Set.of(SketchKey.of("DtDelta"))), generations);
+	}
+}
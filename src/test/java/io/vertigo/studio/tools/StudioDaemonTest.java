@@ -0,0 +1,268 @@
+/*
+ * vertigo - application development platform
+ *
+ * Copyright (C) 2013-2026, Vertigo.io, team@vertigo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertigo.studio.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertigo.commons.CommonsFeatures;
+import io.vertigo.core.lang.VSystemException;
+import io.vertigo.core.node.AutoCloseableNode;
+import io.vertigo.core.node.component.di.DIInjector;
+import io.vertigo.core.node.config.BootConfig;
+import io.vertigo.core.node.config.NodeConfig;
+import io.vertigo.core.plugins.resource.classpath.ClassPathResourceResolverPlugin;
+import io.vertigo.studio.StudioFeatures;
+import io.vertigo.studio.generator.GeneratorManager;
+import io.vertigo.studio.generator.GeneratorResult;
+import io.vertigo.studio.source.SourceManager;
+
+/**
+ * Test of the studio daemon : protocol, authorization of the clients, stop and serialization of the generations.
+ *
+ * @author mlaroche
+ */
+public final class StudioDaemonTest {
+	private AutoCloseableNode node;
+
+	@Inject
+	private SourceManager sourceManager;
+	@Inject
+	private GeneratorManager generatorManager;
+
+	@TempDir
+	Path tempDir;
+
+	private StudioDaemon studioDaemon;
+	private Thread daemonThread;
+	private String configUrl;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		node = new AutoCloseableNode(buildNodeConfig());
+		DIInjector.injectMembers(this, node.getComponentSpace());
+		studioDaemon = new StudioDaemon(sourceManager, generatorManager, tempDir.resolve("tokens"));
+		final Path configFile = Files.writeString(tempDir.resolve("studio.yaml"), """
+				resources:
+				  - type: kpr
+				    path: classpath:io/vertigo/studio/source/vertigo/data/model.kpr
+				mdaConfig:
+				  projectPackageName: io.vertigo.studio
+				  targetGenDir: gen/
+				  properties:
+				    vertigo.domain.java: "true"
+				""");
+		configUrl = configFile.toUri().toURL().toString();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		if (daemonThread != null && daemonThread.isAlive()) {
+			studioDaemon.getLocalAddress().ifPresent(address -> requestQuietly(address, "stop"));
+			daemonThread.join(10_000);
+		}
+		if (node != null) {
+			node.close();
+		}
+	}
+
+	private static NodeConfig buildNodeConfig() {
+		return NodeConfig.builder()
+				.withBoot(BootConfig.builder()
+						.withLocales("fr_FR")
+						.addPlugin(ClassPathResourceResolverPlugin.class)
+						.build())
+				.addModule(new CommonsFeatures().build())
+				.addModule(new StudioFeatures()
+						.withSource()
+						.withVertigoSource()
+						.withGenerator()
+						.withVertigoMda()
+						.build())
+				.build();
+	}
+
+	@Test
+	public void testGenerateAndSync() throws Exception {
+		final SocketAddress address = startDaemon(StudioDaemon.toAddress(tempDir.resolve("daemon.sock").toString()));
+
+		final GeneratorResult generateResult = request(address, "generate " + configUrl).orElseThrow();
+		Assertions.assertEquals(0, generateResult.errorFiles());
+		Assertions.assertTrue(generateResult.createdFiles() > 0);
+		//the notebook is kept warm : the files are identical
+		final GeneratorResult syncResult = request(address, "sync " + configUrl).orElseThrow();
+		Assertions.assertEquals(0, syncResult.errorFiles());
+		Assertions.assertEquals(0, syncResult.createdFiles());
+		Assertions.assertEquals(0, syncResult.updatedFiles());
+		Assertions.assertEquals(generateResult.createdFiles(), syncResult.identicalFiles());
+	}
+
+	@Test
+	public void testProtocol() throws Exception {
+		final SocketAddress address = startDaemon(StudioDaemon.toAddress(tempDir.resolve("daemon.sock").toString()));
+
+		final List<String> resultLines = readLines(address, List.of("clean " + configUrl));
+		Assertions.assertTrue(resultLines.get(resultLines.size() - 2).startsWith("RESULT "));
+		Assertions.assertEquals(9, resultLines.get(resultLines.size() - 2).split(" ").length);
+		Assertions.assertEquals("END", resultLines.get(resultLines.size() - 1));
+
+		Assertions.assertEquals(List.of("ERROR unknown command 'unknown' (expected generate, clean, sync, status or stop)", "END"), readLines(address, List.of("unknown")));
+		Assertions.assertTrue(readLines(address, List.of("status")).get(0).startsWith("STATUS up since "));
+		Assertions.assertTrue(request(address, "status").isEmpty());
+		Assertions.assertThrows(VSystemException.class, () -> request(address, "generate"));
+	}
+
+	@Test
+	public void testUnixSocketOwnerOnly() throws Exception {
+		final Path socketPath = tempDir.resolve("daemon.sock");
+		startDaemon(StudioDaemon.toAddress(socketPath.toString()));
+
+		if (Files.getFileStore(tempDir).supportsFileAttributeView(PosixFileAttributeView.class)) {
+			Assertions.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(socketPath)));
+		}
+		//the private directory where the socket was bound is deleted
+		try (var files = Files.list(tempDir)) {
+			Assertions.assertTrue(files.noneMatch(file -> file.getFileName().toString().startsWith(".studio-daemon")));
+		}
+		Assertions.assertTrue(request(StudioDaemon.toAddress(socketPath.toString()), "status").isEmpty());
+	}
+
+	@Test
+	public void testTokenRequiredOnPort() throws Exception {
+		final SocketAddress address = startDaemon(StudioDaemon.toAddress("0"));
+
+		//a client without the token is rejected before its request is read
+		final List<String> lines = readLines(address, List.of("clean " + configUrl));
+		Assertions.assertTrue(lines.get(0).startsWith("ERROR unauthorized"));
+		Assertions.assertEquals("END", lines.get(lines.size() - 1));
+		Assertions.assertTrue(readLines(address, List.of("AUTH wrongtoken", "status")).get(0).startsWith("ERROR unauthorized"));
+		//the client reading the token is served
+		Assertions.assertTrue(request(address, "status").isEmpty());
+		final Path tokenDir = tempDir.resolve("tokens");
+		try (var tokenFiles = Files.list(tokenDir)) {
+			final Path tokenFile = tokenFiles.findFirst().orElseThrow();
+			if (Files.getFileStore(tokenDir).supportsFileAttributeView(PosixFileAttributeView.class)) {
+				Assertions.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)));
+			}
+		}
+	}
+
+	@Test
+	public void testStop() throws Exception {
+		final Path socketPath = tempDir.resolve("daemon.sock");
+		final SocketAddress address = startDaemon(StudioDaemon.toAddress(socketPath.toString()));
+
+		Assertions.assertTrue(request(address, "stop").isEmpty());
+		daemonThread.join(10_000);
+		Assertions.assertFalse(daemonThread.isAlive());
+		Assertions.assertFalse(Files.exists(socketPath));
+		Assertions.assertThrows(IOException.class, () -> request(address, "status"));
+	}
+
+	@Test
+	public void testGenerationsSerializedByTargetGenDir() throws Exception {
+		final SocketAddress address = startDaemon(StudioDaemon.toAddress(tempDir.resolve("daemon.sock").toString()));
+		Assertions.assertSame(studioDaemon.getLock(tempDir.resolve("gen")), studioDaemon.getLock(tempDir.resolve("other/../gen")));
+		Assertions.assertNotSame(studioDaemon.getLock(tempDir.resolve("gen")), studioDaemon.getLock(tempDir.resolve("other")));
+
+		//each generation cleans the targetGenDir : without serialization, a clean would delete the files of the other generation
+		final ExecutorService executorService = Executors.newFixedThreadPool(3);
+		try {
+			final List<Future<Optional<GeneratorResult>>> futures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				futures.add(executorService.submit(() -> request(address, "generate " + configUrl)));
+			}
+			final List<GeneratorResult> generatorResults = new ArrayList<>();
+			for (final Future<Optional<GeneratorResult>> future : futures) {
+				generatorResults.add(future.get().orElseThrow());
+			}
+			for (final GeneratorResult generatorResult : generatorResults) {
+				Assertions.assertEquals(0, generatorResult.errorFiles());
+				Assertions.assertEquals(generatorResults.get(0).createdFiles(), generatorResult.createdFiles());
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+		//the last generation left a complete targetGenDir
+		Assertions.assertEquals(0, request(address, "sync " + configUrl).orElseThrow().createdFiles());
+	}
+
+	private SocketAddress startDaemon(final SocketAddress address) throws Exception {
+		daemonThread = new Thread(() -> studioDaemon.serve(address), "studio-daemon-test");
+		daemonThread.start();
+		for (int i = 0; i < 100; i++) {
+			final Optional<SocketAddress> localAddressOpt = studioDaemon.getLocalAddress();
+			if (localAddressOpt.isPresent()) {
+				return localAddressOpt.get();
+			}
+			Thread.sleep(50);
+		}
+		throw new IllegalStateException("the daemon is not listening");
+	}
+
+	private Optional<GeneratorResult> request(final SocketAddress address, final String request) throws IOException {
+		return StudioDaemon.request(address, request, tempDir.resolve("tokens"));
+	}
+
+	private void requestQuietly(final SocketAddress address, final String request) {
+		try {
+			request(address, request);
+		} catch (final IOException e) {
+			//already stopped
+		}
+	}
+
+	/**
+	 * Sends raw lines and reads all the lines of the answer.
+	 */
+	private static List<String> readLines(final SocketAddress address, final List<String> requestLines) throws IOException {
+		try (final SocketChannel channel = SocketChannel.open(address);
+				final BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+				final PrintWriter writer = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), true)) {
+			requestLines.forEach(writer::println);
+			final List<String> lines = new ArrayList<>();
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				lines.add(line);
+			}
+			return lines;
+		}
+	}
+}